@@ -0,0 +1,9 @@
+-- ============================================================
+-- Keyset pagination of a user's alert history (MySQL 8)
+-- ORDER BY triggered_at DESC, id DESC: InnoDB secondary indexes
+-- end with the primary key, so (user_id, triggered_at) already
+-- yields (triggered_at, id) order without a filesort.
+-- Apply by hand after time_series_indexes.sql when ddl-auto is off.
+-- ============================================================
+
+CREATE INDEX idx_alert_user_time ON alert (user_id, triggered_at);
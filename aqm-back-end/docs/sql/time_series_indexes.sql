@@ -0,0 +1,23 @@
+-- ============================================================
+-- Composite indexes for the time-series tables (MySQL 8)
+-- Hibernate ddl-auto=update creates the same indexes from the
+-- @Index declarations; run this by hand on databases where
+-- ddl-auto is off (not a Flyway migration, nothing runs it).
+-- Verified by TimeSeriesIndexPlanTest (no full scans).
+-- ============================================================
+
+-- AirQualityData: readings of one location in a time range / latest reading
+CREATE INDEX idx_aqd_location_time ON air_quality_data (location_id, timestamp_utc);
+
+-- WeatherData: same access pattern as AirQualityData
+CREATE INDEX idx_weather_location_time ON weather_data (location_id, timestamp_utc);
+
+-- Forecast: forecasts of one location ordered by time
+CREATE INDEX idx_forecast_location_time ON forecast (location_id, timestamp_utc);
+
+-- Alert: per-user dedup (user + pollutant + recent), unread list and history
+CREATE INDEX idx_alert_user_pollutant_time ON alert (user_id, pollutant, triggered_at);
+CREATE INDEX idx_alert_user_read_time ON alert (user_id, is_read, triggered_at);
+
+-- Alert: time-window scans (dedup warm-up, recent alerts, cleanup)
+CREATE INDEX idx_alert_triggered ON alert (triggered_at);
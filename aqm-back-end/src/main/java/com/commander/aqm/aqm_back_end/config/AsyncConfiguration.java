@@ -1,19 +1,192 @@
 // src/main/java/com/commander/aqm/aqm_back_end/config/AsyncConfiguration.java
 package com.commander.aqm.aqm_back_end.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
  * ⚙️ Enable Async Processing and Scheduled Tasks
  * Required for:
- * - Alert monitoring (async)
+ * - Alert monitoring (async, {@link #ALERT_EXECUTOR})
+ * - Email delivery (async, {@link #EMAIL_EXECUTOR}) - slow SMTP never blocks alert evaluation
+ * - Report export ({@link #REPORT_EXECUTOR}) - bounds concurrent heavy exports
+ * - Weather refresh ({@link #WEATHER_EXECUTOR}) - single-flight / background refresh of stale weather
  * - Auto-fetch AQI/Weather (scheduled)
+ *
+ * Each executor is sized by aqm.executors.&lt;name&gt;.* (core-size, max-size, queue-capacity,
+ * rejection-policy, virtual-threads) and exports aqm.executor.queued / active / rejected
+ * gauges tagged with its name.
  */
+@Slf4j
 @Configuration
-@EnableAsync
+// ✅ Class proxies, like the transactional ones: @Async beans that implement an interface
+// (AlertMonitoringService) are still injected by their own type
+@EnableAsync(proxyTargetClass = true)
 @EnableScheduling
-public class AsyncConfiguration {
-    // Spring will automatically handle async method execution
-}
\ No newline at end of file
+public class AsyncConfiguration implements AsyncConfigurer {
+
+    public static final String ALERT_EXECUTOR = "alertExecutor";
+    public static final String EMAIL_EXECUTOR = "emailExecutor";
+    public static final String REPORT_EXECUTOR = "reportExecutor";
+    public static final String WEATHER_EXECUTOR = "weatherExecutor";
+
+    /**
+     * What happens when the queue is full (pool mode only)
+     */
+    public enum RejectionPolicy {
+        CALLER_RUNS, ABORT, DISCARD, DISCARD_OLDEST
+    }
+
+    @Bean(name = ALERT_EXECUTOR)
+    public AsyncTaskExecutor alertExecutor(Environment env, MeterRegistry registry) {
+        // Dropping an evaluation loses alerts, so a full queue runs the check on the caller
+        return executor("alert", env, registry, 2, 4, 500, RejectionPolicy.CALLER_RUNS);
+    }
+
+    @Bean(name = EMAIL_EXECUTOR)
+    public AsyncTaskExecutor emailExecutor(Environment env, MeterRegistry registry) {
+        return executor("email", env, registry, 2, 4, 1000, RejectionPolicy.CALLER_RUNS);
+    }
+
+    @Bean(name = REPORT_EXECUTOR)
+    public AsyncTaskExecutor reportExecutor(Environment env, MeterRegistry registry) {
+        // Exports are memory heavy; beyond the queue the request fails fast (503)
+        return executor("report", env, registry, 2, 2, 20, RejectionPolicy.ABORT);
+    }
+
+    @Bean(name = WEATHER_EXECUTOR)
+    public AsyncTaskExecutor weatherExecutor(Environment env, MeterRegistry registry) {
+        // At most one task per location is queued (single-flight), so the queue stays small
+        return executor("weather", env, registry, 2, 4, 100, RejectionPolicy.CALLER_RUNS);
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (ex, method, params) ->
+                log.error("❌ Async {} failed: {}", method.getName(), ex.getMessage(), ex);
+    }
+
+    private AsyncTaskExecutor executor(String name, Environment env, MeterRegistry registry,
+                                       int coreSize, int maxSize, int queueCapacity, RejectionPolicy policy) {
+        String prefix = "aqm.executors." + name + ".";
+        int core = Math.max(1, env.getProperty(prefix + "core-size", Integer.class, coreSize));
+        int max = Math.max(core, env.getProperty(prefix + "max-size", Integer.class, maxSize));
+        int queue = Math.max(0, env.getProperty(prefix + "queue-capacity", Integer.class, queueCapacity));
+        RejectionPolicy rejection = env.getProperty(prefix + "rejection-policy", RejectionPolicy.class, policy);
+        boolean virtual = env.getProperty(prefix + "virtual-threads", Boolean.class, false);
+
+        TaskStats stats = new TaskStats();
+        Counter rejected = Counter.builder("aqm.executor.rejected")
+                .tag("name", name)
+                .description("Tasks rejected or discarded because the executor was saturated")
+                .register(registry);
+
+        if (virtual && Runtime.version().feature() >= 21) {
+            // One virtual thread per task; max-size caps concurrency, extra submitters wait
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("aqm-" + name + "-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(max);
+            executor.setTaskDecorator(stats);
+            registerGauges(name, registry, stats::queued, stats::active);
+
+            log.info("⚙️ Executor '{}': virtual threads, concurrency limit {}", name, max);
+            return executor;
+        }
+        if (virtual) {
+            log.warn("⚠️ Executor '{}': virtual threads need Java 21+, using a platform thread pool", name);
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("aqm-" + name + "-");
+        executor.setCorePoolSize(core);
+        executor.setMaxPoolSize(max);
+        executor.setQueueCapacity(queue);
+        executor.setRejectedExecutionHandler(counting(handlerFor(rejection), rejected));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        registerGauges(name, registry,
+                () -> executor.getThreadPoolExecutor().getQueue().size(),
+                executor::getActiveCount);
+
+        log.info("⚙️ Executor '{}': {}-{} threads, queue {}, {}", name, core, max, queue, rejection);
+        return executor;
+    }
+
+    private static void registerGauges(String name, MeterRegistry registry,
+                                       Supplier<Number> queued, Supplier<Number> active) {
+        Gauge.builder("aqm.executor.queued", queued)
+                .tag("name", name)
+                .description("Tasks waiting for a thread")
+                .register(registry);
+        Gauge.builder("aqm.executor.active", active)
+                .tag("name", name)
+                .description("Tasks currently running")
+                .register(registry);
+    }
+
+    private static RejectedExecutionHandler handlerFor(RejectionPolicy policy) {
+        return switch (policy) {
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+            case DISCARD -> new ThreadPoolExecutor.DiscardPolicy();
+            case DISCARD_OLDEST -> new ThreadPoolExecutor.DiscardOldestPolicy();
+        };
+    }
+
+    private static RejectedExecutionHandler counting(RejectedExecutionHandler delegate, Counter rejected) {
+        return (task, pool) -> {
+            rejected.increment();
+            delegate.rejectedExecution(task, pool);
+        };
+    }
+
+    /**
+     * Submitted / started / finished counters for executors without a visible queue
+     */
+    private static final class TaskStats implements TaskDecorator {
+
+        private final AtomicLong submitted = new AtomicLong();
+        private final AtomicLong started = new AtomicLong();
+        private final AtomicLong finished = new AtomicLong();
+
+        @Override
+        public Runnable decorate(Runnable task) {
+            submitted.incrementAndGet();
+            return () -> {
+                started.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    finished.incrementAndGet();
+                }
+            };
+        }
+
+        long queued() {
+            return submitted.get() - started.get();
+        }
+
+        long active() {
+            return started.get() - finished.get();
+        }
+    }
+}
@@ -5,6 +5,9 @@ package com.commander.aqm.aqm_back_end.config;
 
 import com.commander.aqm.aqm_back_end.model.*;
 import com.commander.aqm.aqm_back_end.repository.*;
+import com.commander.aqm.aqm_back_end.service.AirQualityRollupService;
+import com.commander.aqm.aqm_back_end.service.AirQualityStatsAccumulator;
+import com.commander.aqm.aqm_back_end.service.BulkWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -16,7 +19,9 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 /**
@@ -36,13 +41,13 @@ public class DataSeeder {
     private final LocationRepository locationRepo;
     private final SensorRepository sensorRepo;
     private final AirQualityDataRepository airRepo;
-    private final WeatherDataRepository weatherRepo;
-    private final ForecastRepository forecastRepo;
     private final AlertThresholdRepository thresholdRepo;
     private final AlertRepository alertRepo;
     private final ReportRepository reportRepo;
     private final SupportRequestRepository supportRepo;
     private final PasswordEncoder encoder;
+    private final AirQualityRollupService rollupService;
+    private final BulkWriter bulkWriter;
 
     private final Random random = new Random();
 
@@ -120,6 +125,7 @@ public class DataSeeder {
      * Seeds everything for offline demo/testing
      */
     private void runFullDemo() {
+        long start = System.currentTimeMillis();
         log.info("🎯 Running FULL_DEMO mode...");
         log.info("   → Will seed EVERYTHING (7 days of synthetic data)");
 
@@ -146,6 +152,9 @@ public class DataSeeder {
         seedAirQualityData(locationRepo.findAll(), sensors);
         log.info("✅ Generated 7 days of air quality data");
 
+        rebuildRollups(locationRepo.findAll());
+        log.info("✅ Built hourly/daily rollups");
+
         seedWeatherData(locationRepo.findAll());
         log.info("✅ Generated weather data");
 
@@ -165,7 +174,7 @@ public class DataSeeder {
         seedSupportRequests(admin);
         log.info("✅ Created support requests");
 
-        log.info("🎊 Full demo data ready!");
+        log.info("🎊 Full demo data ready in {} ms!", System.currentTimeMillis() - start);
     }
 
     /**
@@ -327,12 +336,15 @@ public class DataSeeder {
 
     private void seedAirQualityData(List<Location> cities, List<Sensor> sensors) {
         LocalDateTime now = LocalDateTime.now();
+        List<AirQualityData> rows = new ArrayList<>();
+
+        Map<Long, Sensor> sensorByLocation = new HashMap<>();
+        for (Sensor sensor : sensors) {
+            sensorByLocation.putIfAbsent(sensor.getLocation().getId(), sensor);
+        }
 
         for (Location city : cities) {
-            Sensor sensor = sensors.stream()
-                    .filter(s -> s.getLocation().getId().equals(city.getId()))
-                    .findFirst()
-                    .orElse(null);
+            Sensor sensor = sensorByLocation.get(city.getId());
 
             if (sensor == null) continue;
 
@@ -358,14 +370,25 @@ public class DataSeeder {
                     data.setSo2(0.01f + random.nextFloat() * 0.02f);
                     data.setTimestampUtc(timestamp);
 
-                    airRepo.save(data);
+                    rows.add(data);
                 }
             }
         }
+
+        // ✅ One JDBC batch pipeline instead of a round trip per row
+        bulkWriter.insertAirQuality(rows);
+    }
+
+    private void rebuildRollups(List<Location> cities) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Location city : cities) {
+            rollupService.rebuild(city.getId(), now.minusDays(8), now);
+        }
     }
 
     private void seedWeatherData(List<Location> cities) {
         LocalDateTime now = LocalDateTime.now();
+        List<WeatherData> rows = new ArrayList<>();
 
         for (Location city : cities) {
             for (int hour = 24; hour >= 0; hour--) {
@@ -385,13 +408,16 @@ public class DataSeeder {
                         .timestampUtc(timestamp)
                         .build();
 
-                weatherRepo.save(weather);
+                rows.add(weather);
             }
         }
+
+        bulkWriter.persistAll("WeatherData", rows);
     }
 
     private void seedForecasts(List<Location> cities) {
         LocalDateTime now = LocalDateTime.now();
+        List<Forecast> rows = new ArrayList<>();
 
         for (Location city : cities) {
             int baseAQI = getBaseAQIForCity(city.getName());
@@ -410,9 +436,11 @@ public class DataSeeder {
                         .modelVersion("LSTM-v2.0")
                         .build();
 
-                forecastRepo.save(forecast);
+                rows.add(forecast);
             }
         }
+
+        bulkWriter.insertForecasts(rows);
     }
 
     private void seedAlertThresholds(List<User> users) {
@@ -459,51 +487,15 @@ public class DataSeeder {
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime weekAgo = now.minusDays(7);
 
-        List<AirQualityData> weekData = airRepo.findByLocationIdAndTimestampUtcBetween(
-                city.getId(), weekAgo, now
-        );
-
-        if (!weekData.isEmpty()) {
-            double avgPm25 = weekData.stream()
-                    .filter(d -> d.getPm25() != null)
-                    .mapToDouble(AirQualityData::getPm25)
-                    .average().orElse(0);
-
-            double avgPm10 = weekData.stream()
-                    .filter(d -> d.getPm10() != null)
-                    .mapToDouble(AirQualityData::getPm10)
-                    .average().orElse(0);
-
-            double avgAqi = weekData.stream()
-                    .filter(d -> d.getAqi() != null)
-                    .mapToDouble(AirQualityData::getAqi)
-                    .average().orElse(0);
+        AirQualityStatsAccumulator stats = rollupService.summarize(city.getId(), weekAgo, now);
 
-            int goodDays = (int) weekData.stream()
-                    .filter(d -> d.getAqi() != null && d.getAqi() <= 50)
-                    .count();
-
-            int moderateDays = (int) weekData.stream()
-                    .filter(d -> d.getAqi() != null && d.getAqi() > 50 && d.getAqi() <= 100)
-                    .count();
-
-            int unhealthyDays = (int) weekData.stream()
-                    .filter(d -> d.getAqi() != null && d.getAqi() > 100)
-                    .count();
-
-            Report report = Report.builder()
-                    .user(user)
-                    .location(city)
-                    .reportType(Report.ReportType.WEEKLY)
-                    .startTimestamp(weekAgo)
-                    .endTimestamp(now)
-                    .avgPm25(avgPm25)
-                    .avgPm10(avgPm10)
-                    .avgAqi(avgAqi)
-                    .goodDays(goodDays)
-                    .moderateDays(moderateDays)
-                    .unhealthyDays(unhealthyDays)
-                    .totalDataPoints(weekData.size())
+        if (stats.getReadings() > 0) {
+            Report report = stats.applyTo(Report.builder()
+                            .user(user)
+                            .location(city)
+                            .reportType(Report.ReportType.WEEKLY)
+                            .startTimestamp(weekAgo)
+                            .endTimestamp(now))
                     .build();
 
             reportRepo.save(report);
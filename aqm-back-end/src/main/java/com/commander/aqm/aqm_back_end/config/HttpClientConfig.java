@@ -0,0 +1,38 @@
+// src/main/java/com/commander/aqm/aqm_back_end/config/HttpClientConfig.java
+package com.commander.aqm.aqm_back_end.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * 🌐 Shared HTTP client for external data providers (OpenWeatherMap)
+ * One JDK HttpClient: pooled keep-alive connections, HTTP/2 where the server
+ * supports it (HTTP/1.1 otherwise), connect + read timeouts so a hung socket
+ * can never stall a scheduler thread.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Bean
+    public HttpClient providerHttpClient(@Value("${aqm.http.connect-timeout-ms:3000}") long connectTimeoutMs) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    @Bean
+    public RestTemplate providerRestTemplate(HttpClient providerHttpClient,
+                                             @Value("${aqm.http.read-timeout-ms:10000}") long readTimeoutMs) {
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(providerHttpClient);
+        factory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        return new RestTemplate(factory);
+    }
+}
@@ -1,6 +1,7 @@
 // aqm-back-end/src/main/java/.../config/SecurityConfig.java (UPDATED)
 package com.commander.aqm.aqm_back_end.config;
 
+import com.commander.aqm.aqm_back_end.controller.AlertController;
 import com.commander.aqm.aqm_back_end.security.JwtAuthFilter;
 import com.commander.aqm.aqm_back_end.security.JwtUtils;
 import lombok.RequiredArgsConstructor;
@@ -43,7 +44,7 @@ public class SecurityConfig {
         config.setAllowedHeaders(List.of("*"));
         config.setAllowCredentials(true);
         config.setMaxAge(3600L);
-        config.setExposedHeaders(List.of("Authorization"));
+        config.setExposedHeaders(List.of("Authorization", AlertController.NEXT_CURSOR_HEADER));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", config);
@@ -68,8 +69,10 @@ public class SecurityConfig {
                                 "/swagger-ui.html"
                         ).permitAll()
 
+                        .requestMatchers("/actuator/health").permitAll()
+
                         // Admin endpoints
-                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/api/admin/**", "/actuator/**").hasRole("ADMIN")
 
                         // ✅ UPDATED: User endpoints (require authentication)
                         .requestMatchers(
@@ -1,14 +1,20 @@
 // aqm-back-end/src/main/java/.../controller/AdminController.java
 package com.commander.aqm.aqm_back_end.controller;
 
-import ch.qos.logback.classic.Logger;
+import com.commander.aqm.aqm_back_end.config.AsyncConfiguration;
 import com.commander.aqm.aqm_back_end.dto.*;
 import com.commander.aqm.aqm_back_end.model.*;
 import com.commander.aqm.aqm_back_end.repository.*;
+import com.commander.aqm.aqm_back_end.security.CurrentUser;
+import com.commander.aqm.aqm_back_end.security.UserCache;
 import com.commander.aqm.aqm_back_end.service.*;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -20,8 +26,11 @@ import org.springframework.web.bind.annotation.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/admin")
 @Tag(name = "Admin APIs", description = "Admin management endpoints")
@@ -45,6 +54,19 @@ public class AdminController {
     private final HtmlReportService htmlReportService;
     private final SupportRequestRepository supportRepo;
     private final RealTimeAQIService realTimeAQIService;
+    private final LocationIngestionPipeline locationIngestionPipeline;
+    private final SensorLocationCache sensorLocationCache;
+    private final LatestAirQualityStore latestStore;
+    private final AirQualityRollupService rollupService;
+    private final ReportService reportService;
+    private final HistoricalBackfillService backfillService;
+    private final UserCache userCache;
+    private final EmailOutboxService emailOutbox;
+    private final DataRetentionService retentionService;
+    private final AlertCleanupService alertCleanupService;
+
+    @Qualifier(AsyncConfiguration.REPORT_EXECUTOR)
+    private final AsyncTaskExecutor reportExecutor;
 
     // ==================== USER MANAGEMENT ====================
 
@@ -100,6 +122,7 @@ public class AdminController {
         }
 
         userRepo.save(user);
+        userCache.evict(user); // ✅ by id too, so a renamed user's old entry goes
         return ResponseEntity.ok(UserDto.from(user));
     }
 
@@ -109,6 +132,7 @@ public class AdminController {
             return ResponseEntity.notFound().build();
         }
         userRepo.deleteById(id);
+        userCache.evictById(id);
         return ResponseEntity.ok().build();
     }
 
@@ -137,6 +161,7 @@ public class AdminController {
                 .build();
 
         sensorRepo.save(sensor);
+        sensorLocationCache.evictSensor(sensor);
         return ResponseEntity.ok(SensorDto.from(sensor));
     }
 
@@ -144,6 +169,7 @@ public class AdminController {
     public ResponseEntity<?> updateSensor(@PathVariable Long id, @RequestBody CreateSensorRequest request) {
         Sensor sensor = sensorRepo.findById(id)
                 .orElseThrow(() -> new RuntimeException("Sensor not found"));
+        sensorLocationCache.evictSensor(sensor);
 
         if (request.getSerialNumber() != null) sensor.setSerialNumber(request.getSerialNumber());
         if (request.getSensorType() != null) sensor.setSensorType(request.getSensorType());
@@ -158,15 +184,18 @@ public class AdminController {
         }
 
         sensorRepo.save(sensor);
+        sensorLocationCache.evictSensor(sensor);
         return ResponseEntity.ok(SensorDto.from(sensor));
     }
 
     @DeleteMapping("/sensors/{id}")
     public ResponseEntity<?> deleteSensor(@PathVariable Long id) {
-        if (!sensorRepo.existsById(id)) {
+        Optional<Sensor> sensor = sensorRepo.findById(id);
+        if (sensor.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         sensorRepo.deleteById(id);
+        sensorLocationCache.evictSensor(sensor.get());
         return ResponseEntity.ok().build();
     }
 
@@ -180,47 +209,62 @@ public class AdminController {
         return ResponseEntity.ok(response);
     }
 
-    // ✅ FIXED: Get alerts with proper DTO mapping
+    // ✅ Keyset paged like /api/alerts (X-Next-Cursor header → ?cursor=), flat projection query;
+    // without cursor and limit the whole list is returned as before
     @GetMapping("/alerts")
-    public ResponseEntity<?> getAllAlerts() {
+    public ResponseEntity<?> getAllAlerts(@RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit) {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            System.out.println("🔐 /admin/alerts accessed by: " + auth.getName());
+            log.debug("🔐 /admin/alerts accessed by: {}", auth.getName());
 
-            List<Alert> alerts = alertRepo.findAll();
-            System.out.println("📊 Found " + alerts.size() + " alerts");
+            boolean unpaged = cursor == null && limit == null;
+            AlertCursor position = AlertCursor.decode(cursor);
+            int size = AlertController.pageSize(limit);
+            List<AlertRow> rows = unpaged
+                    ? AlertCursor.readAll(c -> alertRepo.findPage(c.triggeredAt(), c.id(),
+                            PageRequest.of(0, AlertService.MAX_PAGE_SIZE)), AlertService.MAX_PAGE_SIZE)
+                    : alertRepo.findPage(position.triggeredAt(), position.id(), PageRequest.of(0, size));
+            log.debug("📊 Found {} alerts", rows.size());
 
             // ✅ Map to DTO with user and location info
-            List<Map<String, Object>> alertDtos = alerts.stream()
-                    .map(alert -> {
+            List<Map<String, Object>> alertDtos = rows.stream()
+                    .map(row -> {
                         Map<String, Object> dto = new HashMap<>();
-                        dto.put("id", alert.getId());
-                        dto.put("pollutant", alert.getPollutant());
-                        dto.put("value", alert.getValue());
-                        dto.put("triggeredAt", alert.getTriggeredAt());
-                        dto.put("isRead", alert.getIsRead());
+                        dto.put("id", row.id());
+                        dto.put("pollutant", row.pollutant());
+                        dto.put("value", row.value());
+                        dto.put("triggeredAt", row.triggeredAt());
+                        dto.put("isRead", row.isRead());
+                        dto.put("coalescedCount", row.coalescedCount() != null ? row.coalescedCount() : 1);
 
                         // ✅ User info
                         Map<String, Object> userInfo = new HashMap<>();
-                        userInfo.put("id", alert.getUser().getId());
-                        userInfo.put("username", alert.getUser().getUsername());
+                        userInfo.put("id", row.userId());
+                        userInfo.put("username", row.username());
                         dto.put("user", userInfo);
 
                         // ✅ Location info
                         Map<String, Object> locationInfo = new HashMap<>();
-                        locationInfo.put("id", alert.getAqData().getLocation().getId());
-                        locationInfo.put("name", alert.getAqData().getLocation().getName());
+                        locationInfo.put("id", row.locationId());
+                        locationInfo.put("name", row.locationName());
                         dto.put("location", locationInfo);
 
                         return dto;
                     })
                     .collect(Collectors.toList());
 
-            return ResponseEntity.ok(alertDtos);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (!unpaged && rows.size() == size) {
+                response.header(AlertController.NEXT_CURSOR_HEADER, AlertCursor.after(rows.get(rows.size() - 1)).encode());
+            }
+            return response.body(alertDtos);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
 
         } catch (Exception e) {
-            System.err.println("❌ Error loading alerts: " + e.getMessage());
-            e.printStackTrace();
+            log.error("❌ Error loading alerts: {}", e.getMessage(), e);
             return ResponseEntity.status(500).body(Map.of(
                     "error", "Failed to load alerts",
                     "message", e.getMessage()
@@ -408,11 +452,11 @@ public class AdminController {
     @GetMapping("/reports")
     public ResponseEntity<List<ReportDto>> getAllReports() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        System.out.println("🔐 /admin/reports accessed by: " + auth.getName());
-        System.out.println("🔐 Authorities: " + auth.getAuthorities());
+        log.debug("🔐 /admin/reports accessed by: {}", auth.getName());
+        log.debug("🔐 Authorities: {}", auth.getAuthorities());
 
         List<Report> reports = reportRepo.findAll();
-        System.out.println("📊 Found " + reports.size() + " reports");
+        log.debug("📊 Found {} reports", reports.size());
 
         // ✅ Convert to DTO
         List<ReportDto> reportDtos = reports.stream()
@@ -424,96 +468,22 @@ public class AdminController {
 
     // ✅ Generate report - return ReportDto
     @PostMapping("/reports/generate")
-    public ResponseEntity<?> generateReport(@RequestBody GenerateReportRequest request) {
+    public ResponseEntity<?> generateReport(@CurrentUser User admin, @RequestBody GenerateReportRequest request) {
         try {
-            // Get current admin user
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            User admin = userRepo.findByUsername(auth.getName())
-                    .orElseThrow(() -> new RuntimeException("Admin not found"));
-
-            // Get location
-            Location location = locationRepo.findById(request.getLocationId())
-                    .orElseThrow(() -> new RuntimeException("Location not found"));
-
             // Parse dates
             LocalDateTime fromDate = LocalDate.parse(request.getFromDate()).atStartOfDay();
             LocalDateTime toDate = LocalDate.parse(request.getToDate()).atTime(23, 59, 59);
 
-            // Get data
-            List<AirQualityData> data = airRepo.findByLocationIdAndTimestampUtcBetween(
-                    location.getId(), fromDate, toDate
-            );
+            // Same statistics pipeline as user reports
+            ReportDto report = reportService.generate(request.getLocationId(), fromDate, toDate, admin);
 
-            if (data.isEmpty()) {
-                return ResponseEntity.badRequest().body("No data available for selected period");
-            }
-
-            // Calculate statistics
-            double avgPm25 = data.stream()
-                    .filter(d -> d.getPm25() != null)
-                    .mapToDouble(AirQualityData::getPm25)
-                    .average().orElse(0.0);
-
-            double avgPm10 = data.stream()
-                    .filter(d -> d.getPm10() != null)
-                    .mapToDouble(AirQualityData::getPm10)
-                    .average().orElse(0.0);
-
-            double avgAqi = data.stream()
-                    .filter(d -> d.getAqi() != null)
-                    .mapToDouble(AirQualityData::getAqi)
-                    .average().orElse(0.0);
-
-            OptionalInt maxAqi = data.stream()
-                    .filter(d -> d.getAqi() != null)
-                    .mapToInt(AirQualityData::getAqi)
-                    .max();
-
-            OptionalInt minAqi = data.stream()
-                    .filter(d -> d.getAqi() != null)
-                    .mapToInt(AirQualityData::getAqi)
-                    .min();
-
-            int goodDays = (int) data.stream()
-                    .filter(d -> d.getAqi() != null && d.getAqi() <= 50)
-                    .count();
-
-            int moderateDays = (int) data.stream()
-                    .filter(d -> d.getAqi() != null && d.getAqi() > 50 && d.getAqi() <= 100)
-                    .count();
-
-            int unhealthyDays = (int) data.stream()
-                    .filter(d -> d.getAqi() != null && d.getAqi() > 100)
-                    .count();
-
-            // Create report
-            Report report = Report.builder()
-                    .user(admin)
-                    .location(location)
-                    .reportType(Report.ReportType.CUSTOM)
-                    .startTimestamp(fromDate)
-                    .endTimestamp(toDate)
-                    .avgPm25(avgPm25)
-                    .avgPm10(avgPm10)
-                    .avgAqi(avgAqi)
-                    .maxAqi(maxAqi.isPresent() ? maxAqi.getAsInt() : null)
-                    .minAqi(minAqi.isPresent() ? minAqi.getAsInt() : null)
-                    .goodDays(goodDays)
-                    .moderateDays(moderateDays)
-                    .unhealthyDays(unhealthyDays)
-                    .totalDataPoints(data.size())
-                    .build();
-
-            reportRepo.save(report);
-
-            System.out.println("✅ Report generated: ID=" + report.getId());
+            log.info("✅ Report generated: ID={}", report.getId());
 
             // ✅ Return DTO instead of entity
-            return ResponseEntity.ok(ReportDto.from(report));
+            return ResponseEntity.ok(report);
 
         } catch (Exception e) {
-            System.err.println("❌ Generate report error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("❌ Generate report error: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().body("Failed to generate report: " + e.getMessage());
         }
     }
@@ -521,64 +491,22 @@ public class AdminController {
     // ✅ 1. CSV Export
     @GetMapping("/reports/{id}/export/csv")
     public ResponseEntity<byte[]> exportReportCsv(@PathVariable Long id) {
-        try {
-            Report report = reportRepo.findById(id)
-                    .orElseThrow(() -> new RuntimeException("Report not found"));
-
-            byte[] csvBytes = csvReportService.generateReportCsv(report);
-
-            return ResponseEntity.ok()
-                    .header("Content-Disposition", "attachment; filename=report_" + id + ".csv")
-                    .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
-                    .body(csvBytes);
-
-        } catch (Exception e) {
-            System.err.println("❌ CSV Export error: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.status(500).build();
-        }
+        return export(id, "CSV", "csv", MediaType.parseMediaType("text/csv; charset=UTF-8"),
+                csvReportService::generateReportCsv);
     }
 
     // ✅ 2. Excel Export
     @GetMapping("/reports/{id}/export/excel")
     public ResponseEntity<byte[]> exportReportExcel(@PathVariable Long id) {
-        try {
-            Report report = reportRepo.findById(id)
-                    .orElseThrow(() -> new RuntimeException("Report not found"));
-
-            byte[] excelBytes = excelReportService.generateReportExcel(report);
-
-            return ResponseEntity.ok()
-                    .header("Content-Disposition", "attachment; filename=report_" + id + ".xlsx")
-                    .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(excelBytes);
-
-        } catch (Exception e) {
-            System.err.println("❌ Excel Export error: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.status(500).build();
-        }
+        return export(id, "Excel", "xlsx",
+                MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+                excelReportService::generateReportExcel);
     }
 
     // ✅ 3. HTML Export
     @GetMapping("/reports/{id}/export/html")
     public ResponseEntity<byte[]> exportReportHtml(@PathVariable Long id) {
-        try {
-            Report report = reportRepo.findById(id)
-                    .orElseThrow(() -> new RuntimeException("Report not found"));
-
-            byte[] htmlBytes = htmlReportService.generateReportHtml(report);
-
-            return ResponseEntity.ok()
-                    .header("Content-Disposition", "attachment; filename=report_" + id + ".html")
-                    .contentType(MediaType.TEXT_HTML)
-                    .body(htmlBytes);
-
-        } catch (Exception e) {
-            System.err.println("❌ HTML Export error: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.status(500).build();
-        }
+        return export(id, "HTML", "html", MediaType.TEXT_HTML, htmlReportService::generateReportHtml);
     }
 
     // ✅ 4. JSON Export (Direct DTO)
@@ -594,7 +522,7 @@ public class AdminController {
                     .body(ReportDto.from(report));
 
         } catch (Exception e) {
-            System.err.println("❌ JSON Export error: " + e.getMessage());
+            log.error("❌ JSON Export error: {}", e.getMessage());
             return ResponseEntity.status(500).build();
         }
     }
@@ -602,24 +530,45 @@ public class AdminController {
     // ✅ 5. PDF Export (existing - keep for reference)
     @GetMapping("/reports/{id}/download")
     public ResponseEntity<byte[]> downloadReport(@PathVariable Long id) {
+        return export(id, "PDF", "pdf", MediaType.APPLICATION_PDF, pdfReportService::generateReportPdf);
+    }
+
+    /**
+     * 📤 Render a report file on the bounded report executor
+     * At most aqm.executors.report.max-size exports run at once; when the queue is
+     * also full the request gets 503 instead of piling up heavy renders.
+     */
+    private ResponseEntity<byte[]> export(Long id, String label, String extension, MediaType type,
+                                          ReportRenderer renderer) {
         try {
             Report report = reportRepo.findById(id)
                     .orElseThrow(() -> new RuntimeException("Report not found"));
 
-            byte[] pdfBytes = pdfReportService.generateReportPdf(report);
+            byte[] bytes = reportExecutor.submit(() -> renderer.render(report)).get();
 
             return ResponseEntity.ok()
-                    .header("Content-Disposition", "attachment; filename=report_" + id + ".pdf")
-                    .contentType(MediaType.APPLICATION_PDF)
-                    .body(pdfBytes);
-
+                    .header("Content-Disposition", "attachment; filename=report_" + id + "." + extension)
+                    .contentType(type)
+                    .body(bytes);
+
+        } catch (RejectedExecutionException e) {
+            log.warn("⏳ {} Export rejected, report executor is saturated", label);
+            return ResponseEntity.status(503).header("Retry-After", "10").build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(500).build();
         } catch (Exception e) {
-            System.err.println("❌ PDF Download error: " + e.getMessage());
-            e.printStackTrace();
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            log.error("❌ {} Export error: {}", label, cause.getMessage(), cause);
             return ResponseEntity.status(500).build();
         }
     }
 
+    @FunctionalInterface
+    private interface ReportRenderer {
+        byte[] render(Report report) throws Exception;
+    }
+
     // ✅ FIXED: Delete report with proper error handling
     @DeleteMapping("/reports/{id}")
     @PreAuthorize("hasRole('ADMIN')") // ✅ Ensure admin only
@@ -633,12 +582,11 @@ public class AdminController {
             // Delete the report
             reportRepo.deleteById(id);
 
-            System.out.println("✅ Report deleted: ID=" + id);
+            log.info("✅ Report deleted: ID={}", id);
             return ResponseEntity.ok().body(Map.of("message", "Report deleted successfully", "id", id));
 
         } catch (Exception e) {
-            System.err.println("❌ Delete error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("❌ Delete error: {}", e.getMessage(), e);
             return ResponseEntity.status(500).body("Failed to delete report: " + e.getMessage());
         }
     }
@@ -701,12 +649,12 @@ public class AdminController {
             }
 
             supportRepo.save(ticket);
-            System.out.println("✅ Support ticket updated: ID=" + id);
+            log.info("✅ Support ticket updated: ID={}", id);
 
             return ResponseEntity.ok(SupportTicketDto.from(ticket));
 
         } catch (Exception e) {
-            System.err.println("❌ Update ticket error: " + e.getMessage());
+            log.error("❌ Update ticket error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body("Failed to update ticket: " + e.getMessage());
         }
@@ -723,7 +671,7 @@ public class AdminController {
             }
 
             supportRepo.deleteById(id);
-            System.out.println("✅ Support ticket deleted: ID=" + id);
+            log.info("✅ Support ticket deleted: ID={}", id);
 
             return ResponseEntity.ok()
                     .body(Map.of(
@@ -732,7 +680,7 @@ public class AdminController {
                     ));
 
         } catch (Exception e) {
-            System.err.println("❌ Delete ticket error: " + e.getMessage());
+            log.error("❌ Delete ticket error: {}", e.getMessage());
             return ResponseEntity.status(500)
                     .body("Failed to delete ticket: " + e.getMessage());
         }
@@ -744,7 +692,7 @@ public class AdminController {
     public ResponseEntity<?> createLocation(@RequestBody Location location) {
         try {
             Location saved = locationRepo.save(location);
-            System.out.println("🎁 Location created!");
+            log.info("🎁 Location created!");
             return ResponseEntity.ok(LocationDto.from(saved));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Failed to create location");
@@ -778,6 +726,9 @@ public class AdminController {
                 return ResponseEntity.notFound().build();
             }
             locationRepo.deleteById(id);
+            sensorLocationCache.evictLocation(id);
+            latestStore.evict(id);
+            rollupService.evictLocation(id);
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Failed to delete location");
@@ -786,14 +737,15 @@ public class AdminController {
 
     // ==================== REAL-TIME FETCHING DATA ====================
     /**
-     * 🔄 Manual trigger to fetch AQI data for all locations
+     * 🔄 Manual trigger to fetch AQI + weather for all locations (same pass as the scheduler)
      */
     @PostMapping("/aqi/fetch-all")
     public ResponseEntity<?> fetchAllAQI() {
         try {
-            realTimeAQIService.fetchAllLocationsData();
+            IngestionRunStats stats = locationIngestionPipeline.ingestAllLocations();
             return ResponseEntity.ok(Map.of(
-                    "message", "AQI data fetch initiated for all locations",
+                    "message", "AQI and weather fetch completed for all locations",
+                    "stats", stats,
                     "timestamp", LocalDateTime.now()
             ));
         } catch (Exception e) {
@@ -821,14 +773,120 @@ public class AdminController {
         }
     }
 
+    /**
+     * 🔁 Rebuild hourly/daily rollups from raw data (all locations, last N days;
+     * days past raw retention keep their buckets)
+     */
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<?> rebuildRollups(@RequestParam(defaultValue = "30") int days) {
+        try {
+            LocalDateTime to = LocalDateTime.now();
+            LocalDateTime from = to.minusDays(days);
+            int buckets = 0;
+
+            for (Location location : locationRepo.findAll()) {
+                buckets += rollupService.rebuild(location.getId(), from, to);
+            }
+
+            return ResponseEntity.ok(Map.of(
+                    "message", "Rollups rebuilt",
+                    "buckets", buckets,
+                    "from", from,
+                    "to", to
+            ));
+        } catch (Exception e) {
+            log.error("❌ Rollup rebuild failed: {}", e.getMessage());
+            return ResponseEntity.status(500)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // ==================== EMAIL OUTBOX ====================
+
+    /**
+     * 📬 Outbox row counts by status (PENDING / SENT / FAILED)
+     */
+    @GetMapping("/email-outbox")
+    public ResponseEntity<?> getEmailOutboxStats() {
+        return ResponseEntity.ok(emailOutbox.stats());
+    }
+
+    /**
+     * 📤 Dispatch due outbox emails now instead of waiting for the next poll
+     */
+    @PostMapping("/email-outbox/dispatch")
+    public ResponseEntity<?> dispatchEmailOutbox() {
+        emailOutbox.dispatchDue();
+        return ResponseEntity.ok(emailOutbox.stats());
+    }
+
+    // ==================== RETENTION ====================
+
+    /**
+     * 🧹 Run the retention policy now (rows deleted per table)
+     */
+    @PostMapping("/retention/run")
+    public ResponseEntity<?> runRetention() {
+        try {
+            return ResponseEntity.ok(retentionService.purge());
+        } catch (Exception e) {
+            log.error("❌ Retention run failed: {}", e.getMessage(), e);
+            return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * 🧹 Purge old read alerts now (archived first when aqm.alerts.cleanup.archive=true)
+     */
+    @PostMapping("/alerts/cleanup")
+    public ResponseEntity<?> cleanupAlerts() {
+        long removed = alertCleanupService.purgeReadAlerts();
+        if (removed < 0) {
+            return ResponseEntity.status(409).body(Map.of("error", "Alert cleanup already running"));
+        }
+        return ResponseEntity.ok(Map.of("removed", removed));
+    }
+
+    // ==================== HISTORICAL BACKFILL ====================
+
+    /**
+     * ⏪ Start a resumable historical backfill (runs in the background)
+     */
+    @PostMapping("/backfill")
+    public ResponseEntity<?> startBackfill(@RequestBody BackfillRequest request) {
+        try {
+            return ResponseEntity.ok(backfillService.start(request));
+        } catch (Exception e) {
+            log.error("❌ Backfill start failed: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/backfill/{jobId}")
+    public ResponseEntity<?> getBackfillStatus(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(backfillService.status(jobId));
+        } catch (Exception e) {
+            return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/backfill/{jobId}/resume")
+    public ResponseEntity<?> resumeBackfill(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(backfillService.resume(jobId));
+        } catch (Exception e) {
+            return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * ✅ Get latest AQI for a specific location
      */
     @GetMapping("/aqi/latest/{locationId}")
     public ResponseEntity<?> getLatestAQI(@PathVariable Long locationId) {
         try {
-            Optional<AirQualityData> latest = airRepo
-                    .findTopByLocationIdOrderByTimestampUtcDesc(locationId);
+            Optional<AirQualityData> latest = latestStore.get(locationId);
 
             if (latest.isEmpty()) {
                 return ResponseEntity.ok(Map.of(
@@ -850,7 +908,6 @@ public class AdminController {
             ));
 
         } catch (Exception e) {
-            Logger log = null;
             log.error("❌ Failed to get latest AQI for location {}: {}", locationId, e.getMessage());
             return ResponseEntity.status(500).body(Map.of(
                     "error", "Failed to get AQI data",
@@ -866,7 +923,6 @@ public class AdminController {
     @GetMapping("/aqi/all-latest")
     public ResponseEntity<?> getAllLatestAQI() {
         try {
-            Logger log = null;
             log.info("📊 Fetching latest AQI for all locations...");
 
             List<Location> locations = locationRepo.findAll();
@@ -875,8 +931,7 @@ public class AdminController {
             List<Map<String, Object>> locationsData = new ArrayList<>();
 
             for (Location location : locations) {
-                Optional<AirQualityData> latest = airRepo
-                        .findTopByLocationIdOrderByTimestampUtcDesc(location.getId());
+                Optional<AirQualityData> latest = latestStore.get(location.getId());
 
                 Map<String, Object> locData = new HashMap<>();
                 locData.put("id", location.getId());
@@ -909,7 +964,6 @@ public class AdminController {
             return ResponseEntity.ok(result);
 
         } catch (Exception e) {
-            Logger log = null;
             log.error("❌ Failed to get all latest AQI: {}", e.getMessage());
             return ResponseEntity.status(500).body(Map.of(
                     "error", "Failed to get AQI data",
@@ -933,8 +987,7 @@ public class AdminController {
             int noDataCount = 0;
 
             for (Location location : locations) {
-                Optional<AirQualityData> latest = airRepo
-                        .findTopByLocationIdOrderByTimestampUtcDesc(location.getId());
+                Optional<AirQualityData> latest = latestStore.get(location.getId());
 
                 if (latest.isEmpty() || latest.get().getAqi() == null) {
                     noDataCount++;
@@ -958,7 +1011,6 @@ public class AdminController {
             ));
 
         } catch (Exception e) {
-            Logger log = null;
             log.error("❌ Failed to get AQI summary: {}", e.getMessage());
             return ResponseEntity.status(500).body(Map.of("error", "Failed to get summary"));
         }
@@ -4,16 +4,14 @@ package com.commander.aqm.aqm_back_end.controller;
 import com.commander.aqm.aqm_back_end.dto.ProfileUpdateRequest;
 import com.commander.aqm.aqm_back_end.dto.UserDto;
 import com.commander.aqm.aqm_back_end.model.User;
+import com.commander.aqm.aqm_back_end.security.CurrentUser;
 import com.commander.aqm.aqm_back_end.service.ProfileService;
-import com.commander.aqm.aqm_back_end.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -26,15 +24,13 @@ import java.util.Map;
 public class AdminProfileController {
 
     private final ProfileService profileService;
-    private final UserService userService;
 
     /**
      * ✅ GET admin profile
      */
     @Operation(summary = "Get admin profile")
     @GetMapping("/profile")
-    public ResponseEntity<UserDto> getAdminProfile(@AuthenticationPrincipal UserDetails principal) {
-        User admin = userService.getByUsername(principal.getUsername());
+    public ResponseEntity<UserDto> getAdminProfile(@CurrentUser User admin) {
         UserDto profile = profileService.getProfile(admin);
         return ResponseEntity.ok(profile);
     }
@@ -45,11 +41,10 @@ public class AdminProfileController {
     @Operation(summary = "Update admin profile")
     @PutMapping("/profile")
     public ResponseEntity<?> updateAdminProfile(
-            @AuthenticationPrincipal UserDetails principal,
+            @CurrentUser User currentAdmin,
             @Valid @RequestBody ProfileUpdateRequest request
     ) {
         try {
-            User currentAdmin = userService.getByUsername(principal.getUsername());
             UserDto updatedProfile = profileService.updateProfile(currentAdmin, request);
 
             return ResponseEntity.ok(Map.of(
@@ -69,7 +64,7 @@ public class AdminProfileController {
     @Operation(summary = "Change admin password")
     @PostMapping("/profile/change-password")
     public ResponseEntity<?> changeAdminPassword(
-            @AuthenticationPrincipal UserDetails principal,
+            @CurrentUser User currentAdmin,
             @Valid @RequestBody ProfileController.ChangePasswordRequest request
     ) {
         try {
@@ -80,7 +75,6 @@ public class AdminProfileController {
                 ));
             }
 
-            User currentAdmin = userService.getByUsername(principal.getUsername());
             profileService.changePassword(currentAdmin, request.getCurrentPassword(), request.getNewPassword());
 
             return ResponseEntity.ok(Map.of(
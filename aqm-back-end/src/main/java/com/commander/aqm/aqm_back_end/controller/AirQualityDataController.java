@@ -1,25 +1,32 @@
 // src/main/java/com/commander/aqm/aqm_back_end/controller/AirQualityDataController.java
 package com.commander.aqm.aqm_back_end.controller;
 
+import com.commander.aqm.aqm_back_end.dto.AirQualityPoint;
 import com.commander.aqm.aqm_back_end.dto.AirQualityResponseDto;
-import com.commander.aqm.aqm_back_end.model.AirQualityData;
-import com.commander.aqm.aqm_back_end.model.Location;
+import com.commander.aqm.aqm_back_end.dto.AirQualityRollupDto;
+import com.commander.aqm.aqm_back_end.model.AirQualityRollup;
+import com.commander.aqm.aqm_back_end.model.Pollutant;
 import com.commander.aqm.aqm_back_end.repository.AirQualityDataRepository;
-import com.commander.aqm.aqm_back_end.repository.LocationRepository;
+import com.commander.aqm.aqm_back_end.service.AirQualityRollupService;
+import com.commander.aqm.aqm_back_end.service.LatestAirQualityStore;
+import com.commander.aqm.aqm_back_end.service.TimeSeriesDownsampler;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.antlr.v4.runtime.tree.pattern.ParseTreePattern;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.stream.Stream;
 
 @Slf4j
 @RestController
@@ -29,7 +36,14 @@ import java.util.Optional;
 public class AirQualityDataController {
 
     private final AirQualityDataRepository dataRepo;
-    private final LocationRepository locationRepo;
+    private final LatestAirQualityStore latestStore;
+    private final AirQualityRollupService rollupService;
+
+    // Hard cap so a client cannot ask for an unbounded payload
+    private static final int MAX_POINTS_LIMIT = 5000;
+
+    @Value("${aqm.history.max-points:1000}")
+    private int defaultMaxPoints;
 
     /**
      * ✅ FIXED: Get air quality data with proper response structure
@@ -37,26 +51,36 @@ public class AirQualityDataController {
      */
     @Operation(summary = "Get air quality data for location with history")
     @GetMapping
+    @Transactional(readOnly = true)
     public ResponseEntity<AirQualityResponseDto> getData(
             @Parameter(description = "Location ID", required = true)
             @RequestParam Long locationId,
 
             @Parameter(description = "Time range (e.g., 24h, 7d, 30d)", example = "24h")
-            @RequestParam(defaultValue = "24h") String range
+            @RequestParam(defaultValue = "24h") String range,
+
+            @Parameter(description = "Max history points (LTTB downsampling above this)", example = "500")
+            @RequestParam(required = false) Integer maxPoints,
+
+            @Parameter(description = "Time bucket with avg/min/max (e.g., 15m, 1h, 1d) or 'raw'", example = "1h")
+            @RequestParam(required = false) String resolution
     ) {
         try {
             log.info("📊 Fetching AQI data for location: {}, range: {}", locationId, range);
 
             // Parse time range
-            LocalDateTime startTime = LocalDateTime.now().minusHours(parseHours(range));
-
-            // Get data from database
-            List<AirQualityData> data = dataRepo.findByLocationIdAndTimestampUtcAfter(locationId, startTime);
-
-            log.info("✅ Found {} data points for location {}", data.size(), locationId);
+            LocalDateTime endTime = LocalDateTime.now();
+            LocalDateTime startTime = endTime.minusHours(parseHours(range));
+            TimeSeriesDownsampler downsampler = downsamplerFor(startTime, endTime, maxPoints, resolution);
+
+            // Stream lightweight points (newest first) straight into the response DTO
+            AirQualityResponseDto response;
+            try (Stream<AirQualityPoint> points = dataRepo.streamPointsAfter(locationId, startTime)) {
+                response = AirQualityResponseDto.from(points, downsampler);
+            }
 
-            // Convert to standardized response DTO
-            AirQualityResponseDto response = AirQualityResponseDto.from(data);
+            log.info("✅ Found {} data points for location {} ({} returned)",
+                    response.getSourcePoints(), locationId, response.getHistory().size());
 
             // Log response structure
             if (response.getCurrent() != null) {
@@ -80,6 +104,41 @@ public class AirQualityDataController {
         }
     }
 
+    /**
+     * 📉 Pick the downsampling mode: explicit resolution → time buckets,
+     * otherwise LTTB capped at maxPoints (or the configured default); "raw" disables it
+     */
+    private TimeSeriesDownsampler downsamplerFor(LocalDateTime from, LocalDateTime to,
+                                                 Integer maxPoints, String resolution) {
+        if ("raw".equalsIgnoreCase(resolution)) {
+            return null;
+        }
+
+        int limit = Math.min(maxPoints != null && maxPoints > 2 ? maxPoints : defaultMaxPoints, MAX_POINTS_LIMIT);
+
+        if (resolution != null && !resolution.isBlank()) {
+            return TimeSeriesDownsampler.buckets(from, to, parseResolution(resolution), limit);
+        }
+        return TimeSeriesDownsampler.lttb(from, to, limit);
+    }
+
+    /**
+     * ✅ Parse bucket size, e.g. "15m" -> 15 minutes, "1h", "1d" (default 1h)
+     */
+    private Duration parseResolution(String resolution) {
+        try {
+            String value = resolution.trim().toLowerCase();
+            long amount = Long.parseLong(value.substring(0, value.length() - 1));
+            if (value.endsWith("m")) return Duration.ofMinutes(amount);
+            if (value.endsWith("h")) return Duration.ofHours(amount);
+            if (value.endsWith("d")) return Duration.ofDays(amount);
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            // fall through to default
+        }
+        log.warn("⚠️ Invalid resolution format: {}, using default 1h", resolution);
+        return Duration.ofHours(1);
+    }
+
     /**
      * ✅ Parse time range string to hours
      * Examples: "24h" -> 24, "7d" -> 168, "30d" -> 720
@@ -100,26 +159,41 @@ public class AirQualityDataController {
         }
     }
 
+    @Operation(summary = "Get hourly/daily aggregates of one pollutant (for long ranges)")
+    @GetMapping("/rollups")
+    public ResponseEntity<List<AirQualityRollupDto>> getRollups(
+            @RequestParam Long locationId,
+            @RequestParam(defaultValue = "AQI") Pollutant pollutant,
+            @RequestParam(defaultValue = "HOURLY") AirQualityRollup.Granularity granularity,
+            @Parameter(description = "Time range (e.g., 24h, 7d, 30d)", example = "30d")
+            @RequestParam(defaultValue = "7d") String range
+    ) {
+        LocalDateTime to = LocalDateTime.now();
+        LocalDateTime from = to.minusHours(parseHours(range));
+
+        List<AirQualityRollupDto> buckets = rollupService.series(locationId, pollutant, granularity, from, to)
+                .stream()
+                .map(AirQualityRollupDto::from)
+                .toList();
+
+        log.info("✅ Returned {} {} buckets of {} for location {}", buckets.size(), granularity, pollutant, locationId);
+        return ResponseEntity.ok(buckets);
+    }
+
     @Operation(summary = "Get latest AQI for all locations")
     @GetMapping("/all-latest")
     public ResponseEntity<Map<Long, Integer>> getAllLatestAqi() {
         try {
             log.info("📊 Fetching latest AQI for all locations");
 
-            // Get all locations
-            List<Location> locations = locationRepo.findAll();
-
             Map<Long, Integer> aqiMap = new HashMap<>();
 
-            for (Location location : locations) {
-                // Get latest AQI data for this location
-                Optional<AirQualityData> latestData = dataRepo
-                        .findTopByLocationIdOrderByTimestampUtcDesc(location.getId());
-
-                if (latestData.isPresent() && latestData.get().getAqi() != null) {
-                    aqiMap.put(location.getId(), latestData.get().getAqi());
+            // Latest readings come from the in-memory snapshot (no DB round trip)
+            latestStore.snapshot().forEach((locationId, latestData) -> {
+                if (latestData.getAqi() != null) {
+                    aqiMap.put(locationId, latestData.getAqi());
                 }
-            }
+            });
 
             log.info("✅ Returned AQI data for {} locations", aqiMap.size());
 
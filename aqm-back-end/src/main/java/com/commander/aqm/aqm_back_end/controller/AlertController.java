@@ -1,8 +1,11 @@
 // src/main/java/com/commander/aqm/aqm_back_end/controller/AlertController.java
 package com.commander.aqm.aqm_back_end.controller;
 
+import com.commander.aqm.aqm_back_end.dto.AlertCursor;
 import com.commander.aqm.aqm_back_end.dto.AlertDto;
-import com.commander.aqm.aqm_back_end.security.JwtService;
+import com.commander.aqm.aqm_back_end.dto.AlertRow;
+import com.commander.aqm.aqm_back_end.model.User;
+import com.commander.aqm.aqm_back_end.security.CurrentUser;
 import com.commander.aqm.aqm_back_end.service.AlertService;
 import com.commander.aqm.aqm_back_end.service.AlertMonitoringService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,7 +17,6 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
@@ -25,42 +27,62 @@ public class AlertController {
 
     private final AlertService alertService;
     private final AlertMonitoringService alertMonitoringService;
-    private final JwtService jwtService;
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     /**
-     * 📋 Get all alerts for current user
+     * 📋 Get alerts for current user, newest first
+     * Keyset paged: pass the X-Next-Cursor header of a response as ?cursor= to get the next page
+     * (header is absent on the last page). Without cursor and limit the whole list is returned,
+     * as before paging, until every client follows the header.
      */
-    @Operation(summary = "Get all alerts for current user")
+    @Operation(summary = "Get alerts for current user (cursor paginated)")
     @GetMapping
-    public ResponseEntity<List<AlertDto>> getAll(@RequestHeader("Authorization") String auth) {
-        var user = jwtService.extractUser(auth);
-
-        log.info("📋 Getting all alerts for user: {}", user.getUsername());
-
-        List<AlertDto> alerts = alertService.getAllAlerts(user).stream()
-                .map(AlertDto::from)
-                .collect(Collectors.toList());
-
-        log.info("✅ Returned {} alerts", alerts.size());
-        return ResponseEntity.ok(alerts);
+    public ResponseEntity<?> getAll(@CurrentUser User user,
+                                    @RequestParam(required = false) String cursor,
+                                    @RequestParam(required = false) Integer limit) {
+        log.debug("📋 Getting alerts for user: {}", user.getUsername());
+        return page(user, false, cursor, limit);
     }
 
     /**
-     * 🔔 Get unread alerts only
+     * 🔔 Get unread alerts only (same paging as {@link #getAll})
      */
-    @Operation(summary = "Get unread alerts for current user")
+    @Operation(summary = "Get unread alerts for current user (cursor paginated)")
     @GetMapping("/unread")
-    public ResponseEntity<List<AlertDto>> getUnread(@RequestHeader("Authorization") String auth) {
-        var user = jwtService.extractUser(auth);
+    public ResponseEntity<?> getUnread(@CurrentUser User user,
+                                       @RequestParam(required = false) String cursor,
+                                       @RequestParam(required = false) Integer limit) {
+        log.debug("🔔 Getting unread alerts for user: {}", user.getUsername());
+        return page(user, true, cursor, limit);
+    }
 
-        log.info("🔔 Getting unread alerts for user: {}", user.getUsername());
+    private ResponseEntity<?> page(User user, boolean unreadOnly, String cursor, Integer limit) {
+        if (cursor == null && limit == null) {
+            // ✅ Unpaged fallback for clients that do not read X-Next-Cursor yet
+            return ResponseEntity.ok(alertService.getAllAlertRows(user, unreadOnly).stream().map(AlertDto::from).toList());
+        }
 
-        List<AlertDto> alerts = alertService.getUnreadAlerts(user).stream()
-                .map(AlertDto::from)
-                .collect(Collectors.toList());
+        AlertCursor position;
+        try {
+            position = AlertCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
 
-        log.info("✅ Returned {} unread alerts", alerts.size());
-        return ResponseEntity.ok(alerts);
+        int size = pageSize(limit);
+        List<AlertRow> rows = alertService.getAlertPage(user, unreadOnly, position, size);
+        List<AlertDto> alerts = rows.stream().map(AlertDto::from).toList();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (rows.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, AlertCursor.after(rows.get(rows.size() - 1)).encode());
+        }
+        return response.body(alerts);
+    }
+
+    static int pageSize(Integer limit) {
+        return Math.max(1, Math.min(limit != null ? limit : AlertService.DEFAULT_PAGE_SIZE, AlertService.MAX_PAGE_SIZE));
     }
 
     /**
@@ -70,10 +92,8 @@ public class AlertController {
     @PutMapping("/{id}/read")
     public ResponseEntity<AlertDto> markAsRead(
             @PathVariable Long id,
-            @RequestHeader("Authorization") String auth
+            @CurrentUser User user
     ) {
-        var user = jwtService.extractUser(auth);
-
         log.info("✅ Marking alert {} as read for user: {}", id, user.getUsername());
 
         var alert = alertService.markAsRead(id, user);
@@ -85,10 +105,8 @@ public class AlertController {
      */
     @Operation(summary = "Manually check for new alerts")
     @PostMapping("/check")
-    public ResponseEntity<?> manualCheck(@RequestHeader("Authorization") String auth) {
+    public ResponseEntity<?> manualCheck(@CurrentUser User user) {
         try {
-            var user = jwtService.extractUser(auth);
-
             log.info("🔍 Manual alert check triggered by user: {}", user.getUsername());
 
             alertMonitoringService.checkAllLocationsForUser(user);
@@ -110,29 +128,10 @@ public class AlertController {
      */
     @Operation(summary = "Get alert statistics for user")
     @GetMapping("/stats")
-    public ResponseEntity<?> getStats(@RequestHeader("Authorization") String auth) {
+    public ResponseEntity<?> getStats(@CurrentUser User user) {
         try {
-            var user = jwtService.extractUser(auth);
-
-            List<AlertDto> allAlerts = alertService.getAllAlerts(user).stream()
-                    .map(AlertDto::from)
-                    .toList();
-
-            long unreadCount = allAlerts.stream().filter(a -> !a.isRead()).count();
-            long pm25Count = allAlerts.stream().filter(a -> "PM2.5".equals(a.getPollutant())).count();
-            long pm10Count = allAlerts.stream().filter(a -> "PM10".equals(a.getPollutant())).count();
-            long aqiCount = allAlerts.stream().filter(a -> "AQI".equals(a.getPollutant())).count();
-
-            return ResponseEntity.ok(Map.of(
-                    "total", allAlerts.size(),
-                    "unread", unreadCount,
-                    "read", allAlerts.size() - unreadCount,
-                    "byPollutant", Map.of(
-                            "PM2.5", pm25Count,
-                            "PM10", pm10Count,
-                            "AQI", aqiCount
-                    )
-            ));
+            // ✅ Count queries instead of loading the whole history
+            return ResponseEntity.ok(alertService.getAlertStats(user));
 
         } catch (Exception e) {
             log.error("❌ Failed to get stats: {}", e.getMessage());
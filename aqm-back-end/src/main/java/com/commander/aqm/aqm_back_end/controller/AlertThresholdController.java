@@ -3,23 +3,23 @@ package com.commander.aqm.aqm_back_end.controller;
 import com.commander.aqm.aqm_back_end.model.AlertThreshold;
 import com.commander.aqm.aqm_back_end.model.User;
 import com.commander.aqm.aqm_back_end.repository.AlertThresholdRepository;
-import com.commander.aqm.aqm_back_end.security.JwtService;
+import com.commander.aqm.aqm_back_end.security.CurrentUser;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/thresholds")
 @RequiredArgsConstructor
 public class AlertThresholdController {
 
     private final AlertThresholdRepository repo;
-    private final JwtService jwtService;
 
     @PostMapping
-    public ResponseEntity<?> setThreshold(@RequestHeader("Authorization") String auth, @RequestBody AlertThreshold body) {
+    public ResponseEntity<?> setThreshold(@CurrentUser User user, @RequestBody AlertThreshold body) {
         try {
-            User user = jwtService.extractUser(auth);
             body.setUser(user);
 
             // ✅ Check if threshold exists, update instead of creating new
@@ -32,24 +32,22 @@ public class AlertThresholdController {
                     })
                     .orElseGet(() -> repo.save(body));
 
-            System.out.println("✅ Threshold saved for user: " + user.getUsername());
+            log.info("✅ Threshold saved for user: {}", user.getUsername());
             return ResponseEntity.ok(saved);
 
         } catch (Exception e) {
-            System.err.println("❌ Error saving threshold: " + e.getMessage());
+            log.error("❌ Error saving threshold: {}", e.getMessage());
             return ResponseEntity.badRequest().body("Failed to save threshold: " + e.getMessage());
         }
     }
 
     @GetMapping
-    public ResponseEntity<?> get(@RequestHeader("Authorization") String auth) {
+    public ResponseEntity<?> get(@CurrentUser User user) {
         try {
-            User user = jwtService.extractUser(auth);
-
             // ✅ If no threshold exists, create default one
             AlertThreshold threshold = repo.findByUser(user)
                     .orElseGet(() -> {
-                        System.out.println("⚠️ No threshold found for user: " + user.getUsername() + ", creating default...");
+                        log.warn("⚠️ No threshold found for user: {}, creating default...", user.getUsername());
 
                         AlertThreshold defaultThreshold = AlertThreshold.builder()
                                 .user(user)
@@ -64,7 +62,7 @@ public class AlertThresholdController {
             return ResponseEntity.ok(threshold);
 
         } catch (Exception e) {
-            System.err.println("❌ Error getting threshold: " + e.getMessage());
+            log.error("❌ Error getting threshold: {}", e.getMessage());
             return ResponseEntity.badRequest().body("Failed to get threshold: " + e.getMessage());
         }
     }
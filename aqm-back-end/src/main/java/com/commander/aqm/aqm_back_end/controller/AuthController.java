@@ -21,6 +21,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -35,6 +36,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/auth")
 @Tag(name = "Authentication", description = "Login & Registration APIs")
@@ -90,10 +92,9 @@ public class AuthController {
 
         thresholdRepo.save(defaultThreshold);
 
-        System.out.println("✅ User registered: " + user.getUsername());
-        System.out.println("✅ Default threshold created: PM2.5=" + defaultThreshold.getPm25Threshold()
-                + ", PM10=" + defaultThreshold.getPm10Threshold()
-                + ", AQI=" + defaultThreshold.getAqiThreshold());
+        log.info("✅ User registered: {}", user.getUsername());
+        log.debug("✅ Default threshold created: PM2.5={}, PM10={}, AQI={}", defaultThreshold.getPm25Threshold(),
+                defaultThreshold.getPm10Threshold(), defaultThreshold.getAqiThreshold());
 
         return ResponseEntity.ok(Map.of(
                 "message", "User registered successfully",
@@ -138,7 +139,7 @@ public class AuthController {
 
         thresholdRepo.save(defaultThreshold);
 
-        System.out.println("✅ Admin registered: " + admin.getUsername());
+        log.info("✅ Admin registered: {}", admin.getUsername());
 
         return ResponseEntity.ok(Map.of(
                 "message", "Admin registered successfully",
@@ -187,7 +188,7 @@ public class AuthController {
 
         thresholdRepo.save(defaultThreshold);
 
-        System.out.println("🔒 Admin created by: " + currentUser.getUsername());
+        log.info("🔒 Admin created by: {}", currentUser.getUsername());
 
         return ResponseEntity.ok(Map.of(
                 "message", "Admin created successfully",
@@ -222,7 +223,7 @@ public class AuthController {
             String token = jwtUtils.generateToken(user.getUsername());
 
             // ✅ Log successful login
-            System.out.println("✅ User logged in: " + user.getUsername() + " (Role: " + user.getRole() + ")");
+            log.info("✅ User logged in: {} (Role: {})", user.getUsername(), user.getRole());
 
             // ✅ Return token and user info
             return ResponseEntity.ok(Map.of(
@@ -231,7 +232,7 @@ public class AuthController {
             ));
 
         } catch (Exception e) {
-            System.err.println("❌ Login error: " + e.getMessage());
+            log.warn("❌ Login error: {}", e.getMessage());
             return ResponseEntity.status(401).body("Invalid username/email or password");
         }
     }
@@ -267,15 +268,14 @@ public class AuthController {
             // Send email
             emailService.sendPasswordResetEmail(user.getEmail(), user.getUsername(), resetLink);
 
-            System.out.println("✅ Password reset email sent to: " + user.getEmail());
+            log.info("✅ Password reset email sent to: {}", user.getEmail());
 
             return ResponseEntity.ok(Map.of(
                     "message", "Password reset email sent successfully"
             ));
 
         } catch (Exception e) {
-            System.err.println("❌ Forgot password error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("❌ Forgot password error: {}", e.getMessage(), e);
 
             // ✅ Security: Generic message even on error
             return ResponseEntity.ok(Map.of(
@@ -328,7 +328,7 @@ public class AuthController {
             ));
 
         } catch (Exception e) {
-            System.err.println("❌ Token validation error: " + e.getMessage());
+            log.warn("❌ Token validation error: {}", e.getMessage());
             return ResponseEntity.badRequest().body(Map.of(
                     "valid", false,
                     "message", "Invalid token"
@@ -350,7 +350,7 @@ public class AuthController {
             );
 
             if (success) {
-                System.out.println("✅ Password reset successful");
+                log.info("✅ Password reset successful");
                 return ResponseEntity.ok(Map.of(
                         "message", "Password reset successful"
                 ));
@@ -361,8 +361,7 @@ public class AuthController {
             }
 
         } catch (Exception e) {
-            System.err.println("❌ Password reset error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("❌ Password reset error: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().body(Map.of(
                     "message", "Password reset failed: " + e.getMessage()
             ));
@@ -5,12 +5,14 @@ import com.commander.aqm.aqm_back_end.model.Forecast;
 import com.commander.aqm.aqm_back_end.service.ForecastService;
 import com.commander.aqm.aqm_back_end.service.ForecastGenerationService; // ✅ ADD
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/forecast")
 @RequiredArgsConstructor
@@ -32,7 +34,7 @@ public class ForecastController {
     @PostMapping("/generate/{locationId}")
     public ResponseEntity<?> generateForecast(@PathVariable Long locationId) {
         try {
-            System.out.println("🔮 Generating forecast for location: " + locationId);
+            log.info("🔮 Generating forecast for location: {}", locationId);
 
             List<Forecast> forecasts = generationService.generateForecast(locationId);
 
@@ -43,13 +45,12 @@ public class ForecastController {
             ));
 
         } catch (RuntimeException e) {
-            System.err.println("❌ Forecast generation error: " + e.getMessage());
+            log.error("❌ Forecast generation error: {}", e.getMessage());
             return ResponseEntity.status(404).body(Map.of(
                     "error", e.getMessage()
             ));
         } catch (Exception e) {
-            System.err.println("❌ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("❌ Unexpected error: {}", e.getMessage(), e);
             return ResponseEntity.status(500).body(Map.of(
                     "error", "Failed to generate forecast: " + e.getMessage()
             ));
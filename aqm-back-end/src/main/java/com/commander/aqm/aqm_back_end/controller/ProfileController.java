@@ -4,6 +4,7 @@ package com.commander.aqm.aqm_back_end.controller;
 import com.commander.aqm.aqm_back_end.dto.ProfileUpdateRequest;
 import com.commander.aqm.aqm_back_end.dto.UserDto;
 import com.commander.aqm.aqm_back_end.model.User;
+import com.commander.aqm.aqm_back_end.security.CurrentUser;
 import com.commander.aqm.aqm_back_end.service.ProfileService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,8 +12,6 @@ import jakarta.validation.Valid;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -24,15 +23,13 @@ import java.util.Map;
 public class ProfileController {
 
     private final ProfileService profileService;
-    private final com.commander.aqm.aqm_back_end.service.UserService userService;
 
     /**
      * ✅ GET current user profile
      */
     @Operation(summary = "Get current user profile")
     @GetMapping("/profile")
-    public ResponseEntity<UserDto> getProfile(@AuthenticationPrincipal UserDetails principal) {
-        User user = userService.getByUsername(principal.getUsername());
+    public ResponseEntity<UserDto> getProfile(@CurrentUser User user) {
         UserDto profile = profileService.getProfile(user);
         return ResponseEntity.ok(profile);
     }
@@ -43,11 +40,10 @@ public class ProfileController {
     @Operation(summary = "Update user profile")
     @PutMapping("/profile")
     public ResponseEntity<?> updateProfile(
-            @AuthenticationPrincipal UserDetails principal,
+            @CurrentUser User currentUser,
             @Valid @RequestBody ProfileUpdateRequest request
     ) {
         try {
-            User currentUser = userService.getByUsername(principal.getUsername());
             UserDto updatedProfile = profileService.updateProfile(currentUser, request);
 
             return ResponseEntity.ok(Map.of(
@@ -67,11 +63,10 @@ public class ProfileController {
     @Operation(summary = "Change password")
     @PostMapping("/profile/change-password")
     public ResponseEntity<?> changePassword(
-            @AuthenticationPrincipal UserDetails principal,
+            @CurrentUser User currentUser,
             @Valid @RequestBody ChangePasswordRequest request
     ) {
         try {
-            User currentUser = userService.getByUsername(principal.getUsername());
             profileService.changePassword(currentUser, request.getCurrentPassword(), request.getNewPassword());
 
             return ResponseEntity.ok(Map.of(
@@ -1,7 +1,8 @@
 package com.commander.aqm.aqm_back_end.controller;
 
 import com.commander.aqm.aqm_back_end.dto.ReportDto;
-import com.commander.aqm.aqm_back_end.security.JwtService;
+import com.commander.aqm.aqm_back_end.model.User;
+import com.commander.aqm.aqm_back_end.security.CurrentUser;
 import com.commander.aqm.aqm_back_end.service.ReportService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -16,12 +17,11 @@ import java.time.LocalDateTime;
 public class ReportController {
 
     private final ReportService reportService;
-    private final JwtService jwtService;
 
     // ✅ FIX: Add query params support
     @GetMapping
     public ResponseEntity<ReportDto> generate(
-            @RequestHeader("Authorization") String auth,
+            @CurrentUser User user,
             @RequestParam Long locationId,
             @RequestParam String from, // Format: yyyy-MM-dd
             @RequestParam String to
@@ -30,7 +30,7 @@ public class ReportController {
         LocalDateTime end = LocalDate.parse(to).atTime(23, 59, 59);
 
         return ResponseEntity.ok(
-                reportService.generate(locationId, start, end, jwtService.extractUser(auth))
+                reportService.generate(locationId, start, end, user)
         );
     }
 }
@@ -1,7 +1,8 @@
 package com.commander.aqm.aqm_back_end.controller;
 
 import com.commander.aqm.aqm_back_end.model.SupportRequest;
-import com.commander.aqm.aqm_back_end.security.JwtService;
+import com.commander.aqm.aqm_back_end.model.User;
+import com.commander.aqm.aqm_back_end.security.CurrentUser;
 import com.commander.aqm.aqm_back_end.service.SupportRequestService;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
@@ -15,20 +16,19 @@ import java.util.List;
 public class SupportRequestController {
 
     private final SupportRequestService supportService;
-    private final JwtService jwtService;
 
     @PostMapping
-    public SupportRequest create(@RequestHeader("Authorization") String auth, @RequestBody SupportRequestDTO body) {
+    public SupportRequest create(@CurrentUser User user, @RequestBody SupportRequestDTO body) {
         return supportService.submitRequest(
-                jwtService.extractUser(auth),
+                user,
                 body.getSubject(),
                 body.getMessage()
         );
     }
 
     @GetMapping("/my")
-    public List<SupportRequest> listMine(@RequestHeader("Authorization") String auth) {
-        return supportService.getMyRequests(jwtService.extractUser(auth));
+    public List<SupportRequest> listMine(@CurrentUser User user) {
+        return supportService.getMyRequests(user);
     }
 
     @Data
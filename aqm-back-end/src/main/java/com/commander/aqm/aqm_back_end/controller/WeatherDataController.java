@@ -2,9 +2,7 @@
 package com.commander.aqm.aqm_back_end.controller;
 
 import com.commander.aqm.aqm_back_end.dto.WeatherDataDto;
-import com.commander.aqm.aqm_back_end.model.Location;
 import com.commander.aqm.aqm_back_end.model.WeatherData;
-import com.commander.aqm.aqm_back_end.repository.LocationRepository;
 import com.commander.aqm.aqm_back_end.service.RealTimeWeatherService;
 import com.commander.aqm.aqm_back_end.service.WeatherDataService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,10 +12,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
 
 /**
  * 🌤️ Weather Data Controller with Smart Real-Time Fetching
@@ -31,13 +29,12 @@ public class WeatherDataController {
 
     private final WeatherDataService weatherDataService;
     private final RealTimeWeatherService realTimeWeatherService;
-    private final LocationRepository locationRepo;
 
     /**
      * 🌤️ SMART WEATHER ENDPOINT
-     * - Returns latest weather from DB if fresh (< 30 min old)
-     * - Auto-fetches new data if stale or missing
-     * - Always returns real-time data to Dashboard
+     * - Returns latest weather from DB if fresh (< aqm.weather.max-age-minutes)
+     * - Stale: returned immediately, refreshed in the background (stale-while-revalidate)
+     * - Missing: fetched once per location, concurrent requests share the same fetch
      */
     @GetMapping
     @Operation(summary = "Get current weather (auto-refreshes if stale)")
@@ -45,34 +42,10 @@ public class WeatherDataController {
             @RequestParam("location") Long locationId
     ) {
         try {
-            log.info("🌤️ Getting weather for location: {}", locationId);
+            log.debug("🌤️ Getting weather for location: {}", locationId);
 
-            // Get latest weather from DB
-            WeatherData latest = realTimeWeatherService.getLatestWeather(locationId);
-
-            // Check if data is stale (older than 30 minutes) or missing
-            boolean needsRefresh = latest == null ||
-                    Duration.between(latest.getTimestampUtc(), LocalDateTime.now()).toMinutes() > 30;
-
-            if (needsRefresh) {
-                log.info("⏰ Weather data is stale or missing, fetching fresh data...");
-
-                try {
-                    // Fetch fresh data from OpenWeatherMap
-                    Location location = locationRepo.findById(locationId)
-                            .orElseThrow(() -> new RuntimeException("Location not found"));
-
-                    latest = realTimeWeatherService.fetchAndSaveWeatherData(location);
-                    log.info("✅ Fresh weather data fetched successfully");
-
-                } catch (Exception e) {
-                    log.error("❌ Failed to fetch fresh weather, using cached data: {}", e.getMessage());
-                    // Continue with stale data if fetch fails
-                }
-            } else {
-                log.info("✅ Using cached weather data (age: {} minutes)",
-                        Duration.between(latest.getTimestampUtc(), LocalDateTime.now()).toMinutes());
-            }
+            // ✅ Single-flight / stale-while-revalidate refresh
+            WeatherData latest = realTimeWeatherService.getWeather(locationId);
 
             // Return as list (Dashboard expects array)
             if (latest != null) {
@@ -97,10 +70,8 @@ public class WeatherDataController {
         try {
             log.info("🌍 Manual fetch: Getting fresh weather for location: {}", locationId);
 
-            Location location = locationRepo.findById(locationId)
-                    .orElseThrow(() -> new RuntimeException("Location not found"));
-
-            WeatherData weather = realTimeWeatherService.fetchAndSaveWeatherData(location);
+            // ✅ Joins a refresh that is already running for this location
+            WeatherData weather = realTimeWeatherService.refresh(locationId).join();
 
             return ResponseEntity.ok(Map.of(
                     "message", "Fresh weather data fetched successfully",
@@ -109,11 +80,12 @@ public class WeatherDataController {
             ));
 
         } catch (Exception e) {
-            log.error("❌ Failed to fetch weather: {}", e.getMessage());
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.error("❌ Failed to fetch weather: {}", cause.getMessage());
             return ResponseEntity.status(500)
                     .body(Map.of(
                             "error", "Failed to fetch weather data",
-                            "message", e.getMessage()
+                            "message", String.valueOf(cause.getMessage())
                     ));
         }
     }
@@ -0,0 +1,19 @@
+// src/main/java/com/commander/aqm/aqm_back_end/dto/AirPollutionSample.java
+package com.commander.aqm.aqm_back_end.dto;
+
+/**
+ * 🪶 One OpenWeatherMap air_pollution "list" item, parsed straight into primitives
+ * ({@code dt} in epoch seconds, {@code aqi} on the OpenWeatherMap 1-5 scale, components in µg/m³).
+ * Missing fields are 0, like {@code JsonNode.asDouble()}.
+ */
+public record AirPollutionSample(
+        long dt,
+        int aqi,
+        double pm25,
+        double pm10,
+        double no2,
+        double so2,
+        double co,
+        double o3
+) {
+}
@@ -0,0 +1,56 @@
+// src/main/java/com/commander/aqm/aqm_back_end/dto/AirQualityPoint.java
+package com.commander.aqm.aqm_back_end.dto;
+
+import com.commander.aqm.aqm_back_end.model.AirQualityData;
+import com.commander.aqm.aqm_back_end.model.Pollutant;
+
+import java.time.LocalDateTime;
+
+/**
+ * 🪶 Lightweight read projection of an AirQualityData row
+ * No Sensor/Location associations, so streaming long ranges stays cheap.
+ */
+public record AirQualityPoint(
+        Long id,
+        Long locationId,
+        LocalDateTime timestampUtc,
+        Float pm25,
+        Float pm10,
+        Float no2,
+        Float co,
+        Float o3,
+        Float so2,
+        Integer aqi
+) {
+
+    public static AirQualityPoint of(AirQualityData data) {
+        return new AirQualityPoint(
+                data.getId(),
+                data.getLocation() != null ? data.getLocation().getId() : null,
+                data.getTimestampUtc(),
+                data.getPm25(),
+                data.getPm10(),
+                data.getNO2(),
+                data.getCo(),
+                data.getO3(),
+                data.getSo2(),
+                data.getAqi()
+        );
+    }
+
+    /**
+     * Value of one pollutant (null when not measured)
+     */
+    public Double value(Pollutant pollutant) {
+        Number value = switch (pollutant) {
+            case PM25 -> pm25;
+            case PM10 -> pm10;
+            case NO2 -> no2;
+            case CO -> co;
+            case O3 -> o3;
+            case SO2 -> so2;
+            case AQI -> aqi;
+        };
+        return value != null ? value.doubleValue() : null;
+    }
+}
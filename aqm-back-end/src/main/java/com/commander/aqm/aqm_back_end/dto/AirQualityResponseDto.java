@@ -1,15 +1,16 @@
 // src/main/java/com/commander/aqm/aqm_back_end/dto/AirQualityResponseDto.java
 package com.commander.aqm.aqm_back_end.dto;
 
-import com.commander.aqm.aqm_back_end.model.AirQualityData;
+import com.commander.aqm.aqm_back_end.service.TimeSeriesDownsampler;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 📊 Response DTO for Dashboard Air Quality Data
@@ -23,34 +24,36 @@ public class AirQualityResponseDto {
 
     private CurrentDataDto current;
     private List<HistoryDataDto> history;
+    private Integer sourcePoints;      // ✅ Raw points in range (history may be downsampled)
 
     /**
-     * 🏭 Factory method to create from database entities
+     * 🏭 Factory method from a newest-first stream of points
+     * Single pass: the first point is the current reading; history gets every point,
+     * or the downsampled series when a downsampler is given.
      */
-    public static AirQualityResponseDto from(List<AirQualityData> dataList) {
-        if (dataList == null || dataList.isEmpty()) {
-            return AirQualityResponseDto.builder()
-                    .current(null)
-                    .history(List.of())
-                    .build();
-        }
-
-        // Sort by timestamp descending (newest first)
-        List<AirQualityData> sorted = dataList.stream()
-                .sorted((a, b) -> b.getTimestampUtc().compareTo(a.getTimestampUtc()))
-                .collect(Collectors.toList());
+    public static AirQualityResponseDto from(Stream<AirQualityPoint> newestFirst, TimeSeriesDownsampler downsampler) {
+        List<HistoryDataDto> historyList = new ArrayList<>();
+        CurrentDataDto current = null;
+        int sourcePoints = 0;
 
-        // Current = most recent reading
-        AirQualityData latest = sorted.get(0);
-
-        // History = all readings
-        List<HistoryDataDto> historyList = sorted.stream()
-                .map(HistoryDataDto::from)
-                .collect(Collectors.toList());
+        Iterator<AirQualityPoint> it = newestFirst.iterator();
+        while (it.hasNext()) {
+            AirQualityPoint point = it.next();
+            if (current == null) {
+                current = CurrentDataDto.from(point);
+            }
+            sourcePoints++;
+            if (downsampler != null) {
+                downsampler.accept(point);
+            } else {
+                historyList.add(HistoryDataDto.from(point));
+            }
+        }
 
         return AirQualityResponseDto.builder()
-                .current(CurrentDataDto.from(latest))
-                .history(historyList)
+                .current(current)
+                .history(downsampler != null ? downsampler.finish() : historyList)
+                .sourcePoints(sourcePoints)
                 .build();
     }
 
@@ -72,20 +75,20 @@ public class AirQualityResponseDto {
         private Float o3;
         private String timestampUtc;
 
-        public static CurrentDataDto from(AirQualityData data) {
+        public static CurrentDataDto from(AirQualityPoint data) {
             if (data == null) return null;
 
             return CurrentDataDto.builder()
-                    .id(data.getId())
-                    .locationId(data.getLocation().getId())
-                    .pm25(data.getPm25())
-                    .pm10(data.getPm10())
-                    .aqi(data.getAqi())
-                    .no2(data.getNO2())
-                    .so2(data.getSo2())
-                    .co(data.getCo())
-                    .o3(data.getO3())
-                    .timestampUtc(data.getTimestampUtc().toString())
+                    .id(data.id())
+                    .locationId(data.locationId())
+                    .pm25(data.pm25())
+                    .pm10(data.pm10())
+                    .aqi(data.aqi())
+                    .no2(data.no2())
+                    .so2(data.so2())
+                    .co(data.co())
+                    .o3(data.o3())
+                    .timestampUtc(data.timestampUtc().toString())
                     .build();
         }
     }
@@ -100,16 +103,18 @@ public class AirQualityResponseDto {
         private Float pm25;
         private Float pm10;
         private Integer aqi;
+        private Integer aqiMin;        // ✅ Only set for time-bucket resolution
+        private Integer aqiMax;
         private String timestampUtc;
 
-        public static HistoryDataDto from(AirQualityData data) {
+        public static HistoryDataDto from(AirQualityPoint data) {
             return HistoryDataDto.builder()
-                    .id(data.getId())
-                    .locationId(data.getLocation().getId())
-                    .pm25(data.getPm25())
-                    .pm10(data.getPm10())
-                    .aqi(data.getAqi())
-                    .timestampUtc(data.getTimestampUtc().toString())
+                    .id(data.id())
+                    .locationId(data.locationId())
+                    .pm25(data.pm25())
+                    .pm10(data.pm10())
+                    .aqi(data.aqi())
+                    .timestampUtc(data.timestampUtc().toString())
                     .build();
         }
     }
@@ -0,0 +1,38 @@
+// src/main/java/com/commander/aqm/aqm_back_end/dto/AirQualityRollupDto.java
+package com.commander.aqm.aqm_back_end.dto;
+
+import com.commander.aqm.aqm_back_end.model.AirQualityRollup;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AirQualityRollupDto {
+    private LocalDateTime bucketStart;
+    private String granularity;        // ✅ HOURLY / DAILY
+    private String pollutant;
+    private Double avg;
+    private Double min;
+    private Double max;
+    private Long count;                // ✅ Number of values in the bucket
+
+    public static AirQualityRollupDto from(AirQualityRollup rollup) {
+        if (rollup == null) return null;
+
+        return AirQualityRollupDto.builder()
+                .bucketStart(rollup.getBucketStart())
+                .granularity(rollup.getGranularity() != null ? rollup.getGranularity().name() : null)
+                .pollutant(rollup.getPollutant().name())
+                .avg(rollup.getValueCount() > 0 ? rollup.average() : null)
+                .min(rollup.getMinValue())
+                .max(rollup.getMaxValue())
+                .count(rollup.getValueCount())
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+// src/main/java/com/commander/aqm/aqm_back_end/dto/AlertCursor.java
+package com.commander.aqm.aqm_back_end.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 🔖 Keyset position in an alert listing (newest first, ties broken by id)
+ * Sent to clients as an opaque token; the next page starts strictly after it.
+ */
+public record AlertCursor(LocalDateTime triggeredAt, long id) {
+
+    // Before every real alert: the first page
+    public static final AlertCursor FIRST = new AlertCursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    public static AlertCursor after(AlertRow row) {
+        return new AlertCursor(row.triggeredAt(), row.id());
+    }
+
+    public String encode() {
+        String raw = triggeredAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static AlertCursor decode(String token) {
+        if (token == null || token.isBlank()) return FIRST;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new AlertCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * 📚 Walk every page from the start (unpaged listings), {@code pageSize} rows per query
+     */
+    public static List<AlertRow> readAll(Function<AlertCursor, List<AlertRow>> page, int pageSize) {
+        List<AlertRow> all = new ArrayList<>();
+        AlertCursor cursor = FIRST;
+        while (true) {
+            List<AlertRow> rows = page.apply(cursor);
+            all.addAll(rows);
+            if (rows.size() < pageSize) return all;
+            cursor = after(rows.get(rows.size() - 1));
+        }
+    }
+}
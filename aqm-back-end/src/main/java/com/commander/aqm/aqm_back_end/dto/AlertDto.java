@@ -8,6 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 🔔 Alert Data Transfer Object
@@ -33,6 +34,10 @@ public class AlertDto {
     private Float pm25;
     private Float pm10;
 
+    // Coalesced alerts: number of exceedances and one line per exceedance
+    private int coalescedCount;
+    private List<String> details;
+
     /**
      * 🏭 Convert Alert entity to DTO
      */
@@ -57,6 +62,29 @@ public class AlertDto {
                 .aqi(alert.getAqData() != null ? alert.getAqData().getAqi() : null)
                 .pm25(alert.getAqData() != null ? alert.getAqData().getPm25() : null)
                 .pm10(alert.getAqData() != null ? alert.getAqData().getPm10() : null)
+                .coalescedCount(alert.getCoalescedCount() != null ? alert.getCoalescedCount() : 1)
+                .details(alert.getDetails() != null ? List.of(alert.getDetails().split("\n")) : List.of())
+                .build();
+    }
+
+    /**
+     * 🏭 Convert a list projection to DTO (same shape as {@link #from(Alert)})
+     */
+    public static AlertDto from(AlertRow row) {
+        return AlertDto.builder()
+                .id(row.id())
+                .pollutant(row.pollutant())
+                .value(row.value())
+                .locationName(row.locationName() != null ? row.locationName() : "Unknown")
+                .locationId(row.locationId())
+                .triggeredAt(row.triggeredAt().toString())
+                .isRead(Boolean.TRUE.equals(row.isRead()))
+                .status(row.status() != null ? row.status().name() : "SENT")
+                .aqi(row.aqi())
+                .pm25(row.pm25())
+                .pm10(row.pm10())
+                .coalescedCount(row.coalescedCount() != null ? row.coalescedCount() : 1)
+                .details(row.details() != null ? List.of(row.details().split("\n")) : List.of())
                 .build();
     }
 }
\ No newline at end of file
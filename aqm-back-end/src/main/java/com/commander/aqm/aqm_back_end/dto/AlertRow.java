@@ -0,0 +1,30 @@
+// src/main/java/com/commander/aqm/aqm_back_end/dto/AlertRow.java
+package com.commander.aqm.aqm_back_end.dto;
+
+import com.commander.aqm.aqm_back_end.model.Alert;
+
+import java.time.LocalDateTime;
+
+/**
+ * 📄 Flat alert projection for list endpoints
+ * Filled by a JPQL constructor expression (one query, no User / AlertThreshold /
+ * AirQualityData entities loaded).
+ */
+public record AlertRow(
+        Long id,
+        String pollutant,
+        Float value,
+        LocalDateTime triggeredAt,
+        Boolean isRead,
+        Alert.AlertStatus status,
+        Integer coalescedCount,
+        String details,
+        Long locationId,
+        String locationName,
+        Integer aqi,
+        Float pm25,
+        Float pm10,
+        Long userId,
+        String username
+) {
+}
@@ -0,0 +1,29 @@
+// src/main/java/com/commander/aqm/aqm_back_end/dto/BackfillJobStatus.java
+package com.commander.aqm.aqm_back_end.dto;
+
+import com.commander.aqm.aqm_back_end.model.BackfillCheckpoint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 📈 Progress of a historical backfill job (all locations)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackfillJobStatus {
+
+    private String jobId;
+    private String status;             // ✅ RUNNING until every location is COMPLETED or FAILED
+    private int locations;
+    private int completed;
+    private int failed;
+    private long rowsWritten;
+    private double rowsPerSec;         // ✅ Since this process (re)started the job
+    private List<BackfillCheckpoint> checkpoints;
+}
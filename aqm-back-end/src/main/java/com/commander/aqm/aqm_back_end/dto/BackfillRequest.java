@@ -0,0 +1,13 @@
+package com.commander.aqm.aqm_back_end.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BackfillRequest {
+    private List<Long> locationIds;          // empty = all locations
+    private String fromDate;                 // yyyy-MM-dd (inclusive)
+    private String toDate;                   // yyyy-MM-dd (inclusive)
+    private String source = "openweathermap"; // openweathermap | file
+}
@@ -0,0 +1,30 @@
+// src/main/java/com/commander/aqm/aqm_back_end/dto/IngestionRunStats.java
+package com.commander.aqm.aqm_back_end.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 📈 Throughput and latency summary of one ingestion run
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestionRunStats {
+
+    private String job;
+    private LocalDateTime startedAt;
+    private int total;
+    private int succeeded;
+    private int failed;
+    private long elapsedMs;
+    private double throughputPerSec;   // ✅ Completed items per second (wall clock)
+    private double avgLatencyMs;       // ✅ Per-item latency, excluding rate-limit wait
+    private long p95LatencyMs;
+    private long maxLatencyMs;
+}
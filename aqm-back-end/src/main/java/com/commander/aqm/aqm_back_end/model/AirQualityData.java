@@ -6,7 +6,9 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "AirQualityData")
+// ✅ Every hot query is "one location, a time range" (docs/sql/time_series_indexes.sql)
+@Table(name = "AirQualityData",
+        indexes = @Index(name = "idx_aqd_location_time", columnList = "location_id, timestamp_utc"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -45,7 +47,9 @@ public class AirQualityData {
     @JoinColumn(name = "sensor_id", nullable = false)
     private Sensor sensor;
 
-    @ManyToOne
+    // optional = false: derived "findByLocationId..." queries filter on the FK column
+    // instead of LEFT JOINing Location (which hides idx_aqd_location_time)
+    @ManyToOne(optional = false)
     @JoinColumn(name = "location_id", nullable = false)
     private Location location;
 
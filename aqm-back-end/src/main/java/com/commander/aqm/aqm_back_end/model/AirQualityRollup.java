@@ -0,0 +1,124 @@
+// src/main/java/com/commander/aqm/aqm_back_end/model/AirQualityRollup.java
+package com.commander.aqm.aqm_back_end.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 📦 Pre-aggregated AirQualityData bucket (one row per location, pollutant, hour/day)
+ * Stores sum/count/min/max so averages can be merged across buckets,
+ * plus AQI category counts on AQI rows.
+ */
+@Entity
+@Table(name = "AirQualityRollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rollup_bucket",
+                columnNames = {"location_id", "granularity", "pollutant", "bucket_start"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AirQualityRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Plain column (no FK) so rollups never block location cleanup
+    @Column(name = "location_id", nullable = false)
+    private Long locationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 10)
+    private Granularity granularity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "pollutant", nullable = false, length = 10)
+    private Pollutant pollutant;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    // Number of readings in the bucket (including readings without this pollutant)
+    @Column(name = "reading_count", nullable = false)
+    private long readingCount;
+
+    // Number of non-null values of this pollutant
+    @Column(name = "value_count", nullable = false)
+    private long valueCount;
+
+    @Column(name = "value_sum", nullable = false)
+    private double valueSum;
+
+    @Column(name = "min_value")
+    private Double minValue;
+
+    @Column(name = "max_value")
+    private Double maxValue;
+
+    // ✅ AQI category buckets (only filled on AQI rows)
+    @Column(name = "good_count", nullable = false)
+    private int goodCount;
+
+    @Column(name = "moderate_count", nullable = false)
+    private int moderateCount;
+
+    @Column(name = "unhealthy_count", nullable = false)
+    private int unhealthyCount;
+
+    @Column(name = "hazardous_count", nullable = false)
+    private int hazardousCount;
+
+    /**
+     * Fold one reading into this bucket
+     */
+    public void add(Double value) {
+        readingCount++;
+        if (value == null) return;
+
+        valueCount++;
+        valueSum += value;
+        minValue = minValue == null ? value : Math.min(minValue, value);
+        maxValue = maxValue == null ? value : Math.max(maxValue, value);
+
+        if (pollutant == Pollutant.AQI) {
+            if (value <= 50) goodCount++;
+            else if (value <= 100) moderateCount++;
+            else if (value <= 150) unhealthyCount++;
+            else hazardousCount++;
+        }
+    }
+
+    /**
+     * Fold another bucket (same pollutant) into this one
+     */
+    public void merge(AirQualityRollup other) {
+        readingCount += other.readingCount;
+        if (other.valueCount == 0) return;
+
+        valueCount += other.valueCount;
+        valueSum += other.valueSum;
+        minValue = minValue == null ? other.minValue : Math.min(minValue, other.minValue);
+        maxValue = maxValue == null ? other.maxValue : Math.max(maxValue, other.maxValue);
+        goodCount += other.goodCount;
+        moderateCount += other.moderateCount;
+        unhealthyCount += other.unhealthyCount;
+        hazardousCount += other.hazardousCount;
+    }
+
+    public double average() {
+        return valueCount > 0 ? valueSum / valueCount : 0.0;
+    }
+
+    // ✅ Enum for bucket size
+    public enum Granularity {
+        HOURLY, DAILY;
+
+        public LocalDateTime bucketStart(LocalDateTime timestamp) {
+            return this == HOURLY
+                    ? timestamp.truncatedTo(ChronoUnit.HOURS)
+                    : timestamp.toLocalDate().atStartOfDay();
+        }
+    }
+}
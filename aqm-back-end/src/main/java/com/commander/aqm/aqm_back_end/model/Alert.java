@@ -6,7 +6,14 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "Alert")
+// ✅ Dedup / unread / paged history lookups per user, and time-window scans (warm-up, recent, cleanup)
+@Table(name = "Alert", indexes = {
+        @Index(name = "idx_alert_user_pollutant_time", columnList = "user_id, pollutant, triggered_at"),
+        @Index(name = "idx_alert_user_read_time", columnList = "user_id, is_read, triggered_at"),
+        @Index(name = "idx_alert_user_time", columnList = "user_id, triggered_at"),
+        @Index(name = "idx_alert_triggered", columnList = "triggered_at"),
+        @Index(name = "idx_alert_pending", columnList = "notification_pending, triggered_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -46,6 +53,23 @@ public class Alert {
     @Column(name = "status", nullable = false)
     private AlertStatus status = AlertStatus.SENT;
 
+    // ✅ Coalesced alerts: one row per user and window; every exceedance is an AlertExceedance row,
+    // listed here as text (one per line) for emails and the alert list
+    @Column(name = "details", columnDefinition = "TEXT")
+    private String details;
+
+    @Column(name = "coalesced_count")
+    private Integer coalescedCount;
+
+    // ✅ Window still open: the email is queued once it closes (null on alerts created before windows were stored)
+    @Column(name = "notification_pending")
+    private Boolean notificationPending;
+
+    // Guards the open window against a concurrent append and close
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
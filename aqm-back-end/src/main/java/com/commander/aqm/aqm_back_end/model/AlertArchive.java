@@ -0,0 +1,59 @@
+// src/main/java/com/commander/aqm/aqm_back_end/model/AlertArchive.java
+package com.commander.aqm.aqm_back_end.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * 🗃️ Purged alert kept for history (written by AlertCleanupService when archiving is on)
+ * Plain id columns instead of relations, so archived rows never block deleting
+ * users, readings or thresholds.
+ */
+@Entity
+@Table(name = "AlertArchive",
+        indexes = @Index(name = "idx_alert_archive_user_time", columnList = "user_id, triggered_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlertArchive {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "alert_id", nullable = false)
+    private Long alertId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "location_id")
+    private Long locationId;
+
+    @Column(name = "pollutant", length = 50)
+    private String pollutant;
+
+    @Column(name = "value")
+    private Float value;
+
+    @Column(name = "details", columnDefinition = "TEXT")
+    private String details;
+
+    @Column(name = "coalesced_count")
+    private Integer coalescedCount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Alert.AlertStatus status;
+
+    @Column(name = "triggered_at", nullable = false)
+    private LocalDateTime triggeredAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
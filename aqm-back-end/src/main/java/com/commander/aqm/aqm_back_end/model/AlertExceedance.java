@@ -0,0 +1,60 @@
+// src/main/java/com/commander/aqm/aqm_back_end/model/AlertExceedance.java
+package com.commander.aqm.aqm_back_end.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * 📍 One exceeded limit inside a coalesced Alert
+ * Written when the limit is exceeded (not when the window closes), so every exceedance
+ * survives a restart and the dedup index can be warmed per pollutant and location.
+ */
+@Entity
+@Table(name = "AlertExceedance", indexes = {
+        @Index(name = "idx_exceedance_alert", columnList = "alert_id, triggered_at"),
+        @Index(name = "idx_exceedance_triggered", columnList = "triggered_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlertExceedance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // ✅ Removed together with its alert (cleanup / archive delete in bulk)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "alert_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Alert alert;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "location_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Location location;
+
+    @Column(name = "pollutant", nullable = false, length = 50)
+    private String pollutant;
+
+    @Column(name = "value", nullable = false)
+    private Float value;
+
+    // Limit in force when the reading was evaluated
+    @Column(name = "limit_value")
+    private Float limitValue;
+
+    @Column(name = "triggered_at", nullable = false)
+    private LocalDateTime triggeredAt;
+}
@@ -0,0 +1,81 @@
+// src/main/java/com/commander/aqm/aqm_back_end/model/BackfillCheckpoint.java
+package com.commander.aqm.aqm_back_end.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * 📍 Progress of one location inside a historical backfill job
+ * {@code cursor} is the start of the next chunk to load; it only moves forward
+ * in the same transaction that writes the chunk, so a restart resumes exactly there.
+ * {@code version} makes that write conditional: a second worker holding a stale copy
+ * fails its chunk transaction instead of writing the chunk again.
+ */
+@Entity
+@Table(name = "BackfillCheckpoint",
+        uniqueConstraints = @UniqueConstraint(name = "uk_backfill_job_location", columnNames = {"job_id", "location_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BackfillCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false, length = 36)
+    private String jobId;
+
+    @Column(name = "location_id", nullable = false)
+    private Long locationId;
+
+    @Column(name = "source", nullable = false, length = 20)
+    private String source;
+
+    @Column(name = "range_from", nullable = false)
+    private LocalDateTime rangeFrom;
+
+    @Column(name = "range_to", nullable = false)
+    private LocalDateTime rangeTo;
+
+    @Column(name = "cursor_at", nullable = false)
+    private LocalDateTime cursor;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "rows_written", nullable = false)
+    private long rowsWritten;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // ✅ Enum for checkpoint state
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+}
@@ -0,0 +1,79 @@
+// src/main/java/com/commander/aqm/aqm_back_end/model/EmailOutbox.java
+package com.commander.aqm.aqm_back_end.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * 📬 One pending alert email
+ * Written in the same transaction as its Alert, so an alert is never lost between
+ * commit and SMTP. The dispatcher drains due rows in batches, merges rows of the
+ * same recipient into one digest and reschedules failures with backoff.
+ */
+@Entity
+@Table(name = "EmailOutbox",
+        indexes = @Index(name = "idx_outbox_due", columnList = "status, next_attempt_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "username", nullable = false)
+    private String username;
+
+    @Column(name = "recipient", nullable = false)
+    private String recipient;
+
+    @Column(name = "alert_id")
+    private Long alertId;
+
+    @Column(name = "subject", nullable = false)
+    private String subject;
+
+    // Full single-alert email
+    @Column(name = "body", nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    // One-paragraph version used when several alerts go out as a digest
+    @Column(name = "summary", nullable = false, length = 1000)
+    private String summary;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) nextAttemptAt = createdAt;
+        if (status == null) status = Status.PENDING;
+    }
+
+    public enum Status {
+        PENDING, SENT, FAILED
+    }
+}
@@ -5,6 +5,7 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = @Index(name = "idx_forecast_location_time", columnList = "location_id, timestampUtc"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -1,6 +1,6 @@
 package com.commander.aqm.aqm_back_end.model;
 
 // ✅ THÊM ENUMS
-enum Pollutant {
+public enum Pollutant {
     PM25, PM10, NO2, CO, O3, SO2, AQI
 }
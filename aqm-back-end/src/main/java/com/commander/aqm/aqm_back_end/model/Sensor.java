@@ -6,7 +6,9 @@ import lombok.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "Sensor")
+@Table(name = "Sensor", indexes = {
+        @Index(name = "idx_sensor_location", columnList = "location_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -5,7 +5,8 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "WeatherData")
+@Table(name = "WeatherData",
+        indexes = @Index(name = "idx_weather_location_time", columnList = "location_id, timestampUtc"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,7 +18,7 @@ public class WeatherData {
     private Float temperatureC, humidityPct, windSpeedMps, precipProbabilityPct, pressureHpa;
     private Integer windDirDeg;
 
-    @ManyToOne
+    @ManyToOne(optional = false)
     @JoinColumn(name = "location_id", nullable = false)
     private Location location;
 }
@@ -1,17 +1,20 @@
 package com.commander.aqm.aqm_back_end.repository;
 
 import com.commander.aqm.aqm_back_end.model.AirQualityData;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
-//public interface AirQualityDataRepository extends JpaRepository<AirQualityData, Long> {
+//public interface AirQualityDataRepository extends JpaRepository<AirQualityData, Long>, AirQualityPointStreams {
 //    List<AirQualityData> findByLocationIdAndTimestampUtcBetween(Long locationId, LocalDateTime from, LocalDateTime to);
 //}
 
-public interface AirQualityDataRepository extends JpaRepository<AirQualityData, Long> {
+public interface AirQualityDataRepository extends JpaRepository<AirQualityData, Long>, AirQualityPointStreams {
     List<AirQualityData> findByLocationIdAndTimestampUtcAfter(Long locationId, LocalDateTime after);
 
     List<AirQualityData> findByLocationIdAndTimestampUtcBetween(Long locationId, LocalDateTime from, LocalDateTime to);
@@ -21,4 +24,28 @@ public interface AirQualityDataRepository extends JpaRepository<AirQualityData,
      * Get latest AQI data for a location
      */
     Optional<AirQualityData> findTopByLocationIdOrderByTimestampUtcDesc(Long locationId);
+
+    /**
+     * Newest reading of every location in one query (warms the latest-reading snapshot)
+     */
+    @Query("SELECT a FROM AirQualityData a JOIN FETCH a.location JOIN FETCH a.sensor " +
+            "WHERE a.timestampUtc = (SELECT MAX(b.timestampUtc) FROM AirQualityData b WHERE b.location = a.location)")
+    List<AirQualityData> findLatestPerLocation();
+
+    // ==================== RETENTION ====================
+
+    /**
+     * 🧹 Oldest readings of a location before {@code before} that no alert points to and,
+     * with {@code keepBackfilled}, that no backfill job has loaded (uses idx_aqd_location_time;
+     * deleted in chunks by DataRetentionService)
+     */
+    @Query("SELECT a.id FROM AirQualityData a WHERE a.location.id = :locationId AND a.timestampUtc < :before " +
+            "AND NOT EXISTS (SELECT 1 FROM Alert al WHERE al.aqData = a) " +
+            "AND (:keepBackfilled = false OR NOT EXISTS (SELECT 1 FROM BackfillCheckpoint b " +
+            "WHERE b.locationId = :locationId AND a.timestampUtc >= b.rangeFrom AND a.timestampUtc < b.cursor)) " +
+            "ORDER BY a.timestampUtc")
+    List<Long> findExpiredIds(@Param("locationId") Long locationId,
+                              @Param("before") LocalDateTime before,
+                              @Param("keepBackfilled") boolean keepBackfilled,
+                              Pageable page);
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.commander.aqm.aqm_back_end.repository;
+
+import com.commander.aqm.aqm_back_end.dto.AirQualityPoint;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * 🌊 Streaming projections of AirQualityData (fragment of {@link AirQualityDataRepository})
+ * Must be consumed inside a transaction and closed (try-with-resources).
+ * The JDBC fetch size comes from aqm.history.stream-fetch-size.
+ */
+public interface AirQualityPointStreams {
+
+    /**
+     * Points in [from, to] (inclusive), oldest first
+     */
+    Stream<AirQualityPoint> streamPointsBetween(Long locationId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Points in the half-open range [from, to) - used for rollup edges so bucket boundaries are not counted twice
+     */
+    Stream<AirQualityPoint> streamPointsInRange(Long locationId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Points newer than {@code after}, newest first
+     */
+    Stream<AirQualityPoint> streamPointsAfter(Long locationId, LocalDateTime after);
+}
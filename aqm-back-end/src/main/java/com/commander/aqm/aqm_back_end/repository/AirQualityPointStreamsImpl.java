@@ -0,0 +1,59 @@
+package com.commander.aqm.aqm_back_end.repository;
+
+import com.commander.aqm.aqm_back_end.dto.AirQualityPoint;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * 🌊 Point queries with a configurable fetch size
+ * A positive size works on every driver; MySQL Connector/J only honours it with
+ * useCursorFetch=true in the URL (otherwise it buffers the whole result set).
+ */
+class AirQualityPointStreamsImpl implements AirQualityPointStreams {
+
+    private static final String POINT_SELECT = "SELECT new com.commander.aqm.aqm_back_end.dto.AirQualityPoint(" +
+            "a.id, a.location.id, a.timestampUtc, a.pm25, a.pm10, a.no2, a.co, a.o3, a.so2, a.aqi) " +
+            "FROM AirQualityData a WHERE a.location.id = :locationId AND ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${aqm.history.stream-fetch-size:1000}")
+    private int fetchSize;
+
+    @Override
+    public Stream<AirQualityPoint> streamPointsBetween(Long locationId, LocalDateTime from, LocalDateTime to) {
+        return query(locationId, "a.timestampUtc BETWEEN :from AND :to ORDER BY a.timestampUtc ASC")
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<AirQualityPoint> streamPointsInRange(Long locationId, LocalDateTime from, LocalDateTime to) {
+        return query(locationId, "a.timestampUtc >= :from AND a.timestampUtc < :to ORDER BY a.timestampUtc ASC")
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<AirQualityPoint> streamPointsAfter(Long locationId, LocalDateTime after) {
+        return query(locationId, "a.timestampUtc > :after ORDER BY a.timestampUtc DESC")
+                .setParameter("after", after)
+                .getResultStream();
+    }
+
+    private TypedQuery<AirQualityPoint> query(Long locationId, String condition) {
+        return entityManager.createQuery(POINT_SELECT + condition, AirQualityPoint.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setParameter("locationId", locationId);
+    }
+}
@@ -0,0 +1,50 @@
+package com.commander.aqm.aqm_back_end.repository;
+
+import com.commander.aqm.aqm_back_end.model.AirQualityRollup;
+import com.commander.aqm.aqm_back_end.model.AirQualityRollup.Granularity;
+import com.commander.aqm.aqm_back_end.model.Pollutant;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AirQualityRollupRepository extends JpaRepository<AirQualityRollup, Long> {
+
+    /**
+     * Buckets of one granularity with bucket_start in [from, to)
+     */
+    @Query("SELECT r FROM AirQualityRollup r WHERE r.locationId = :locationId AND r.granularity = :granularity " +
+            "AND r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.bucketStart")
+    List<AirQualityRollup> findBuckets(@Param("locationId") Long locationId,
+                                       @Param("granularity") Granularity granularity,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to);
+
+    List<AirQualityRollup> findByLocationIdAndPollutantAndGranularityAndBucketStartBetweenOrderByBucketStart(
+            Long locationId, Pollutant pollutant, Granularity granularity, LocalDateTime from, LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM AirQualityRollup r WHERE r.locationId = :locationId " +
+            "AND r.bucketStart >= :from AND r.bucketStart < :to")
+    int deleteBuckets(@Param("locationId") Long locationId,
+                      @Param("from") LocalDateTime from,
+                      @Param("to") LocalDateTime to);
+
+    /**
+     * 🧹 Oldest buckets of one granularity before {@code before} (retention)
+     */
+    @Query("SELECT r.id FROM AirQualityRollup r WHERE r.locationId = :locationId AND r.granularity = :granularity " +
+            "AND r.bucketStart < :before ORDER BY r.bucketStart")
+    List<Long> findExpiredIds(@Param("locationId") Long locationId,
+                              @Param("granularity") Granularity granularity,
+                              @Param("before") LocalDateTime before,
+                              Pageable page);
+
+    @Modifying
+    @Query("DELETE FROM AirQualityRollup r WHERE r.locationId = :locationId")
+    int deleteByLocationId(@Param("locationId") Long locationId);
+}
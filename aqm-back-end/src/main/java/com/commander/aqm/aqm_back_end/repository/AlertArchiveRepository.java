@@ -0,0 +1,23 @@
+package com.commander.aqm.aqm_back_end.repository;
+
+import com.commander.aqm.aqm_back_end.model.AlertArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface AlertArchiveRepository extends JpaRepository<AlertArchive, Long> {
+
+    /**
+     * 🗃️ Copy alerts into the archive with one INSERT ... SELECT (no entities loaded)
+     */
+    @Modifying
+    @Query("INSERT INTO AlertArchive (alertId, userId, locationId, pollutant, value, details, coalescedCount, " +
+            "status, triggeredAt, createdAt, archivedAt) " +
+            "SELECT a.id, a.user.id, a.aqData.location.id, a.pollutant, a.value, a.details, a.coalescedCount, " +
+            "a.status, a.triggeredAt, a.createdAt, :archivedAt FROM Alert a WHERE a.id IN :ids")
+    int archive(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+}
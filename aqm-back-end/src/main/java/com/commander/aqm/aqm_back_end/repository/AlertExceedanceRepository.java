@@ -0,0 +1,29 @@
+// src/main/java/com/commander/aqm/aqm_back_end/repository/AlertExceedanceRepository.java
+package com.commander.aqm.aqm_back_end.repository;
+
+import com.commander.aqm.aqm_back_end.model.AlertExceedance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AlertExceedanceRepository extends JpaRepository<AlertExceedance, Long> {
+
+    /**
+     * Exceedances of one alert, oldest first (uses idx_exceedance_alert)
+     */
+    @Query("SELECT e FROM AlertExceedance e LEFT JOIN FETCH e.location " +
+            "WHERE e.alert.id = :alertId ORDER BY e.triggeredAt, e.id")
+    List<AlertExceedance> findByAlertId(@Param("alertId") Long alertId);
+
+    /**
+     * Keys of exceedances triggered after a point in time: [userId, pollutant, locationId, triggeredAt]
+     * (warms the in-memory dedup index with every pollutant, not only the alert headline)
+     */
+    @Query("SELECT e.userId, e.pollutant, e.location.id, e.triggeredAt FROM AlertExceedance e WHERE e.triggeredAt > :after")
+    List<Object[]> findDedupKeysTriggeredAfter(@Param("after") LocalDateTime after);
+}
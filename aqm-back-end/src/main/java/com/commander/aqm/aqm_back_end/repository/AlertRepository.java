@@ -1,13 +1,19 @@
 // src/main/java/com/commander/aqm/aqm_back_end/repository/AlertRepository.java
 package com.commander.aqm.aqm_back_end.repository;
 
+import com.commander.aqm.aqm_back_end.dto.AlertRow;
 import com.commander.aqm.aqm_back_end.model.Alert;
 import com.commander.aqm.aqm_back_end.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -32,6 +38,77 @@ public interface AlertRepository extends JpaRepository<Alert, Long> {
             LocalDateTime after
     );
 
+    /**
+     * Keys of alerts triggered after a point in time: [userId, pollutant, locationId, triggeredAt]
+     * (warms the in-memory dedup index)
+     */
+    @Query("SELECT a.user.id, a.pollutant, a.aqData.location.id, a.triggeredAt FROM Alert a WHERE a.triggeredAt > :after")
+    List<Object[]> findDedupKeysTriggeredAfter(LocalDateTime after);
+
+    /**
+     * 🧺 Alert windows of these users that are still collecting exceedances, newest first
+     * (one query for every user of a reading; uses idx_alert_user_time, references fetched in the same query)
+     */
+    @Query("SELECT a FROM Alert a JOIN FETCH a.user JOIN FETCH a.threshold " +
+            "JOIN FETCH a.aqData d JOIN FETCH d.location JOIN FETCH d.sensor " +
+            "WHERE a.user.id IN :userIds AND a.triggeredAt > :openedAfter " +
+            "AND a.notificationPending = true ORDER BY a.triggeredAt DESC")
+    List<Alert> findOpenWindows(@Param("userIds") Collection<Long> userIds,
+                                @Param("openedAfter") LocalDateTime openedAfter);
+
+    /**
+     * 🧺 Windows opened before {@code openedBefore} whose email is not queued yet (uses idx_alert_pending)
+     */
+    @Query("SELECT a FROM Alert a WHERE a.notificationPending = true AND a.triggeredAt < :openedBefore " +
+            "ORDER BY a.triggeredAt")
+    List<Alert> findClosedWindows(@Param("openedBefore") LocalDateTime openedBefore, Pageable page);
+
+    // ==================== KEYSET LISTING ====================
+    // Newest first on (triggeredAt, id). "triggeredAt <= ts" keeps the condition a plain
+    // index range; the OR only breaks ties inside the cursor's timestamp.
+
+    String ROW_SELECT = "SELECT new com.commander.aqm.aqm_back_end.dto.AlertRow(" +
+            "a.id, a.pollutant, a.value, a.triggeredAt, a.isRead, a.status, a.coalescedCount, a.details, " +
+            "l.id, l.name, d.aqi, d.pm25, d.pm10, u.id, u.username) " +
+            "FROM Alert a JOIN a.aqData d JOIN d.location l JOIN a.user u ";
+
+    String AFTER_CURSOR = "a.triggeredAt <= :ts AND (a.triggeredAt < :ts OR a.id < :id) " +
+            "ORDER BY a.triggeredAt DESC, a.id DESC";
+
+    /**
+     * 📄 One page of a user's alerts (uses idx_alert_user_time)
+     */
+    @Query(ROW_SELECT + "WHERE a.user.id = :userId AND " + AFTER_CURSOR)
+    List<AlertRow> findPageByUser(@Param("userId") Long userId,
+                                  @Param("ts") LocalDateTime ts,
+                                  @Param("id") Long id,
+                                  Pageable page);
+
+    /**
+     * 📄 One page of a user's unread alerts (uses idx_alert_user_read_time)
+     */
+    @Query(ROW_SELECT + "WHERE a.user.id = :userId AND a.isRead = false AND " + AFTER_CURSOR)
+    List<AlertRow> findUnreadPageByUser(@Param("userId") Long userId,
+                                        @Param("ts") LocalDateTime ts,
+                                        @Param("id") Long id,
+                                        Pageable page);
+
+    /**
+     * 📄 One page of all users' alerts (admin, uses idx_alert_triggered)
+     */
+    @Query(ROW_SELECT + "WHERE " + AFTER_CURSOR)
+    List<AlertRow> findPage(@Param("ts") LocalDateTime ts,
+                            @Param("id") Long id,
+                            Pageable page);
+
+    long countByUser(User user);
+
+    /**
+     * 📊 [pollutant, count] for a user's alerts
+     */
+    @Query("SELECT a.pollutant, COUNT(a) FROM Alert a WHERE a.user = :user GROUP BY a.pollutant")
+    List<Object[]> countByPollutant(@Param("user") User user);
+
     /**
      * ✅ NEW: Count unread alerts for user
      */
@@ -50,8 +127,17 @@ public interface AlertRepository extends JpaRepository<Alert, Long> {
     List<Alert> findRecentAlerts(LocalDateTime after);
 
     /**
-     * ✅ NEW: Delete old read alerts (cleanup)
+     * ✅ Delete old read alerts in one statement
+     * (the scheduled AlertCleanupService deletes in chunks instead to keep locks short)
      */
+    @Modifying
+    @Transactional
     @Query("DELETE FROM Alert a WHERE a.isRead = true AND a.triggeredAt < :before")
-    void deleteOldReadAlerts(LocalDateTime before);
+    int deleteOldReadAlerts(@Param("before") LocalDateTime before);
+
+    /**
+     * 🧹 Oldest read alerts triggered before {@code before} (one cleanup chunk, uses idx_alert_triggered)
+     */
+    @Query("SELECT a.id FROM Alert a WHERE a.isRead = true AND a.triggeredAt < :before ORDER BY a.triggeredAt")
+    List<Long> findReadIdsBefore(@Param("before") LocalDateTime before, Pageable page);
 }
\ No newline at end of file
@@ -1,11 +1,21 @@
 package com.commander.aqm.aqm_back_end.repository;
 
 import com.commander.aqm.aqm_back_end.model.AlertThreshold;
+import com.commander.aqm.aqm_back_end.model.Status;
 import com.commander.aqm.aqm_back_end.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface AlertThresholdRepository extends JpaRepository<AlertThreshold, Long> {
     Optional<AlertThreshold> findByUser(User user);
+
+    /**
+     * All thresholds of users in a given status, with the user fetched in the same query
+     */
+    @Query("SELECT t FROM AlertThreshold t JOIN FETCH t.user u WHERE u.status = :status")
+    List<AlertThreshold> findAllByUserStatus(@Param("status") Status status);
 }
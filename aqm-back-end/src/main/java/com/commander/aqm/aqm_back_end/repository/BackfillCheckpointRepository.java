@@ -0,0 +1,43 @@
+package com.commander.aqm.aqm_back_end.repository;
+
+import com.commander.aqm.aqm_back_end.model.BackfillCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface BackfillCheckpointRepository extends JpaRepository<BackfillCheckpoint, Long> {
+
+    List<BackfillCheckpoint> findByJobIdOrderByLocationIdAsc(String jobId);
+
+    List<BackfillCheckpoint> findByLocationId(Long locationId);
+
+    List<BackfillCheckpoint> findByStatusIn(Collection<BackfillCheckpoint.Status> statuses);
+
+    /**
+     * RUNNING checkpoints whose worker has not committed a chunk since {@code before} (lease expired)
+     */
+    List<BackfillCheckpoint> findByStatusAndUpdatedAtBefore(BackfillCheckpoint.Status status, LocalDateTime before);
+
+    /**
+     * ✅ Atomically move a checkpoint to RUNNING if it is still in one of {@code claimable},
+     * or if it is RUNNING with a lease that expired ({@code updatedAt} before {@code staleBefore})
+     * @return 1 if this caller owns the checkpoint now, 0 if someone else claimed it first
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE BackfillCheckpoint c SET c.status = :running, c.lastError = null, " +
+            "c.version = c.version + 1, c.updatedAt = :now " +
+            "WHERE c.id = :id AND (c.status IN :claimable " +
+            "OR (c.status = :running AND c.updatedAt < :staleBefore))")
+    int claim(@Param("id") Long id,
+              @Param("claimable") Collection<BackfillCheckpoint.Status> claimable,
+              @Param("running") BackfillCheckpoint.Status running,
+              @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore);
+}
@@ -0,0 +1,34 @@
+package com.commander.aqm.aqm_back_end.repository;
+
+import com.commander.aqm.aqm_back_end.model.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * ✅ Due rows, oldest first (uses idx_outbox_due)
+     */
+    @Query("SELECT o FROM EmailOutbox o WHERE o.status = :status AND o.nextAttemptAt <= :now ORDER BY o.id")
+    List<EmailOutbox> findDue(@Param("status") EmailOutbox.Status status,
+                              @Param("now") LocalDateTime now,
+                              Pageable page);
+
+    long countByStatus(EmailOutbox.Status status);
+
+    /**
+     * 🧹 Drop delivered rows older than the retention window
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EmailOutbox o WHERE o.status = :status AND o.sentAt < :before")
+    int deleteByStatusAndSentAtBefore(@Param("status") EmailOutbox.Status status,
+                                      @Param("before") LocalDateTime before);
+}
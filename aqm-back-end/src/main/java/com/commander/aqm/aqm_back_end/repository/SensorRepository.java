@@ -3,5 +3,12 @@ package com.commander.aqm.aqm_back_end.repository;
 import com.commander.aqm.aqm_back_end.model.Sensor;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Optional;
+
 public interface SensorRepository extends JpaRepository<Sensor, Long> {
+
+    /**
+     * Get the primary (oldest) sensor of a location - uses idx_sensor_location
+     */
+    Optional<Sensor> findFirstByLocationIdOrderByIdAsc(Long locationId);
 }
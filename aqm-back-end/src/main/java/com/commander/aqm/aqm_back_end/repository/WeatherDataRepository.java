@@ -2,7 +2,10 @@
 package com.commander.aqm.aqm_back_end.repository;
 
 import com.commander.aqm.aqm_back_end.model.WeatherData;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -31,4 +34,13 @@ public interface WeatherDataRepository extends JpaRepository<WeatherData, Long>
      * ✅ NEW: Get latest N records for location
      */
     List<WeatherData> findTop10ByLocationIdOrderByTimestampUtcDesc(Long locationId);
+
+    /**
+     * 🧹 Oldest records of a location before {@code before} (uses idx_weather_location_time)
+     */
+    @Query("SELECT w.id FROM WeatherData w WHERE w.location.id = :locationId AND w.timestampUtc < :before " +
+            "ORDER BY w.timestampUtc")
+    List<Long> findExpiredIds(@Param("locationId") Long locationId,
+                              @Param("before") LocalDateTime before,
+                              Pageable page);
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+// src/main/java/com/commander/aqm/aqm_back_end/security/AqmUserPrincipal.java
+package com.commander.aqm.aqm_back_end.security;
+
+import com.commander.aqm.aqm_back_end.model.Role;
+import com.commander.aqm.aqm_back_end.model.User;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 🪪 Authenticated principal placed in the security context by JwtAuthFilter
+ * Carries id, username and role so controllers need no user query for them.
+ * Immutable (no CredentialsContainer): instances are shared through UserCache,
+ * so credential erasure must never touch them.
+ */
+@Getter
+public class AqmUserPrincipal implements UserDetails {
+
+    private final Long id;
+    private final String username;
+    private final String password;
+    private final Role role;
+    private final List<GrantedAuthority> authorities;
+
+    private AqmUserPrincipal(Long id, String username, String password, Role role) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.role = role;
+        // ✅ CRITICAL FIX: Add "ROLE_" prefix ("ROLE_ADMIN" or "ROLE_USER")
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    public static AqmUserPrincipal from(User user) {
+        return new AqmUserPrincipal(user.getId(), user.getUsername(), user.getPasswordHash(), user.getRole());
+    }
+
+    public boolean isAdmin() {
+        return role == Role.ADMIN;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String toString() {
+        return "AqmUserPrincipal[id=" + id + ", username=" + username + ", role=" + role + "]";
+    }
+}
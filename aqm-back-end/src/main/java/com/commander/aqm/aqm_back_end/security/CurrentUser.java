@@ -0,0 +1,17 @@
+// src/main/java/com/commander/aqm/aqm_back_end/security/CurrentUser.java
+package com.commander.aqm.aqm_back_end.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 🪪 Inject the authenticated user into a controller method
+ * Works on {@link AqmUserPrincipal} (no lookup) and on
+ * {@link com.commander.aqm.aqm_back_end.model.User} (served from UserCache).
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUser {
+}
@@ -0,0 +1,62 @@
+// src/main/java/com/commander/aqm/aqm_back_end/security/CurrentUserArgumentResolver.java
+package com.commander.aqm.aqm_back_end.security;
+
+import com.commander.aqm.aqm_back_end.exception.AuthException;
+import com.commander.aqm.aqm_back_end.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * 🪪 Resolves {@link CurrentUser} parameters from the principal set by JwtAuthFilter
+ * The User entity is looked up at most once per request (and not at all while cached).
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private static final String USER_ATTRIBUTE = CurrentUserArgumentResolver.class.getName() + ".user";
+
+    private final UserCache userCache;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        Class<?> type = parameter.getParameterType();
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && (type == AqmUserPrincipal.class || type == User.class);
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        AqmUserPrincipal principal = currentPrincipal();
+        if (parameter.getParameterType() == AqmUserPrincipal.class) {
+            return principal;
+        }
+
+        Object resolved = webRequest.getAttribute(USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (resolved instanceof User user) {
+            return user;
+        }
+
+        User user = userCache.findUser(principal.getUsername())
+                .orElseThrow(() -> new AuthException("User not found"));
+        webRequest.setAttribute(USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        return user;
+    }
+
+    private static AqmUserPrincipal currentPrincipal() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof AqmUserPrincipal principal) {
+            return principal;
+        }
+        throw new AuthException("Not authenticated");
+    }
+}
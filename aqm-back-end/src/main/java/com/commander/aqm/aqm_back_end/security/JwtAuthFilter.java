@@ -6,6 +6,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -14,7 +15,9 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
+@Slf4j
 @RequiredArgsConstructor
 public class JwtAuthFilter extends OncePerRequestFilter {
 
@@ -31,54 +34,46 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         String path = request.getRequestURI();
         String authHeader = request.getHeader("Authorization");
 
-        // ✅ DEBUG: Log every request
-        System.out.println("🌐 Request: " + request.getMethod() + " " + path);
-        System.out.println("🔑 Auth Header: " + (authHeader != null ? "Present" : "Missing"));
+        // ✅ Per-request trace only at DEBUG (guarded, runs on every request)
+        if (log.isDebugEnabled()) {
+            log.debug("🌐 Request: {} {} (auth header {})", request.getMethod(), path,
+                    authHeader != null ? "present" : "missing");
+        }
 
         if (isPublicEndpoint(path)) {
-            System.out.println("✅ Public endpoint, skipping auth");
             filterChain.doFilter(request, response);
             return;
         }
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            System.out.println("❌ No valid auth header");
             filterChain.doFilter(request, response);
             return;
         }
 
         try {
             String token = authHeader.substring(7);
-            String username = jwtUtils.extractUsername(token);
-
-            System.out.println("🔐 Token username: " + username);
-
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                if (jwtUtils.isTokenValid(token)) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            // ✅ One signature check per token (cached until the token expires)
+            Optional<JwtUtils.VerifiedToken> verified = jwtUtils.verify(token);
 
-                    // ✅ CRITICAL DEBUG
-                    System.out.println("🔐 User loaded: " + userDetails.getUsername());
-                    System.out.println("🔐 Authorities: " + userDetails.getAuthorities());
+            if (verified.isEmpty()) {
+                log.debug("❌ Token validation failed for {}", path);
+            } else if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                UserDetails userDetails = userDetailsService.loadUserByUsername(verified.get().username());
 
-                    UsernamePasswordAuthenticationToken authToken =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails,
-                                    null,
-                                    userDetails.getAuthorities()
-                            );
+                UsernamePasswordAuthenticationToken authToken =
+                        new UsernamePasswordAuthenticationToken(
+                                userDetails,
+                                null,
+                                userDetails.getAuthorities()
+                        );
 
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
 
-                    System.out.println("✅ Authentication set successfully");
-                } else {
-                    System.out.println("❌ Token validation failed");
-                }
+                log.debug("🔐 Authenticated {} with {}", userDetails.getUsername(), userDetails.getAuthorities());
             }
         } catch (Exception e) {
-            System.err.println("❌ JWT Filter Error: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("❌ JWT Filter Error on {}: {}", path, e.getMessage());
         }
 
         filterChain.doFilter(request, response);
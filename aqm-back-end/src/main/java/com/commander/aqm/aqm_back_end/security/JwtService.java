@@ -1,35 +0,0 @@
-package com.commander.aqm.aqm_back_end.security;
-
-import com.commander.aqm.aqm_back_end.model.User;
-import com.commander.aqm.aqm_back_end.repository.UserRepository;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import jakarta.servlet.http.HttpServletRequest;
-import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Service;
-
-@Service
-@RequiredArgsConstructor
-public class JwtService {
-
-    private final UserRepository userRepository;
-
-    @Value("${jwt.secret}")
-    private String secret;
-
-    public User extractUser(String authHeader) {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            return null;
-        }
-
-        String token = authHeader.substring(7);
-        Claims claims = Jwts.parser()
-                .setSigningKey(secret.getBytes())
-                .parseClaimsJws(token)
-                .getBody();
-
-        String username = claims.getSubject();
-        return userRepository.findByUsername(username).orElse(null);
-    }
-}
@@ -7,18 +7,38 @@ import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtUtils {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private final Long expiration;
+    private final int tokenCacheSize;
+    private final Key signingKey;
+    private final JwtParser parser;
 
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    // ✅ Verified tokens → subject; an entry never outlives the token's own exp
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    public JwtUtils(@Value("${jwt.secret}") String secret,
+                    @Value("${jwt.expiration}") Long expiration,
+                    @Value("${aqm.security.token-cache-size:10000}") int tokenCacheSize) {
+        this.expiration = expiration;
+        this.tokenCacheSize = Math.max(0, tokenCacheSize);
+        // ✅ Key and parser are immutable and thread-safe, build them once
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
+    /**
+     * Subject and expiry of a token whose signature has been checked
+     */
+    public record VerifiedToken(String username, long expiresAtMillis) {
+        boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
     }
 
     public String generateToken(String username) {
@@ -26,22 +46,60 @@ public class JwtUtils {
                 .setSubject(username)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * 🔐 Verify a token once and return its subject
+     * Repeated calls with the same token are served from a bounded cache until the
+     * token expires; invalid or expired tokens return empty and are never cached.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        if (token == null || token.isBlank()) return Optional.empty();
+
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = verifiedTokens.get(token);
+        if (cached != null) {
+            if (!cached.isExpired(now)) return Optional.of(cached);
+            verifiedTokens.remove(token, cached);
+            return Optional.empty();
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        if (claims.getSubject() == null) return Optional.empty();
+        // Tokens without exp are still accepted but only cached for one expiration period
+        long expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() : now + expiration;
+        VerifiedToken verified = new VerifiedToken(claims.getSubject(), expiresAt);
+        cache(token, verified, now);
+        return Optional.of(verified);
+    }
+
     public String extractUsername(String token) {
-        return Jwts.parserBuilder().setSigningKey(getSigningKey()).build()
-                .parseClaimsJws(token).getBody().getSubject();
+        return verify(token)
+                .map(VerifiedToken::username)
+                .orElseThrow(() -> new JwtException("Invalid or expired token"));
     }
 
     public boolean isTokenValid(String token) {
-        try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (JwtException e) {
-            return false;
+        return verify(token).isPresent();
+    }
+
+    private void cache(String token, VerifiedToken verified, long now) {
+        if (tokenCacheSize == 0) return;
+        if (verifiedTokens.size() >= tokenCacheSize) {
+            // Drop expired tokens first; if every entry is still live, start over
+            verifiedTokens.values().removeIf(t -> t.isExpired(now));
+            if (verifiedTokens.size() >= tokenCacheSize) {
+                verifiedTokens.clear();
+            }
         }
+        verifiedTokens.put(token, verified);
     }
 }
@@ -0,0 +1,101 @@
+// src/main/java/com/commander/aqm/aqm_back_end/security/UserCache.java
+package com.commander.aqm.aqm_back_end.security;
+
+import com.commander.aqm.aqm_back_end.model.User;
+import com.commander.aqm.aqm_back_end.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 👤 Username → User + authorities cache for the authentication path
+ * Every authenticated request needs the user and its role; entries are loaded with
+ * one query and kept for a short TTL. Code that changes or deletes a user must
+ * call {@link #evict(User)} so role/password changes apply immediately.
+ */
+@Component
+@Slf4j
+public class UserCache {
+
+    private final UserRepository userRepo;
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Map<String, Entry> usersByName = new ConcurrentHashMap<>();
+
+    private record Entry(User user, AqmUserPrincipal principal, long expiresAtNanos) {
+    }
+
+    public UserCache(UserRepository userRepo,
+                     @Value("${aqm.security.user-cache-ttl-seconds:300}") long ttlSeconds,
+                     @Value("${aqm.security.user-cache-size:10000}") int maxSize) {
+        this.userRepo = userRepo;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(0, ttlSeconds));
+        this.maxSize = Math.max(0, maxSize);
+    }
+
+    /**
+     * Get a user by username (cached; unknown users are not cached)
+     */
+    public Optional<User> findUser(String username) {
+        return entry(username).map(Entry::user);
+    }
+
+    /**
+     * Get the authenticated principal of a user (cached together with the user)
+     */
+    public Optional<AqmUserPrincipal> findPrincipal(String username) {
+        return entry(username).map(Entry::principal);
+    }
+
+    /**
+     * Drop a user after it was updated or deleted (by username and by id, in case it was renamed)
+     */
+    public void evict(User user) {
+        if (user == null) return;
+        if (user.getUsername() != null) {
+            usersByName.remove(user.getUsername());
+        }
+        if (user.getId() != null) {
+            evictById(user.getId());
+        }
+    }
+
+    public void evictById(Long userId) {
+        if (usersByName.values().removeIf(e -> userId.equals(e.user().getId()))) {
+            log.debug("👤 User cache evicted for user {}", userId);
+        }
+    }
+
+    public void clear() {
+        usersByName.clear();
+    }
+
+    private Optional<Entry> entry(String username) {
+        if (username == null) return Optional.empty();
+
+        long now = System.nanoTime();
+        Entry cached = usersByName.get(username);
+        if (cached != null && now - cached.expiresAtNanos() < 0) {
+            return Optional.of(cached);
+        }
+
+        Optional<Entry> loaded = userRepo.findByUsername(username)
+                .map(user -> new Entry(user, AqmUserPrincipal.from(user), now + ttlNanos));
+
+        if (loaded.isPresent() && ttlNanos > 0 && maxSize > 0) {
+            if (usersByName.size() >= maxSize) {
+                usersByName.values().removeIf(e -> now - e.expiresAtNanos() >= 0);
+                if (usersByName.size() >= maxSize) usersByName.clear();
+            }
+            usersByName.put(username, loaded.get());
+        } else if (cached != null) {
+            usersByName.remove(username, cached);
+        }
+        return loaded;
+    }
+}
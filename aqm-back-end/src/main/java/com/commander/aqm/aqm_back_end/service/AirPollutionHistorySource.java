@@ -0,0 +1,38 @@
+// src/main/java/com/commander/aqm/aqm_back_end/service/AirPollutionHistorySource.java
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.dto.AirPollutionSample;
+import com.commander.aqm.aqm_back_end.model.Location;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 🗄️ Source of historical air pollution readings for the backfill job
+ * Items come from the OpenWeatherMap air_pollution "list" format:
+ * {@code { "dt": epochSeconds, "main": { "aqi": 1-5 }, "components": { "pm2_5": ..., ... } }}
+ * parsed by {@link OpenWeatherMapParser}
+ */
+public interface AirPollutionHistorySource {
+
+    /**
+     * Name used in backfill requests (e.g. "openweathermap", "file")
+     */
+    String name();
+
+    /**
+     * Whether each fetch calls a rate-limited external API
+     */
+    boolean rateLimited();
+
+    /**
+     * Readings with {@code from <= dt < to}, in any order
+     */
+    List<AirPollutionSample> fetch(Location location, LocalDateTime from, LocalDateTime to) throws Exception;
+
+    /**
+     * Drop anything cached for a location once its backfill is done
+     */
+    default void release(Location location) {
+    }
+}
@@ -0,0 +1,263 @@
+// src/main/java/com/commander/aqm/aqm_back_end/service/AirQualityRollupService.java
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.dto.AirQualityPoint;
+import com.commander.aqm.aqm_back_end.model.AirQualityData;
+import com.commander.aqm.aqm_back_end.model.AirQualityRollup;
+import com.commander.aqm.aqm_back_end.model.AirQualityRollup.Granularity;
+import com.commander.aqm.aqm_back_end.model.Pollutant;
+import com.commander.aqm.aqm_back_end.repository.AirQualityDataRepository;
+import com.commander.aqm.aqm_back_end.repository.AirQualityRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * 📦 Hourly / daily rollups of AirQualityData
+ * New readings are folded into their buckets as they are saved, so reports
+ * read a handful of pre-aggregated rows instead of every raw reading.
+ * Raw rows are only read for partial hours at the edges of a range.
+ * Bucket writes are upserts ({@link BulkWriter#upsertRollups}): one JDBC batch
+ * per reading, no read-modify-write.
+ */
+@Service
+@Slf4j
+public class AirQualityRollupService implements IngestionEventSubscriber {
+
+    private final AirQualityRollupRepository rollupRepo;
+    private final AirQualityDataRepository airRepo;
+    private final BulkWriter bulkWriter;
+    private final DataRetentionService retentionService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+
+    // One lock per location so a reading is never folded into a day that is being rebuilt
+    private final Map<Long, Object> locationLocks = new ConcurrentHashMap<>();
+
+    public AirQualityRollupService(AirQualityRollupRepository rollupRepo,
+                                   AirQualityDataRepository airRepo,
+                                   BulkWriter bulkWriter,
+                                   DataRetentionService retentionService,
+                                   PlatformTransactionManager transactionManager) {
+        this.rollupRepo = rollupRepo;
+        this.airRepo = airRepo;
+        this.bulkWriter = bulkWriter;
+        this.retentionService = retentionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+    }
+
+    /**
+     * ➕ Fold a freshly saved reading into its hourly and daily buckets
+     */
+    public void record(AirQualityData data) {
+        AirQualityPoint point = AirQualityPoint.of(data);
+        Long locationId = point.locationId();
+        LocalDateTime hour = Granularity.HOURLY.bucketStart(point.timestampUtc());
+        LocalDateTime day = Granularity.DAILY.bucketStart(point.timestampUtc());
+
+        // One delta row per granularity and pollutant, added to the stored buckets in one batch
+        List<AirQualityRollup> deltas = new ArrayList<>(Granularity.values().length * Pollutant.values().length);
+        for (Granularity granularity : Granularity.values()) {
+            LocalDateTime bucketStart = granularity == Granularity.HOURLY ? hour : day;
+            for (Pollutant pollutant : Pollutant.values()) {
+                AirQualityRollup delta = newBucket(locationId, granularity, pollutant, bucketStart);
+                delta.add(point.value(pollutant));
+                deltas.add(delta);
+            }
+        }
+
+        synchronized (lockFor(locationId)) {
+            bulkWriter.upsertRollups(deltas);
+        }
+    }
+
+    @Override
+    public String subscriberName() {
+        return "rollups";
+    }
+
+    /**
+     * 📣 Fold every newly ingested reading into its buckets
+     */
+    @Override
+    public void onIngested(LocationIngestedEvent event) {
+        if (event.airQuality() == null) return;
+        try {
+            record(event.airQuality());
+        } catch (Exception e) {
+            // Reading is already saved; /api/admin/rollups/rebuild repairs the buckets
+            log.warn("⚠️ Rollup update failed for {}: {}", event.location().getName(), e.getMessage());
+        }
+    }
+
+    /**
+     * 🔁 Readings the bus could not deliver in time: rebuild their buckets from raw data
+     */
+    @Override
+    public void recover(Long locationId, LocalDateTime from, LocalDateTime to) {
+        rebuild(locationId, from, to);
+    }
+
+    /**
+     * 🔁 Recompute all buckets of a location from raw data.
+     * The range is widened to whole days; each day is rebuilt in its own transaction.
+     * Days whose raw readings are (partly) purged are left alone: the stored buckets
+     * are the only complete copy ({@link DataRetentionService#completeRawDays}).
+     */
+    public int rebuild(Long locationId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime dayStart = Granularity.DAILY.bucketStart(from);
+        LocalDateTime end = Granularity.DAILY.bucketStart(to).plusDays(1);
+        Predicate<LocalDateTime> complete = retentionService.completeRawDays(locationId);
+        int buckets = 0;
+        int kept = 0;
+
+        synchronized (lockFor(locationId)) {
+            for (LocalDateTime day = dayStart; day.isBefore(end); day = day.plusDays(1)) {
+                if (!complete.test(day)) {
+                    kept++;
+                    continue;
+                }
+                LocalDateTime dayFrom = day;
+                Integer saved = transactionTemplate.execute(status -> rebuildDay(locationId, dayFrom));
+                buckets += saved != null ? saved : 0;
+            }
+        }
+
+        if (kept > 0) {
+            log.info("⏭️ Kept the rollups of {} days of location {} (raw data past retention)", kept, locationId);
+        }
+        log.info("🔁 Rebuilt {} rollup buckets for location {} ({} → {})", buckets, locationId, dayStart, end);
+        return buckets;
+    }
+
+    private int rebuildDay(Long locationId, LocalDateTime day) {
+        LocalDateTime nextDay = day.plusDays(1);
+
+        Map<String, AirQualityRollup> buckets = new HashMap<>();
+        try (Stream<AirQualityPoint> points = airRepo.streamPointsInRange(locationId, day, nextDay)) {
+            points.forEach(point -> {
+                for (Granularity granularity : Granularity.values()) {
+                    LocalDateTime bucketStart = granularity.bucketStart(point.timestampUtc());
+                    for (Pollutant pollutant : Pollutant.values()) {
+                        buckets.computeIfAbsent(granularity + ":" + pollutant + ":" + bucketStart,
+                                        key -> newBucket(locationId, granularity, pollutant, bucketStart))
+                                .add(point.value(pollutant));
+                    }
+                }
+            });
+        }
+        // ✅ No raw rows: nothing to rebuild from, keep whatever buckets the day has
+        if (buckets.isEmpty()) return 0;
+
+        // Joins the day's transaction, so the delete and the new buckets commit together
+        rollupRepo.deleteBuckets(locationId, day, nextDay);
+        bulkWriter.upsertRollups(buckets.values());
+        return buckets.size();
+    }
+
+    /**
+     * 📊 Statistics for [from, to] (inclusive, like the raw Between queries).
+     * Full days come from daily buckets, full hours from hourly buckets,
+     * and only the partial hours at both edges are read from raw data.
+     */
+    public AirQualityStatsAccumulator summarize(Long locationId, LocalDateTime from, LocalDateTime to) {
+        return readOnlyTemplate.execute(status -> summarizeInTransaction(locationId, from, to));
+    }
+
+    private AirQualityStatsAccumulator summarizeInTransaction(Long locationId, LocalDateTime from, LocalDateTime to) {
+        AirQualityStatsAccumulator totals = new AirQualityStatsAccumulator();
+
+        LocalDateTime firstHour = ceilToHour(from);
+        LocalDateTime lastHour = to.truncatedTo(ChronoUnit.HOURS);
+
+        if (!firstHour.isBefore(lastHour)) {
+            // Less than one full hour → raw data only
+            addRaw(totals, airRepo.streamPointsBetween(locationId, from, to));
+            return totals;
+        }
+
+        // Partial edge hours
+        addRaw(totals, airRepo.streamPointsInRange(locationId, from, firstHour));
+        addRaw(totals, airRepo.streamPointsBetween(locationId, lastHour, to));
+
+        // Full hours [firstHour, lastHour): daily buckets for whole days, hourly for the rest
+        LocalDateTime firstDay = ceilToDay(firstHour);
+        LocalDateTime lastDay = Granularity.DAILY.bucketStart(lastHour);
+
+        if (firstDay.isBefore(lastDay)) {
+            addBuckets(totals, rollupRepo.findBuckets(locationId, Granularity.HOURLY, firstHour, firstDay));
+            addBuckets(totals, rollupRepo.findBuckets(locationId, Granularity.DAILY, firstDay, lastDay));
+            addBuckets(totals, rollupRepo.findBuckets(locationId, Granularity.HOURLY, lastDay, lastHour));
+        } else {
+            addBuckets(totals, rollupRepo.findBuckets(locationId, Granularity.HOURLY, firstHour, lastHour));
+        }
+
+        return totals;
+    }
+
+    /**
+     * 📈 Bucketed series of one pollutant (for long-range charts)
+     */
+    public List<AirQualityRollup> series(Long locationId, Pollutant pollutant, Granularity granularity,
+                                         LocalDateTime from, LocalDateTime to) {
+        return rollupRepo.findByLocationIdAndPollutantAndGranularityAndBucketStartBetweenOrderByBucketStart(
+                locationId, pollutant, granularity, granularity.bucketStart(from), to);
+    }
+
+    /**
+     * 🗑️ Drop all buckets of a deleted location
+     */
+    public void evictLocation(Long locationId) {
+        transactionTemplate.executeWithoutResult(status -> rollupRepo.deleteByLocationId(locationId));
+        locationLocks.remove(locationId);
+    }
+
+    private void addRaw(AirQualityStatsAccumulator totals, Stream<AirQualityPoint> points) {
+        try (points) {
+            points.forEach(totals::accept);
+        }
+    }
+
+    private void addBuckets(AirQualityStatsAccumulator totals, List<AirQualityRollup> buckets) {
+        for (AirQualityRollup bucket : buckets) {
+            totals.merge(bucket);
+        }
+    }
+
+    private AirQualityRollup newBucket(Long locationId, Granularity granularity, Pollutant pollutant,
+                                       LocalDateTime bucketStart) {
+        return AirQualityRollup.builder()
+                .locationId(locationId)
+                .granularity(granularity)
+                .pollutant(pollutant)
+                .bucketStart(bucketStart)
+                .build();
+    }
+
+    private Object lockFor(Long locationId) {
+        return locationLocks.computeIfAbsent(locationId, id -> new Object());
+    }
+
+    private static LocalDateTime ceilToHour(LocalDateTime time) {
+        LocalDateTime hour = time.truncatedTo(ChronoUnit.HOURS);
+        return hour.equals(time) ? hour : hour.plusHours(1);
+    }
+
+    private static LocalDateTime ceilToDay(LocalDateTime time) {
+        LocalDateTime day = time.toLocalDate().atStartOfDay();
+        return day.equals(time) ? day : day.plusDays(1);
+    }
+}
@@ -0,0 +1,139 @@
+// src/main/java/com/commander/aqm/aqm_back_end/service/AirQualityStatsAccumulator.java
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.dto.AirQualityPoint;
+import com.commander.aqm.aqm_back_end.model.AirQualityRollup;
+import com.commander.aqm.aqm_back_end.model.Pollutant;
+import com.commander.aqm.aqm_back_end.model.Report;
+
+import java.util.Arrays;
+
+/**
+ * 🧮 Single-pass statistics for all pollutants
+ * Keeps count/sum/min/max per pollutant in primitive arrays plus an AQI category histogram,
+ * so a report needs one loop over the readings instead of one stream pass per metric.
+ * Not thread-safe; use one instance per computation.
+ */
+public class AirQualityStatsAccumulator {
+
+    public static final int GOOD = 0;
+    public static final int MODERATE = 1;
+    public static final int UNHEALTHY = 2;
+    public static final int HAZARDOUS = 3;
+
+    private static final Pollutant[] POLLUTANTS = Pollutant.values();
+
+    private final long[] counts = new long[POLLUTANTS.length];
+    private final double[] sums = new double[POLLUTANTS.length];
+    private final double[] mins = new double[POLLUTANTS.length];
+    private final double[] maxs = new double[POLLUTANTS.length];
+    private final long[] aqiCategories = new long[4];
+    private long readings;
+
+    public AirQualityStatsAccumulator() {
+        Arrays.fill(mins, Double.POSITIVE_INFINITY);
+        Arrays.fill(maxs, Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * AQI category index: GOOD ≤ 50, MODERATE ≤ 100, UNHEALTHY ≤ 150, HAZARDOUS above
+     */
+    public static int categoryOf(double aqi) {
+        if (aqi <= 50) return GOOD;
+        if (aqi <= 100) return MODERATE;
+        if (aqi <= 150) return UNHEALTHY;
+        return HAZARDOUS;
+    }
+
+    /**
+     * ➕ Add one reading (null pollutants are counted as a reading but not as a value)
+     */
+    public void accept(AirQualityPoint point) {
+        readings++;
+        if (point.pm25() != null) add(Pollutant.PM25.ordinal(), point.pm25());
+        if (point.pm10() != null) add(Pollutant.PM10.ordinal(), point.pm10());
+        if (point.no2() != null) add(Pollutant.NO2.ordinal(), point.no2());
+        if (point.co() != null) add(Pollutant.CO.ordinal(), point.co());
+        if (point.o3() != null) add(Pollutant.O3.ordinal(), point.o3());
+        if (point.so2() != null) add(Pollutant.SO2.ordinal(), point.so2());
+        if (point.aqi() != null) add(Pollutant.AQI.ordinal(), point.aqi());
+    }
+
+    /**
+     * ➕ Add a pre-aggregated bucket
+     */
+    public void merge(AirQualityRollup bucket) {
+        int i = bucket.getPollutant().ordinal();
+        if (bucket.getPollutant() == Pollutant.AQI) {
+            readings += bucket.getReadingCount();
+        }
+        if (bucket.getValueCount() == 0) return;
+
+        counts[i] += bucket.getValueCount();
+        sums[i] += bucket.getValueSum();
+        mins[i] = Math.min(mins[i], bucket.getMinValue());
+        maxs[i] = Math.max(maxs[i], bucket.getMaxValue());
+        if (bucket.getPollutant() == Pollutant.AQI) {
+            aqiCategories[GOOD] += bucket.getGoodCount();
+            aqiCategories[MODERATE] += bucket.getModerateCount();
+            aqiCategories[UNHEALTHY] += bucket.getUnhealthyCount();
+            aqiCategories[HAZARDOUS] += bucket.getHazardousCount();
+        }
+    }
+
+    private void add(int i, double value) {
+        counts[i]++;
+        sums[i] += value;
+        if (value < mins[i]) mins[i] = value;
+        if (value > maxs[i]) maxs[i] = value;
+        if (i == Pollutant.AQI.ordinal()) {
+            aqiCategories[categoryOf(value)]++;
+        }
+    }
+
+    public long getReadings() {
+        return readings;
+    }
+
+    public long count(Pollutant pollutant) {
+        return counts[pollutant.ordinal()];
+    }
+
+    public double mean(Pollutant pollutant) {
+        int i = pollutant.ordinal();
+        return counts[i] > 0 ? sums[i] / counts[i] : 0.0;
+    }
+
+    public Double min(Pollutant pollutant) {
+        int i = pollutant.ordinal();
+        return counts[i] > 0 ? mins[i] : null;
+    }
+
+    public Double max(Pollutant pollutant) {
+        int i = pollutant.ordinal();
+        return counts[i] > 0 ? maxs[i] : null;
+    }
+
+    public long categoryCount(int category) {
+        return aqiCategories[category];
+    }
+
+    /**
+     * 📝 Copy the report metrics (averages, AQI range, category counts) into a report builder
+     */
+    public Report.ReportBuilder applyTo(Report.ReportBuilder report) {
+        Double maxAqi = max(Pollutant.AQI);
+        Double minAqi = min(Pollutant.AQI);
+
+        return report
+                .avgPm25(mean(Pollutant.PM25))
+                .avgPm10(mean(Pollutant.PM10))
+                .avgAqi(mean(Pollutant.AQI))
+                .maxAqi(maxAqi != null ? maxAqi.intValue() : null)
+                .minAqi(minAqi != null ? minAqi.intValue() : null)
+                .goodDays((int) aqiCategories[GOOD])
+                .moderateDays((int) aqiCategories[MODERATE])
+                .unhealthyDays((int) (aqiCategories[UNHEALTHY] + aqiCategories[HAZARDOUS]))
+                .totalDataPoints((int) readings);
+    }
+}
@@ -0,0 +1,124 @@
+// src/main/java/com/commander/aqm/aqm_back_end/service/AlertCleanupService.java
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.repository.AlertArchiveRepository;
+import com.commander.aqm.aqm_back_end.repository.AlertRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 🧹 Scheduled purge of old read alerts
+ * Deletes read alerts older than aqm.alerts.cleanup.read-retention-days in chunks
+ * (one short transaction per chunk, so user requests never wait behind a long lock).
+ * With archive=true each chunk is first copied to AlertArchive in the same transaction.
+ *
+ * Metrics: aqm.alerts.purged (total), aqm.alerts.archived (total),
+ * aqm.alerts.purged.last.run (rows removed by the latest run)
+ */
+@Service
+@Slf4j
+public class AlertCleanupService {
+
+    private final AlertRepository alertRepo;
+    private final AlertArchiveRepository archiveRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int retentionDays;
+    private final boolean archive;
+    private final int chunkSize;
+    private final Counter purged;
+    private final Counter archived;
+    private final AtomicLong lastRun = new AtomicLong();
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public AlertCleanupService(AlertRepository alertRepo,
+                               AlertArchiveRepository archiveRepo,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${aqm.alerts.cleanup.enabled:true}") boolean enabled,
+                               @Value("${aqm.alerts.cleanup.read-retention-days:30}") int retentionDays,
+                               @Value("${aqm.alerts.cleanup.archive:false}") boolean archive,
+                               @Value("${aqm.alerts.cleanup.chunk-size:1000}") int chunkSize) {
+        this.alertRepo = alertRepo;
+        this.archiveRepo = archiveRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.retentionDays = Math.max(1, retentionDays);
+        this.archive = archive;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.purged = Counter.builder("aqm.alerts.purged")
+                .description("Read alerts removed by the cleanup job")
+                .register(meterRegistry);
+        this.archived = Counter.builder("aqm.alerts.archived")
+                .description("Alerts copied to AlertArchive before removal")
+                .register(meterRegistry);
+        Gauge.builder("aqm.alerts.purged.last.run", lastRun, AtomicLong::get)
+                .description("Read alerts removed by the latest cleanup run")
+                .register(meterRegistry);
+    }
+
+    /**
+     * ⏰ Nightly run (03:00 by default)
+     */
+    @Scheduled(cron = "${aqm.alerts.cleanup.cron:0 0 3 * * *}")
+    public void scheduledCleanup() {
+        if (!enabled) return;
+        purgeReadAlerts();
+    }
+
+    /**
+     * 🧹 Purge (and optionally archive) read alerts past the retention window
+     * @return rows removed, or -1 if a run is already in progress
+     */
+    public long purgeReadAlerts() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("⚠️ Alert cleanup already running, skipping");
+            return -1;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime before = now.minusDays(retentionDays);
+            PageRequest chunk = PageRequest.of(0, chunkSize);
+            long total = 0;
+            int deleted;
+
+            do {
+                Integer rows = transactionTemplate.execute(status -> {
+                    List<Long> ids = alertRepo.findReadIdsBefore(before, chunk);
+                    if (ids.isEmpty()) return 0;
+                    if (archive) {
+                        archiveRepo.archive(ids, now);
+                    }
+                    alertRepo.deleteAllByIdInBatch(ids);
+                    return ids.size();
+                });
+                deleted = rows != null ? rows : 0;
+                total += deleted;
+                purged.increment(deleted);
+                if (archive) archived.increment(deleted);
+            } while (deleted == chunkSize);
+
+            lastRun.set(total);
+            if (total > 0) {
+                log.info("🧹 Alert cleanup: removed {} read alerts older than {} days{}",
+                        total, retentionDays, archive ? " (archived)" : "");
+            }
+            return total;
+        } finally {
+            running.set(false);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+// src/main/java/com/commander/aqm/aqm_back_end/service/AlertCoalescer.java
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.model.Alert;
+import com.commander.aqm.aqm_back_end.model.AlertExceedance;
+import com.commander.aqm.aqm_back_end.repository.AlertRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 🧺 Alert storm coalescing
+ * A bad reading can exceed up to seven limits at once, and a regional smog event does
+ * that at every location. Exceedances of one user are collected into ONE Alert per window
+ * (worst pollutant as headline, one AlertExceedance row per exceeded limit), and that
+ * alert is emailed ONCE when the window closes.
+ *
+ * Nothing is buffered in memory: the window and its exceedances are written when the
+ * limits are exceeded, and only the email waits for the
+ * window to close, so a crash or restart loses nothing. A window of 0 queues the email
+ * right away.
+ */
+@Component
+@Slf4j
+public class AlertCoalescer {
+
+    private static final int MAX_DETAIL_LINES = 50;
+    private static final int FLUSH_BATCH = 200;
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final AlertRepository alertRepo;
+    private final BulkWriter bulkWriter;
+    private final EmailOutboxService emailOutbox;
+    private final AlertEvaluationEngine evaluationEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration window;
+
+    public AlertCoalescer(AlertRepository alertRepo,
+                          BulkWriter bulkWriter,
+                          EmailOutboxService emailOutbox,
+                          AlertEvaluationEngine evaluationEngine,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${aqm.alerts.coalesce-window-minutes:5}") long windowMinutes) {
+        this.alertRepo = alertRepo;
+        this.bulkWriter = bulkWriter;
+        this.emailOutbox = emailOutbox;
+        this.evaluationEngine = evaluationEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.window = Duration.ofMinutes(Math.max(0, windowMinutes));
+    }
+
+    /**
+     * ➕ Record candidate alerts (one per exceeded pollutant, not yet saved)
+     * Each user's exceedances join that user's open window, or open a new one.
+     * Commits on its own unless the caller has a transaction (then joins it).
+     * @return number of alerts (windows) opened
+     */
+    public int submit(List<Alert> alerts) {
+        if (alerts.isEmpty()) return 0;
+
+        Map<Long, List<Alert>> byUser = new LinkedHashMap<>();
+        for (Alert alert : alerts) {
+            byUser.computeIfAbsent(alert.getUser().getId(), id -> new ArrayList<>()).add(alert);
+        }
+
+        Integer opened = transactionTemplate.execute(status -> {
+            Map<Long, Alert> openWindows = window.isZero() ? Map.of() : openWindows(byUser.keySet());
+            List<Alert> created = new ArrayList<>();
+            List<Alert> stored = new ArrayList<>();
+            List<AlertExceedance> exceedances = new ArrayList<>();
+            for (Map.Entry<Long, List<Alert>> entry : byUser.entrySet()) {
+                Alert open = openWindows.get(entry.getKey());
+                Alert target = record(open, entry.getValue(), exceedances);
+                if (open == null) created.add(target);
+                stored.add(target);
+            }
+
+            // ✅ Same statements for 1 or 10,000 users: new windows and all exceedances in JDBC batches,
+            // open windows are updated by one versioned batch at commit
+            bulkWriter.insertAlerts(created);
+            bulkWriter.insertExceedances(exceedances);
+
+            // ✅ Coalescing off: one email per user and call, queued in the same transaction
+            if (window.isZero()) emailOutbox.enqueueAlerts(stored);
+            return created.size();
+        });
+        return opened != null ? opened : 0;
+    }
+
+    /**
+     * ⏰ Queue the email of every window older than the coalescing window
+     * (windows left open by a restart are picked up here too)
+     */
+    @Scheduled(fixedDelayString = "${aqm.alerts.coalesce-flush-interval-ms:30000}")
+    public void flushDue() {
+        LocalDateTime openedBefore = LocalDateTime.now().minus(window);
+        try {
+            Integer closed;
+            do {
+                closed = transactionTemplate.execute(status -> closeWindows(openedBefore));
+            } while (closed != null && closed == FLUSH_BATCH);
+        } catch (Exception e) {
+            // Rows stay pending; the next run retries them
+            log.error("❌ Failed to queue coalesced alert emails: {}", e.getMessage(), e);
+        }
+    }
+
+    private int closeWindows(LocalDateTime openedBefore) {
+        List<Alert> closed = alertRepo.findClosedWindows(openedBefore, PageRequest.of(0, FLUSH_BATCH));
+        if (closed.isEmpty()) return 0;
+
+        closed.forEach(alert -> alert.setNotificationPending(false));
+        // ✅ One email per aggregated alert, queued in the same transaction that closes the window
+        emailOutbox.enqueueAlerts(closed);
+        log.info("🧺 Closed {} alert windows ({} exceedances)", closed.size(),
+                closed.stream().mapToInt(alert -> alert.getCoalescedCount() != null ? alert.getCoalescedCount() : 1).sum());
+        return closed.size();
+    }
+
+    /**
+     * The newest open window of each user, loaded for all users in one query
+     */
+    private Map<Long, Alert> openWindows(Collection<Long> userIds) {
+        // Only windows that are not due yet; a due one is about to be closed by flushDue
+        Map<Long, Alert> open = new HashMap<>();
+        for (Alert alert : alertRepo.findOpenWindows(userIds, LocalDateTime.now().minus(window))) {
+            open.putIfAbsent(alert.getUser().getId(), alert);
+        }
+        return open;
+    }
+
+    /**
+     * 🧮 Add the exceedances to the window (a new, unsaved one if {@code open} is null): the worst
+     * one (value / limit) becomes the headline, every exceedance gets its own row (added to
+     * {@code exceedances}, written by the caller) and a line in the alert's details, so nothing is read back
+     */
+    Alert record(Alert open, List<Alert> alerts, List<AlertExceedance> exceedances) {
+        Alert worst = alerts.stream().max(Comparator.comparingDouble(this::severity)).orElseThrow();
+        LocalDateTime firstTriggered = alerts.stream()
+                .map(Alert::getTriggeredAt)
+                .min(Comparator.naturalOrder())
+                .orElse(worst.getTriggeredAt());
+
+        // Lines already shown for the open window (taken before its headline changes)
+        List<String> lines = open != null ? detailLines(open) : new ArrayList<>();
+
+        Alert target = open != null ? open : Alert.builder()
+                .user(worst.getUser())
+                .isRead(false)
+                .triggeredAt(firstTriggered)
+                .status(worst.getStatus())
+                .coalescedCount(0)
+                .notificationPending(!window.isZero())
+                .build();
+
+        if (open == null || severity(worst) > severity(open)) {
+            target.setThreshold(worst.getThreshold());
+            target.setAqData(worst.getAqData());
+            target.setPollutant(worst.getPollutant());
+            target.setValue(worst.getValue());
+        }
+        target.setCoalescedCount(target.getCoalescedCount() + alerts.size());
+
+        for (Alert alert : alerts) {
+            AlertExceedance exceedance = toExceedance(target, alert);
+            exceedances.add(exceedance);
+            lines.add(detailLine(exceedance));
+        }
+        if (target.getCoalescedCount() > 1) {
+            target.setDetails(details(lines, target.getCoalescedCount()));
+        }
+
+        log.info("🚨 {} Alert {} for user: {} | Value: {} | Exceedances: {}",
+                target.getPollutant(), open == null ? "created" : "updated", target.getUser().getUsername(),
+                target.getValue(), target.getCoalescedCount());
+        return target;
+    }
+
+    private double severity(Alert alert) {
+        float limit = evaluationEngine.limitFor(alert.getThreshold(), alert.getPollutant());
+        return limit > 0 ? alert.getValue() / limit : alert.getValue();
+    }
+
+    private AlertExceedance toExceedance(Alert target, Alert alert) {
+        return AlertExceedance.builder()
+                .alert(target)
+                .userId(alert.getUser().getId())
+                .location(alert.getAqData() != null ? alert.getAqData().getLocation() : null)
+                .pollutant(alert.getPollutant())
+                .value(alert.getValue())
+                .limitValue(evaluationEngine.limitFor(alert.getThreshold(), alert.getPollutant()))
+                .triggeredAt(alert.getTriggeredAt())
+                .build();
+    }
+
+    /**
+     * Detail lines of a stored window without its "… and N more" line; a single exceedance
+     * has no details yet and is rebuilt from the headline
+     */
+    private List<String> detailLines(Alert open) {
+        List<String> lines = new ArrayList<>();
+        if (open.getDetails() != null) {
+            for (String line : open.getDetails().split("\n")) {
+                if (!line.startsWith("… and ")) lines.add(line);
+            }
+        } else {
+            lines.add(detailLine(toExceedance(open, open)));
+        }
+        return lines;
+    }
+
+    private static String details(List<String> lines, int total) {
+        List<String> shown = new ArrayList<>(lines.subList(0, Math.min(lines.size(), MAX_DETAIL_LINES)));
+        if (total > shown.size()) {
+            shown.add("… and " + (total - shown.size()) + " more");
+        }
+        return String.join("\n", shown);
+    }
+
+    private static String detailLine(AlertExceedance exceedance) {
+        String location = exceedance.getLocation() != null ? exceedance.getLocation().getName() : "Unknown Location";
+        return String.format("📍 %s · %s %.1f (limit %.1f) · %s",
+                location,
+                exceedance.getPollutant(),
+                exceedance.getValue(),
+                exceedance.getLimitValue() != null ? exceedance.getLimitValue() : 0f,
+                exceedance.getTriggeredAt().format(TIME));
+    }
+}
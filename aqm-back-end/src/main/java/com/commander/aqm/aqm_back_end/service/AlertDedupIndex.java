@@ -0,0 +1,100 @@
+// src/main/java/com/commander/aqm/aqm_back_end/service/AlertDedupIndex.java
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.repository.AlertExceedanceRepository;
+import com.commander.aqm.aqm_back_end.repository.AlertRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ⏰ In-memory anti-spam index for alerts
+ * Remembers when each (user, pollutant, location) last triggered so that a new
+ * reading never needs a per-user query to decide whether an alert is a duplicate.
+ * Warmed at startup from every stored exceedance (not only the headline pollutant
+ * of a coalesced alert) so restarts do not re-send alerts.
+ */
+@Component
+@Slf4j
+public class AlertDedupIndex {
+
+    private final AlertRepository alertRepo;
+    private final AlertExceedanceRepository exceedanceRepo;
+    private final Duration window;
+    private final Map<Key, LocalDateTime> lastTriggered = new ConcurrentHashMap<>();
+
+    public AlertDedupIndex(AlertRepository alertRepo,
+                           AlertExceedanceRepository exceedanceRepo,
+                           @Value("${aqm.alerts.dedup-window-minutes:30}") long windowMinutes) {
+        this.alertRepo = alertRepo;
+        this.exceedanceRepo = exceedanceRepo;
+        this.window = Duration.ofMinutes(windowMinutes);
+    }
+
+    public record Key(Long userId, String pollutant, Long locationId) {
+    }
+
+    /**
+     * 🔥 Load alerts and exceedances still inside the window
+     * (alert headlines cover rows stored before exceedances were recorded)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        LocalDateTime after = LocalDateTime.now().minus(window);
+        List<Object[]> rows = new ArrayList<>(alertRepo.findDedupKeysTriggeredAfter(after));
+        rows.addAll(exceedanceRepo.findDedupKeysTriggeredAfter(after));
+
+        for (Object[] row : rows) {
+            Key key = new Key((Long) row[0], (String) row[1], (Long) row[2]);
+            lastTriggered.merge(key, (LocalDateTime) row[3], (a, b) -> a.isAfter(b) ? a : b);
+        }
+
+        log.info("🔥 Alert dedup index warmed with {} recent alerts", lastTriggered.size());
+    }
+
+    /**
+     * Atomically claim the key: returns true (and records {@code now}) only if
+     * no alert for it was triggered within the window.
+     */
+    public boolean tryRegister(Key key, LocalDateTime now) {
+        LocalDateTime cutoff = now.minus(window);
+        boolean[] registered = {false};
+
+        lastTriggered.compute(key, (k, last) -> {
+            if (last == null || !last.isAfter(cutoff)) {
+                registered[0] = true;
+                return now;
+            }
+            return last;
+        });
+
+        return registered[0];
+    }
+
+    /**
+     * Undo registrations whose alerts could not be stored
+     */
+    public void forget(Collection<Key> keys) {
+        keys.forEach(lastTriggered::remove);
+    }
+
+    /**
+     * 🧹 Drop expired entries
+     */
+    @Scheduled(fixedDelay = 600_000)
+    public void prune() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(window);
+        lastTriggered.values().removeIf(last -> !last.isAfter(cutoff));
+    }
+}
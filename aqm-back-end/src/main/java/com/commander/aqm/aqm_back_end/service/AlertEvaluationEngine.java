@@ -0,0 +1,113 @@
+// src/main/java/com/commander/aqm/aqm_back_end/service/AlertEvaluationEngine.java
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.model.AirQualityData;
+import com.commander.aqm.aqm_back_end.model.Alert;
+import com.commander.aqm.aqm_back_end.model.AlertThreshold;
+import com.commander.aqm.aqm_back_end.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 🧮 Set-based alert evaluation
+ * Evaluates one reading against every user's thresholds in memory and returns
+ * the alerts to insert. Performs no queries: thresholds are passed in and
+ * duplicates are filtered through {@link AlertDedupIndex}.
+ */
+@Component
+@RequiredArgsConstructor
+public class AlertEvaluationEngine {
+
+    // US EPA / WHO based defaults, used when a threshold column is empty
+    public static final float DEFAULT_PM25_THRESHOLD = 35.5f;
+    public static final float DEFAULT_PM10_THRESHOLD = 150f;
+    public static final float DEFAULT_AQI_THRESHOLD = 100f;
+
+    private static final float NO2_LIMIT = 0.1f;
+    private static final float SO2_LIMIT = 0.5f;
+    private static final float CO_LIMIT = 10f;
+    private static final float O3_LIMIT = 0.12f;
+
+    private final AlertDedupIndex dedupIndex;
+
+    /**
+     * Result of one evaluation: alerts to persist plus the dedup keys they claimed
+     */
+    public record Evaluation(List<Alert> alerts, List<AlertDedupIndex.Key> claimedKeys) {
+    }
+
+    /**
+     * 🔍 Evaluate a reading for all users
+     *
+     * @param thresholds persisted threshold per user id; users without one are skipped
+     */
+    public Evaluation evaluate(AirQualityData data, Collection<User> users,
+                               Map<Long, AlertThreshold> thresholds, LocalDateTime now) {
+        List<Alert> alerts = new ArrayList<>();
+        List<AlertDedupIndex.Key> claimed = new ArrayList<>();
+        Long locationId = data.getLocation().getId();
+
+        for (User user : users) {
+            AlertThreshold threshold = thresholds.get(user.getId());
+            if (threshold == null) continue;
+
+            check(user, threshold, data, "PM2.5", data.getPm25(), locationId, now, alerts, claimed);
+            check(user, threshold, data, "PM10", data.getPm10(), locationId, now, alerts, claimed);
+            check(user, threshold, data, "AQI",
+                    data.getAqi() != null ? data.getAqi().floatValue() : null, locationId, now, alerts, claimed);
+            check(user, threshold, data, "NO2", data.getNO2(), locationId, now, alerts, claimed);
+            check(user, threshold, data, "SO2", data.getSo2(), locationId, now, alerts, claimed);
+            check(user, threshold, data, "CO", data.getCo(), locationId, now, alerts, claimed);
+            check(user, threshold, data, "O3", data.getO3(), locationId, now, alerts, claimed);
+        }
+
+        return new Evaluation(alerts, claimed);
+    }
+
+    /**
+     * Limit that {@code pollutant} is compared against for a user's threshold
+     */
+    public float limitFor(AlertThreshold threshold, String pollutant) {
+        return switch (pollutant) {
+            case "PM2.5" -> valueOr(threshold != null ? threshold.getPm25Threshold() : null, DEFAULT_PM25_THRESHOLD);
+            case "PM10" -> valueOr(threshold != null ? threshold.getPm10Threshold() : null, DEFAULT_PM10_THRESHOLD);
+            case "AQI" -> valueOr(threshold != null ? threshold.getAqiThreshold() : null, DEFAULT_AQI_THRESHOLD);
+            case "NO2" -> NO2_LIMIT;
+            case "SO2" -> SO2_LIMIT;
+            case "CO" -> CO_LIMIT;
+            case "O3" -> O3_LIMIT;
+            default -> Float.MAX_VALUE;
+        };
+    }
+
+    private void check(User user, AlertThreshold threshold, AirQualityData data, String pollutant,
+                       Float value, Long locationId, LocalDateTime now,
+                       List<Alert> alerts, List<AlertDedupIndex.Key> claimed) {
+        if (value == null || value <= limitFor(threshold, pollutant)) return;
+
+        AlertDedupIndex.Key key = new AlertDedupIndex.Key(user.getId(), pollutant, locationId);
+        if (!dedupIndex.tryRegister(key, now)) return;
+
+        claimed.add(key);
+        alerts.add(Alert.builder()
+                .user(user)
+                .threshold(threshold)
+                .aqData(data)
+                .pollutant(pollutant)
+                .value(value)
+                .isRead(false)
+                .triggeredAt(now)
+                .status(Alert.AlertStatus.SENT)
+                .build());
+    }
+
+    private float valueOr(Float value, float fallback) {
+        return value != null ? value : fallback;
+    }
+}
@@ -1,13 +1,24 @@
 package com.commander.aqm.aqm_back_end.service;
 
+import com.commander.aqm.aqm_back_end.dto.AlertCursor;
+import com.commander.aqm.aqm_back_end.dto.AlertRow;
 import com.commander.aqm.aqm_back_end.model.Alert;
 import com.commander.aqm.aqm_back_end.model.User;
 
 import java.util.List;
+import java.util.Map;
 
 public interface AlertService {
+    int DEFAULT_PAGE_SIZE = 50;
+    int MAX_PAGE_SIZE = 200;
+
     void evaluateAndTriggerAlerts(User user, Float pm25, Float pm10, Float aqi, Long locationId);
     List<Alert> getUnreadAlerts(User user);
     List<Alert> getAllAlerts(User user);
     Alert markAsRead(Long alertId, User user); // ✅ ADD THIS
+
+    // ✅ Keyset pages (newest first); fetch the next page with AlertCursor.after(last row)
+    List<AlertRow> getAlertPage(User user, boolean unreadOnly, AlertCursor cursor, int limit);
+    List<AlertRow> getAllAlertRows(User user, boolean unreadOnly); // ✅ Unpaged fallback, read page by page
+    Map<String, Object> getAlertStats(User user);
 }
\ No newline at end of file
@@ -0,0 +1,452 @@
+// src/main/java/com/commander/aqm/aqm_back_end/service/BulkWriter.java
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.model.AirQualityData;
+import com.commander.aqm.aqm_back_end.model.AirQualityRollup;
+import com.commander.aqm.aqm_back_end.model.Alert;
+import com.commander.aqm.aqm_back_end.model.AlertExceedance;
+import com.commander.aqm.aqm_back_end.model.AlertThreshold;
+import com.commander.aqm.aqm_back_end.model.Forecast;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * 🚚 Bulk write path shared by seeding, historical backfill, rollups and alert evaluation
+ *
+ * AirQualityData, Forecast and the alert tables use IDENTITY ids, which stop Hibernate from
+ * batching (every insert must return its key). They are written with plain JDBC batches instead;
+ * ids are only read back (per batch) for alerts and thresholds, which other rows reference. Entities with sequence ids (e.g. WeatherData) go through
+ * Hibernate with periodic flush/clear so hibernate.jdbc.batch_size applies.
+ *
+ * Add rewriteBatchedStatements=true to the MySQL URL to turn each batch into
+ * multi-row INSERTs.
+ *
+ * Live ingestion ({@link LocationIngestionPipeline}) stays on JPA: it writes one reading per
+ * location, and the alerts raised from that reading reference its generated id.
+ */
+@Service
+@Slf4j
+public class BulkWriter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final int batchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile String airQualityInsertSql;
+    private volatile String airQualityInsertIfAbsentSql;
+    private volatile String forecastInsertSql;
+    private volatile String rollupUpsertSql;
+    private volatile String exceedanceInsertSql;
+    private volatile String alertInsertSql;
+    private volatile String thresholdInsertSql;
+
+    public BulkWriter(JdbcTemplate jdbcTemplate,
+                      EntityManagerFactory entityManagerFactory,
+                      @Value("${aqm.bulk.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * ⚡ Insert readings with JDBC batches (ids are not populated on the entities)
+     */
+    @Transactional
+    public int insertAirQuality(List<AirQualityData> rows) {
+        if (rows.isEmpty()) return 0;
+        long start = System.nanoTime();
+
+        jdbcTemplate.batchUpdate(airQualityInsertSql(), rows, batchSize, BulkWriter::bindAirQuality);
+
+        logRate("AirQualityData", rows.size(), start);
+        return rows.size();
+    }
+
+    /**
+     * ⚡ Like {@link #insertAirQuality}, but skips readings whose (location, timestamp) is already stored
+     * (NOT EXISTS probe on the (location_id, timestamp_utc) index), so re-running a range is idempotent
+     * @return rows actually inserted
+     */
+    @Transactional
+    public int insertAirQualityIfAbsent(List<AirQualityData> rows) {
+        if (rows.isEmpty()) return 0;
+        long start = System.nanoTime();
+
+        int[][] counts = jdbcTemplate.batchUpdate(airQualityInsertIfAbsentSql(), rows, batchSize, (ps, d) -> {
+            bindAirQuality(ps, d);
+            ps.setLong(11, d.getLocation().getId());
+            setTimestamp(ps, 12, d.getTimestampUtc());
+        });
+
+        int inserted = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // SUCCESS_NO_INFO (-2): the driver does not report per-row counts, assume inserted
+                inserted += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(0, count);
+            }
+        }
+
+        logRate("AirQualityData (if absent)", rows.size(), start);
+        if (inserted < rows.size()) {
+            log.info("⏭️ Skipped {} readings that were already stored", rows.size() - inserted);
+        }
+        return inserted;
+    }
+
+    /**
+     * ⚡ Insert forecasts with JDBC batches (ids are not populated on the entities)
+     */
+    @Transactional
+    public int insertForecasts(List<Forecast> rows) {
+        if (rows.isEmpty()) return 0;
+        long start = System.nanoTime();
+
+        jdbcTemplate.batchUpdate(forecastInsertSql(), rows, batchSize, (ps, f) -> {
+            ps.setLong(1, f.getLocation().getId());
+            setTimestamp(ps, 2, f.getTimestampUtc());
+            setFloat(ps, 3, f.getPredictedPm25());
+            setFloat(ps, 4, f.getPredictedPm10());
+            setFloat(ps, 5, f.getPredictedAqi());
+            ps.setString(6, f.getModelVersion());
+        });
+
+        logRate("Forecast", rows.size(), start);
+        return rows.size();
+    }
+
+    /**
+     * ⚡ Insert new alerts with JDBC batches and set their generated ids
+     * (the exceedances and queued emails of an alert reference it; the rows are not managed afterwards)
+     */
+    @Transactional
+    public int insertAlerts(List<Alert> rows) {
+        if (rows.isEmpty()) return 0;
+        LocalDateTime now = LocalDateTime.now();
+
+        insertReturningIds(alertInsertSql(), rows, (ps, a) -> {
+            if (a.getCreatedAt() == null) a.setCreatedAt(now);
+            if (a.getTriggeredAt() == null) a.setTriggeredAt(now);
+            ps.setLong(1, a.getUser().getId());
+            ps.setLong(2, a.getThreshold().getId());
+            ps.setLong(3, a.getAqData().getId());
+            ps.setString(4, a.getPollutant());
+            setFloat(ps, 5, a.getValue());
+            ps.setBoolean(6, Boolean.TRUE.equals(a.getIsRead()));
+            setTimestamp(ps, 7, a.getTriggeredAt());
+            ps.setString(8, (a.getStatus() != null ? a.getStatus() : Alert.AlertStatus.SENT).name());
+            ps.setString(9, a.getDetails());
+            if (a.getCoalescedCount() != null) ps.setInt(10, a.getCoalescedCount()); else ps.setNull(10, Types.INTEGER);
+            if (a.getNotificationPending() != null) ps.setBoolean(11, a.getNotificationPending()); else ps.setNull(11, Types.BOOLEAN);
+            ps.setLong(12, a.getVersion());
+            setTimestamp(ps, 13, a.getCreatedAt());
+        }, Alert::setId);
+        return rows.size();
+    }
+
+    /**
+     * ⚡ Insert alert thresholds with JDBC batches and set their generated ids (alerts reference them)
+     */
+    @Transactional
+    public int insertThresholds(List<AlertThreshold> rows) {
+        if (rows.isEmpty()) return 0;
+
+        insertReturningIds(thresholdInsertSql(), rows, (ps, t) -> {
+            ps.setLong(1, t.getUser().getId());
+            setFloat(ps, 2, t.getPm25Threshold());
+            setFloat(ps, 3, t.getPm10Threshold());
+            setFloat(ps, 4, t.getAqiThreshold());
+        }, AlertThreshold::setId);
+        return rows.size();
+    }
+
+    /**
+     * ⚡ Insert the exceedances of coalesced alerts with one JDBC batch
+     * (their alerts must already have ids; exceedance ids are not populated)
+     */
+    @Transactional
+    public int insertExceedances(List<AlertExceedance> rows) {
+        if (rows.isEmpty()) return 0;
+
+        jdbcTemplate.batchUpdate(exceedanceInsertSql(), rows, batchSize, (ps, e) -> {
+            ps.setLong(1, e.getAlert().getId());
+            ps.setLong(2, e.getUserId());
+            if (e.getLocation() != null) ps.setLong(3, e.getLocation().getId()); else ps.setNull(3, Types.BIGINT);
+            ps.setString(4, e.getPollutant());
+            setFloat(ps, 5, e.getValue());
+            setFloat(ps, 6, e.getLimitValue());
+            setTimestamp(ps, 7, e.getTriggeredAt());
+        });
+        return rows.size();
+    }
+
+    /**
+     * 📦 Fold rollup rows into their buckets with one JDBC batch:
+     * INSERT ... ON DUPLICATE KEY UPDATE on uk_rollup_bucket adds the counts/sums
+     * and widens min/max, so no bucket is read first and concurrent writers cannot lose updates
+     */
+    @Transactional
+    public int upsertRollups(Collection<AirQualityRollup> rows) {
+        if (rows.isEmpty()) return 0;
+
+        jdbcTemplate.batchUpdate(rollupUpsertSql(), rows, batchSize, (ps, r) -> {
+            // INSERT values
+            ps.setLong(1, r.getLocationId());
+            ps.setString(2, r.getGranularity().name());
+            ps.setString(3, r.getPollutant().name());
+            setTimestamp(ps, 4, r.getBucketStart());
+            ps.setLong(5, r.getReadingCount());
+            ps.setLong(6, r.getValueCount());
+            ps.setDouble(7, r.getValueSum());
+            setDouble(ps, 8, r.getMinValue());
+            setDouble(ps, 9, r.getMaxValue());
+            ps.setInt(10, r.getGoodCount());
+            ps.setInt(11, r.getModerateCount());
+            ps.setInt(12, r.getUnhealthyCount());
+            ps.setInt(13, r.getHazardousCount());
+            // UPDATE deltas
+            ps.setLong(14, r.getReadingCount());
+            ps.setLong(15, r.getValueCount());
+            ps.setDouble(16, r.getValueSum());
+            setDouble(ps, 17, r.getMinValue());
+            setDouble(ps, 18, r.getMinValue());
+            setDouble(ps, 19, r.getMaxValue());
+            setDouble(ps, 20, r.getMaxValue());
+            ps.setInt(21, r.getGoodCount());
+            ps.setInt(22, r.getModerateCount());
+            ps.setInt(23, r.getUnhealthyCount());
+            ps.setInt(24, r.getHazardousCount());
+        });
+        return rows.size();
+    }
+
+    /**
+     * 📦 Persist entities with sequence ids through Hibernate, flushing and clearing
+     * every batch so inserts are batched and the persistence context stays small
+     */
+    @Transactional
+    public <T> int persistAll(String label, List<T> entities) {
+        if (entities.isEmpty()) return 0;
+        long start = System.nanoTime();
+
+        for (int i = 0; i < entities.size(); i++) {
+            entityManager.persist(entities.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        logRate(label, entities.size(), start);
+        return entities.size();
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    // ==================== SQL (names resolved from the Hibernate mapping) ====================
+
+    private String airQualityInsertSql() {
+        if (airQualityInsertSql == null) {
+            airQualityInsertSql = insertSql(AirQualityData.class,
+                    "timestampUtc", "pm25", "pm10", "no2", "co", "o3", "so2", "aqi", "sensor", "location");
+        }
+        return airQualityInsertSql;
+    }
+
+    private String airQualityInsertIfAbsentSql() {
+        if (airQualityInsertIfAbsentSql == null) {
+            AbstractEntityPersister persister = persister(AirQualityData.class);
+            String insert = airQualityInsertSql();
+            String table = persister.getTableName();
+            String locationColumn = persister.getPropertyColumnNames("location")[0];
+            String timestampColumn = persister.getPropertyColumnNames("timestampUtc")[0];
+            // INSERT INTO t (...) VALUES (?, ...) → INSERT INTO t (...) SELECT ?, ... FROM DUAL WHERE NOT EXISTS (...)
+            airQualityInsertIfAbsentSql = insert.substring(0, insert.indexOf(" VALUES ("))
+                    + " SELECT " + insert.substring(insert.indexOf(" VALUES (") + 9, insert.length() - 1)
+                    + " FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM " + table
+                    + " WHERE " + locationColumn + " = ? AND " + timestampColumn + " = ?)";
+        }
+        return airQualityInsertIfAbsentSql;
+    }
+
+    private String rollupUpsertSql() {
+        if (rollupUpsertSql == null) {
+            AbstractEntityPersister persister = persister(AirQualityRollup.class);
+            String readings = persister.getPropertyColumnNames("readingCount")[0];
+            String values = persister.getPropertyColumnNames("valueCount")[0];
+            String sum = persister.getPropertyColumnNames("valueSum")[0];
+            String min = persister.getPropertyColumnNames("minValue")[0];
+            String max = persister.getPropertyColumnNames("maxValue")[0];
+            String good = persister.getPropertyColumnNames("goodCount")[0];
+            String moderate = persister.getPropertyColumnNames("moderateCount")[0];
+            String unhealthy = persister.getPropertyColumnNames("unhealthyCount")[0];
+            String hazardous = persister.getPropertyColumnNames("hazardousCount")[0];
+
+            rollupUpsertSql = insertSql(AirQualityRollup.class,
+                    "locationId", "granularity", "pollutant", "bucketStart", "readingCount", "valueCount",
+                    "valueSum", "minValue", "maxValue", "goodCount", "moderateCount", "unhealthyCount", "hazardousCount")
+                    + " ON DUPLICATE KEY UPDATE "
+                    + readings + " = " + readings + " + ?, "
+                    + values + " = " + values + " + ?, "
+                    + sum + " = " + sum + " + ?, "
+                    // a null delta (no value of this pollutant) leaves min/max unchanged
+                    + min + " = COALESCE(LEAST(" + min + ", ?), " + min + ", ?), "
+                    + max + " = COALESCE(GREATEST(" + max + ", ?), " + max + ", ?), "
+                    + good + " = " + good + " + ?, "
+                    + moderate + " = " + moderate + " + ?, "
+                    + unhealthy + " = " + unhealthy + " + ?, "
+                    + hazardous + " = " + hazardous + " + ?";
+        }
+        return rollupUpsertSql;
+    }
+
+    private String forecastInsertSql() {
+        if (forecastInsertSql == null) {
+            forecastInsertSql = insertSql(Forecast.class,
+                    "location", "timestampUtc", "predictedPm25", "predictedPm10", "predictedAqi", "modelVersion");
+        }
+        return forecastInsertSql;
+    }
+
+    private String exceedanceInsertSql() {
+        if (exceedanceInsertSql == null) {
+            exceedanceInsertSql = insertSql(AlertExceedance.class,
+                    "alert", "userId", "location", "pollutant", "value", "limitValue", "triggeredAt");
+        }
+        return exceedanceInsertSql;
+    }
+
+    private String alertInsertSql() {
+        if (alertInsertSql == null) {
+            alertInsertSql = insertSql(Alert.class,
+                    "user", "threshold", "aqData", "pollutant", "value", "isRead", "triggeredAt", "status",
+                    "details", "coalescedCount", "notificationPending", "version", "createdAt");
+        }
+        return alertInsertSql;
+    }
+
+    private String thresholdInsertSql() {
+        if (thresholdInsertSql == null) {
+            thresholdInsertSql = insertSql(AlertThreshold.class,
+                    "user", "pm25Threshold", "pm10Threshold", "aqiThreshold");
+        }
+        return thresholdInsertSql;
+    }
+
+    /**
+     * Build the INSERT from the entity mapping, so table/column names follow
+     * whatever naming strategy the active profile configures
+     */
+    private String insertSql(Class<?> entity, String... properties) {
+        AbstractEntityPersister persister = persister(entity);
+
+        StringBuilder columns = new StringBuilder();
+        StringBuilder params = new StringBuilder();
+        for (String property : properties) {
+            if (!columns.isEmpty()) {
+                columns.append(", ");
+                params.append(", ");
+            }
+            columns.append(persister.getPropertyColumnNames(property)[0]);
+            params.append('?');
+        }
+
+        return "INSERT INTO " + persister.getTableName() + " (" + columns + ") VALUES (" + params + ")";
+    }
+
+    private AbstractEntityPersister persister(Class<?> entity) {
+        return (AbstractEntityPersister) entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(entity);
+    }
+
+    /**
+     * JDBC batches that read the IDENTITY keys back (one round trip per batch, keys in row order)
+     */
+    private <T> void insertReturningIds(String sql, List<T> rows,
+                                        ParameterizedPreparedStatementSetter<T> binder,
+                                        BiConsumer<T, Long> idSetter) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (int from = 0; from < rows.size(); from += batchSize) {
+                    List<T> batch = rows.subList(from, Math.min(rows.size(), from + batchSize));
+                    for (T row : batch) {
+                        binder.setValues(ps, row);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        for (T row : batch) {
+                            if (!keys.next()) {
+                                throw new IllegalStateException("Driver returned fewer generated keys than rows for: " + sql);
+                            }
+                            idSetter.accept(row, keys.getLong(1));
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private static void bindAirQuality(PreparedStatement ps, AirQualityData d) throws SQLException {
+        setTimestamp(ps, 1, d.getTimestampUtc());
+        setFloat(ps, 2, d.getPm25());
+        setFloat(ps, 3, d.getPm10());
+        setFloat(ps, 4, d.getNO2());
+        setFloat(ps, 5, d.getCo());
+        setFloat(ps, 6, d.getO3());
+        setFloat(ps, 7, d.getSo2());
+        if (d.getAqi() != null) ps.setInt(8, d.getAqi()); else ps.setNull(8, Types.INTEGER);
+        ps.setLong(9, d.getSensor().getId());
+        ps.setLong(10, d.getLocation().getId());
+    }
+
+    private static void setTimestamp(PreparedStatement ps, int index, java.time.LocalDateTime value) throws SQLException {
+        if (value != null) ps.setTimestamp(index, Timestamp.valueOf(value)); else ps.setNull(index, Types.TIMESTAMP);
+    }
+
+    private static void setFloat(PreparedStatement ps, int index, Float value) throws SQLException {
+        if (value != null) ps.setFloat(index, value); else ps.setNull(index, Types.FLOAT);
+    }
+
+    private static void setDouble(PreparedStatement ps, int index, Double value) throws SQLException {
+        if (value != null) ps.setDouble(index, value); else ps.setNull(index, Types.DOUBLE);
+    }
+
+    private void logRate(String label, int rows, long startNanos) {
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        log.info("🚚 Bulk wrote {} {} rows in {} ms ({} rows/s)", rows, label, elapsedMs,
+                elapsedMs > 0 ? rows * 1000L / elapsedMs : rows);
+    }
+}
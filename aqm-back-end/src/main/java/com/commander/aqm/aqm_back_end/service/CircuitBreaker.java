@@ -0,0 +1,71 @@
+// src/main/java/com/commander/aqm/aqm_back_end/service/CircuitBreaker.java
+package com.commander.aqm.aqm_back_end.service;
+
+import java.time.Duration;
+
+/**
+ * ⚡ Consecutive-failure circuit breaker
+ * CLOSED → OPEN after {@code failureThreshold} failures in a row; calls are rejected
+ * while OPEN. After {@code openDuration} one trial call is let through (HALF_OPEN):
+ * success closes the circuit, failure opens it again.
+ * Thread-safe.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        if (failureThreshold <= 0 || openDuration.isNegative()) {
+            throw new IllegalArgumentException("Circuit breaker threshold must be positive");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * @return true if the call may proceed (it must then report success or failure)
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.CLOSED) return true;
+
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAtNanos < openNanos) return false;
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+
+        // HALF_OPEN: a single trial call at a time
+        if (trialInFlight) return false;
+        trialInFlight = true;
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+            consecutiveFailures = 0;
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+}
@@ -0,0 +1,186 @@
+// src/main/java/com/commander/aqm/aqm_back_end/service/DataRetentionService.java
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.model.AirQualityRollup.Granularity;
+import com.commander.aqm.aqm_back_end.model.BackfillCheckpoint;
+import com.commander.aqm.aqm_back_end.model.Location;
+import com.commander.aqm.aqm_back_end.repository.AirQualityDataRepository;
+import com.commander.aqm.aqm_back_end.repository.AirQualityRollupRepository;
+import com.commander.aqm.aqm_back_end.repository.BackfillCheckpointRepository;
+import com.commander.aqm.aqm_back_end.repository.LocationRepository;
+import com.commander.aqm.aqm_back_end.repository.WeatherDataRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 🗄️ Retention policy for time-series data
+ * - Raw AirQualityData / WeatherData: aqm.retention.raw-days / weather-days
+ * - Backfilled AirQualityData (history loaded for forecasting): kept with aqm.retention.keep-backfilled
+ * - Hourly rollups: aqm.retention.hourly-rollup-days
+ * - Daily rollups: kept forever (reports over old ranges still work)
+ *
+ * ⚠️ Deviation from partition drops: expired rows are deleted, not dropped by partition or
+ * per-period table. Partitioned InnoDB tables can have no foreign keys, and every unique key
+ * (including the primary key) must contain the partitioning column:
+ * - AirQualityData references Sensor / Location and is referenced by Alert (alert history
+ *   keeps its reading)
+ * - WeatherData references Location
+ * - AirQualityRollup would need (id, bucket_start) as its primary key
+ * Per-period tables would split each entity over tables JPA cannot map to one repository.
+ * Expired rows are therefore deleted per location in small chunks (one short transaction
+ * each) along the (location_id, timestamp) index, so inserts never wait behind one long
+ * DELETE. Revisit if the FKs are dropped (e.g. alerts copying the reading they refer to).
+ * Readings still referenced by an alert are kept until the alert itself is purged.
+ */
+@Service
+@Slf4j
+public class DataRetentionService {
+
+    private final AirQualityDataRepository airRepo;
+    private final WeatherDataRepository weatherRepo;
+    private final AirQualityRollupRepository rollupRepo;
+    private final LocationRepository locationRepo;
+    private final BackfillCheckpointRepository checkpointRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int rawDays;
+    private final boolean keepBackfilled;
+    private final int weatherDays;
+    private final int hourlyRollupDays;
+    private final int chunkSize;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public DataRetentionService(AirQualityDataRepository airRepo,
+                                WeatherDataRepository weatherRepo,
+                                AirQualityRollupRepository rollupRepo,
+                                LocationRepository locationRepo,
+                                BackfillCheckpointRepository checkpointRepo,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${aqm.retention.enabled:true}") boolean enabled,
+                                @Value("${aqm.retention.raw-days:90}") int rawDays,
+                                @Value("${aqm.retention.keep-backfilled:true}") boolean keepBackfilled,
+                                @Value("${aqm.retention.weather-days:90}") int weatherDays,
+                                @Value("${aqm.retention.hourly-rollup-days:400}") int hourlyRollupDays,
+                                @Value("${aqm.retention.chunk-size:5000}") int chunkSize) {
+        this.airRepo = airRepo;
+        this.weatherRepo = weatherRepo;
+        this.rollupRepo = rollupRepo;
+        this.locationRepo = locationRepo;
+        this.checkpointRepo = checkpointRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        // Rollup summaries read raw rows for the partial hours at range edges, keep at least a day
+        this.rawDays = Math.max(1, rawDays);
+        this.keepBackfilled = keepBackfilled;
+        this.weatherDays = Math.max(1, weatherDays);
+        this.hourlyRollupDays = Math.max(this.rawDays, hourlyRollupDays);
+        this.chunkSize = Math.max(100, chunkSize);
+    }
+
+    /**
+     * ⏳ Days of a location (by start of day) whose raw readings are all still stored:
+     * every day after the raw cutoff, plus days inside a kept backfill range.
+     * Other days may be partly purged (only alert-referenced readings survive),
+     * so their rollups can no longer be recomputed from raw data.
+     */
+    public Predicate<LocalDateTime> completeRawDays(Long locationId) {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(rawDays);
+        LocalDateTime oldestComplete = cutoff.toLocalDate().atStartOfDay().plusDays(1);
+        List<BackfillCheckpoint> backfilled = keepBackfilled ? checkpointRepo.findByLocationId(locationId) : List.of();
+
+        return day -> !day.isBefore(oldestComplete) || backfilled.stream()
+                .anyMatch(c -> !day.isBefore(c.getRangeFrom()) && !day.plusDays(1).isAfter(c.getCursor()));
+    }
+
+    /**
+     * ⏰ Nightly run (02:30 by default)
+     */
+    @Scheduled(cron = "${aqm.retention.cron:0 30 2 * * *}")
+    public void scheduledPurge() {
+        if (!enabled) return;
+        purge();
+    }
+
+    /**
+     * 🧹 Delete everything past its retention window
+     * @return rows deleted per table (empty if a run is already in progress)
+     */
+    public Map<String, Integer> purge() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("⚠️ Retention run already in progress, skipping");
+            return Map.of();
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> locationIds = locationRepo.findAll().stream().map(Location::getId).toList();
+            Map<String, Integer> deleted = new LinkedHashMap<>();
+
+            deleted.put("AirQualityData", purgeTable("AirQualityData", locationIds, airRepo,
+                    locationId -> page -> airRepo.findExpiredIds(locationId, now.minusDays(rawDays), keepBackfilled, page)));
+            deleted.put("WeatherData", purgeTable("WeatherData", locationIds, weatherRepo,
+                    locationId -> page -> weatherRepo.findExpiredIds(locationId, now.minusDays(weatherDays), page)));
+            deleted.put("AirQualityRollup.HOURLY", purgeTable("AirQualityRollup.HOURLY", locationIds, rollupRepo,
+                    locationId -> page -> rollupRepo.findExpiredIds(
+                            locationId, Granularity.HOURLY, now.minusDays(hourlyRollupDays), page)));
+
+            log.info("🧹 Retention run finished: {}", deleted);
+            return deleted;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Chunked delete: select up to chunk-size expired ids, delete them by primary key,
+     * commit, repeat until a location has nothing left
+     */
+    private int purgeTable(String table, List<Long> locationIds, JpaRepository<?, Long> repo,
+                           Function<Long, Function<Pageable, List<Long>>> expiredIds) {
+        Counter counter = Counter.builder("aqm.retention.deleted")
+                .tag("table", table)
+                .description("Rows removed by the retention policy")
+                .register(meterRegistry);
+        Pageable firstChunk = PageRequest.of(0, chunkSize);
+        int total = 0;
+
+        for (Long locationId : locationIds) {
+            Function<Pageable, List<Long>> finder = expiredIds.apply(locationId);
+            int deleted;
+            do {
+                Integer chunk = transactionTemplate.execute(status -> {
+                    List<Long> ids = finder.apply(firstChunk);
+                    if (!ids.isEmpty()) repo.deleteAllByIdInBatch(ids);
+                    return ids.size();
+                });
+                deleted = chunk != null ? chunk : 0;
+                total += deleted;
+                counter.increment(deleted);
+            } while (deleted == chunkSize);
+        }
+
+        if (total > 0) {
+            log.info("🧹 {}: deleted {} expired rows", table, total);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,241 @@
+// src/main/java/com/commander/aqm/aqm_back_end/service/EmailOutboxService.java
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.model.Alert;
+import com.commander.aqm.aqm_back_end.model.EmailOutbox;
+import com.commander.aqm.aqm_back_end.model.User;
+import com.commander.aqm.aqm_back_end.repository.EmailOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 📬 Transactional outbox for alert emails
+ *
+ * Flow:
+ * 1. enqueueAlerts() writes one row per alert inside the alert transaction
+ * 2. dispatchDue() (scheduled) loads due rows in batches, merges the rows of one
+ *    recipient into a digest and sends the whole batch over one SMTP connection
+ * 3. Failed messages are retried with exponential backoff, then marked FAILED
+ *
+ * Designed for a single application instance (the dispatcher does not lock rows).
+ */
+@Service
+@Slf4j
+public class EmailOutboxService {
+
+    private final EmailOutboxRepository outboxRepo;
+    private final EmailService emailService;
+    private final int batchSize;
+    private final int digestMax;
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final int retentionDays;
+    private final AtomicBoolean dispatching = new AtomicBoolean(false);
+
+    public EmailOutboxService(EmailOutboxRepository outboxRepo,
+                              EmailService emailService,
+                              @Value("${aqm.email.outbox.batch-size:200}") int batchSize,
+                              @Value("${aqm.email.outbox.digest-max:20}") int digestMax,
+                              @Value("${aqm.email.outbox.max-attempts:6}") int maxAttempts,
+                              @Value("${aqm.email.outbox.base-backoff-seconds:30}") long baseBackoffSeconds,
+                              @Value("${aqm.email.outbox.max-backoff-minutes:60}") long maxBackoffMinutes,
+                              @Value("${aqm.email.outbox.retention-days:7}") int retentionDays) {
+        this.outboxRepo = outboxRepo;
+        this.emailService = emailService;
+        this.batchSize = Math.max(1, batchSize);
+        this.digestMax = Math.max(1, digestMax);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseBackoff = Duration.ofSeconds(Math.max(1, baseBackoffSeconds));
+        this.maxBackoff = Duration.ofMinutes(Math.max(1, maxBackoffMinutes));
+        this.retentionDays = Math.max(1, retentionDays);
+    }
+
+    /**
+     * ➕ Queue emails for newly created alerts (joins the caller's transaction)
+     * Users with email alerts disabled are skipped.
+     */
+    @Transactional
+    public int enqueueAlerts(List<Alert> alerts) {
+        List<EmailOutbox> rows = new ArrayList<>();
+        for (Alert alert : alerts) {
+            User user = alert.getUser();
+            if (user == null || user.getEmail() == null || !Boolean.TRUE.equals(user.getEmailAlertsEnabled())) {
+                continue;
+            }
+            rows.add(EmailOutbox.builder()
+                    .userId(user.getId())
+                    .username(user.getUsername())
+                    .recipient(user.getEmail())
+                    .alertId(alert.getId())
+                    .subject(emailService.buildAlertSubject(alert))
+                    .body(emailService.buildAlertEmailBody(user, alert))
+                    .summary(emailService.buildAlertSummary(alert))
+                    .build());
+        }
+
+        if (!rows.isEmpty()) {
+            outboxRepo.saveAll(rows);
+            log.debug("📬 Queued {} alert emails", rows.size());
+        }
+        return rows.size();
+    }
+
+    /**
+     * 📤 Drain due rows batch by batch (skipped if a previous run is still going)
+     */
+    @Scheduled(fixedDelayString = "${aqm.email.outbox.poll-interval-ms:15000}",
+            initialDelayString = "${aqm.email.outbox.poll-interval-ms:15000}")
+    public void dispatchDue() {
+        if (!dispatching.compareAndSet(false, true)) return;
+        try {
+            int loaded;
+            do {
+                loaded = dispatchBatch();
+            } while (loaded == batchSize);
+        } catch (Exception e) {
+            log.error("❌ Email outbox dispatch failed: {}", e.getMessage(), e);
+        } finally {
+            dispatching.set(false);
+        }
+    }
+
+    /**
+     * 🧹 Purge delivered rows past the retention window (daily, 03:15)
+     */
+    @Scheduled(cron = "0 15 3 * * *")
+    public void purgeSent() {
+        int deleted = outboxRepo.deleteByStatusAndSentAtBefore(
+                EmailOutbox.Status.SENT, LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("🧹 Purged {} delivered outbox rows", deleted);
+        }
+    }
+
+    public Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        for (EmailOutbox.Status status : EmailOutbox.Status.values()) {
+            stats.put(status.name(), outboxRepo.countByStatus(status));
+        }
+        return stats;
+    }
+
+    private int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> due = outboxRepo.findDue(EmailOutbox.Status.PENDING, now, PageRequest.of(0, batchSize));
+        if (due.isEmpty()) return 0;
+
+        // One message per recipient (a digest when there are several alerts)
+        Map<String, List<EmailOutbox>> byRecipient = new LinkedHashMap<>();
+        for (EmailOutbox row : due) {
+            byRecipient.computeIfAbsent(row.getRecipient(), r -> new ArrayList<>()).add(row);
+        }
+
+        List<SimpleMailMessage> messages = new ArrayList<>();
+        List<List<EmailOutbox>> rowsPerMessage = new ArrayList<>();
+        Map<List<EmailOutbox>, Exception> notBuilt = new IdentityHashMap<>();
+        for (List<EmailOutbox> rows : byRecipient.values()) {
+            for (int i = 0; i < rows.size(); i += digestMax) {
+                List<EmailOutbox> chunk = rows.subList(i, Math.min(rows.size(), i + digestMax));
+                try {
+                    messages.add(toMessage(chunk));
+                    rowsPerMessage.add(chunk);
+                } catch (RuntimeException e) {
+                    // ✅ One bad row must not keep the rest of the batch PENDING
+                    notBuilt.put(chunk, e);
+                }
+            }
+        }
+
+        Map<SimpleMailMessage, Exception> failed;
+        try {
+            failed = emailService.sendBatch(messages);
+        } catch (RuntimeException e) {
+            // Not a MailException (e.g. a bad address or a sender bug): the whole batch is retried
+            failed = new HashMap<>();
+            for (SimpleMailMessage message : messages) failed.put(message, e);
+        }
+
+        LocalDateTime finishedAt = LocalDateTime.now();
+        int retried = 0;
+        int dead = 0;
+        for (Map.Entry<List<EmailOutbox>, Exception> entry : notBuilt.entrySet()) {
+            for (EmailOutbox row : entry.getKey()) {
+                if (scheduleRetry(row, entry.getValue(), finishedAt)) retried++; else dead++;
+            }
+        }
+        for (int i = 0; i < messages.size(); i++) {
+            Exception error = failed.get(messages.get(i));
+            for (EmailOutbox row : rowsPerMessage.get(i)) {
+                if (error == null) {
+                    row.setStatus(EmailOutbox.Status.SENT);
+                    row.setSentAt(finishedAt);
+                    row.setLastError(null);
+                } else if (scheduleRetry(row, error, finishedAt)) {
+                    retried++;
+                } else {
+                    dead++;
+                }
+            }
+        }
+        outboxRepo.saveAll(due);
+
+        log.info("📤 Email outbox: {} alerts in {} messages sent, {} to retry, {} failed",
+                due.size() - retried - dead, messages.size() - failed.size(), retried, dead);
+        return due.size();
+    }
+
+    private SimpleMailMessage toMessage(List<EmailOutbox> rows) {
+        EmailOutbox first = rows.get(0);
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("noreply@aqm-system.com");
+        message.setTo(first.getRecipient());
+
+        if (rows.size() == 1) {
+            message.setSubject(first.getSubject());
+            message.setText(first.getBody());
+        } else {
+            message.setSubject("🚨 AQM Winter Alert: " + rows.size() + " air quality alerts");
+            message.setText(emailService.buildAlertDigestBody(first.getUsername(),
+                    rows.stream().map(EmailOutbox::getSummary).toList()));
+        }
+        return message;
+    }
+
+    /**
+     * @return false when the row ran out of attempts and is now FAILED
+     */
+    private boolean scheduleRetry(EmailOutbox row, Exception error, LocalDateTime now) {
+        row.setAttempts(row.getAttempts() + 1);
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        row.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+
+        if (row.getAttempts() >= maxAttempts) {
+            row.setStatus(EmailOutbox.Status.FAILED);
+            log.warn("❌ Giving up on email {} to {} after {} attempts: {}",
+                    row.getId(), row.getRecipient(), row.getAttempts(), row.getLastError());
+            return false;
+        }
+
+        // 30s, 1m, 2m, 4m ... capped at max-backoff
+        long factor = 1L << Math.min(20, row.getAttempts() - 1);
+        Duration delay = baseBackoff.multipliedBy(factor);
+        row.setNextAttemptAt(now.plus(delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay));
+        return true;
+    }
+}
@@ -1,16 +1,22 @@
 // src/main/java/com/commander/aqm/aqm_back_end/service/EmailService.java
 package com.commander.aqm.aqm_back_end.service;
 
+import com.commander.aqm.aqm_back_end.config.AsyncConfiguration;
 import com.commander.aqm.aqm_back_end.model.Alert;
 import com.commander.aqm.aqm_back_end.model.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -22,7 +28,7 @@ public class EmailService {
     /**
      * ✅ EXISTING: Send alert email to user
      */
-    @Async
+    @Async(AsyncConfiguration.EMAIL_EXECUTOR)
     public void sendAlertEmail(User user, Alert alert) {
         // Check if user has email alerts enabled
         if (user.getEmailAlertsEnabled() == null || !user.getEmailAlertsEnabled()) {
@@ -34,7 +40,7 @@ public class EmailService {
             SimpleMailMessage message = new SimpleMailMessage();
             message.setFrom("noreply@aqm-system.com");
             message.setTo(user.getEmail());
-            message.setSubject("🚨 AQM Winter Alert: " + alert.getPollutant() + " Exceeded");
+            message.setSubject(buildAlertSubject(alert));
             message.setText(buildAlertEmailBody(user, alert));
 
             mailSender.send(message);
@@ -48,7 +54,7 @@ public class EmailService {
     /**
      * ✅ NEW: Send password reset email
      */
-    @Async
+    @Async(AsyncConfiguration.EMAIL_EXECUTOR)
     public void sendPasswordResetEmail(String toEmail, String username, String resetLink) {
         try {
             SimpleMailMessage message = new SimpleMailMessage();
@@ -66,15 +72,92 @@ public class EmailService {
         }
     }
 
+    /**
+     * 📬 Send several messages over one SMTP connection
+     * Returns the messages that failed (empty when everything was delivered).
+     */
+    public Map<SimpleMailMessage, Exception> sendBatch(List<SimpleMailMessage> messages) {
+        Map<SimpleMailMessage, Exception> failed = new HashMap<>();
+        if (messages.isEmpty()) return failed;
+
+        try {
+            mailSender.send(messages.toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            e.getFailedMessages().forEach((message, error) -> {
+                if (message instanceof SimpleMailMessage simple) failed.put(simple, error);
+            });
+            // No per-message detail (e.g. connection refused): the whole batch failed
+            if (failed.isEmpty()) messages.forEach(m -> failed.put(m, e));
+        } catch (MailException e) {
+            messages.forEach(m -> failed.put(m, e));
+        }
+        return failed;
+    }
+
+    /**
+     * ✅ Build alert email subject
+     */
+    String buildAlertSubject(Alert alert) {
+        if (isCoalesced(alert)) {
+            return "🚨 AQM Winter Alert: " + alert.getCoalescedCount() + " air quality limits exceeded";
+        }
+        return "🚨 AQM Winter Alert: " + alert.getPollutant() + " Exceeded";
+    }
+
+    /**
+     * ✅ Build the short alert entry used in digests
+     */
+    String buildAlertSummary(Alert alert) {
+        if (isCoalesced(alert)) {
+            return alert.getDetails().replace("\n", "\n   ");
+        }
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+        return String.format("📍 %s | 🌫️ %s: %.1f %s | 🕒 %s%n   %s",
+                locationName(alert),
+                alert.getPollutant(),
+                alert.getValue(),
+                getUnit(alert.getPollutant()),
+                alert.getTriggeredAt().format(formatter),
+                getHealthAdvisory(alert.getPollutant(), alert.getValue()));
+    }
+
+    /**
+     * ✅ Build one digest email for several alerts of the same user
+     */
+    String buildAlertDigestBody(String username, List<String> summaries) {
+        return String.format(
+                """
+                🎅 AQM Winter Alert System
+                
+                Hello %s,
+                
+                We detected %d elevated air quality readings in your monitored areas:
+                
+                ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+                %s
+                ━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━
+                
+                🔗 View full details:
+                https://aqm-system.com/alerts
+                
+                ---
+                AQM Winter - Christmas 2025 Edition
+                To manage your alert preferences, visit: https://aqm-system.com/thresholds
+                """,
+                username,
+                summaries.size(),
+                String.join("\n\n", summaries)
+        );
+    }
+
     /**
      * ✅ EXISTING: Build alert email body
      */
-    private String buildAlertEmailBody(User user, Alert alert) {
+    String buildAlertEmailBody(User user, Alert alert) {
+        if (isCoalesced(alert)) {
+            return buildAlertDigestBody(user.getUsername(), List.of(alert.getDetails().split("\n")));
+        }
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        String locationName = alert.getAqData() != null && alert.getAqData().getLocation() != null
-                ? alert.getAqData().getLocation().getName()
-                : "Unknown Location";
-
         return String.format(
                 """
                 🎅 AQM Winter Alert System
@@ -105,7 +188,7 @@ public class EmailService {
                 To manage your alert preferences, visit: https://aqm-system.com/thresholds
                 """,
                 user.getUsername(),
-                locationName,
+                locationName(alert),
                 alert.getPollutant(),
                 alert.getValue(),
                 getUnit(alert.getPollutant()),
@@ -154,6 +237,16 @@ public class EmailService {
         );
     }
 
+    private boolean isCoalesced(Alert alert) {
+        return alert.getCoalescedCount() != null && alert.getCoalescedCount() > 1 && alert.getDetails() != null;
+    }
+
+    private String locationName(Alert alert) {
+        return alert.getAqData() != null && alert.getAqData().getLocation() != null
+                ? alert.getAqData().getLocation().getName()
+                : "Unknown Location";
+    }
+
     /**
      * ✅ EXISTING: Get unit for pollutant
      */
@@ -1,28 +1,33 @@
 // src/main/java/com/commander/aqm/aqm_back_end/service/ExcelReportService.java
 package com.commander.aqm.aqm_back_end.service;
 
-import com.commander.aqm.aqm_back_end.model.AirQualityData;
+import com.commander.aqm.aqm_back_end.dto.AirQualityPoint;
 import com.commander.aqm.aqm_back_end.model.Report;
 import com.commander.aqm.aqm_back_end.repository.AirQualityDataRepository;
 import lombok.RequiredArgsConstructor;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayOutputStream;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ExcelReportService {
 
     private final AirQualityDataRepository airRepo;
+    private static final int ROW_WINDOW = 500;
     private static final DateTimeFormatter DATE_FORMAT =
             DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
+    @Transactional(readOnly = true)
     public byte[] generateReportExcel(Report report) throws Exception {
-        Workbook workbook = new XSSFWorkbook();
+        // Streaming workbook: only the last ROW_WINDOW rows of a sheet stay in memory
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
 
         // ✅ Sheet 1: Summary Statistics
         createSummarySheet(workbook, report);
@@ -36,12 +41,13 @@ public class ExcelReportService {
         // Write to bytes
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         workbook.write(baos);
+        workbook.dispose();
         workbook.close();
         return baos.toByteArray();
     }
 
-    private void createSummarySheet(Workbook workbook, Report report) {
-        Sheet sheet = workbook.createSheet("📊 Summary");
+    private void createSummarySheet(SXSSFWorkbook workbook, Report report) {
+        Sheet sheet = createSheet(workbook, "📊 Summary");
 
         // Styles
         CellStyle headerStyle = createHeaderStyle(workbook);
@@ -101,15 +107,8 @@ public class ExcelReportService {
         sheet.autoSizeColumn(1);
     }
 
-    private void createDataSheet(Workbook workbook, Report report) {
-        Sheet sheet = workbook.createSheet("📈 Daily Data");
-
-        // Get raw data
-        List<AirQualityData> data = airRepo.findByLocationIdAndTimestampUtcBetween(
-                report.getLocation().getId(),
-                report.getStartTimestamp(),
-                report.getEndTimestamp()
-        );
+    private void createDataSheet(SXSSFWorkbook workbook, Report report) {
+        Sheet sheet = createSheet(workbook, "📈 Daily Data");
 
         CellStyle headerStyle = createHeaderStyle(workbook);
         CellStyle dataStyle = createDataStyle(workbook);
@@ -123,25 +122,31 @@ public class ExcelReportService {
             cell.setCellStyle(headerStyle);
         }
 
-        // Data rows
-        int rowNum = 1;
-        for (AirQualityData d : data) {
-            Row row = sheet.createRow(rowNum++);
-
-            row.createCell(0).setCellValue(formatDate(d.getTimestampUtc()));
-            row.createCell(1).setCellValue(d.getPm25() != null ? d.getPm25() : 0);
-            row.createCell(2).setCellValue(d.getPm10() != null ? d.getPm10() : 0);
-            row.createCell(3).setCellValue(d.getNO2() != null ? d.getNO2() : 0);
-            row.createCell(4).setCellValue(d.getCo() != null ? d.getCo() : 0);
-            row.createCell(5).setCellValue(d.getO3() != null ? d.getO3() : 0);
-            row.createCell(6).setCellValue(d.getSo2() != null ? d.getSo2() : 0);
-            row.createCell(7).setCellValue(d.getAqi() != null ? d.getAqi() : 0);
-            row.createCell(8).setCellValue(getAqiCategory(d.getAqi()));
-
-            // Apply style
-            for (int i = 0; i < headers.length; i++) {
-                row.getCell(i).setCellStyle(dataStyle);
-            }
+        // Data rows (streamed from the database)
+        int[] rowNum = {1};
+        try (Stream<AirQualityPoint> points = airRepo.streamPointsBetween(
+                report.getLocation().getId(),
+                report.getStartTimestamp(),
+                report.getEndTimestamp()
+        )) {
+            points.forEach(d -> {
+                Row row = sheet.createRow(rowNum[0]++);
+
+                row.createCell(0).setCellValue(formatDate(d.timestampUtc()));
+                row.createCell(1).setCellValue(d.pm25() != null ? d.pm25() : 0);
+                row.createCell(2).setCellValue(d.pm10() != null ? d.pm10() : 0);
+                row.createCell(3).setCellValue(d.no2() != null ? d.no2() : 0);
+                row.createCell(4).setCellValue(d.co() != null ? d.co() : 0);
+                row.createCell(5).setCellValue(d.o3() != null ? d.o3() : 0);
+                row.createCell(6).setCellValue(d.so2() != null ? d.so2() : 0);
+                row.createCell(7).setCellValue(d.aqi() != null ? d.aqi() : 0);
+                row.createCell(8).setCellValue(getAqiCategory(d.aqi()));
+
+                // Apply style
+                for (int i = 0; i < headers.length; i++) {
+                    row.getCell(i).setCellStyle(dataStyle);
+                }
+            });
         }
 
         // Auto-size columns
@@ -150,8 +155,14 @@ public class ExcelReportService {
         }
     }
 
-    private void createDistributionSheet(Workbook workbook, Report report) {
-        Sheet sheet = workbook.createSheet("📊 Distribution");
+    private Sheet createSheet(SXSSFWorkbook workbook, String name) {
+        SXSSFSheet sheet = workbook.createSheet(name);
+        sheet.trackAllColumnsForAutoSizing();
+        return sheet;
+    }
+
+    private void createDistributionSheet(SXSSFWorkbook workbook, Report report) {
+        Sheet sheet = createSheet(workbook, "📊 Distribution");
 
         CellStyle headerStyle = createHeaderStyle(workbook);
         CellStyle goodStyle = createColoredStyle(workbook, IndexedColors.GREEN);
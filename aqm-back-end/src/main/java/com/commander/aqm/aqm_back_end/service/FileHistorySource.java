@@ -0,0 +1,77 @@
+// src/main/java/com/commander/aqm/aqm_back_end/service/FileHistorySource.java
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.dto.AirPollutionSample;
+import com.commander.aqm.aqm_back_end.model.Location;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 📁 Local stand-in for the history API
+ * Reads {@code <dir>/<locationId>.json}, a saved OpenWeatherMap air_pollution/history response.
+ * Each file is stream-parsed once into compact samples and kept until the location is released.
+ */
+@Component
+@RequiredArgsConstructor
+public class FileHistorySource implements AirPollutionHistorySource {
+
+    private final OpenWeatherMapParser openWeatherMapParser;
+    private final Map<Long, List<AirPollutionSample>> files = new ConcurrentHashMap<>();
+
+    @Value("${aqm.backfill.file-dir:./backfill}")
+    private String directory;
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public boolean rateLimited() {
+        return false;
+    }
+
+    @Override
+    public List<AirPollutionSample> fetch(Location location, LocalDateTime from, LocalDateTime to) throws Exception {
+        List<AirPollutionSample> samples = files.computeIfAbsent(location.getId(), this::read);
+        // Readings are stored in server-local time, like the real-time fetch (LocalDateTime.now())
+        long start = from.atZone(ZoneId.systemDefault()).toEpochSecond();
+        long end = to.atZone(ZoneId.systemDefault()).toEpochSecond();
+
+        List<AirPollutionSample> items = new ArrayList<>();
+        for (AirPollutionSample sample : samples) {
+            if (sample.dt() >= start && sample.dt() < end) {
+                items.add(sample);
+            }
+        }
+        return items;
+    }
+
+    @Override
+    public void release(Location location) {
+        files.remove(location.getId());
+    }
+
+    private List<AirPollutionSample> read(Long locationId) {
+        Path file = Path.of(directory, locationId + ".json");
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            return openWeatherMapParser.parseAirPollution(in, Long.MIN_VALUE, Long.MAX_VALUE);
+        } catch (Exception e) {
+            throw new RuntimeException("Cannot read backfill file " + file + ": " + e.getMessage(), e);
+        }
+    }
+}
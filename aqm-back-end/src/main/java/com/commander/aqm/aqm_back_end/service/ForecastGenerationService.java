@@ -1,8 +1,9 @@
 package com.commander.aqm.aqm_back_end.service;
 
-import com.commander.aqm.aqm_back_end.model.AirQualityData;
+import com.commander.aqm.aqm_back_end.dto.AirQualityPoint;
 import com.commander.aqm.aqm_back_end.model.Forecast;
 import com.commander.aqm.aqm_back_end.model.Location;
+import com.commander.aqm.aqm_back_end.model.Pollutant;
 import com.commander.aqm.aqm_back_end.repository.AirQualityDataRepository;
 import com.commander.aqm.aqm_back_end.repository.ForecastRepository;
 import com.commander.aqm.aqm_back_end.repository.LocationRepository;
@@ -14,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -35,35 +37,33 @@ public class ForecastGenerationService {
         Location location = locationRepo.findById(locationId)
                 .orElseThrow(() -> new RuntimeException("Location not found"));
 
-        // Get recent data (last 24 hours) for trend analysis
+        // Stream recent data (last 24 hours) for trend analysis:
+        // averages and trend in a single pass, first 12h vs last 12h
         LocalDateTime last24h = LocalDateTime.now().minusHours(24);
-        List<AirQualityData> recentData = airQualityRepo
-                .findByLocationIdAndTimestampUtcAfter(locationId, last24h);
+        LocalDateTime midpoint = last24h.plusHours(12);
+        AirQualityStatsAccumulator all = new AirQualityStatsAccumulator();
+        AirQualityStatsAccumulator firstHalf = new AirQualityStatsAccumulator();
+        AirQualityStatsAccumulator secondHalf = new AirQualityStatsAccumulator();
+
+        try (Stream<AirQualityPoint> points = airQualityRepo.streamPointsAfter(locationId, last24h)) {
+            points.forEach(point -> {
+                all.accept(point);
+                (point.timestampUtc().isBefore(midpoint) ? firstHalf : secondHalf).accept(point);
+            });
+        }
 
-        if (recentData.isEmpty()) {
+        if (all.getReadings() == 0) {
             throw new RuntimeException("No recent data available for forecasting");
         }
 
-        log.info("📊 Found {} data points for trend analysis", recentData.size());
-
-        // Calculate trends
-        double avgPm25 = recentData.stream()
-                .filter(d -> d.getPm25() != null)
-                .mapToDouble(AirQualityData::getPm25)
-                .average().orElse(0.0);
-
-        double avgPm10 = recentData.stream()
-                .filter(d -> d.getPm10() != null)
-                .mapToDouble(AirQualityData::getPm10)
-                .average().orElse(0.0);
+        log.info("📊 Found {} data points for trend analysis", all.getReadings());
 
-        double avgAqi = recentData.stream()
-                .filter(d -> d.getAqi() != null)
-                .mapToDouble(AirQualityData::getAqi)
-                .average().orElse(0.0);
+        double avgPm25 = all.mean(Pollutant.PM25);
+        double avgPm10 = all.mean(Pollutant.PM10);
+        double avgAqi = all.mean(Pollutant.AQI);
 
         // Calculate trend (increasing/decreasing)
-        double trendFactor = calculateTrend(recentData);
+        double trendFactor = calculateTrend(firstHalf, secondHalf);
 
         log.info("📈 Trend analysis: avgPM2.5={}, avgPM10={}, avgAQI={}, trend={}",
                 avgPm25, avgPm10, avgAqi, trendFactor);
@@ -112,23 +112,14 @@ public class ForecastGenerationService {
 
     /**
      * Calculate trend factor (positive = increasing, negative = decreasing)
+     * Compares the AQI average of the first half vs the second half of the window.
      */
-    private double calculateTrend(List<AirQualityData> data) {
-        if (data.size() < 2) return 0.0;
-
-        // Compare first half vs second half average
-        int mid = data.size() / 2;
-
-        double firstHalfAvg = data.subList(0, mid).stream()
-                .filter(d -> d.getAqi() != null)
-                .mapToDouble(AirQualityData::getAqi)
-                .average().orElse(0.0);
+    private double calculateTrend(AirQualityStatsAccumulator firstHalf, AirQualityStatsAccumulator secondHalf) {
+        if (firstHalf.count(Pollutant.AQI) == 0 || secondHalf.count(Pollutant.AQI) == 0) return 0.0;
 
-        double secondHalfAvg = data.subList(mid, data.size()).stream()
-                .filter(d -> d.getAqi() != null)
-                .mapToDouble(AirQualityData::getAqi)
-                .average().orElse(0.0);
+        double firstHalfAvg = firstHalf.mean(Pollutant.AQI);
+        double secondHalfAvg = secondHalf.mean(Pollutant.AQI);
 
         return (secondHalfAvg - firstHalfAvg) / firstHalfAvg;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,350 @@
+// src/main/java/com/commander/aqm/aqm_back_end/service/HistoricalBackfillService.java
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.dto.AirPollutionSample;
+import com.commander.aqm.aqm_back_end.dto.BackfillJobStatus;
+import com.commander.aqm.aqm_back_end.dto.BackfillRequest;
+import com.commander.aqm.aqm_back_end.model.AirQualityData;
+import com.commander.aqm.aqm_back_end.model.BackfillCheckpoint;
+import com.commander.aqm.aqm_back_end.model.Location;
+import com.commander.aqm.aqm_back_end.model.Sensor;
+import com.commander.aqm.aqm_back_end.repository.BackfillCheckpointRepository;
+import com.commander.aqm.aqm_back_end.repository.LocationRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * ⏪ Historical Backfill Job
+ * Loads past AirQualityData for (locations, from, to) from a history source,
+ * one location per worker (bounded concurrency), chunk by chunk.
+ * Each chunk is written in one transaction together with its checkpoint,
+ * so after a crash or restart the job resumes at the first unwritten chunk.
+ *
+ * A checkpoint is claimed (PENDING/FAILED → RUNNING, one conditional UPDATE) before a worker
+ * touches it, and the checkpoint's @Version guards every chunk commit, so two workers never
+ * write the same chunk. Each chunk commit renews the worker's lease (updatedAt); a RUNNING
+ * checkpoint is only taken over once its lease has expired, i.e. its worker is gone. Rows are inserted only if (location, timestamp) is not stored yet,
+ * which also keeps overlapping jobs for the same range from duplicating readings.
+ */
+@Service
+@Slf4j
+public class HistoricalBackfillService {
+
+    private final BackfillCheckpointRepository checkpointRepo;
+    private final LocationRepository locationRepo;
+    private final SensorLocationCache sensorLocationCache;
+    private final BulkWriter bulkWriter;
+    private final AirQualityRollupService rollupService;
+    private final IngestionEngine ingestionEngine;
+    private final Map<String, AirPollutionHistorySource> sources;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final int chunkDays;
+    private final boolean resumeOnStartup;
+    private final long leaseSeconds;
+
+    private static final Set<BackfillCheckpoint.Status> CLAIMABLE =
+            EnumSet.of(BackfillCheckpoint.Status.PENDING, BackfillCheckpoint.Status.FAILED);
+
+    // Checkpoints with a worker in this process (queued or running)
+    private final Set<Long> active = ConcurrentHashMap.newKeySet();
+
+    // In-memory throughput per job (since this process started working on it)
+    private final Map<String, JobProgress> progress = new ConcurrentHashMap<>();
+
+    public HistoricalBackfillService(BackfillCheckpointRepository checkpointRepo,
+                                     LocationRepository locationRepo,
+                                     SensorLocationCache sensorLocationCache,
+                                     BulkWriter bulkWriter,
+                                     AirQualityRollupService rollupService,
+                                     IngestionEngine ingestionEngine,
+                                     List<AirPollutionHistorySource> sources,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${aqm.backfill.concurrency:4}") int concurrency,
+                                     @Value("${aqm.backfill.chunk-days:7}") int chunkDays,
+                                     @Value("${aqm.backfill.resume-on-startup:true}") boolean resumeOnStartup,
+                                     @Value("${aqm.backfill.lease-seconds:600}") long leaseSeconds) {
+        this.checkpointRepo = checkpointRepo;
+        this.locationRepo = locationRepo;
+        this.sensorLocationCache = sensorLocationCache;
+        this.bulkWriter = bulkWriter;
+        this.rollupService = rollupService;
+        this.ingestionEngine = ingestionEngine;
+        this.sources = sources.stream()
+                .collect(Collectors.toMap(AirPollutionHistorySource::name, Function.identity()));
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = Executors.newFixedThreadPool(Math.max(1, concurrency), new CustomizableThreadFactory("aqm-backfill-"));
+        this.chunkDays = Math.max(1, chunkDays);
+        this.resumeOnStartup = resumeOnStartup;
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    /**
+     * 🚀 Create checkpoints for every location and start loading in the background
+     */
+    public BackfillJobStatus start(BackfillRequest request) {
+        String source = request.getSource() != null ? request.getSource().toLowerCase() : "openweathermap";
+        if (!sources.containsKey(source)) {
+            throw new RuntimeException("Unknown backfill source: " + source + " (use " + sources.keySet() + ")");
+        }
+
+        LocalDateTime from = LocalDate.parse(request.getFromDate()).atStartOfDay();
+        LocalDateTime to = LocalDate.parse(request.getToDate()).plusDays(1).atStartOfDay();
+        if (!from.isBefore(to)) {
+            throw new RuntimeException("fromDate must not be after toDate");
+        }
+
+        List<Location> locations = request.getLocationIds() == null || request.getLocationIds().isEmpty()
+                ? locationRepo.findAll()
+                : locationRepo.findAllById(request.getLocationIds());
+        if (locations.isEmpty()) {
+            throw new RuntimeException("No locations to backfill");
+        }
+
+        String jobId = UUID.randomUUID().toString();
+        List<BackfillCheckpoint> checkpoints = new ArrayList<>();
+        for (Location location : locations) {
+            checkpoints.add(BackfillCheckpoint.builder()
+                    .jobId(jobId)
+                    .locationId(location.getId())
+                    .source(source)
+                    .rangeFrom(from)
+                    .rangeTo(to)
+                    .cursor(from)
+                    .status(BackfillCheckpoint.Status.PENDING)
+                    .build());
+        }
+        checkpoints = checkpointRepo.saveAll(checkpoints);
+
+        log.info("⏪ Backfill {} started: {} locations, {} → {}, source={}", jobId, locations.size(), from, to, source);
+        submit(jobId, checkpoints);
+        return status(jobId);
+    }
+
+    /**
+     * 🔁 Continue pending / failed locations of a job (failed ones are retried from their cursor)
+     * Locations that are RUNNING keep their current worker while its lease is valid.
+     */
+    public BackfillJobStatus resume(String jobId) {
+        List<BackfillCheckpoint> unfinished = checkpointRepo.findByJobIdOrderByLocationIdAsc(jobId).stream()
+                .filter(c -> CLAIMABLE.contains(c.getStatus()))
+                .toList();
+
+        log.info("🔁 Resuming backfill {} ({} locations left)", jobId, unfinished.size());
+        submit(jobId, unfinished);
+        return status(jobId);
+    }
+
+    /**
+     * ♻️ Pick up jobs interrupted by a shutdown or crash
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        if (!resumeOnStartup) return;
+
+        resumeAll(checkpointRepo.findByStatusIn(EnumSet.of(BackfillCheckpoint.Status.PENDING)), "interrupted");
+        reclaimExpired();
+    }
+
+    /**
+     * ⏰ Take over RUNNING checkpoints whose worker stopped renewing its lease (crashed or hung)
+     * A live worker renews the lease with every chunk, so its checkpoint is left alone.
+     */
+    @Scheduled(fixedDelayString = "${aqm.backfill.lease-check-ms:60000}",
+            initialDelayString = "${aqm.backfill.lease-check-ms:60000}")
+    public void reclaimExpired() {
+        if (!resumeOnStartup) return;
+
+        resumeAll(checkpointRepo.findByStatusAndUpdatedAtBefore(BackfillCheckpoint.Status.RUNNING,
+                LocalDateTime.now().minusSeconds(leaseSeconds)), "expired");
+    }
+
+    private void resumeAll(List<BackfillCheckpoint> checkpoints, String reason) {
+        checkpoints.stream()
+                .collect(Collectors.groupingBy(BackfillCheckpoint::getJobId))
+                .forEach((jobId, byJob) -> {
+                    log.info("♻️ Resuming {} backfill {} ({} locations)", reason, jobId, byJob.size());
+                    submit(jobId, byJob);
+                });
+    }
+
+    public BackfillJobStatus status(String jobId) {
+        List<BackfillCheckpoint> checkpoints = checkpointRepo.findByJobIdOrderByLocationIdAsc(jobId);
+        if (checkpoints.isEmpty()) {
+            throw new RuntimeException("Backfill job not found: " + jobId);
+        }
+
+        int completed = 0;
+        int failed = 0;
+        long rows = 0;
+        for (BackfillCheckpoint checkpoint : checkpoints) {
+            if (checkpoint.getStatus() == BackfillCheckpoint.Status.COMPLETED) completed++;
+            if (checkpoint.getStatus() == BackfillCheckpoint.Status.FAILED) failed++;
+            rows += checkpoint.getRowsWritten();
+        }
+
+        JobProgress jobProgress = progress.get(jobId);
+
+        return BackfillJobStatus.builder()
+                .jobId(jobId)
+                .status(completed + failed == checkpoints.size() ? (failed > 0 ? "FAILED" : "COMPLETED") : "RUNNING")
+                .locations(checkpoints.size())
+                .completed(completed)
+                .failed(failed)
+                .rowsWritten(rows)
+                .rowsPerSec(jobProgress != null ? jobProgress.rowsPerSec() : 0)
+                .checkpoints(checkpoints)
+                .build();
+    }
+
+    private void submit(String jobId, List<BackfillCheckpoint> checkpoints) {
+        JobProgress jobProgress = progress.computeIfAbsent(jobId, id -> new JobProgress());
+        for (BackfillCheckpoint checkpoint : checkpoints) {
+            Long id = checkpoint.getId();
+            if (!active.add(id)) {
+                log.debug("⏭️ Backfill checkpoint {} already has a worker, skipping", id);
+                continue;
+            }
+            executor.submit(() -> {
+                try {
+                    runLocation(id, jobProgress);
+                } finally {
+                    active.remove(id);
+                }
+            });
+        }
+    }
+
+    /**
+     * 📥 Load one location chunk by chunk from its checkpoint cursor
+     */
+    private void runLocation(Long checkpointId, JobProgress jobProgress) {
+        // ✅ Claim first: only one worker (in any process) gets past this line
+        LocalDateTime now = LocalDateTime.now();
+        if (checkpointRepo.claim(checkpointId, CLAIMABLE, BackfillCheckpoint.Status.RUNNING,
+                now, now.minusSeconds(leaseSeconds)) == 0) {
+            log.debug("⏭️ Backfill checkpoint {} claimed elsewhere or finished, skipping", checkpointId);
+            return;
+        }
+        BackfillCheckpoint checkpoint = checkpointRepo.findById(checkpointId).orElse(null);
+        if (checkpoint == null) return;
+
+        Location location = locationRepo.findById(checkpoint.getLocationId()).orElse(null);
+        AirPollutionHistorySource source = sources.get(checkpoint.getSource());
+
+        try {
+            if (location == null) {
+                throw new RuntimeException("Location not found: " + checkpoint.getLocationId());
+            }
+            Sensor sensor = sensorLocationCache.findForLocation(location.getId())
+                    .orElseThrow(() -> new RuntimeException("No sensor found for location: " + location.getName()));
+
+            while (checkpoint.getCursor().isBefore(checkpoint.getRangeTo())) {
+                LocalDateTime chunkStart = checkpoint.getCursor();
+                LocalDateTime chunkEnd = chunkStart.plusDays(chunkDays);
+                if (chunkEnd.isAfter(checkpoint.getRangeTo())) {
+                    chunkEnd = checkpoint.getRangeTo();
+                }
+
+                if (source.rateLimited()) {
+                    ingestionEngine.acquirePermit();
+                }
+                List<AirQualityData> rows = toReadings(source.fetch(location, chunkStart, chunkEnd), location, sensor);
+
+                // ✅ Rows and cursor move together: a crash never skips or repeats a chunk
+                BackfillCheckpoint current = checkpoint;
+                LocalDateTime nextCursor = chunkEnd;
+                int[] inserted = new int[1];
+                checkpoint = transactionTemplate.execute(status -> {
+                    inserted[0] = bulkWriter.insertAirQualityIfAbsent(rows);
+                    current.setCursor(nextCursor);
+                    current.setRowsWritten(current.getRowsWritten() + inserted[0]);
+                    // @Version check: fails if another worker moved it; the update also renews the lease
+                    return checkpointRepo.save(current);
+                });
+                jobProgress.rows.addAndGet(inserted[0]);
+            }
+
+            rollupService.rebuild(location.getId(), checkpoint.getRangeFrom(), checkpoint.getRangeTo());
+
+            checkpoint.setStatus(BackfillCheckpoint.Status.COMPLETED);
+            checkpointRepo.save(checkpoint);
+            log.info("✅ Backfill {} finished {}: {} rows", checkpoint.getJobId(), location.getName(),
+                    checkpoint.getRowsWritten());
+
+        } catch (OptimisticLockingFailureException e) {
+            // Another worker owns this checkpoint now; our chunk was rolled back
+            log.warn("⚠️ Backfill {} location {} was taken over by another worker, stopping",
+                    checkpoint.getJobId(), checkpoint.getLocationId());
+        } catch (InterruptedException e) {
+            // Left RUNNING on purpose: reclaimed once the lease expires
+            Thread.currentThread().interrupt();
+            log.warn("⚠️ Backfill {} interrupted at {}", checkpoint.getJobId(), checkpoint.getCursor());
+        } catch (Exception e) {
+            log.error("❌ Backfill {} failed for location {} at {}: {}", checkpoint.getJobId(),
+                    checkpoint.getLocationId(), checkpoint.getCursor(), e.getMessage());
+            checkpoint.setStatus(BackfillCheckpoint.Status.FAILED);
+            checkpoint.setLastError(e.getMessage() != null && e.getMessage().length() > 500
+                    ? e.getMessage().substring(0, 500) : e.getMessage());
+            checkpointRepo.save(checkpoint);
+        } finally {
+            if (location != null && source != null) {
+                source.release(location);
+            }
+        }
+    }
+
+    /**
+     * Map OpenWeatherMap samples to readings (same conversion as the real-time fetch)
+     */
+    private List<AirQualityData> toReadings(List<AirPollutionSample> samples, Location location, Sensor sensor) {
+        List<AirQualityData> rows = new ArrayList<>(samples.size());
+        for (AirPollutionSample sample : samples) {
+            LocalDateTime timestamp = LocalDateTime.ofInstant(Instant.ofEpochSecond(sample.dt()), ZoneId.systemDefault());
+            rows.add(RealTimeAQIService.toReading(sample, location, sensor, timestamp));
+        }
+        return rows;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static class JobProgress {
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong rows = new AtomicLong();
+
+        double rowsPerSec() {
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            return elapsedMs > 0 ? rows.get() * 1000.0 / elapsedMs : 0;
+        }
+    }
+}
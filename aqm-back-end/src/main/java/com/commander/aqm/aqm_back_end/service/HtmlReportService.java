@@ -1,17 +1,21 @@
 // src/main/java/com/commander/aqm/aqm_back_end/service/HtmlReportService.java
 package com.commander.aqm.aqm_back_end.service;
 
-import com.commander.aqm.aqm_back_end.model.AirQualityData;
+import com.commander.aqm.aqm_back_end.dto.AirQualityPoint;
+import com.commander.aqm.aqm_back_end.dto.AirQualityResponseDto.HistoryDataDto;
 import com.commander.aqm.aqm_back_end.model.Report;
 import com.commander.aqm.aqm_back_end.repository.AirQualityDataRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -21,22 +25,33 @@ public class HtmlReportService {
     private static final DateTimeFormatter DATE_FORMAT =
             DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
+    // ✅ Chart points per report; longer periods are downsampled (LTTB keeps the peaks)
+    @Value("${aqm.history.report-chart-points:300}")
+    private int chartMaxPoints;
+
+    @Transactional(readOnly = true)
     public byte[] generateReportHtml(Report report) throws Exception {
-        // Get raw data for chart
-        List<AirQualityData> data = airRepo.findByLocationIdAndTimestampUtcBetween(
+        // Stream raw points for chart (no entities, single pass), capped at chartMaxPoints
+        TimeSeriesDownsampler downsampler = TimeSeriesDownsampler.lttb(
+                report.getStartTimestamp(), report.getEndTimestamp(), Math.max(3, chartMaxPoints));
+
+        try (Stream<AirQualityPoint> points = airRepo.streamPointsBetween(
                 report.getLocation().getId(),
                 report.getStartTimestamp(),
                 report.getEndTimestamp()
-        );
+        )) {
+            points.forEach(downsampler::accept);
+        }
 
-        // Build chart data
-        String chartLabels = data.stream()
-                .map(d -> "'" + formatTime(d.getTimestampUtc()) + "'")
-                .collect(Collectors.joining(","));
+        StringJoiner labels = new StringJoiner(",");
+        StringJoiner values = new StringJoiner(",");
+        for (HistoryDataDto point : downsampler.finish()) {
+            labels.add("'" + formatTime(LocalDateTime.parse(point.getTimestampUtc())) + "'");
+            values.add(String.valueOf(point.getAqi() != null ? point.getAqi() : 0));
+        }
 
-        String chartData = data.stream()
-                .map(d -> String.valueOf(d.getAqi() != null ? d.getAqi() : 0))
-                .collect(Collectors.joining(","));
+        String chartLabels = labels.toString();
+        String chartData = values.toString();
 
         int totalDays = report.getGoodDays() + report.getModerateDays() + report.getUnhealthyDays();
         double goodPct = (report.getGoodDays() * 100.0 / totalDays);
@@ -0,0 +1,135 @@
+// src/main/java/com/commander/aqm/aqm_back_end/service/IngestionEngine.java
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.dto.IngestionRunStats;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * ⚡ Concurrent Ingestion Engine
+ * Fans work items (usually locations) out over a bounded thread pool.
+ * Every item takes a token from a shared bucket sized to the OpenWeatherMap quota,
+ * so parallel workers never exceed the provider rate limit.
+ */
+@Service
+@Slf4j
+public class IngestionEngine {
+
+    private final ExecutorService executor;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final int concurrency;
+
+    public IngestionEngine(
+            @Value("${aqm.ingestion.concurrency:8}") int concurrency,
+            @Value("${aqm.ingestion.rate-limit.burst:60}") int burst,
+            @Value("${aqm.ingestion.rate-limit.permits-per-second:1.0}") double permitsPerSecond
+    ) {
+        this.concurrency = Math.max(1, concurrency);
+        this.executor = Executors.newFixedThreadPool(this.concurrency, new CustomizableThreadFactory("aqm-ingest-"));
+        this.rateLimiter = new TokenBucketRateLimiter(burst, permitsPerSecond);
+    }
+
+    /**
+     * 🚀 Run {@code task} for every item in parallel and wait for all of them.
+     * Failures are logged per item and never abort the run.
+     */
+    public <T> IngestionRunStats run(String job, List<T> items, Function<T, String> describe, Consumer<T> task) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+
+        log.info("⚡ [{}] Starting ingestion of {} items (concurrency={})", job, items.size(), concurrency);
+
+        List<Callable<Long>> calls = new ArrayList<>(items.size());
+        for (T item : items) {
+            calls.add(() -> {
+                rateLimiter.acquire();
+                long itemStart = System.nanoTime();
+                task.accept(item);
+                return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - itemStart);
+            });
+        }
+
+        long[] latencies = new long[items.size()];
+        int succeeded = 0;
+        int failed = 0;
+
+        try {
+            List<Future<Long>> futures = executor.invokeAll(calls);
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    latencies[succeeded] = futures.get(i).get();
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.error("❌ [{}] Failed for {}: {}", job, describe.apply(items.get(i)),
+                            e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("⚠️ [{}] Ingestion interrupted", job);
+        }
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        IngestionRunStats stats = buildStats(job, startedAt, items.size(), succeeded, failed, elapsedMs,
+                Arrays.copyOf(latencies, succeeded));
+
+        log.info("✅ [{}] {} ok / {} failed in {} ms | {} items/s | latency avg={} ms p95={} ms max={} ms",
+                job, stats.getSucceeded(), stats.getFailed(), stats.getElapsedMs(),
+                String.format("%.1f", stats.getThroughputPerSec()),
+                String.format("%.0f", stats.getAvgLatencyMs()),
+                stats.getP95LatencyMs(), stats.getMaxLatencyMs());
+
+        return stats;
+    }
+
+    /**
+     * 🪣 Take one token from the shared provider quota (for callers outside {@link #run})
+     */
+    public void acquirePermit() throws InterruptedException {
+        rateLimiter.acquire();
+    }
+
+    private IngestionRunStats buildStats(String job, LocalDateTime startedAt, int total, int succeeded,
+                                         int failed, long elapsedMs, long[] latencies) {
+        Arrays.sort(latencies);
+        long sum = 0;
+        for (long latency : latencies) {
+            sum += latency;
+        }
+
+        return IngestionRunStats.builder()
+                .job(job)
+                .startedAt(startedAt)
+                .total(total)
+                .succeeded(succeeded)
+                .failed(failed)
+                .elapsedMs(elapsedMs)
+                .throughputPerSec(elapsedMs > 0 ? (succeeded + failed) * 1000.0 / elapsedMs : 0)
+                .avgLatencyMs(latencies.length > 0 ? (double) sum / latencies.length : 0)
+                .p95LatencyMs(latencies.length > 0 ? latencies[(int) Math.ceil(latencies.length * 0.95) - 1] : 0)
+                .maxLatencyMs(latencies.length > 0 ? latencies[latencies.length - 1] : 0)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
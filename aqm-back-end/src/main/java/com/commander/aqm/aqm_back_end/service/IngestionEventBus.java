@@ -0,0 +1,268 @@
+// src/main/java/com/commander/aqm/aqm_back_end/service/IngestionEventBus.java
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.service.IngestionEventSubscriber.OverflowPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🚌 In-process bus between ingestion and its consumers
+ * Each {@link IngestionEventSubscriber} bean (snapshot, rollups, alerts, ...) gets a bounded
+ * queue of aqm.ingestion.bus.queue-capacity events drained by its own thread.
+ *
+ * When a queue is full the subscriber's {@link OverflowPolicy} applies:
+ * - DROP_OLDEST (latest snapshot): the oldest event is dropped, the publisher never waits
+ * - BLOCK_THEN_SPILL (rollups, alerts): the publisher waits up to aqm.ingestion.bus.offer-timeout-ms
+ *   (backpressure on ingestion); if the subscriber is still behind, the location and time range are
+ *   spilled and replayed through {@link IngestionEventSubscriber#recover} once its queue is empty.
+ *   The readings are already committed, so nothing is lost, only delayed.
+ *
+ * On shutdown queues are drained for up to aqm.ingestion.bus.shutdown-drain-seconds; whatever is
+ * left is logged per location with its time range (repair: /api/admin/rollups/rebuild).
+ *
+ * Metrics per subscriber:
+ * - aqm.ingestion.bus.queued (events waiting)
+ * - aqm.ingestion.bus.lag.seconds (age of the oldest waiting event)
+ * - aqm.ingestion.bus.dropped / spilled / failed (totals)
+ */
+@Component
+@Slf4j
+public class IngestionEventBus {
+
+    private final List<Subscription> subscriptions;
+    private final long offerTimeoutMs;
+    private final long shutdownDrainMs;
+
+    public IngestionEventBus(List<IngestionEventSubscriber> subscribers,
+                             MeterRegistry meterRegistry,
+                             @Value("${aqm.ingestion.bus.queue-capacity:1000}") int queueCapacity,
+                             @Value("${aqm.ingestion.bus.offer-timeout-ms:2000}") long offerTimeoutMs,
+                             @Value("${aqm.ingestion.bus.shutdown-drain-seconds:10}") long shutdownDrainSeconds) {
+        int capacity = Math.max(1, queueCapacity);
+        this.offerTimeoutMs = Math.max(0, offerTimeoutMs);
+        this.shutdownDrainMs = TimeUnit.SECONDS.toMillis(Math.max(0, shutdownDrainSeconds));
+        this.subscriptions = subscribers.stream()
+                .map(subscriber -> new Subscription(subscriber, capacity, meterRegistry))
+                .toList();
+        subscriptions.forEach(Subscription::start);
+
+        log.info("🚌 Ingestion event bus started with subscribers {}",
+                subscribers.stream().map(s -> s.subscriberName() + "(" + s.overflowPolicy() + ")").toList());
+    }
+
+    /**
+     * 📣 Hand an event to every subscriber
+     * Blocks at most offer-timeout-ms per BLOCK_THEN_SPILL subscriber that is behind.
+     */
+    public void publish(LocationIngestedEvent event) {
+        Envelope envelope = new Envelope(event, System.nanoTime());
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(envelope, offerTimeoutMs);
+        }
+    }
+
+    /**
+     * 🛑 Drain (bounded), then stop the consumer threads and log what could not be delivered
+     */
+    @PreDestroy
+    public void shutdown() {
+        long deadline = System.currentTimeMillis() + shutdownDrainMs;
+        for (Subscription subscription : subscriptions) {
+            subscription.awaitDrained(deadline);
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.stop();
+        }
+    }
+
+    private record Envelope(LocationIngestedEvent event, long publishedAtNanos) {
+    }
+
+    /**
+     * Earliest / latest reading time of undelivered events for one location
+     */
+    private record Range(LocalDateTime from, LocalDateTime to) {
+        Range merge(Range other) {
+            return new Range(from.isBefore(other.from) ? from : other.from, to.isAfter(other.to) ? to : other.to);
+        }
+    }
+
+    private static Range rangeOf(LocationIngestedEvent event) {
+        LocalDateTime at = event.airQuality() != null ? event.airQuality().getTimestampUtc()
+                : event.weather() != null ? event.weather().getTimestampUtc() : null;
+        return at != null ? new Range(at, at) : null;
+    }
+
+    /**
+     * One subscriber: its queue, spilled ranges, consumer thread and meters
+     */
+    private static class Subscription implements Runnable {
+
+        private final IngestionEventSubscriber subscriber;
+        private final OverflowPolicy policy;
+        private final BlockingQueue<Envelope> queue;
+        private final Map<Long, Range> spilled = new ConcurrentHashMap<>();
+        private final Counter dropped;
+        private final Counter spilledCounter;
+        private final Counter failed;
+        private final Thread thread;
+        private volatile boolean busy = false;
+
+        Subscription(IngestionEventSubscriber subscriber, int capacity, MeterRegistry meterRegistry) {
+            String name = subscriber.subscriberName();
+            this.subscriber = subscriber;
+            this.policy = subscriber.overflowPolicy();
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.dropped = counter("aqm.ingestion.bus.dropped", name,
+                    "Events dropped because the subscriber fell behind", meterRegistry);
+            this.spilledCounter = counter("aqm.ingestion.bus.spilled", name,
+                    "Events spilled to a recovery range because the subscriber fell behind", meterRegistry);
+            this.failed = counter("aqm.ingestion.bus.failed", name,
+                    "Events the subscriber failed to handle", meterRegistry);
+            Gauge.builder("aqm.ingestion.bus.queued", queue, BlockingQueue::size)
+                    .tag("subscriber", name)
+                    .description("Events waiting for the subscriber")
+                    .register(meterRegistry);
+            Gauge.builder("aqm.ingestion.bus.lag.seconds", this, Subscription::lagSeconds)
+                    .tag("subscriber", name)
+                    .description("Age of the oldest event waiting for the subscriber")
+                    .register(meterRegistry);
+            this.thread = new Thread(this, "aqm-bus-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        private static Counter counter(String metric, String subscriber, String description, MeterRegistry registry) {
+            return Counter.builder(metric).tag("subscriber", subscriber).description(description).register(registry);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void offer(Envelope envelope, long timeoutMs) {
+            if (policy == OverflowPolicy.DROP_OLDEST) {
+                while (!queue.offer(envelope)) {
+                    // Full: make room by dropping the oldest event
+                    if (queue.poll() != null) {
+                        dropped.increment();
+                    }
+                }
+                return;
+            }
+
+            try {
+                if (queue.offer(envelope, timeoutMs, TimeUnit.MILLISECONDS)) return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            spill(envelope.event());
+            log.warn("⚠️ Ingestion bus subscriber '{}' is falling behind, spilled {} for later recovery",
+                    subscriber.subscriberName(), envelope.event().location().getName());
+        }
+
+        private void spill(LocationIngestedEvent event) {
+            Range range = rangeOf(event);
+            if (range == null) return;
+            spilled.merge(event.location().getId(), range, Range::merge);
+            spilledCounter.increment();
+        }
+
+        double lagSeconds() {
+            Envelope oldest = queue.peek();
+            return oldest == null ? 0 : (System.nanoTime() - oldest.publishedAtNanos()) / (double) TimeUnit.SECONDS.toNanos(1);
+        }
+
+        @Override
+        public void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                Envelope envelope;
+                try {
+                    envelope = queue.poll(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                busy = true;
+                try {
+                    if (envelope != null) {
+                        handle(envelope);
+                    } else if (!spilled.isEmpty()) {
+                        // Caught up: replay what was spilled while behind
+                        replaySpilled();
+                    }
+                } finally {
+                    busy = false;
+                }
+            }
+        }
+
+        private void handle(Envelope envelope) {
+            try {
+                subscriber.onIngested(envelope.event());
+            } catch (Exception e) {
+                failed.increment();
+                log.error("❌ Ingestion bus subscriber '{}' failed for {}: {}", subscriber.subscriberName(),
+                        envelope.event().location().getName(), e.getMessage(), e);
+            }
+        }
+
+        private void replaySpilled() {
+            for (Long locationId : List.copyOf(spilled.keySet())) {
+                Range range = spilled.remove(locationId);
+                if (range == null) continue;
+                try {
+                    log.info("🔁 Ingestion bus subscriber '{}' recovering location {} {} → {}",
+                            subscriber.subscriberName(), locationId, range.from(), range.to());
+                    subscriber.recover(locationId, range.from(), range.to());
+                } catch (Exception e) {
+                    failed.increment();
+                    spilled.merge(locationId, range, Range::merge); // retried on the next idle poll
+                    log.error("❌ Ingestion bus subscriber '{}' failed to recover location {}: {}",
+                            subscriber.subscriberName(), locationId, e.getMessage());
+                }
+            }
+        }
+
+        void awaitDrained(long deadlineMillis) {
+            while ((!queue.isEmpty() || busy || !spilled.isEmpty()) && System.currentTimeMillis() < deadlineMillis) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        void stop() {
+            thread.interrupt();
+
+            // Record what was never delivered so it can be repaired after the restart
+            List<Envelope> leftover = new ArrayList<>();
+            queue.drainTo(leftover);
+            leftover.forEach(envelope -> spill(envelope.event()));
+            if (policy == OverflowPolicy.DROP_OLDEST) {
+                spilled.clear(); // Rebuilt from the database on the next warm-up
+                return;
+            }
+            spilled.forEach((locationId, range) ->
+                    log.error("❌ Ingestion bus subscriber '{}' stopped before delivering location {} {} → {}"
+                                    + " (re-run with /api/admin/rollups/rebuild or an alert re-check)",
+                            subscriber.subscriberName(), locationId, range.from(), range.to()));
+        }
+    }
+}
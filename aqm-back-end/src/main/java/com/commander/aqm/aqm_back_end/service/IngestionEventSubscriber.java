@@ -0,0 +1,49 @@
+// src/main/java/com/commander/aqm/aqm_back_end/service/IngestionEventSubscriber.java
+package com.commander.aqm.aqm_back_end.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * 📬 Consumer of {@link IngestionEventBus}
+ * Every subscriber bean gets its own bounded queue and thread, so a slow one
+ * (e.g. alert evaluation) never delays the other subscribers.
+ */
+public interface IngestionEventSubscriber {
+
+    /**
+     * What the bus does when this subscriber's queue is full
+     */
+    enum OverflowPolicy {
+        /**
+         * Drop the oldest queued event and never block the publisher
+         * (only for subscribers where the newest event supersedes older ones)
+         */
+        DROP_OLDEST,
+        /**
+         * Block the publisher up to aqm.ingestion.bus.offer-timeout-ms; if the queue is still full,
+         * remember the location / time range and hand it to {@link #recover} once the queue drains
+         */
+        BLOCK_THEN_SPILL
+    }
+
+    /**
+     * Name used for the consumer thread and the metric tag (e.g. "alerts")
+     */
+    String subscriberName();
+
+    /**
+     * Handle one event (called on the subscriber's own thread, one event at a time)
+     */
+    void onIngested(LocationIngestedEvent event);
+
+    default OverflowPolicy overflowPolicy() {
+        return OverflowPolicy.BLOCK_THEN_SPILL;
+    }
+
+    /**
+     * Catch up on events that could not be queued: readings of {@code locationId}
+     * with {@code from <= timestamp <= to} were committed but never delivered
+     */
+    default void recover(Long locationId, LocalDateTime from, LocalDateTime to) {
+    }
+}
@@ -0,0 +1,98 @@
+// src/main/java/com/commander/aqm/aqm_back_end/service/LatestAirQualityStore.java
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.model.AirQualityData;
+import com.commander.aqm.aqm_back_end.repository.AirQualityDataRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 📌 Latest-reading snapshot per location
+ * Keeps the newest AirQualityData of every location in memory so "latest AQI"
+ * endpoints never query the database. Updated on write by the ingestion path
+ * and warmed from the database once the application is ready.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class LatestAirQualityStore implements IngestionEventSubscriber {
+
+    private final AirQualityDataRepository airRepo;
+    private final Map<Long, AirQualityData> latestByLocation = new ConcurrentHashMap<>();
+    private volatile boolean warmedUp = false;
+
+    /**
+     * 🔥 Load the newest reading of every location (single query)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        airRepo.findLatestPerLocation().forEach(this::update);
+        warmedUp = true;
+        log.info("🔥 Latest AQI snapshot warmed for {} locations", latestByLocation.size());
+    }
+
+    /**
+     * Record a newly stored reading (older readings never replace newer ones)
+     */
+    public void update(AirQualityData data) {
+        if (data == null || data.getLocation() == null || data.getTimestampUtc() == null) return;
+
+        latestByLocation.merge(data.getLocation().getId(), data, (current, candidate) ->
+                candidate.getTimestampUtc().isBefore(current.getTimestampUtc()) ? current : candidate);
+    }
+
+    @Override
+    public String subscriberName() {
+        return "snapshot";
+    }
+
+    /**
+     * Only the newest reading per location matters here
+     */
+    @Override
+    public OverflowPolicy overflowPolicy() {
+        return OverflowPolicy.DROP_OLDEST;
+    }
+
+    /**
+     * 📣 New reading committed by the ingestion path
+     */
+    @Override
+    public void onIngested(LocationIngestedEvent event) {
+        update(event.airQuality());
+    }
+
+    /**
+     * Get the newest reading of a location
+     * Falls back to the database only until the warm-up has completed.
+     */
+    public Optional<AirQualityData> get(Long locationId) {
+        AirQualityData cached = latestByLocation.get(locationId);
+        if (cached != null || warmedUp) {
+            return Optional.ofNullable(cached);
+        }
+
+        Optional<AirQualityData> latest = airRepo.findTopByLocationIdOrderByTimestampUtcDesc(locationId);
+        latest.ifPresent(this::update);
+        return latest;
+    }
+
+    /**
+     * Read-only view of all locations that have data, keyed by location ID
+     */
+    public Map<Long, AirQualityData> snapshot() {
+        return Collections.unmodifiableMap(latestByLocation);
+    }
+
+    public void evict(Long locationId) {
+        latestByLocation.remove(locationId);
+    }
+}
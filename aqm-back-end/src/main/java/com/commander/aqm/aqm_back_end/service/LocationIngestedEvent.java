@@ -0,0 +1,14 @@
+// src/main/java/com/commander/aqm/aqm_back_end/service/LocationIngestedEvent.java
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.model.AirQualityData;
+import com.commander.aqm.aqm_back_end.model.Location;
+import com.commander.aqm.aqm_back_end.model.WeatherData;
+
+/**
+ * 📣 Published on {@link IngestionEventBus} once per location after its new rows are committed
+ * Either reading may be null when only one of the provider calls succeeded
+ * (or when only one kind of data was fetched, e.g. a manual AQI fetch).
+ */
+public record LocationIngestedEvent(Location location, AirQualityData airQuality, WeatherData weather) {
+}
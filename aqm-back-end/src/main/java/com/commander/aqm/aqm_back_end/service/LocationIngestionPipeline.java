@@ -0,0 +1,134 @@
+// src/main/java/com/commander/aqm/aqm_back_end/service/LocationIngestionPipeline.java
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.config.AsyncConfiguration;
+import com.commander.aqm.aqm_back_end.dto.IngestionRunStats;
+import com.commander.aqm.aqm_back_end.model.AirQualityData;
+import com.commander.aqm.aqm_back_end.model.Location;
+import com.commander.aqm.aqm_back_end.model.WeatherData;
+import com.commander.aqm.aqm_back_end.repository.AirQualityDataRepository;
+import com.commander.aqm.aqm_back_end.repository.LocationRepository;
+import com.commander.aqm.aqm_back_end.repository.WeatherDataRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 🔄 Unified AQI + weather ingestion
+ * One scheduled pass over all locations (replaces the separate AQI and weather jobs).
+ * Per location:
+ * 1. air_pollution and weather are fetched concurrently (weather on {@link AsyncConfiguration#WEATHER_EXECUTOR}),
+ *    each call taking its own token from the ingestion quota
+ * 2. both rows are written in one transaction
+ * 3. one {@link LocationIngestedEvent} is published on the {@link IngestionEventBus}
+ *    for the downstream stages (latest snapshot, rollups, alert evaluation)
+ *
+ * If one call fails the other reading is still saved; the location is reported as failed.
+ *
+ * The rows are saved through JPA, not {@link BulkWriter}: there is only one of each per location,
+ * so there is nothing to batch, and alert evaluation needs the generated AirQualityData id.
+ */
+@Service
+@Slf4j
+public class LocationIngestionPipeline {
+
+    private final LocationRepository locationRepo;
+    private final AirQualityDataRepository aqDataRepo;
+    private final WeatherDataRepository weatherRepo;
+    private final RealTimeAQIService aqiService;
+    private final RealTimeWeatherService weatherService;
+    private final IngestionEngine ingestionEngine;
+    private final IngestionEventBus eventBus;
+    private final AsyncTaskExecutor weatherExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    public LocationIngestionPipeline(LocationRepository locationRepo,
+                                     AirQualityDataRepository aqDataRepo,
+                                     WeatherDataRepository weatherRepo,
+                                     RealTimeAQIService aqiService,
+                                     RealTimeWeatherService weatherService,
+                                     IngestionEngine ingestionEngine,
+                                     IngestionEventBus eventBus,
+                                     @Qualifier(AsyncConfiguration.WEATHER_EXECUTOR) AsyncTaskExecutor weatherExecutor,
+                                     PlatformTransactionManager transactionManager) {
+        this.locationRepo = locationRepo;
+        this.aqDataRepo = aqDataRepo;
+        this.weatherRepo = weatherRepo;
+        this.aqiService = aqiService;
+        this.weatherService = weatherService;
+        this.ingestionEngine = ingestionEngine;
+        this.eventBus = eventBus;
+        this.weatherExecutor = weatherExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * ⏰ Auto-fetch AQI + weather every 30 minutes
+     */
+    @Scheduled(cron = "0 */30 * * * *")
+    public IngestionRunStats ingestAllLocations() {
+        log.info("🌍 Starting scheduled AQI + weather ingestion...");
+
+        List<Location> locations = locationRepo.findAll();
+        return ingestionEngine.run("location-ingest", locations, Location::getName, this::ingest);
+    }
+
+    /**
+     * 📡 Fetch both readings of one location, store them together and publish the event
+     * @throws RuntimeException if either provider call failed (the other reading is kept)
+     */
+    public LocationIngestedEvent ingest(Location location) {
+        // The engine already took a token for this location; the weather call needs its own
+        try {
+            ingestionEngine.acquirePermit();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the provider quota", e);
+        }
+        CompletableFuture<WeatherData> weatherCall =
+                CompletableFuture.supplyAsync(() -> weatherService.fetchWeatherData(location), weatherExecutor);
+
+        AirQualityData airQuality = null;
+        WeatherData weather = null;
+        StringBuilder errors = new StringBuilder();
+
+        try {
+            airQuality = aqiService.fetchAQIData(location);
+        } catch (RuntimeException e) {
+            errors.append("AQI: ").append(e.getMessage());
+        }
+        try {
+            weather = weatherCall.join();
+        } catch (CompletionException e) {
+            if (!errors.isEmpty()) errors.append("; ");
+            errors.append("weather: ").append(e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+        }
+
+        LocationIngestedEvent event = new LocationIngestedEvent(location, airQuality, weather);
+        if (airQuality != null || weather != null) {
+            // ✅ One transaction (and commit) for both rows
+            transactionTemplate.executeWithoutResult(status -> {
+                if (event.airQuality() != null) aqDataRepo.save(event.airQuality());
+                if (event.weather() != null) weatherRepo.save(event.weather());
+            });
+            eventBus.publish(event);
+
+            log.info("✅ Ingested {}: AQI={}, Temp={}°C", location.getName(),
+                    airQuality != null ? airQuality.getAqi() : "-",
+                    weather != null ? weather.getTemperatureC() : "-");
+        }
+
+        if (!errors.isEmpty()) {
+            throw new RuntimeException(errors.toString());
+        }
+        return event;
+    }
+}
@@ -0,0 +1,52 @@
+// src/main/java/com/commander/aqm/aqm_back_end/service/OpenWeatherMapHistorySource.java
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.dto.AirPollutionSample;
+import com.commander.aqm.aqm_back_end.model.Location;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * 🌐 OpenWeatherMap air_pollution/history (hourly data since late 2020)
+ * A week-long chunk is ~170 entries per call; they are parsed straight off the response stream.
+ */
+@Component
+@RequiredArgsConstructor
+public class OpenWeatherMapHistorySource implements AirPollutionHistorySource {
+
+    private final ProviderClient providerClient;
+    private final OpenWeatherMapParser openWeatherMapParser;
+
+    @Value("${openweather.api.key:8d5af07bbcf8969b864f267d5465e1d2}")
+    private String openWeatherApiKey;
+
+    @Override
+    public String name() {
+        return "openweathermap";
+    }
+
+    @Override
+    public boolean rateLimited() {
+        return true;
+    }
+
+    @Override
+    public List<AirPollutionSample> fetch(Location location, LocalDateTime from, LocalDateTime to) throws Exception {
+        // Readings are stored in server-local time, like the real-time fetch (LocalDateTime.now())
+        long start = from.atZone(ZoneId.systemDefault()).toEpochSecond();
+        long end = to.atZone(ZoneId.systemDefault()).toEpochSecond();
+
+        String url = String.format(
+                "https://api.openweathermap.org/data/2.5/air_pollution/history?lat=%f&lon=%f&start=%d&end=%d&appid=%s",
+                location.getLatitude(), location.getLongitude(), start, end, openWeatherApiKey
+        );
+
+        return providerClient.stream("owm.air_pollution_history", url,
+                body -> openWeatherMapParser.parseAirPollution(body, start, end));
+    }
+}
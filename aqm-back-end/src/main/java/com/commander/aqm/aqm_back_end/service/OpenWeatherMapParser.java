@@ -0,0 +1,150 @@
+// src/main/java/com/commander/aqm/aqm_back_end/service/OpenWeatherMapParser.java
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.dto.AirPollutionSample;
+import com.commander.aqm.aqm_back_end.model.WeatherData;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ⚡ Streaming parser for OpenWeatherMap responses
+ * Reads tokens straight from the response stream into primitives / entities: no response
+ * String and no JsonNode tree, so a history response with thousands of entries only ever
+ * holds the resulting samples in memory. Unknown fields are skipped.
+ */
+@Component
+public class OpenWeatherMapParser {
+
+    private final JsonFactory jsonFactory;
+
+    public OpenWeatherMapParser(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * 🌫️ air_pollution and air_pollution/history: items of "list" with {@code start <= dt < end}
+     */
+    public List<AirPollutionSample> parseAirPollution(InputStream in, long start, long end) throws IOException {
+        List<AirPollutionSample> samples = new ArrayList<>();
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            expectObject(parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("list".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        AirPollutionSample sample = readAirPollutionItem(parser);
+                        if (sample.dt() >= start && sample.dt() < end) {
+                            samples.add(sample);
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return samples;
+    }
+
+    /**
+     * 🌤️ Current weather (units=metric); location and timestamp are left to the caller
+     */
+    public WeatherData parseWeather(InputStream in) throws IOException {
+        WeatherData weather = new WeatherData();
+        // Same defaults as the previous tree-based mapping for missing fields
+        weather.setTemperatureC(0f);
+        weather.setHumidityPct(0f);
+        weather.setPressureHpa(0f);
+        weather.setWindSpeedMps(0f);
+        weather.setWindDirDeg(0);
+        weather.setPrecipProbabilityPct(0f);
+
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            expectObject(parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String section = parser.currentName();
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    switch (section + "." + field) {
+                        case "main.temp" -> weather.setTemperatureC((float) number(parser));
+                        case "main.humidity" -> weather.setHumidityPct((float) number(parser));
+                        case "main.pressure" -> weather.setPressureHpa((float) number(parser));
+                        case "wind.speed" -> weather.setWindSpeedMps((float) number(parser));
+                        case "wind.deg" -> weather.setWindDirDeg((int) number(parser));
+                        case "rain.1h" -> weather.setPrecipProbabilityPct(number(parser) > 0 ? 100f : 0f); // Simplified
+                        default -> parser.skipChildren();
+                    }
+                }
+            }
+        }
+        return weather;
+    }
+
+    private AirPollutionSample readAirPollutionItem(JsonParser parser) throws IOException {
+        long dt = 0;
+        int aqi = 0;
+        double pm25 = 0, pm10 = 0, no2 = 0, so2 = 0, co = 0, o3 = 0;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("dt".equals(field)) {
+                dt = (long) number(parser);
+            } else if (("main".equals(field) || "components".equals(field)) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.currentName();
+                    parser.nextToken();
+                    switch (name) {
+                        case "aqi" -> aqi = (int) number(parser);
+                        case "pm2_5" -> pm25 = number(parser);
+                        case "pm10" -> pm10 = number(parser);
+                        case "no2" -> no2 = number(parser);
+                        case "so2" -> so2 = number(parser);
+                        case "co" -> co = number(parser);
+                        case "o3" -> o3 = number(parser);
+                        default -> parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new AirPollutionSample(dt, aqi, pm25, pm10, no2, so2, co, o3);
+    }
+
+    /**
+     * Current value as a number (numeric strings are accepted, anything else is 0)
+     */
+    private static double number(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDoubleValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            return parser.getValueAsDouble(0);
+        }
+        parser.skipChildren();
+        return 0;
+    }
+
+    private static void expectObject(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a JSON object but got " + token);
+        }
+    }
+}
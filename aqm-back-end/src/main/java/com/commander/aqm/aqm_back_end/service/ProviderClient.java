@@ -0,0 +1,192 @@
+// src/main/java/com/commander/aqm/aqm_back_end/service/ProviderClient.java
+package com.commander.aqm.aqm_back_end.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 📡 Shared client for external data providers
+ * Every call goes through the pooled {@code providerRestTemplate}, a per-endpoint
+ * circuit breaker and a latency timer:
+ * - aqm.provider.requests{endpoint, outcome=success|error|rejected} (histogram)
+ * - aqm.provider.circuit.state{endpoint} (0 closed, 1 open, 2 half-open)
+ *
+ * Timeouts, 5xx and 429 count as failures; other 4xx mean the provider is up
+ * (bad request / key) and do not open the circuit.
+ */
+@Component
+@Slf4j
+public class ProviderClient {
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ProviderClient(@Qualifier("providerRestTemplate") RestTemplate restTemplate,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${aqm.http.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                          @Value("${aqm.http.circuit-breaker.open-seconds:30}") long openSeconds) {
+        this(restTemplate, objectMapper, meterRegistry, failureThreshold, Duration.ofSeconds(openSeconds));
+    }
+
+    public ProviderClient(RestTemplate restTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                          int failureThreshold, Duration openDuration) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDuration = openDuration;
+    }
+
+    /**
+     * Thrown for failed or rejected provider calls
+     */
+    public static class ProviderException extends RuntimeException {
+        public ProviderException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Parses a response body straight from the connection stream
+     */
+    @FunctionalInterface
+    public interface BodyParser<T> {
+        T parse(InputStream body) throws IOException;
+    }
+
+    /**
+     * 📥 GET {@code url} and return the body
+     * @param endpoint metric / circuit name, e.g. "owm.weather"
+     * @throws ProviderException on failure, empty body or open circuit
+     */
+    public String get(String endpoint, String url) {
+        String body = execute(endpoint, () -> restTemplate.getForObject(url, String.class));
+        if (body == null || body.isEmpty()) {
+            throw new ProviderException("Empty response from " + endpoint, null);
+        }
+        return body;
+    }
+
+    /**
+     * ⚡ GET {@code url} and hand the response stream to {@code parser}
+     * (no intermediate String; malformed bodies do not count against the circuit)
+     */
+    public <T> T stream(String endpoint, String url, BodyParser<T> parser) {
+        return execute(endpoint, () -> restTemplate.execute(url, HttpMethod.GET, null, response -> {
+            try {
+                return parser.parse(response.getBody());
+            } catch (JsonProcessingException e) {
+                throw new ProviderException("Invalid JSON from " + endpoint + ": " + e.getOriginalMessage(), e);
+            }
+        }));
+    }
+
+    /**
+     * 📥 GET {@code url} and parse the body with the shared ObjectMapper
+     */
+    public JsonNode getJson(String endpoint, String url) {
+        JsonNode root = stream(endpoint, url, objectMapper::readTree);
+        if (root == null || root.isMissingNode()) {
+            throw new ProviderException("Empty response from " + endpoint, null);
+        }
+        return root;
+    }
+
+    public CircuitBreaker.State circuitState(String endpoint) {
+        return breakerFor(endpoint).state();
+    }
+
+    private <T> T execute(String endpoint, Supplier<T> call) {
+        CircuitBreaker breaker = breakerFor(endpoint);
+        if (!breaker.tryAcquire()) {
+            timer(endpoint, "rejected").record(Duration.ZERO);
+            throw new ProviderException("Circuit open for " + endpoint + ", skipping call", null);
+        }
+
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            breaker.onSuccess();
+            timer(endpoint, "success").record(Duration.ofNanos(System.nanoTime() - start));
+            return result;
+
+        } catch (ResourceAccessException | CancellationException e) {
+            // Connect / read timeout, connection reset
+            // (the JDK request factory cancels the exchange on read timeout, which can surface as is)
+            return fail(endpoint, breaker, start, true, e);
+        } catch (HttpStatusCodeException e) {
+            boolean providerDown = e.getStatusCode().is5xxServerError()
+                    || e.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+            return fail(endpoint, breaker, start, providerDown, e);
+        } catch (ProviderException e) {
+            // Provider answered, but with a body we cannot parse
+            return fail(endpoint, breaker, start, false, e);
+        } catch (RuntimeException e) {
+            // ✅ Anything else (unknown status, other RestClientException, parser bug) still reports back,
+            // otherwise a half-open trial would never finish and the circuit would stay shut
+            return fail(endpoint, breaker, start, true, e);
+        }
+    }
+
+    private <T> T fail(String endpoint, CircuitBreaker breaker, long start, boolean countsAsFailure, Exception e) {
+        if (countsAsFailure) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+        timer(endpoint, "error").record(Duration.ofNanos(System.nanoTime() - start));
+
+        if (breaker.state() == CircuitBreaker.State.OPEN) {
+            log.warn("⚡ Circuit for {} is open after repeated failures", endpoint);
+        }
+        throw new ProviderException(endpoint + " call failed: " + e.getMessage(), e);
+    }
+
+    private CircuitBreaker breakerFor(String endpoint) {
+        return breakers.computeIfAbsent(endpoint, name -> {
+            CircuitBreaker breaker = new CircuitBreaker(failureThreshold, openDuration);
+            Gauge.builder("aqm.provider.circuit.state", breaker, b -> b.state().ordinal())
+                    .tag("endpoint", name)
+                    .description("Circuit state (0 closed, 1 open, 2 half-open)")
+                    .register(meterRegistry);
+            return breaker;
+        });
+    }
+
+    private Timer timer(String endpoint, String outcome) {
+        return Timer.builder("aqm.provider.requests")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .description("External provider call latency")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -1,20 +1,16 @@
 // src/main/java/com/commander/aqm/aqm_back_end/service/RealTimeAQIService.java
 package com.commander.aqm.aqm_back_end.service;
 
+import com.commander.aqm.aqm_back_end.dto.AirPollutionSample;
 import com.commander.aqm.aqm_back_end.model.AirQualityData;
 import com.commander.aqm.aqm_back_end.model.Location;
 import com.commander.aqm.aqm_back_end.model.Sensor;
 import com.commander.aqm.aqm_back_end.repository.AirQualityDataRepository;
 import com.commander.aqm.aqm_back_end.repository.LocationRepository;
-import com.commander.aqm.aqm_back_end.repository.SensorRepository;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -27,38 +23,33 @@ public class RealTimeAQIService {
 
     private final LocationRepository locationRepo;
     private final AirQualityDataRepository aqDataRepo;
-    private final SensorRepository sensorRepo;  // ✅ ADD THIS
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SensorLocationCache sensorLocationCache;
+    private final LatestAirQualityStore latestStore;
+    private final IngestionEventBus eventBus; // ✅ Snapshot, rollups and alerts consume from the bus
+    private final ProviderClient providerClient; // ✅ Pooled HTTP, timeouts, circuit breaker, metrics
+    private final OpenWeatherMapParser openWeatherMapParser; // ✅ Streams the response, no String / JsonNode tree
 
     @Value("${openweather.api.key:8d5af07bbcf8969b864f267d5465e1d2}")
     private String openWeatherApiKey;
 
     /**
-     * 🔄 Auto-fetch every 30 minutes (disabled by default in dev)
+     * 📡 Fetch, save and publish the current reading of one location
+     * (scheduled runs go through {@link LocationIngestionPipeline}, which also fetches weather)
      */
-    @Scheduled(cron = "0 */30 * * * *")
-    public void fetchAllLocationsData() {
-        log.info("🌍 Starting scheduled AQI data fetch...");
-
-        List<Location> locations = locationRepo.findAll();
-
-        for (Location location : locations) {
-            try {
-                fetchAndSaveAQIData(location);
-                Thread.sleep(2000); // Rate limit: 2 seconds between requests
-            } catch (Exception e) {
-                log.error("❌ Failed to fetch data for location: {}", location.getName(), e);
-            }
-        }
+    public AirQualityData fetchAndSaveAQIData(Location location) {
+        AirQualityData aqData = fetchAQIData(location);
+        aqDataRepo.save(aqData);
+        eventBus.publish(new LocationIngestedEvent(location, aqData, null));
 
-        log.info("✅ Scheduled AQI fetch completed for {} locations", locations.size());
+        log.info("✅ Saved AQI data for {}: PM2.5={}, AQI={}",
+                location.getName(), aqData.getPm25(), aqData.getAqi());
+        return aqData;
     }
 
     /**
-     * 📡 Fetch data using OpenWeatherMap API
+     * 📡 Fetch data using OpenWeatherMap API (not saved)
      */
-    public AirQualityData fetchAndSaveAQIData(Location location) {
+    public AirQualityData fetchAQIData(Location location) {
         try {
             log.info("🔍 Fetching AQI data for: {} (lat={}, lon={})",
                     location.getName(), location.getLatitude(), location.getLongitude());
@@ -78,69 +69,51 @@ public class RealTimeAQIService {
 
             log.info("📞 Calling OpenWeatherMap API: {}", url.replace(openWeatherApiKey, "***"));
 
-            String response = restTemplate.getForObject(url, String.class);
+            List<AirPollutionSample> samples = providerClient.stream("owm.air_pollution", url,
+                    body -> openWeatherMapParser.parseAirPollution(body, Long.MIN_VALUE, Long.MAX_VALUE));
+            log.debug("✅ Received response from OpenWeatherMap");
 
-            if (response == null || response.isEmpty()) {
-                throw new RuntimeException("Empty response from OpenWeatherMap API");
-            }
-
-            log.info("✅ Received response from OpenWeatherMap");
-
-            JsonNode root = objectMapper.readTree(response);
-            JsonNode airData = root.path("list").get(0);
-
-            if (airData == null) {
+            if (samples.isEmpty()) {
                 throw new RuntimeException("Invalid response format from OpenWeatherMap");
             }
 
-            // Extract pollutants
-            JsonNode components = airData.path("components");
-            int owAqi = airData.path("main").path("aqi").asInt();
-
-            // Convert OpenWeather AQI (1-5) to US AQI (0-500)
-            double pm25Value = components.path("pm2_5").asDouble();
-            int usAqi = convertToUSAQI(owAqi, pm25Value);
-
             // ✅ FIXED: Find sensor for this location
-            Sensor sensor = sensorRepo.findAll().stream()
-                    .filter(s -> s.getLocation().getId().equals(location.getId()))
-                    .findFirst()
+            Sensor sensor = sensorLocationCache.findForLocation(location.getId())
                     .orElseThrow(() -> new RuntimeException("No sensor found for location: " + location.getName()));
 
             log.info("🔧 Using sensor: {} for location: {}", sensor.getSerialNumber(), location.getName());
 
-            // Create and save data
-            AirQualityData aqData = AirQualityData.builder()
-                    .location(location)
-                    .sensor(sensor)  // ✅ ADD sensor
-                    .timestampUtc(LocalDateTime.now())
-                    .pm25((float) pm25Value)
-                    .pm10((float) components.path("pm10").asDouble())
-                    .no2((float) components.path("no2").asDouble())
-                    .so2((float) components.path("so2").asDouble())
-                    .co((float) components.path("co").asDouble())
-                    .o3((float) components.path("o3").asDouble())
-                    .aqi(usAqi)
-                    .build();
-
-            aqDataRepo.save(aqData);
-
-            log.info("✅ Saved AQI data for {}: PM2.5={}, AQI={}",
-                    location.getName(), aqData.getPm25(), aqData.getAqi());
-
-            return aqData;
+            return toReading(samples.get(0), location, sensor, LocalDateTime.now());
 
         } catch (Exception e) {
             log.error("❌ Error fetching OpenWeather data for {}: {}", location.getName(), e.getMessage());
-            e.printStackTrace();
             throw new RuntimeException("Failed to fetch AQI data: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * 🧪 Map an OpenWeatherMap sample to a reading (shared with the history backfill)
+     */
+    static AirQualityData toReading(AirPollutionSample sample, Location location, Sensor sensor, LocalDateTime timestamp) {
+        return AirQualityData.builder()
+                .location(location)
+                .sensor(sensor)  // ✅ ADD sensor
+                .timestampUtc(timestamp)
+                .pm25((float) sample.pm25())
+                .pm10((float) sample.pm10())
+                .no2((float) sample.no2())
+                .so2((float) sample.so2())
+                .co((float) sample.co())
+                .o3((float) sample.o3())
+                // Convert OpenWeather AQI (1-5) to US AQI (0-500)
+                .aqi(convertToUSAQI(sample.aqi(), sample.pm25()))
+                .build();
+    }
+
     /**
      * 🔄 Convert OpenWeather AQI (1-5) to US AQI (0-500)
      */
-    private int convertToUSAQI(int owAqi, double pm25) {
+    static int convertToUSAQI(int owAqi, double pm25) {
         // Use PM2.5 concentration to calculate US AQI
         if (pm25 >= 0 && pm25 < 12.1) {
             return (int) ((50 - 0) / (12.0 - 0) * (pm25 - 0) + 0);
@@ -173,7 +146,7 @@ public class RealTimeAQIService {
      * 🔍 Get latest AQI for a location
      */
     public AirQualityData getLatestAQI(Long locationId) {
-        Optional<AirQualityData> latest = aqDataRepo.findTopByLocationIdOrderByTimestampUtcDesc(locationId);
+        Optional<AirQualityData> latest = latestStore.get(locationId);
 
         if (latest.isEmpty()) {
             log.warn("⚠️ No AQI data found for location ID: {}", locationId);
@@ -1,25 +1,36 @@
 // src/main/java/com/commander/aqm/aqm_back_end/service/RealTimeWeatherService.java
 package com.commander.aqm.aqm_back_end.service;
 
+import com.commander.aqm.aqm_back_end.config.AsyncConfiguration;
 import com.commander.aqm.aqm_back_end.model.Location;
 import com.commander.aqm.aqm_back_end.model.WeatherData;
 import com.commander.aqm.aqm_back_end.repository.LocationRepository;
 import com.commander.aqm.aqm_back_end.repository.WeatherDataRepository;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * 🌤️ Real-Time Weather Data Service
  * Fetches current weather from OpenWeatherMap API
+ *
+ * Reads go through {@link #getWeather(Long)}: at most one refresh per location is in
+ * flight (concurrent callers share it), and with stale-while-revalidate a stale row is
+ * returned immediately while the refresh runs in the background. After a failed refresh
+ * the location is not fetched again for a short backoff, so an outage does not turn
+ * every read into a provider call.
  */
 @Service
 @Slf4j
@@ -29,37 +40,50 @@ public class RealTimeWeatherService {
     // ✅ Make public for WeatherDataController to access
     public final LocationRepository locationRepo;
     private final WeatherDataRepository weatherRepo;
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ProviderClient providerClient; // ✅ Pooled HTTP, timeouts, circuit breaker, metrics
+    private final OpenWeatherMapParser openWeatherMapParser; // ✅ Maps the response straight into WeatherData
+
+    @Qualifier(AsyncConfiguration.WEATHER_EXECUTOR)
+    private final AsyncTaskExecutor weatherExecutor;
+
+    // locationId -> refresh in progress (single-flight)
+    private final Map<Long, CompletableFuture<WeatherData>> inFlight = new ConcurrentHashMap<>();
+
+    // locationId -> no refresh before this time (negative cache after a failure)
+    private final Map<Long, LocalDateTime> failedUntil = new ConcurrentHashMap<>();
 
     @Value("${openweather.api.key:8d5af07bbcf8969b864f267d5465e1d2}")
     private String openWeatherApiKey;
 
+    @Value("${aqm.weather.max-age-minutes:30}")
+    private long maxAgeMinutes;
+
+    @Value("${aqm.weather.stale-while-revalidate:true}")
+    private boolean staleWhileRevalidate;
+
+    @Value("${aqm.weather.refresh-timeout-seconds:10}")
+    private long refreshTimeoutSeconds;
+
+    @Value("${aqm.weather.failure-backoff-seconds:60}")
+    private long failureBackoffSeconds;
+
     /**
-     * 🔄 Auto-fetch weather every 30 minutes
+     * 🌤️ Fetch and save weather data for location
+     * (scheduled runs go through {@link LocationIngestionPipeline}, together with AQI)
      */
-    @Scheduled(cron = "0 */30 * * * *")
-    public void fetchAllLocationsWeather() {
-        log.info("🌍 Starting scheduled weather data fetch...");
-
-        List<Location> locations = locationRepo.findAll();
-
-        for (Location location : locations) {
-            try {
-                fetchAndSaveWeatherData(location);
-                Thread.sleep(2000); // Rate limit
-            } catch (Exception e) {
-                log.error("❌ Failed to fetch weather for: {}", location.getName(), e);
-            }
-        }
+    public WeatherData fetchAndSaveWeatherData(Location location) {
+        WeatherData weatherData = fetchWeatherData(location);
+        weatherRepo.save(weatherData);
 
-        log.info("✅ Weather fetch completed for {} locations", locations.size());
+        log.info("✅ Saved weather for {}: Temp={}°C, Humidity={}%",
+                location.getName(), weatherData.getTemperatureC(), weatherData.getHumidityPct());
+        return weatherData;
     }
 
     /**
-     * 🌤️ Fetch and save weather data for location
+     * 🌤️ Fetch current weather from OpenWeatherMap (not saved)
      */
-    public WeatherData fetchAndSaveWeatherData(Location location) {
+    public WeatherData fetchWeatherData(Location location) {
         try {
             log.info("🔍 Fetching weather for: {} (lat={}, lon={})",
                     location.getName(), location.getLatitude(), location.getLongitude());
@@ -75,42 +99,98 @@ public class RealTimeWeatherService {
                     openWeatherApiKey
             );
 
-            log.info("📞 Calling Weather API...");
-            String response = restTemplate.getForObject(url, String.class);
-
-            if (response == null || response.isEmpty()) {
-                throw new RuntimeException("Empty response from Weather API");
-            }
+            log.debug("📞 Calling Weather API...");
+            WeatherData weatherData = providerClient.stream("owm.weather", url, openWeatherMapParser::parseWeather);
+            weatherData.setLocation(location);
+            weatherData.setTimestampUtc(LocalDateTime.now());
+            return weatherData;
 
-            JsonNode root = objectMapper.readTree(response);
+        } catch (Exception e) {
+            log.error("❌ Error fetching weather for {}: {}", location.getName(), e.getMessage());
+            throw new RuntimeException("Failed to fetch weather: " + e.getMessage(), e);
+        }
+    }
 
-            // Extract weather data
-            JsonNode main = root.path("main");
-            JsonNode wind = root.path("wind");
-            JsonNode rain = root.path("rain");
+    /**
+     * 🌤️ Latest weather for a location, refreshed when older than max-age
+     * - Fresh row → returned as is
+     * - Stale row + stale-while-revalidate → returned as is, refresh runs in the background
+     * - Missing row (or SWR off) → waits for the shared refresh, falls back to the stale row
+     */
+    public WeatherData getWeather(Long locationId) {
+        WeatherData latest = getLatestWeather(locationId);
+        if (latest != null && !isStale(latest)) {
+            return latest;
+        }
 
-            WeatherData weatherData = WeatherData.builder()
-                    .location(location)
-                    .timestampUtc(LocalDateTime.now())
-                    .temperatureC((float) main.path("temp").asDouble())
-                    .humidityPct((float) main.path("humidity").asDouble())
-                    .pressureHpa((float) main.path("pressure").asDouble())
-                    .windSpeedMps((float) wind.path("speed").asDouble())
-                    .windDirDeg(wind.path("deg").asInt())
-                    .precipProbabilityPct(rain.path("1h").asDouble() > 0 ? 100f : 0f) // Simplified
-                    .build();
+        CompletableFuture<WeatherData> refresh = refresh(locationId);
+        if (latest != null && staleWhileRevalidate) {
+            log.debug("⏰ Serving stale weather for location {}, refreshing in background", locationId);
+            return latest;
+        }
 
-            weatherRepo.save(weatherData);
+        try {
+            return refresh.get(refreshTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("⚠️ Weather refresh for location {} failed, using cached data: {}",
+                    locationId, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+        }
+        return latest;
+    }
 
-            log.info("✅ Saved weather for {}: Temp={}°C, Humidity={}%",
-                    location.getName(), weatherData.getTemperatureC(), weatherData.getHumidityPct());
+    /**
+     * 🔁 Single-flight refresh: joins the fetch already running for this location, or starts one
+     * (fails immediately while the location is backing off after a failed refresh)
+     */
+    public CompletableFuture<WeatherData> refresh(Long locationId) {
+        LocalDateTime retryAt = failedUntil.get(locationId);
+        if (retryAt != null && LocalDateTime.now().isBefore(retryAt)) {
+            return CompletableFuture.failedFuture(new RuntimeException(
+                    "Weather refresh for location " + locationId + " failed recently, next attempt after " + retryAt));
+        }
 
-            return weatherData;
+        CompletableFuture<WeatherData> created = new CompletableFuture<>();
+        CompletableFuture<WeatherData> running = inFlight.putIfAbsent(locationId, created);
+        if (running != null) {
+            return running;
+        }
 
-        } catch (Exception e) {
-            log.error("❌ Error fetching weather for {}: {}", location.getName(), e.getMessage());
-            throw new RuntimeException("Failed to fetch weather: " + e.getMessage(), e);
+        try {
+            weatherExecutor.execute(() -> {
+                WeatherData weather = null;
+                Throwable failure = null;
+                try {
+                    Location location = locationRepo.findById(locationId)
+                            .orElseThrow(() -> new RuntimeException("Location not found: " + locationId));
+                    weather = fetchAndSaveWeatherData(location);
+                    failedUntil.remove(locationId);
+                } catch (Throwable e) {
+                    failure = e;
+                    // ✅ Negative cache: readers keep the stale row instead of hammering a failing provider
+                    if (failureBackoffSeconds > 0) {
+                        failedUntil.put(locationId, LocalDateTime.now().plusSeconds(failureBackoffSeconds));
+                    }
+                }
+                // Leave the in-flight map before completing, so a woken caller never joins a finished refresh
+                inFlight.remove(locationId, created);
+                if (failure != null) {
+                    created.completeExceptionally(failure);
+                } else {
+                    created.complete(weather);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(locationId, created);
+            created.completeExceptionally(e);
         }
+        return created;
+    }
+
+    private boolean isStale(WeatherData data) {
+        return data.getTimestampUtc() == null ||
+                Duration.between(data.getTimestampUtc(), LocalDateTime.now()).toMinutes() >= maxAgeMinutes;
     }
 
     /**
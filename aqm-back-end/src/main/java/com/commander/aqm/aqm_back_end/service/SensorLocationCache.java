@@ -0,0 +1,62 @@
+// src/main/java/com/commander/aqm/aqm_back_end/service/SensorLocationCache.java
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.model.Sensor;
+import com.commander.aqm.aqm_back_end.repository.SensorRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 🔧 Location → Sensor cache for the ingestion path
+ * Resolves the sensor that readings of a location are attributed to with one
+ * indexed query on first use; sensor CRUD must evict the affected locations.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SensorLocationCache {
+
+    private final SensorRepository sensorRepo;
+    private final Map<Long, Sensor> sensorsByLocation = new ConcurrentHashMap<>();
+
+    /**
+     * Get the sensor for a location (cached; locations without a sensor are not cached)
+     */
+    public Optional<Sensor> findForLocation(Long locationId) {
+        Sensor cached = sensorsByLocation.get(locationId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<Sensor> sensor = sensorRepo.findFirstByLocationIdOrderByIdAsc(locationId);
+        sensor.ifPresent(s -> sensorsByLocation.put(locationId, s));
+        return sensor;
+    }
+
+    /**
+     * Drop the cached sensor of a location (sensor created/moved/deleted, location deleted)
+     */
+    public void evictLocation(Long locationId) {
+        if (locationId != null && sensorsByLocation.remove(locationId) != null) {
+            log.debug("🔧 Sensor cache evicted for location {}", locationId);
+        }
+    }
+
+    /**
+     * Drop the cache entry of the location a sensor belongs to
+     */
+    public void evictSensor(Sensor sensor) {
+        if (sensor != null && sensor.getLocation() != null) {
+            evictLocation(sensor.getLocation().getId());
+        }
+    }
+
+    public void clear() {
+        sensorsByLocation.clear();
+    }
+}
@@ -0,0 +1,271 @@
+// src/main/java/com/commander/aqm/aqm_back_end/service/TimeSeriesDownsampler.java
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.dto.AirQualityPoint;
+import com.commander.aqm.aqm_back_end.dto.AirQualityResponseDto.HistoryDataDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 📉 Single-pass downsampling of a time-ordered point stream (either direction)
+ *
+ * Modes:
+ * 1. LTTB: Largest-Triangle-Three-Buckets on AQI over fixed time buckets -
+ *    keeps real points and the visual shape (peaks) of the chart
+ * 2. BUCKET: fixed time buckets reduced to avg PM2.5/PM10/AQI plus AQI min/max
+ *
+ * Buckets are fixed time slices of [from, to], so the output never exceeds
+ * {@code maxPoints} and only the points of the last two buckets are buffered.
+ * In LTTB mode the first {@code maxPoints} points are held back: a series that
+ * already fits is returned unchanged.
+ * Not thread-safe; use one instance per request.
+ */
+public class TimeSeriesDownsampler {
+
+    public enum Mode { LTTB, BUCKET }
+
+    private final Mode mode;
+    private final long fromSeconds;
+    private final long widthSeconds;
+    private final List<HistoryDataDto> output = new ArrayList<>();
+
+    // LTTB: points held back until the series is known to exceed maxPoints (null once streaming)
+    private final int maxPoints;
+    private List<AirQualityPoint> head;
+
+    // LTTB state
+    private AirQualityPoint selected;          // last emitted point ("A")
+    private AirQualityPoint last;              // last point seen (always kept)
+    private List<AirQualityPoint> pending = new ArrayList<>();   // bucket waiting for its successor
+    private List<AirQualityPoint> current = new ArrayList<>();   // bucket being filled
+
+    // BUCKET state
+    private int count;
+    private int aqiCount;
+    private int pm25Count;
+    private int pm10Count;
+    private double aqiSum;
+    private double pm25Sum;
+    private double pm10Sum;
+    private int aqiMin;
+    private int aqiMax;
+    private AirQualityPoint bucketNewest;
+
+    private long currentKey = Long.MIN_VALUE;
+
+    private TimeSeriesDownsampler(Mode mode, LocalDateTime from, long widthSeconds, int maxPoints) {
+        this.mode = mode;
+        this.fromSeconds = toSeconds(from);
+        this.widthSeconds = Math.max(1, widthSeconds);
+        this.maxPoints = maxPoints;
+        this.head = mode == Mode.LTTB ? new ArrayList<>() : null;
+    }
+
+    /**
+     * LTTB over [from, to] returning at most {@code maxPoints} points
+     * @throws IllegalArgumentException if {@code maxPoints} is below 3 (first, last and one bucket)
+     */
+    public static TimeSeriesDownsampler lttb(LocalDateTime from, LocalDateTime to, int maxPoints) {
+        if (maxPoints < 3) {
+            throw new IllegalArgumentException("LTTB needs at least 3 points, got " + maxPoints);
+        }
+        // first and last points are kept on top of the buckets
+        int buckets = maxPoints - 2;
+        return new TimeSeriesDownsampler(Mode.LTTB, from, spanSeconds(from, to) / buckets + 1, maxPoints);
+    }
+
+    /**
+     * Fixed time buckets of {@code resolution}, widened if that would exceed {@code maxPoints}
+     */
+    public static TimeSeriesDownsampler buckets(LocalDateTime from, LocalDateTime to, Duration resolution, int maxPoints) {
+        if (maxPoints < 1) {
+            throw new IllegalArgumentException("maxPoints must be positive, got " + maxPoints);
+        }
+        // Width is a whole multiple of the resolution and buckets are aligned to the epoch,
+        // so bucket starts fall on round wall-clock times (e.g. full hours)
+        long step = Math.max(1, resolution.toSeconds());
+        long minWidth = spanSeconds(from, to) / Math.max(1, maxPoints - 1) + 1;
+        long width = step * ((minWidth + step - 1) / step);
+        return new TimeSeriesDownsampler(Mode.BUCKET, LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), width, maxPoints);
+    }
+
+    public void accept(AirQualityPoint point) {
+        if (head != null) {
+            head.add(point);
+            if (head.size() <= maxPoints) return;
+
+            // Too many points: downsample from the beginning
+            List<AirQualityPoint> held = head;
+            head = null;
+            held.forEach(this::process);
+            return;
+        }
+        process(point);
+    }
+
+    private void process(AirQualityPoint point) {
+        long key = Math.floorDiv(toSeconds(point.timestampUtc()) - fromSeconds, widthSeconds);
+        if (mode == Mode.LTTB) {
+            acceptLttb(point, key);
+        } else {
+            acceptBucket(point, key);
+        }
+    }
+
+    /**
+     * Flush the open buckets and return the downsampled series (same order as the input)
+     */
+    public List<HistoryDataDto> finish() {
+        if (head != null) {
+            // Fits into maxPoints: nothing to drop
+            head.forEach(point -> output.add(HistoryDataDto.from(point)));
+            head = null;
+        } else if (mode == Mode.LTTB) {
+            finishLttb();
+        } else if (count > 0) {
+            emitBucket();
+        }
+        return output;
+    }
+
+    // ==================== LTTB ====================
+
+    private void acceptLttb(AirQualityPoint point, long key) {
+        if (selected == null) {
+            // first point is always kept
+            selected = point;
+            output.add(HistoryDataDto.from(point));
+            return;
+        }
+
+        if (key != currentKey && !current.isEmpty()) {
+            if (!pending.isEmpty()) {
+                emitLttb(pending, average(current));
+            }
+            pending = current;
+            current = new ArrayList<>();
+        }
+        currentKey = key;
+        current.add(point);
+        last = point;
+    }
+
+    private void finishLttb() {
+        if (last == null) return;
+
+        // last point is always kept, so take it out of its bucket
+        current.remove(current.size() - 1);
+        double[] lastXY = {toSeconds(last.timestampUtc()), value(last)};
+
+        if (!pending.isEmpty()) {
+            emitLttb(pending, current.isEmpty() ? lastXY : average(current));
+        }
+        if (!current.isEmpty()) {
+            emitLttb(current, lastXY);
+        }
+        output.add(HistoryDataDto.from(last));
+    }
+
+    /**
+     * Emit the point of {@code bucket} forming the largest triangle with the
+     * previously selected point and the next bucket's average
+     */
+    private void emitLttb(List<AirQualityPoint> bucket, double[] next) {
+        double ax = toSeconds(selected.timestampUtc());
+        double ay = value(selected);
+
+        AirQualityPoint best = bucket.get(0);
+        double bestArea = -1;
+        for (AirQualityPoint candidate : bucket) {
+            double bx = toSeconds(candidate.timestampUtc());
+            double by = value(candidate);
+            double area = Math.abs((ax - next[0]) * (by - ay) - (ax - bx) * (next[1] - ay));
+            if (area > bestArea) {
+                bestArea = area;
+                best = candidate;
+            }
+        }
+
+        selected = best;
+        output.add(HistoryDataDto.from(best));
+    }
+
+    private double[] average(List<AirQualityPoint> bucket) {
+        double x = 0;
+        double y = 0;
+        for (AirQualityPoint point : bucket) {
+            x += toSeconds(point.timestampUtc());
+            y += value(point);
+        }
+        return new double[]{x / bucket.size(), y / bucket.size()};
+    }
+
+    private static double value(AirQualityPoint point) {
+        if (point.aqi() != null) return point.aqi();
+        return point.pm25() != null ? point.pm25() : 0;
+    }
+
+    // ==================== TIME BUCKETS ====================
+
+    private void acceptBucket(AirQualityPoint point, long key) {
+        if (key != currentKey && count > 0) {
+            emitBucket();
+        }
+        if (count == 0) {
+            currentKey = key;
+            bucketNewest = point;
+            aqiMin = Integer.MAX_VALUE;
+            aqiMax = Integer.MIN_VALUE;
+        }
+        if (point.timestampUtc().isAfter(bucketNewest.timestampUtc())) {
+            bucketNewest = point;
+        }
+
+        count++;
+        if (point.aqi() != null) {
+            aqiCount++;
+            aqiSum += point.aqi();
+            aqiMin = Math.min(aqiMin, point.aqi());
+            aqiMax = Math.max(aqiMax, point.aqi());
+        }
+        if (point.pm25() != null) {
+            pm25Count++;
+            pm25Sum += point.pm25();
+        }
+        if (point.pm10() != null) {
+            pm10Count++;
+            pm10Sum += point.pm10();
+        }
+    }
+
+    private void emitBucket() {
+        LocalDateTime bucketStart = LocalDateTime.ofEpochSecond(
+                fromSeconds + currentKey * widthSeconds, 0, ZoneOffset.UTC);
+
+        output.add(HistoryDataDto.builder()
+                .id(bucketNewest.id())
+                .locationId(bucketNewest.locationId())
+                .pm25(pm25Count > 0 ? (float) (pm25Sum / pm25Count) : null)
+                .pm10(pm10Count > 0 ? (float) (pm10Sum / pm10Count) : null)
+                .aqi(aqiCount > 0 ? (int) Math.round(aqiSum / aqiCount) : null)
+                .aqiMin(aqiCount > 0 ? aqiMin : null)
+                .aqiMax(aqiCount > 0 ? aqiMax : null)
+                .timestampUtc(bucketStart.toString())
+                .build());
+
+        count = aqiCount = pm25Count = pm10Count = 0;
+        aqiSum = pm25Sum = pm10Sum = 0;
+    }
+
+    private static long toSeconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static long spanSeconds(LocalDateTime from, LocalDateTime to) {
+        return Math.max(1, Duration.between(from, to).toSeconds());
+    }
+}
@@ -0,0 +1,64 @@
+// src/main/java/com/commander/aqm/aqm_back_end/service/TokenBucketRateLimiter.java
+package com.commander.aqm.aqm_back_end.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🪣 Token bucket rate limiter
+ * Allows bursts up to {@code capacity} calls, then refills at a steady rate.
+ * Thread-safe; callers block in {@link #acquire()} until a token is available.
+ */
+public class TokenBucketRateLimiter {
+
+    private final double capacity;
+    private final double refillPerNano;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucketRateLimiter(int capacity, double permitsPerSecond) {
+        if (capacity <= 0 || permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate limiter capacity and rate must be positive");
+        }
+        this.capacity = capacity;
+        this.refillPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Block until one token is available, then consume it
+     */
+    public void acquire() throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return;
+                }
+                waitNanos = (long) Math.ceil((1 - tokens) / refillPerNano);
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Consume one token if available, without blocking
+     */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * refillPerNano);
+        lastRefillNanos = now;
+    }
+}
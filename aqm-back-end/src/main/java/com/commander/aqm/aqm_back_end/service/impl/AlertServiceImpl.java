@@ -1,17 +1,23 @@
 // src/main/java/com/commander/aqm/aqm_back_end/service/impl/AlertServiceImpl.java
 package com.commander.aqm.aqm_back_end.service.impl;
 
+import com.commander.aqm.aqm_back_end.dto.AlertCursor;
+import com.commander.aqm.aqm_back_end.dto.AlertRow;
 import com.commander.aqm.aqm_back_end.model.*;
 import com.commander.aqm.aqm_back_end.repository.*;
+import com.commander.aqm.aqm_back_end.service.AlertCoalescer;
 import com.commander.aqm.aqm_back_end.service.AlertService;
-import com.commander.aqm.aqm_back_end.service.EmailService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -21,7 +27,7 @@ public class AlertServiceImpl implements AlertService {
     private final AlertThresholdRepository thresholdRepo;
     private final AlertRepository alertRepo;
     private final AirQualityDataRepository airQualityRepo;
-    private final EmailService emailService; // ✅ INJECT EMAIL SERVICE
+    private final AlertCoalescer alertCoalescer; // ✅ One aggregated alert + email per user and window
 
     @Override
     @Transactional
@@ -43,27 +49,29 @@ public class AlertServiceImpl implements AlertService {
         }
 
         AirQualityData latestData = recentData.get(recentData.size() - 1);
+        List<Alert> exceeded = new ArrayList<>();
 
         // ✅ Check PM2.5 threshold
         if (threshold.getPm25Threshold() != null && pm25 != null && pm25 > threshold.getPm25Threshold()) {
-            createAlertWithEmail(user, threshold, latestData, "PM2.5", pm25);
+            exceeded.add(buildAlert(user, threshold, latestData, "PM2.5", pm25));
         }
 
         // ✅ Check PM10 threshold
         if (threshold.getPm10Threshold() != null && pm10 != null && pm10 > threshold.getPm10Threshold()) {
-            createAlertWithEmail(user, threshold, latestData, "PM10", pm10);
+            exceeded.add(buildAlert(user, threshold, latestData, "PM10", pm10));
         }
 
         // ✅ Check AQI threshold
         if (threshold.getAqiThreshold() != null && aqi != null && aqi > threshold.getAqiThreshold()) {
-            createAlertWithEmail(user, threshold, latestData, "AQI", aqi);
+            exceeded.add(buildAlert(user, threshold, latestData, "AQI", aqi));
         }
+
+        alertCoalescer.submit(exceeded);
     }
 
-    // ✅ Create alert AND send email
-    private void createAlertWithEmail(User user, AlertThreshold threshold, AirQualityData aqData, String pollutant, Float value) {
-        // Create alert entity
-        Alert alert = Alert.builder()
+    // ✅ Candidate alert; saved and emailed by the coalescer
+    private Alert buildAlert(User user, AlertThreshold threshold, AirQualityData aqData, String pollutant, Float value) {
+        return Alert.builder()
                 .user(user)
                 .threshold(threshold)
                 .aqData(aqData)
@@ -73,13 +81,6 @@ public class AlertServiceImpl implements AlertService {
                 .isRead(false)
                 .status(Alert.AlertStatus.SENT)
                 .build();
-
-        alertRepo.save(alert);
-        log.info("✅ Alert created: ID={}, User={}, Pollutant={}, Value={}",
-                alert.getId(), user.getUsername(), pollutant, value);
-
-        // ✅ Send email notification (async)
-        emailService.sendAlertEmail(user, alert);
     }
 
     @Override
@@ -92,6 +93,43 @@ public class AlertServiceImpl implements AlertService {
         return alertRepo.findByUserOrderByTriggeredAtDesc(user);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<AlertRow> getAlertPage(User user, boolean unreadOnly, AlertCursor cursor, int limit) {
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        return unreadOnly
+                ? alertRepo.findUnreadPageByUser(user.getId(), cursor.triggeredAt(), cursor.id(), page)
+                : alertRepo.findPageByUser(user.getId(), cursor.triggeredAt(), cursor.id(), page);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AlertRow> getAllAlertRows(User user, boolean unreadOnly) {
+        return AlertCursor.readAll(cursor -> getAlertPage(user, unreadOnly, cursor, MAX_PAGE_SIZE), MAX_PAGE_SIZE);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getAlertStats(User user) {
+        long total = alertRepo.countByUser(user);
+        long unread = alertRepo.countByUserAndIsReadFalse(user);
+
+        Map<String, Long> byPollutant = new LinkedHashMap<>();
+        byPollutant.put("PM2.5", 0L);
+        byPollutant.put("PM10", 0L);
+        byPollutant.put("AQI", 0L);
+        for (Object[] row : alertRepo.countByPollutant(user)) {
+            byPollutant.computeIfPresent((String) row[0], (pollutant, zero) -> (Long) row[1]);
+        }
+
+        return Map.of(
+                "total", total,
+                "unread", unread,
+                "read", total - unread,
+                "byPollutant", byPollutant
+        );
+    }
+
     @Override
     @Transactional
     public Alert markAsRead(Long alertId, User user) {
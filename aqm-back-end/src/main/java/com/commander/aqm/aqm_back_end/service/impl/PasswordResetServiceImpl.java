@@ -4,6 +4,7 @@ import com.commander.aqm.aqm_back_end.model.PasswordResetToken;
 import com.commander.aqm.aqm_back_end.model.User;
 import com.commander.aqm.aqm_back_end.repository.PasswordResetTokenRepository;
 import com.commander.aqm.aqm_back_end.repository.UserRepository;
+import com.commander.aqm.aqm_back_end.security.UserCache;
 import com.commander.aqm.aqm_back_end.service.PasswordResetService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -20,6 +21,7 @@ public class PasswordResetServiceImpl implements PasswordResetService {
     private final PasswordResetTokenRepository tokenRepo;
     private final UserRepository userRepo;
     private final PasswordEncoder encoder;
+    private final UserCache userCache;
 
     @Override
     public String createToken(User user) {
@@ -45,6 +47,7 @@ public class PasswordResetServiceImpl implements PasswordResetService {
         User user = reset.getUser();
         user.setPasswordHash(encoder.encode(newPassword));
         userRepo.save(user);
+        userCache.evict(user);
         tokenRepo.delete(reset); // one-time use
         return true;
     }
@@ -5,6 +5,7 @@ import com.commander.aqm.aqm_back_end.dto.ProfileUpdateRequest;
 import com.commander.aqm.aqm_back_end.dto.UserDto;
 import com.commander.aqm.aqm_back_end.model.User;
 import com.commander.aqm.aqm_back_end.repository.UserRepository;
+import com.commander.aqm.aqm_back_end.security.UserCache;
 import com.commander.aqm.aqm_back_end.service.ProfileService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -17,6 +18,7 @@ public class ProfileServiceImpl implements ProfileService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserCache userCache;
 
     @Override
     @Transactional
@@ -62,6 +64,7 @@ public class ProfileServiceImpl implements ProfileService {
 
         // Save and return
         User savedUser = userRepository.save(user);
+        userCache.evict(savedUser);
         return UserDto.from(savedUser);
     }
 
@@ -86,5 +89,6 @@ public class ProfileServiceImpl implements ProfileService {
         // Update password
         user.setPasswordHash(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        userCache.evict(user);
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.commander.aqm.aqm_back_end.service.impl;
 
 import com.commander.aqm.aqm_back_end.model.Sensor;
 import com.commander.aqm.aqm_back_end.repository.SensorRepository;
+import com.commander.aqm.aqm_back_end.service.SensorLocationCache;
 import com.commander.aqm.aqm_back_end.service.SensorService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -13,6 +14,7 @@ import java.util.List;
 public class SensorServiceImpl implements SensorService {
 
     private final SensorRepository sensorRepo;
+    private final SensorLocationCache sensorLocationCache;
 
     @Override
     public List<Sensor> getAll() {
@@ -27,11 +29,17 @@ public class SensorServiceImpl implements SensorService {
 
     @Override
     public Sensor save(Sensor sensor) {
-        return sensorRepo.save(sensor);
+        if (sensor.getId() != null) {
+            sensorRepo.findById(sensor.getId()).ifPresent(sensorLocationCache::evictSensor);
+        }
+        Sensor saved = sensorRepo.save(sensor);
+        sensorLocationCache.evictSensor(saved);
+        return saved;
     }
 
     @Override
     public void delete(Long id) {
+        sensorRepo.findById(id).ifPresent(sensorLocationCache::evictSensor);
         sensorRepo.deleteById(id);
     }
 }
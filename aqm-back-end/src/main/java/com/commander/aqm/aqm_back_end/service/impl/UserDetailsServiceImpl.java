@@ -2,39 +2,23 @@
 
 package com.commander.aqm.aqm_back_end.service.impl;
 
-import com.commander.aqm.aqm_back_end.model.User;
-import com.commander.aqm.aqm_back_end.repository.UserRepository;
+import com.commander.aqm.aqm_back_end.security.UserCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Primary;
 import org.springframework.security.core.userdetails.*;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
-
 @Service
 @Primary
 @RequiredArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
 
-    private final UserRepository userRepo;
+    private final UserCache userCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepo.findByUsername(username)
+        // ✅ Cached with a short TTL (principal carries id, username and role)
+        return userCache.findPrincipal(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
-
-        // ✅ CRITICAL FIX: Add "ROLE_" prefix
-        String authority = "ROLE_" + user.getRole().name(); // "ROLE_ADMIN" or "ROLE_USER"
-
-        return org.springframework.security.core.userdetails.User
-                .withUsername(user.getUsername())
-                .password(user.getPasswordHash())
-                .authorities(Collections.singletonList(new SimpleGrantedAuthority(authority))) // ✅ FIXED
-                .accountExpired(false)
-                .accountLocked(false)
-                .credentialsExpired(false)
-                .disabled(false)
-                .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,51 @@
+package com.commander.aqm.aqm_back_end.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 🔖 Cursor token round trip and rejection of tokens the server did not issue
+ */
+class AlertCursorTest {
+
+    @Test
+    void encodedCursorDecodesToTheSamePosition() {
+        AlertCursor cursor = new AlertCursor(LocalDateTime.of(2025, 12, 10, 8, 30, 15, 123_456_000), 4_211L);
+
+        String token = cursor.encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        assertThat(AlertCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void wholeSecondTimestampSurvivesTheRoundTrip() {
+        AlertCursor cursor = new AlertCursor(LocalDateTime.of(2025, 12, 10, 8, 0), 1L);
+        assertThat(AlertCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void missingTokenStartsAtTheFirstPage() {
+        assertThat(AlertCursor.decode(null)).isEqualTo(AlertCursor.FIRST);
+        assertThat(AlertCursor.decode("  ")).isEqualTo(AlertCursor.FIRST);
+    }
+
+    @Test
+    void malformedTokenIsRejected() {
+        assertThatThrownBy(() -> AlertCursor.decode("not base64!")).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> AlertCursor.decode(encode("2025-12-10T08:00"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AlertCursor.decode(encode("yesterday|12"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AlertCursor.decode(encode("2025-12-10T08:00|abc"))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
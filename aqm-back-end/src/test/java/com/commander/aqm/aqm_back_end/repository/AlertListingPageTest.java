@@ -0,0 +1,148 @@
+package com.commander.aqm.aqm_back_end.repository;
+
+import com.commander.aqm.aqm_back_end.dto.AlertCursor;
+import com.commander.aqm.aqm_back_end.dto.AlertRow;
+import com.commander.aqm.aqm_back_end.model.AirQualityData;
+import com.commander.aqm.aqm_back_end.model.Alert;
+import com.commander.aqm.aqm_back_end.model.AlertThreshold;
+import com.commander.aqm.aqm_back_end.model.Location;
+import com.commander.aqm.aqm_back_end.model.Sensor;
+import com.commander.aqm.aqm_back_end.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 📄 Keyset pages over alerts that share a triggeredAt: every alert exactly once, newest first
+ */
+@DataJpaTest
+class AlertListingPageTest {
+
+    private static final LocalDateTime BURST = LocalDateTime.of(2025, 12, 10, 8, 0);
+    private static final int PAGE_SIZE = 2;
+
+    @Autowired
+    private AlertRepository alertRepo;
+    @Autowired
+    private UserRepository userRepo;
+    @Autowired
+    private AlertThresholdRepository thresholdRepo;
+    @Autowired
+    private LocationRepository locationRepo;
+    @Autowired
+    private SensorRepository sensorRepo;
+    @Autowired
+    private AirQualityDataRepository airQualityRepo;
+
+    private User minh;
+    private final List<Alert> stored = new ArrayList<>();
+
+    @BeforeEach
+    void storeAlerts() {
+        minh = user("minh");
+        User lan = user("lan");
+        Location location = locationRepo.saveAndFlush(Location.builder().name("Hanoi").build());
+        Sensor sensor = sensorRepo.saveAndFlush(Sensor.builder().serialNumber("P-1").location(location).build());
+        AirQualityData reading = airQualityRepo.saveAndFlush(AirQualityData.builder().location(location).sensor(sensor)
+                .timestampUtc(BURST).pm25(80f).pm10(200f).aqi(160).build());
+
+        // Five alerts of one evaluation share the same instant (an odd count, so a page boundary falls inside the tie)
+        for (String pollutant : List.of("PM2.5", "PM10", "AQI", "NO2", "CO")) {
+            stored.add(alert(minh, reading, pollutant, BURST, false));
+        }
+        stored.add(alert(minh, reading, "PM2.5", BURST.minusHours(1), true));
+        stored.add(alert(minh, reading, "PM10", BURST.minusHours(1), false));
+        stored.add(alert(minh, reading, "AQI", BURST.plusMinutes(5), true));
+        stored.add(alert(lan, reading, "PM2.5", BURST, false));
+        stored.add(alert(lan, reading, "AQI", BURST, false));
+    }
+
+    @Test
+    void userPagesVisitEveryAlertOnceAcrossEqualTimestamps() {
+        List<AlertRow> rows = walk(c -> alertRepo.findPageByUser(minh.getId(), c.triggeredAt(), c.id(), page()));
+
+        assertThat(rows).extracting(AlertRow::id).containsExactlyElementsOf(expectedIds(a -> a.getUser() == minh));
+        assertThat(rows).extracting(AlertRow::username).containsOnly("minh");
+    }
+
+    @Test
+    void unreadPagesSkipReadAlerts() {
+        List<AlertRow> rows = walk(c -> alertRepo.findUnreadPageByUser(minh.getId(), c.triggeredAt(), c.id(), page()));
+
+        assertThat(rows).extracting(AlertRow::id)
+                .containsExactlyElementsOf(expectedIds(a -> a.getUser() == minh && !a.getIsRead()));
+    }
+
+    @Test
+    void adminPagesCoverAllUsers() {
+        List<AlertRow> rows = walk(c -> alertRepo.findPage(c.triggeredAt(), c.id(), page()));
+
+        assertThat(rows).extracting(AlertRow::id).containsExactlyElementsOf(expectedIds(a -> true));
+    }
+
+    @Test
+    void readAllReturnsTheSameListAsFollowingTheCursor() {
+        Function<AlertCursor, List<AlertRow>> pages = c -> alertRepo.findPage(c.triggeredAt(), c.id(), page());
+
+        assertThat(AlertCursor.readAll(pages, PAGE_SIZE)).isEqualTo(walk(pages));
+    }
+
+    /**
+     * Follow the cursor the way a client does: encode the last row of each full page and decode it again
+     */
+    private static List<AlertRow> walk(Function<AlertCursor, List<AlertRow>> pages) {
+        List<AlertRow> all = new ArrayList<>();
+        AlertCursor cursor = AlertCursor.FIRST;
+        List<AlertRow> rows;
+        do {
+            rows = pages.apply(cursor);
+            assertThat(rows).hasSizeLessThanOrEqualTo(PAGE_SIZE);
+            all.addAll(rows);
+            if (!rows.isEmpty()) cursor = AlertCursor.decode(AlertCursor.after(rows.get(rows.size() - 1)).encode());
+        } while (rows.size() == PAGE_SIZE);
+        return all;
+    }
+
+    private List<Long> expectedIds(Predicate<Alert> filter) {
+        return stored.stream()
+                .filter(filter)
+                .sorted(Comparator.comparing(Alert::getTriggeredAt).thenComparing(Alert::getId).reversed())
+                .map(Alert::getId)
+                .toList();
+    }
+
+    private static PageRequest page() {
+        return PageRequest.of(0, PAGE_SIZE);
+    }
+
+    private User user(String username) {
+        return userRepo.saveAndFlush(User.builder().username(username).email(username + "@example.com")
+                .passwordHash("x").emailAlertsEnabled(true).build());
+    }
+
+    private Alert alert(User user, AirQualityData reading, String pollutant, LocalDateTime triggeredAt, boolean read) {
+        AlertThreshold threshold = thresholdRepo.findByUser(user)
+                .orElseGet(() -> thresholdRepo.saveAndFlush(AlertThreshold.builder().user(user).build()));
+        return alertRepo.saveAndFlush(Alert.builder()
+                .user(user)
+                .threshold(threshold)
+                .aqData(reading)
+                .pollutant(pollutant)
+                .value(100f)
+                .isRead(read)
+                .triggeredAt(triggeredAt)
+                .status(Alert.AlertStatus.SENT)
+                .build());
+    }
+}
@@ -0,0 +1,184 @@
+package com.commander.aqm.aqm_back_end.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 🔎 Query plan check for the time-series tables
+ * Runs every repository method on AirQualityData, WeatherData, Forecast and Alert against
+ * H2, captures the SQL Hibernate generates and fails if EXPLAIN shows a full table scan
+ * of one of those tables (i.e. a query that the composite indexes do not cover).
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.commander.aqm.aqm_back_end.repository.TimeSeriesIndexPlanTest$SqlCapture"
+})
+class TimeSeriesIndexPlanTest {
+
+    private static final Set<String> TIME_SERIES_TABLES = Set.of("AIR_QUALITY_DATA", "WEATHER_DATA", "FORECAST", "ALERT");
+    private static final Pattern TABLE_SCAN = Pattern.compile("\\b(\\w+)\\.tableScan\\b");
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 12, 24, 12, 0);
+
+    @Autowired
+    private AirQualityDataRepository airQualityRepo;
+    @Autowired
+    private WeatherDataRepository weatherRepo;
+    @Autowired
+    private ForecastRepository forecastRepo;
+    @Autowired
+    private AlertRepository alertRepo;
+    @Autowired
+    private AlertArchiveRepository alertArchiveRepo;
+    @Autowired
+    private UserRepository userRepo;
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * Collects every SQL statement Hibernate prepares
+     */
+    public static class SqlCapture implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @BeforeEach
+    void clearCapturedSql() {
+        SqlCapture.STATEMENTS.clear();
+    }
+
+    @Test
+    void airQualityQueriesUseIndexes() throws Exception {
+        assertIndexed("findByLocationIdAndTimestampUtcAfter",
+                () -> airQualityRepo.findByLocationIdAndTimestampUtcAfter(1L, NOW));
+        assertIndexed("findByLocationIdAndTimestampUtcBetween",
+                () -> airQualityRepo.findByLocationIdAndTimestampUtcBetween(1L, NOW.minusDays(1), NOW));
+        assertIndexed("findTopByLocationIdOrderByTimestampUtcDesc",
+                () -> airQualityRepo.findTopByLocationIdOrderByTimestampUtcDesc(1L));
+        assertIndexed("streamPointsBetween",
+                () -> drain(airQualityRepo.streamPointsBetween(1L, NOW.minusDays(1), NOW)));
+        assertIndexed("streamPointsInRange",
+                () -> drain(airQualityRepo.streamPointsInRange(1L, NOW.minusDays(1), NOW)));
+        assertIndexed("streamPointsAfter",
+                () -> drain(airQualityRepo.streamPointsAfter(1L, NOW.minusDays(1))));
+        assertIndexed("findExpiredIds",
+                () -> airQualityRepo.findExpiredIds(1L, NOW, true, PageRequest.of(0, 100)));
+        // findLatestPerLocation is left out on purpose: it reads the newest row of every
+        // location once at startup, so it visits the whole table by design.
+    }
+
+    @Test
+    void weatherQueriesUseIndexes() throws Exception {
+        assertIndexed("findByLocationId", () -> weatherRepo.findByLocationId(1L));
+        assertIndexed("findTopByLocationIdOrderByTimestampUtcDesc",
+                () -> weatherRepo.findTopByLocationIdOrderByTimestampUtcDesc(1L));
+        assertIndexed("findByLocationIdAndTimestampUtcAfter",
+                () -> weatherRepo.findByLocationIdAndTimestampUtcAfter(1L, NOW));
+        assertIndexed("findTop10ByLocationIdOrderByTimestampUtcDesc",
+                () -> weatherRepo.findTop10ByLocationIdOrderByTimestampUtcDesc(1L));
+        assertIndexed("findExpiredIds",
+                () -> weatherRepo.findExpiredIds(1L, NOW, PageRequest.of(0, 100)));
+    }
+
+    @Test
+    void forecastQueriesUseIndexes() throws Exception {
+        assertIndexed("findByLocationIdOrderByTimestampUtcAsc",
+                () -> forecastRepo.findByLocationIdOrderByTimestampUtcAsc(1L));
+        assertIndexed("deleteByLocationId", () -> forecastRepo.deleteByLocationId(1L));
+    }
+
+    @Test
+    void alertQueriesUseIndexes() throws Exception {
+        var user = userRepo.getReferenceById(1L);
+
+        assertIndexed("findByUserOrderByTriggeredAtDesc", () -> alertRepo.findByUserOrderByTriggeredAtDesc(user));
+        assertIndexed("findByUserAndIsReadFalseOrderByTriggeredAtDesc",
+                () -> alertRepo.findByUserAndIsReadFalseOrderByTriggeredAtDesc(user));
+        assertIndexed("findByUserAndPollutantAndTriggeredAtAfter",
+                () -> alertRepo.findByUserAndPollutantAndTriggeredAtAfter(user, "PM2.5", NOW));
+        assertIndexed("findDedupKeysTriggeredAfter", () -> alertRepo.findDedupKeysTriggeredAfter(NOW));
+        assertIndexed("findOpenWindows", () -> alertRepo.findOpenWindows(List.of(1L, 2L), NOW));
+        assertIndexed("findClosedWindows", () -> alertRepo.findClosedWindows(NOW, PageRequest.of(0, 200)));
+        assertIndexed("countByUserAndIsReadFalse", () -> alertRepo.countByUserAndIsReadFalse(user));
+        assertIndexed("findByLocationId", () -> alertRepo.findByLocationId(1L));
+        assertIndexed("findRecentAlerts", () -> alertRepo.findRecentAlerts(NOW));
+        assertIndexed("findPageByUser",
+                () -> alertRepo.findPageByUser(1L, NOW, 10L, PageRequest.of(0, 50)));
+        assertIndexed("findUnreadPageByUser",
+                () -> alertRepo.findUnreadPageByUser(1L, NOW, 10L, PageRequest.of(0, 50)));
+        assertIndexed("findPage", () -> alertRepo.findPage(NOW, 10L, PageRequest.of(0, 50)));
+        assertIndexed("countByUser", () -> alertRepo.countByUser(user));
+        assertIndexed("countByPollutant", () -> alertRepo.countByPollutant(user));
+        assertIndexed("findReadIdsBefore", () -> alertRepo.findReadIdsBefore(NOW, PageRequest.of(0, 100)));
+        assertIndexed("deleteOldReadAlerts", () -> alertRepo.deleteOldReadAlerts(NOW));
+        assertIndexed("archive", () -> alertArchiveRepo.archive(List.of(1L, 2L), NOW));
+    }
+
+    // ==================== HELPERS ====================
+
+    private void assertIndexed(String method, Runnable call) throws Exception {
+        SqlCapture.STATEMENTS.clear();
+        call.run();
+
+        List<String> statements = new ArrayList<>(SqlCapture.STATEMENTS);
+        assertThat(statements).as("SQL captured for %s", method).isNotEmpty();
+
+        for (String sql : statements) {
+            String plan = explain(sql);
+            Matcher scan = TABLE_SCAN.matcher(plan);
+            while (scan.find()) {
+                assertThat(TIME_SERIES_TABLES)
+                        .as("%s does a full scan of %s:%n%s", method, scan.group(1), plan)
+                        .doesNotContain(scan.group(1).toUpperCase(Locale.ROOT));
+            }
+        }
+    }
+
+    private static void drain(Stream<?> stream) {
+        try (stream) {
+            stream.forEach(row -> { });
+        }
+    }
+
+    private String explain(String sql) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    plan.append(rows.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.commander.aqm.aqm_back_end.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.logging.LoggingInitializationContext;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 📝 Logged volume and p99 latency of JwtAuthFilter with the prod logging profile on (async, app at INFO)
+ * and off (default/dev: synchronous console, app and security at DEBUG)
+ *
+ * Logging is configured from the real logback-spring.xml. Console output goes to a
+ * temporary file during the run, so the appenders do real, synchronized I/O without
+ * flooding the build log. Only the logged volume is checked in the default build;
+ * the p99 comparison is tagged "load".
+ */
+@Slf4j
+class JwtAuthFilterLoggingLoadTest {
+
+    private static final int THREADS = 8;
+    private static final int REQUESTS_PER_THREAD = 2_000;
+    private static final int ROUNDS = 3;
+
+    private final LoggingSystem loggingSystem = LoggingSystem.get(getClass().getClassLoader());
+    private JwtAuthFilter filter;
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void createFilter() {
+        JwtUtils jwtUtils = mock(JwtUtils.class);
+        when(jwtUtils.verify(anyString()))
+                .thenReturn(Optional.of(new JwtUtils.VerifiedToken("minh", Long.MAX_VALUE)));
+        UserDetailsService users = mock(UserDetailsService.class);
+        when(users.loadUserByUsername("minh"))
+                .thenReturn(User.withUsername("minh").password("x").roles("USER").build());
+        filter = new JwtAuthFilter(jwtUtils, users);
+        originalOut = System.out;
+    }
+
+    @AfterEach
+    void restoreLogging() {
+        System.setOut(originalOut);
+        configureLogging(new MockEnvironment());
+    }
+
+    @Test
+    void prodProfileKeepsLoggingOffTheRequestPath() throws Exception {
+        Measurement off = measure("dev");
+        Measurement on = measure("prod");
+
+        log.info("📝 JwtAuthFilter logging over {} requests x {} threads: profile off {} KB, prod profile {} KB",
+                REQUESTS_PER_THREAD, THREADS, off.bytes() / 1_024, on.bytes() / 1_024);
+
+        // Off: every request writes its trace lines through the shared console lock
+        assertThat(off.bytes()).isGreaterThan((long) THREADS * REQUESTS_PER_THREAD * 50);
+        assertThat(on.bytes()).isLessThan(off.bytes() / 100);
+    }
+
+    /**
+     * Latency comparison: depends on the machine, so it only runs with the load tag
+     * (mvn test -Dtest.excludedGroups= -Dgroups=load)
+     */
+    @Test
+    @Tag("load")
+    void prodProfileLowersP99() throws Exception {
+        long offP99 = Long.MAX_VALUE;
+        long onP99 = Long.MAX_VALUE;
+        // Alternate the profiles so warm-up and machine noise hit both; keep each profile's best round
+        for (int round = 0; round < ROUNDS; round++) {
+            offP99 = Math.min(offP99, measure("dev").p99());
+            onP99 = Math.min(onP99, measure("prod").p99());
+        }
+
+        log.info("📝 JwtAuthFilter p99 over {} requests x {} threads: profile off {} µs, prod profile {} µs",
+                REQUESTS_PER_THREAD, THREADS, offP99 / 1_000, onP99 / 1_000);
+
+        assertThat(onP99).isLessThan(offP99);
+    }
+
+    /**
+     * Run the requests under {@code profile} with console output going to a temporary file
+     */
+    private Measurement measure(String profile) throws Exception {
+        Path sink = Files.createTempFile("aqm-log-load", ".log");
+        try (PrintStream file = new PrintStream(new BufferedOutputStream(new FileOutputStream(sink.toFile())), true)) {
+            System.setOut(file);
+            long p99 = p99(run(profile));
+            return new Measurement(p99, Files.size(sink));
+        } finally {
+            // Back to the build console, so the results below are logged there
+            System.setOut(originalOut);
+            configureLogging(new MockEnvironment());
+            Files.deleteIfExists(sink);
+        }
+    }
+
+    private record Measurement(long p99, long bytes) {
+    }
+
+    /**
+     * Authenticated requests from {@link #THREADS} threads; returns the latency of every request in ns
+     */
+    private long[] run(String profile) throws Exception {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles(profile);
+        configureLogging(environment);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                results.add(pool.submit(() -> {
+                    long[] latencies = new long[REQUESTS_PER_THREAD];
+                    start.await();
+                    for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/alerts");
+                        request.addHeader("Authorization", "Bearer token-" + i);
+                        long begin = System.nanoTime();
+                        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+                        latencies[i] = System.nanoTime() - begin;
+                        SecurityContextHolder.clearContext();
+                    }
+                    return latencies;
+                }));
+            }
+            start.countDown();
+
+            long[] all = new long[THREADS * REQUESTS_PER_THREAD];
+            for (int t = 0; t < THREADS; t++) {
+                System.arraycopy(results.get(t).get(), 0, all, t * REQUESTS_PER_THREAD, REQUESTS_PER_THREAD);
+            }
+            return all;
+        } finally {
+            pool.shutdownNow();
+            // Drains the async appender, so its output is counted for this profile
+            loggingSystem.cleanUp();
+        }
+    }
+
+    private void configureLogging(MockEnvironment environment) {
+        loggingSystem.cleanUp();
+        loggingSystem.beforeInitialize();
+        loggingSystem.initialize(new LoggingInitializationContext(environment), "classpath:logback-spring.xml", null);
+    }
+
+    private static long p99(long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(0.99 * sorted.length) - 1];
+    }
+}
@@ -0,0 +1,205 @@
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.dto.AirQualityPoint;
+import com.commander.aqm.aqm_back_end.model.AirQualityData;
+import com.commander.aqm.aqm_back_end.model.AirQualityRollup;
+import com.commander.aqm.aqm_back_end.model.AirQualityRollup.Granularity;
+import com.commander.aqm.aqm_back_end.model.BackfillCheckpoint;
+import com.commander.aqm.aqm_back_end.model.Location;
+import com.commander.aqm.aqm_back_end.model.Pollutant;
+import com.commander.aqm.aqm_back_end.model.Sensor;
+import com.commander.aqm.aqm_back_end.repository.AirQualityDataRepository;
+import com.commander.aqm.aqm_back_end.repository.AirQualityRollupRepository;
+import com.commander.aqm.aqm_back_end.repository.BackfillCheckpointRepository;
+import com.commander.aqm.aqm_back_end.repository.LocationRepository;
+import com.commander.aqm.aqm_back_end.repository.SensorRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 📦 Rollup upserts, the rollup-versus-raw merge in summarize() and rebuilds after a purge
+ * (including backfilled history, which retention keeps)
+ * Every summary is compared with the same statistics computed over the raw readings.
+ */
+@DataJpaTest(properties = "aqm.retention.raw-days=" + AirQualityRollupServiceTest.RAW_DAYS)
+@Import({AirQualityRollupService.class, BulkWriter.class, DataRetentionService.class, SimpleMeterRegistry.class})
+class AirQualityRollupServiceTest {
+
+    static final int RAW_DAYS = 30;
+    // Day 0 is past raw retention, day 1 straddles the cutoff, day 2 is fully inside it
+    private static final LocalDateTime START = LocalDate.now().minusDays(RAW_DAYS + 1).atStartOfDay();
+
+    @Autowired
+    private AirQualityRollupService rollupService;
+    @Autowired
+    private AirQualityRollupRepository rollupRepo;
+    @Autowired
+    private BulkWriter bulkWriter;
+    @Autowired
+    private DataRetentionService retentionService;
+    @Autowired
+    private AirQualityDataRepository airRepo;
+    @Autowired
+    private BackfillCheckpointRepository checkpointRepo;
+    @Autowired
+    private LocationRepository locationRepo;
+    @Autowired
+    private SensorRepository sensorRepo;
+
+    private Location location;
+    private final List<AirQualityData> readings = new ArrayList<>();
+
+    @BeforeEach
+    void recordThreeDaysOfReadings() {
+        location = locationRepo.saveAndFlush(Location.builder().name("Hue").build());
+        Sensor sensor = sensorRepo.saveAndFlush(Sensor.builder().serialNumber("R-1").location(location).build());
+
+        // Every 10 minutes for 3 days; PM10 missing on every 7th reading
+        for (int i = 0; i < 3 * 24 * 6; i++) {
+            readings.add(AirQualityData.builder()
+                    .location(location).sensor(sensor)
+                    .timestampUtc(START.plusMinutes(10L * i))
+                    .pm25(5f + (i * 37 % 90))
+                    .pm10(i % 7 == 0 ? null : 20f + (i * 13 % 60))
+                    .aqi(20 + (i * 53 % 200))
+                    .build());
+        }
+        bulkWriter.insertAirQuality(readings);
+        readings.forEach(rollupService::record);
+    }
+
+    @Test
+    void upsertsFoldReadingsIntoOneRowPerBucket() {
+        List<AirQualityRollup> hourly = rollupRepo.findBuckets(location.getId(), Granularity.HOURLY,
+                START, START.plusHours(1));
+
+        assertThat(hourly).hasSize(Pollutant.values().length);
+        AirQualityRollup pm10 = hourly.stream().filter(r -> r.getPollutant() == Pollutant.PM10).findFirst().orElseThrow();
+        assertThat(pm10.getReadingCount()).isEqualTo(6);
+        assertThat(pm10.getValueCount()).isEqualTo(5); // reading 0 has no PM10
+        assertThat(pm10.getMinValue()).isNotNull();
+    }
+
+    @Test
+    void rangeInsideOneHourUsesRawReadingsOnly() {
+        assertMatchesRaw(START.plusHours(5).plusMinutes(5), START.plusHours(5).plusMinutes(55));
+    }
+
+    @Test
+    void partialHoursAtBothEdgesAreMergedWithHourlyBuckets() {
+        assertMatchesRaw(START.plusHours(2).plusMinutes(17), START.plusHours(9).plusMinutes(43));
+    }
+
+    @Test
+    void wholeHourEdgesIncludeTheReadingAtTheEnd() {
+        // [02:00, 09:00] is inclusive: the 09:00 reading is raw, 02:00-08:59 comes from buckets
+        assertMatchesRaw(START.plusHours(2), START.plusHours(9));
+    }
+
+    @Test
+    void rangeAcrossDaysMergesDailyHourlyAndRaw() {
+        assertMatchesRaw(START.plusHours(3).plusMinutes(17), START.plusDays(2).plusHours(14).plusMinutes(43));
+    }
+
+    @Test
+    void rangeEndingAtMidnightMergesDailyBuckets() {
+        assertMatchesRaw(START.plusMinutes(35), START.plusDays(2));
+        assertMatchesRaw(START, START.plusDays(3));
+    }
+
+    @Test
+    void rebuildReproducesTheIncrementalBuckets() {
+        LocalDateTime from = START.plusHours(1).plusMinutes(20);
+        LocalDateTime to = START.plusDays(1).plusHours(20).plusMinutes(5);
+        AirQualityStatsAccumulator before = rollupService.summarize(location.getId(), from, to);
+
+        rollupService.rebuild(location.getId(), START, START.plusDays(3));
+
+        assertSameStats(rollupService.summarize(location.getId(), from, to), before);
+    }
+
+    @Test
+    void rebuildAfterAPurgeKeepsTheBucketsOfPurgedDays() {
+        AirQualityStatsAccumulator before = rollupService.summarize(location.getId(), START, START.plusDays(3));
+
+        assertThat(retentionService.purge().get("AirQualityData")).isPositive();
+        rollupService.rebuild(location.getId(), START, START.plusDays(3));
+
+        // Days 0 and 1 lost raw rows and keep their buckets; day 2 is rebuilt from complete raw data
+        assertSameStats(rollupService.summarize(location.getId(), START, START.plusDays(3)), before);
+        assertThat(rollupRepo.findBuckets(location.getId(), Granularity.DAILY, START, START.plusDays(3)))
+                .filteredOn(r -> r.getPollutant() == Pollutant.AQI)
+                .extracting(AirQualityRollup::getReadingCount)
+                .containsExactly(144L, 144L, 144L);
+    }
+
+    @Test
+    void rebuildOfADayWithoutRawRowsKeepsItsBuckets() {
+        LocalDateTime day = START.plusDays(2);
+        AirQualityStatsAccumulator before = rollupService.summarize(location.getId(), day, day.plusDays(1));
+        airRepo.deleteAllByIdInBatch(airRepo.findByLocationIdAndTimestampUtcBetween(location.getId(), day, day.plusDays(1))
+                .stream().map(AirQualityData::getId).toList());
+
+        assertThat(rollupService.rebuild(location.getId(), day, day)).isZero();
+
+        assertSameStats(rollupService.summarize(location.getId(), day, day.plusDays(1)), before);
+    }
+
+    @Test
+    void backfilledHistoryOutlivesRawRetentionAndCanBeRebuilt() {
+        // Day 0 was loaded by a backfill job
+        checkpointRepo.saveAndFlush(BackfillCheckpoint.builder()
+                .jobId("job-1").locationId(location.getId()).source("file")
+                .rangeFrom(START).rangeTo(START.plusDays(1)).cursor(START.plusDays(1))
+                .status(BackfillCheckpoint.Status.COMPLETED).build());
+        LocalDateTime dayEnd = START.plusDays(1).minusSeconds(1);
+        AirQualityStatsAccumulator before = rollupService.summarize(location.getId(), START, dayEnd);
+
+        retentionService.purge();
+        assertThat(airRepo.findByLocationIdAndTimestampUtcBetween(location.getId(), START, dayEnd)).hasSize(144);
+
+        // Its raw rows are complete, so its buckets can be recomputed
+        rollupRepo.deleteBuckets(location.getId(), START, START.plusDays(1));
+        assertThat(rollupService.rebuild(location.getId(), START, START)).isPositive();
+        assertSameStats(rollupService.summarize(location.getId(), START, dayEnd), before);
+        assertThat(rollupRepo.findBuckets(location.getId(), Granularity.DAILY, START, START.plusDays(1)))
+                .filteredOn(r -> r.getPollutant() == Pollutant.AQI)
+                .extracting(AirQualityRollup::getReadingCount)
+                .containsExactly(144L);
+    }
+
+    private void assertMatchesRaw(LocalDateTime from, LocalDateTime to) {
+        AirQualityStatsAccumulator raw = new AirQualityStatsAccumulator();
+        readings.stream()
+                .filter(r -> !r.getTimestampUtc().isBefore(from) && !r.getTimestampUtc().isAfter(to))
+                .map(AirQualityPoint::of)
+                .forEach(raw::accept);
+
+        assertSameStats(rollupService.summarize(location.getId(), from, to), raw);
+    }
+
+    private static void assertSameStats(AirQualityStatsAccumulator actual, AirQualityStatsAccumulator expected) {
+        assertThat(actual.getReadings()).isEqualTo(expected.getReadings());
+        for (Pollutant pollutant : Pollutant.values()) {
+            assertThat(actual.count(pollutant)).as("%s count", pollutant).isEqualTo(expected.count(pollutant));
+            assertThat(actual.mean(pollutant)).as("%s mean", pollutant).isCloseTo(expected.mean(pollutant), within(1e-6));
+            assertThat(actual.min(pollutant)).as("%s min", pollutant).isEqualTo(expected.min(pollutant));
+            assertThat(actual.max(pollutant)).as("%s max", pollutant).isEqualTo(expected.max(pollutant));
+        }
+        for (int category = AirQualityStatsAccumulator.GOOD; category <= AirQualityStatsAccumulator.HAZARDOUS; category++) {
+            assertThat(actual.categoryCount(category)).isEqualTo(expected.categoryCount(category));
+        }
+    }
+}
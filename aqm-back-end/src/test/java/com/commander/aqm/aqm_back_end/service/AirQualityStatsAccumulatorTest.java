@@ -0,0 +1,120 @@
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.dto.AirQualityPoint;
+import com.commander.aqm.aqm_back_end.model.AirQualityRollup;
+import com.commander.aqm.aqm_back_end.model.Pollutant;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 🧮 Single-pass statistics checked against a naive computation over the same readings
+ */
+class AirQualityStatsAccumulatorTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 12, 1, 0, 0);
+
+    @Test
+    void statisticsMatchNaiveComputation() {
+        List<AirQualityPoint> points = randomPoints(1_000, 42);
+        AirQualityStatsAccumulator stats = new AirQualityStatsAccumulator();
+        points.forEach(stats::accept);
+
+        assertThat(stats.getReadings()).isEqualTo(points.size());
+        for (Pollutant pollutant : Pollutant.values()) {
+            List<Double> values = values(points, pollutant);
+
+            assertThat(stats.count(pollutant)).as("%s count", pollutant).isEqualTo(values.size());
+            assertThat(stats.mean(pollutant)).as("%s mean", pollutant)
+                    .isCloseTo(values.stream().mapToDouble(Double::doubleValue).average().orElseThrow(), within(1e-9));
+            assertThat(stats.min(pollutant)).as("%s min", pollutant).isEqualTo(values.stream().min(Double::compare).orElseThrow());
+            assertThat(stats.max(pollutant)).as("%s max", pollutant).isEqualTo(values.stream().max(Double::compare).orElseThrow());
+        }
+
+        List<Double> aqi = values(points, Pollutant.AQI);
+        for (int category = AirQualityStatsAccumulator.GOOD; category <= AirQualityStatsAccumulator.HAZARDOUS; category++) {
+            int expected = category;
+            assertThat(stats.categoryCount(category))
+                    .isEqualTo(aqi.stream().filter(v -> AirQualityStatsAccumulator.categoryOf(v) == expected).count());
+        }
+    }
+
+    @Test
+    void emptyPollutantHasNoStatistics() {
+        AirQualityStatsAccumulator stats = new AirQualityStatsAccumulator();
+        stats.accept(point(FROM, 80));
+
+        assertThat(stats.count(Pollutant.NO2)).isZero();
+        assertThat(stats.mean(Pollutant.NO2)).isZero();
+        assertThat(stats.min(Pollutant.NO2)).isNull();
+        assertThat(stats.max(Pollutant.NO2)).isNull();
+    }
+
+    @Test
+    void mergedBucketsMatchTheReadingsTheyWereBuiltFrom() {
+        AirQualityStatsAccumulator readings = new AirQualityStatsAccumulator();
+        for (int aqi : new int[]{20, 60, 120, 180}) {
+            readings.accept(point(FROM, aqi));
+        }
+
+        AirQualityStatsAccumulator buckets = new AirQualityStatsAccumulator();
+        buckets.merge(AirQualityRollup.builder().pollutant(Pollutant.AQI)
+                .readingCount(2).valueCount(2).valueSum(80.0).minValue(20.0).maxValue(60.0)
+                .goodCount(1).moderateCount(1).build());
+        buckets.merge(AirQualityRollup.builder().pollutant(Pollutant.AQI)
+                .readingCount(2).valueCount(2).valueSum(300.0).minValue(120.0).maxValue(180.0)
+                .unhealthyCount(1).hazardousCount(1).build());
+        // A bucket without values of its pollutant changes nothing
+        buckets.merge(AirQualityRollup.builder().pollutant(Pollutant.NO2).readingCount(2).build());
+
+        assertThat(buckets.getReadings()).isEqualTo(readings.getReadings());
+        assertThat(buckets.count(Pollutant.AQI)).isEqualTo(readings.count(Pollutant.AQI));
+        assertThat(buckets.mean(Pollutant.AQI)).isEqualTo(readings.mean(Pollutant.AQI));
+        assertThat(buckets.min(Pollutant.AQI)).isEqualTo(readings.min(Pollutant.AQI));
+        assertThat(buckets.max(Pollutant.AQI)).isEqualTo(readings.max(Pollutant.AQI));
+        assertThat(buckets.count(Pollutant.NO2)).isZero();
+        for (int category = AirQualityStatsAccumulator.GOOD; category <= AirQualityStatsAccumulator.HAZARDOUS; category++) {
+            assertThat(buckets.categoryCount(category)).isEqualTo(readings.categoryCount(category)).isEqualTo(1);
+        }
+    }
+
+    // ==================== helpers ====================
+
+    private static List<Double> values(List<AirQualityPoint> points, Pollutant pollutant) {
+        return points.stream().map(p -> p.value(pollutant)).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Readings with every pollutant set, each missing at random about one time in ten
+     */
+    static List<AirQualityPoint> randomPoints(int count, long seed) {
+        Random random = new Random(seed);
+        List<AirQualityPoint> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            points.add(new AirQualityPoint((long) i, 1L, FROM.plusMinutes(10L * i),
+                    maybe(random, 5 + random.nextFloat() * 150),
+                    maybe(random, 10 + random.nextFloat() * 250),
+                    maybe(random, random.nextFloat() * 80),
+                    maybe(random, 200 + random.nextFloat() * 900),
+                    maybe(random, random.nextFloat() * 120),
+                    maybe(random, random.nextFloat() * 40),
+                    random.nextInt(10) == 0 ? null : random.nextInt(300)));
+        }
+        return points;
+    }
+
+    private static Float maybe(Random random, float value) {
+        return random.nextInt(10) == 0 ? null : value;
+    }
+
+    private static AirQualityPoint point(LocalDateTime time, int aqi) {
+        return new AirQualityPoint(null, 1L, time, null, null, null, null, null, null, aqi);
+    }
+}
@@ -0,0 +1,57 @@
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.dto.AirQualityPoint;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ⏱️ Report statistics over 1M readings: the single-pass accumulator versus the
+ * one-stream-per-metric code it replaced (averages of PM2.5/PM10/AQI plus AQI categories)
+ */
+@Slf4j
+@Tag(MicroBenchmark.TAG)
+class AirQualityStatsBenchmarkTest {
+
+    private static final int READINGS = 1_000_000;
+    private static final int WARMUPS = 5;
+    private static final int ITERATIONS = 10;
+
+    @Test
+    void singlePassBeatsOneStreamPerMetric() {
+        List<AirQualityPoint> points = AirQualityStatsAccumulatorTest.randomPoints(READINGS, 7);
+
+        MicroBenchmark.Result streams = MicroBenchmark.measure("stream per metric", WARMUPS, ITERATIONS,
+                () -> streamPerMetric(points));
+        MicroBenchmark.Result accumulator = MicroBenchmark.measure("accumulator", WARMUPS, ITERATIONS, () -> {
+            AirQualityStatsAccumulator stats = new AirQualityStatsAccumulator();
+            points.forEach(stats::accept);
+            return stats;
+        });
+
+        log.info("⏱️ {} readings: {} | {}", READINGS, streams, accumulator);
+        assertThat(accumulator.medianNanos()).isLessThan(streams.medianNanos());
+    }
+
+    private static double[] streamPerMetric(List<AirQualityPoint> points) {
+        double avgPm25 = points.stream().map(AirQualityPoint::pm25).filter(Objects::nonNull)
+                .mapToDouble(Float::doubleValue).average().orElse(0);
+        double avgPm10 = points.stream().map(AirQualityPoint::pm10).filter(Objects::nonNull)
+                .mapToDouble(Float::doubleValue).average().orElse(0);
+        double avgAqi = points.stream().map(AirQualityPoint::aqi).filter(Objects::nonNull)
+                .mapToDouble(Integer::doubleValue).average().orElse(0);
+        long good = points.stream().filter(p -> p.aqi() != null && p.aqi() <= 50).count();
+        long moderate = points.stream().filter(p -> p.aqi() != null && p.aqi() > 50 && p.aqi() <= 100).count();
+        long unhealthy = points.stream().filter(p -> p.aqi() != null && p.aqi() > 100).count();
+        double maxAqi = points.stream().map(AirQualityPoint::aqi).filter(Objects::nonNull)
+                .mapToDouble(Integer::doubleValue).max().orElse(0);
+        double minAqi = points.stream().map(AirQualityPoint::aqi).filter(Objects::nonNull)
+                .mapToDouble(Integer::doubleValue).min().orElse(0);
+        return new double[]{avgPm25, avgPm10, avgAqi, good, moderate, unhealthy, maxAqi, minAqi};
+    }
+}
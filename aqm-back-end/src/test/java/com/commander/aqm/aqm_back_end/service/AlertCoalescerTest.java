@@ -0,0 +1,175 @@
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.model.AirQualityData;
+import com.commander.aqm.aqm_back_end.model.Alert;
+import com.commander.aqm.aqm_back_end.model.AlertExceedance;
+import com.commander.aqm.aqm_back_end.model.AlertThreshold;
+import com.commander.aqm.aqm_back_end.model.Location;
+import com.commander.aqm.aqm_back_end.model.Sensor;
+import com.commander.aqm.aqm_back_end.model.User;
+import com.commander.aqm.aqm_back_end.repository.AirQualityDataRepository;
+import com.commander.aqm.aqm_back_end.repository.AlertExceedanceRepository;
+import com.commander.aqm.aqm_back_end.repository.AlertRepository;
+import com.commander.aqm.aqm_back_end.repository.AlertThresholdRepository;
+import com.commander.aqm.aqm_back_end.repository.LocationRepository;
+import com.commander.aqm.aqm_back_end.repository.SensorRepository;
+import com.commander.aqm.aqm_back_end.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 🧺 Alert windows are stored when limits are exceeded; only the email waits for the window
+ */
+@DataJpaTest(properties = "aqm.alerts.coalesce-window-minutes=5")
+@Import({AlertCoalescer.class, AlertEvaluationEngine.class, AlertDedupIndex.class, BulkWriter.class})
+class AlertCoalescerTest {
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm");
+
+    @Autowired
+    private AlertCoalescer coalescer;
+    @Autowired
+    private AlertRepository alertRepo;
+    @Autowired
+    private AlertExceedanceRepository exceedanceRepo;
+    @Autowired
+    private UserRepository userRepo;
+    @Autowired
+    private AlertThresholdRepository thresholdRepo;
+    @Autowired
+    private LocationRepository locationRepo;
+    @Autowired
+    private SensorRepository sensorRepo;
+    @Autowired
+    private AirQualityDataRepository airQualityRepo;
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private EmailOutboxService emailOutbox;
+
+    private User user;
+    private AlertThreshold threshold;
+    private AirQualityData reading;
+
+    @BeforeEach
+    void createUserAndReading() {
+        user = userRepo.saveAndFlush(User.builder().username("minh").email("minh@example.com")
+                .passwordHash("x").emailAlertsEnabled(true).build());
+        threshold = thresholdRepo.saveAndFlush(AlertThreshold.builder().user(user)
+                .pm25Threshold(35.5f).pm10Threshold(150f).aqiThreshold(100f).build());
+        Location location = locationRepo.saveAndFlush(Location.builder().name("Hanoi").build());
+        Sensor sensor = sensorRepo.saveAndFlush(Sensor.builder().serialNumber("S-1").location(location).build());
+        reading = airQualityRepo.saveAndFlush(AirQualityData.builder().location(location).sensor(sensor)
+                .timestampUtc(LocalDateTime.now()).pm25(80f).pm10(200f).aqi(160).build());
+    }
+
+    @Test
+    void exceedancesOfOneWindowAreStoredImmediatelyAsOneAlert() {
+        LocalDateTime now = LocalDateTime.now();
+        assertThat(coalescer.submit(List.of(candidate("PM10", 200f, now), candidate("AQI", 160f, now)))).isEqualTo(1);
+        // Next reading inside the window: joins the open alert, worse PM2.5 becomes the headline
+        assertThat(coalescer.submit(List.of(candidate("PM2.5", 80f, now.plusMinutes(1))))).isZero();
+
+        List<Alert> alerts = alertRepo.findAll();
+        assertThat(alerts).hasSize(1);
+        Alert alert = alerts.get(0);
+        assertThat(alert.getPollutant()).isEqualTo("PM2.5");
+        assertThat(alert.getCoalescedCount()).isEqualTo(3);
+        assertThat(alert.getNotificationPending()).isTrue();
+        // Built in memory as exceedances arrive, in arrival order
+        assertThat(alert.getDetails().split("\n")).containsExactly(
+                "📍 Hanoi · PM10 200.0 (limit 150.0) · " + now.format(TIME),
+                "📍 Hanoi · AQI 160.0 (limit 100.0) · " + now.format(TIME),
+                "📍 Hanoi · PM2.5 80.0 (limit 35.5) · " + now.plusMinutes(1).format(TIME));
+
+        assertThat(exceedanceRepo.findByAlertId(alert.getId()))
+                .extracting(AlertExceedance::getPollutant)
+                .containsExactly("PM10", "AQI", "PM2.5");
+        verify(emailOutbox, never()).enqueueAlerts(anyList());
+    }
+
+    @Test
+    void singleExceedanceGetsItsDetailLineWhenTheWindowGrows() {
+        LocalDateTime now = LocalDateTime.now();
+        coalescer.submit(List.of(candidate("PM10", 200f, now)));
+        assertThat(alertRepo.findAll().get(0).getDetails()).isNull();
+
+        coalescer.submit(List.of(candidate("AQI", 160f, now.plusMinutes(1))));
+
+        Alert alert = alertRepo.findAll().get(0);
+        assertThat(alert.getCoalescedCount()).isEqualTo(2);
+        assertThat(alert.getDetails().split("\n")).containsExactly(
+                "📍 Hanoi · PM10 200.0 (limit 150.0) · " + now.format(TIME),
+                "📍 Hanoi · AQI 160.0 (limit 100.0) · " + now.plusMinutes(1).format(TIME));
+        assertThat(exceedanceRepo.findByAlertId(alert.getId())).hasSize(2);
+    }
+
+    @Test
+    void closedWindowIsEmailedOnceFromTheStoredRows() {
+        LocalDateTime opened = LocalDateTime.now().minusMinutes(10);
+        coalescer.submit(List.of(candidate("PM10", 200f, opened), candidate("PM2.5", 80f, opened)));
+
+        coalescer.flushDue();
+        coalescer.flushDue();
+
+        Alert alert = alertRepo.findAll().get(0);
+        assertThat(alert.getNotificationPending()).isFalse();
+        verify(emailOutbox).enqueueAlerts(List.of(alert));
+    }
+
+    @Test
+    void warmUpAfterRestartSeesEveryPollutantOfACoalescedAlert() {
+        LocalDateTime now = LocalDateTime.now();
+        coalescer.submit(List.of(candidate("PM10", 200f, now), candidate("PM2.5", 80f, now)));
+        entityManager.flush();
+
+        // Fresh index, as after a restart
+        AlertDedupIndex restarted = new AlertDedupIndex(alertRepo, exceedanceRepo, 30);
+        restarted.warmUp();
+
+        Long locationId = reading.getLocation().getId();
+        assertThat(restarted.tryRegister(new AlertDedupIndex.Key(user.getId(), "PM2.5", locationId), now)).isFalse();
+        assertThat(restarted.tryRegister(new AlertDedupIndex.Key(user.getId(), "PM10", locationId), now)).isFalse();
+        assertThat(restarted.tryRegister(new AlertDedupIndex.Key(user.getId(), "AQI", locationId), now)).isTrue();
+    }
+
+    @Test
+    void exceedancesAreDeletedWithTheirAlert() {
+        LocalDateTime old = LocalDateTime.now().minusDays(40);
+        coalescer.submit(List.of(candidate("PM10", 200f, old), candidate("PM2.5", 80f, old)));
+        Alert alert = alertRepo.findAll().get(0);
+        alert.setIsRead(true);
+        entityManager.flush();
+
+        assertThat(alertRepo.deleteOldReadAlerts(LocalDateTime.now().minusDays(30))).isEqualTo(1);
+        assertThat(exceedanceRepo.count()).isZero();
+    }
+
+    private Alert candidate(String pollutant, float value, LocalDateTime triggeredAt) {
+        return Alert.builder()
+                .user(user)
+                .threshold(threshold)
+                .aqData(reading)
+                .pollutant(pollutant)
+                .value(value)
+                .isRead(false)
+                .triggeredAt(triggeredAt)
+                .status(Alert.AlertStatus.SENT)
+                .build();
+    }
+}
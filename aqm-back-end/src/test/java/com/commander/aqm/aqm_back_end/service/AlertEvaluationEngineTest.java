@@ -0,0 +1,154 @@
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.model.AirQualityData;
+import com.commander.aqm.aqm_back_end.model.Alert;
+import com.commander.aqm.aqm_back_end.model.AlertThreshold;
+import com.commander.aqm.aqm_back_end.model.Location;
+import com.commander.aqm.aqm_back_end.model.User;
+import com.commander.aqm.aqm_back_end.repository.AlertExceedanceRepository;
+import com.commander.aqm.aqm_back_end.repository.AlertRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 🧮 Set-based evaluation of one reading and the in-memory dedup window
+ */
+class AlertEvaluationEngineTest {
+
+    private static final long WINDOW_MINUTES = 30;
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 12, 10, 8, 0);
+    private static final Location HANOI = Location.builder().id(1L).name("Hanoi").build();
+
+    private AlertRepository alertRepo;
+    private AlertExceedanceRepository exceedanceRepo;
+    private AlertDedupIndex dedupIndex;
+    private AlertEvaluationEngine engine;
+
+    private final User strict = user(1L, "strict");
+    private final User lenient = user(2L, "lenient");
+    private final User noThreshold = user(3L, "none");
+    private Map<Long, AlertThreshold> thresholds;
+
+    @BeforeEach
+    void createEngine() {
+        alertRepo = mock(AlertRepository.class);
+        exceedanceRepo = mock(AlertExceedanceRepository.class);
+        dedupIndex = new AlertDedupIndex(alertRepo, exceedanceRepo, WINDOW_MINUTES);
+        engine = new AlertEvaluationEngine(dedupIndex);
+
+        thresholds = Map.of(
+                strict.getId(), AlertThreshold.builder().user(strict).pm25Threshold(25f).aqiThreshold(50f).build(),
+                // Empty PM2.5 column: the 35.5 default applies
+                lenient.getId(), AlertThreshold.builder().user(lenient).pm10Threshold(300f).aqiThreshold(150f).build());
+    }
+
+    @Test
+    void oneReadingIsEvaluatedForEveryUserAgainstTheirOwnThresholds() {
+        AirQualityData reading = reading(30f, 200f, 120);
+
+        AlertEvaluationEngine.Evaluation evaluation =
+                engine.evaluate(reading, List.of(strict, lenient, noThreshold), thresholds, NOW);
+
+        assertThat(evaluation.alerts())
+                .extracting(a -> a.getUser().getUsername(), Alert::getPollutant, Alert::getValue)
+                .containsExactlyInAnyOrder(
+                        tuple("strict", "PM2.5", 30f),
+                        tuple("strict", "PM10", 200f),
+                        tuple("strict", "AQI", 120f));
+        assertThat(evaluation.alerts()).allSatisfy(alert -> {
+            assertThat(alert.getAqData()).isSameAs(reading);
+            assertThat(alert.getTriggeredAt()).isEqualTo(NOW);
+            assertThat(alert.getThreshold()).isSameAs(thresholds.get(strict.getId()));
+        });
+        assertThat(evaluation.claimedKeys()).containsExactlyInAnyOrder(
+                key(strict, "PM2.5"), key(strict, "PM10"), key(strict, "AQI"));
+
+        // A worse reading crosses the lenient limits too; strict stays suppressed
+        evaluation = engine.evaluate(reading(40f, 320f, 160), List.of(strict, lenient, noThreshold), thresholds, NOW);
+
+        assertThat(evaluation.alerts())
+                .extracting(a -> a.getUser().getUsername(), Alert::getPollutant)
+                .containsExactlyInAnyOrder(tuple("lenient", "PM2.5"), tuple("lenient", "PM10"), tuple("lenient", "AQI"));
+    }
+
+    @Test
+    void alertIsSuppressedInsideTheWindowAndFiresAgainAfterIt() {
+        AirQualityData reading = reading(30f, null, null);
+        List<User> users = List.of(strict);
+
+        assertThat(engine.evaluate(reading, users, thresholds, NOW).alerts()).hasSize(1);
+        assertThat(engine.evaluate(reading, users, thresholds, NOW.plusMinutes(1)).alerts()).isEmpty();
+        assertThat(engine.evaluate(reading, users, thresholds, NOW.plusMinutes(WINDOW_MINUTES - 1)).alerts()).isEmpty();
+
+        // Suppressed attempts do not extend the window
+        assertThat(engine.evaluate(reading, users, thresholds, NOW.plusMinutes(WINDOW_MINUTES)).alerts()).hasSize(1);
+        assertThat(engine.evaluate(reading, users, thresholds, NOW.plusMinutes(WINDOW_MINUTES + 1)).alerts()).isEmpty();
+    }
+
+    @Test
+    void forgottenKeysCanFireAgainImmediately() {
+        AlertEvaluationEngine.Evaluation evaluation =
+                engine.evaluate(reading(30f, null, null), List.of(strict), thresholds, NOW);
+
+        // e.g. the insert failed: release the claims
+        dedupIndex.forget(evaluation.claimedKeys());
+
+        assertThat(engine.evaluate(reading(30f, null, null), List.of(strict), thresholds, NOW).alerts()).hasSize(1);
+    }
+
+    @Test
+    void warmUpLoadsAlertsAndExceedancesFromTheWindow() {
+        LocalDateTime now = LocalDateTime.now();
+        when(alertRepo.findDedupKeysTriggeredAfter(any())).thenReturn(List.<Object[]>of(
+                new Object[]{strict.getId(), "PM2.5", HANOI.getId(), now.minusMinutes(20)}));
+        when(exceedanceRepo.findDedupKeysTriggeredAfter(any())).thenReturn(List.<Object[]>of(
+                // Older copy of the headline: the newer time wins
+                new Object[]{strict.getId(), "PM2.5", HANOI.getId(), now.minusMinutes(29)},
+                // Non-headline pollutant of the same coalesced alert
+                new Object[]{strict.getId(), "AQI", HANOI.getId(), now.minusMinutes(20)}));
+
+        dedupIndex.warmUp();
+
+        ArgumentCaptor<LocalDateTime> after = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(alertRepo).findDedupKeysTriggeredAfter(after.capture());
+        assertThat(after.getValue()).isCloseTo(now.minusMinutes(WINDOW_MINUTES), within(5, ChronoUnit.SECONDS));
+        verify(exceedanceRepo).findDedupKeysTriggeredAfter(after.getValue());
+
+        AirQualityData reading = reading(30f, 200f, 120);
+        assertThat(engine.evaluate(reading, List.of(strict), thresholds, now).alerts())
+                .extracting(Alert::getPollutant)
+                .containsExactly("PM10");
+        // Ten minutes later the warmed entries (20 minutes old) have expired
+        assertThat(engine.evaluate(reading, List.of(strict), thresholds, now.plusMinutes(10)).alerts())
+                .extracting(Alert::getPollutant)
+                .containsExactlyInAnyOrder("PM2.5", "AQI");
+    }
+
+    // ==================== helpers ====================
+
+    private static User user(Long id, String username) {
+        return User.builder().id(id).username(username).build();
+    }
+
+    private static AirQualityData reading(Float pm25, Float pm10, Integer aqi) {
+        return AirQualityData.builder().location(HANOI).timestampUtc(NOW).pm25(pm25).pm10(pm10).aqi(aqi).build();
+    }
+
+    private static AlertDedupIndex.Key key(User user, String pollutant) {
+        return new AlertDedupIndex.Key(user.getId(), pollutant, HANOI.getId());
+    }
+}
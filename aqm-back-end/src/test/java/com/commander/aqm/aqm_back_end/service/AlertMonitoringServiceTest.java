@@ -0,0 +1,198 @@
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.model.AirQualityData;
+import com.commander.aqm.aqm_back_end.model.Alert;
+import com.commander.aqm.aqm_back_end.model.AlertThreshold;
+import com.commander.aqm.aqm_back_end.model.Location;
+import com.commander.aqm.aqm_back_end.model.Sensor;
+import com.commander.aqm.aqm_back_end.model.User;
+import com.commander.aqm.aqm_back_end.repository.AirQualityDataRepository;
+import com.commander.aqm.aqm_back_end.repository.AlertExceedanceRepository;
+import com.commander.aqm.aqm_back_end.repository.AlertRepository;
+import com.commander.aqm.aqm_back_end.repository.AlertThresholdRepository;
+import com.commander.aqm.aqm_back_end.repository.LocationRepository;
+import com.commander.aqm.aqm_back_end.repository.SensorRepository;
+import com.commander.aqm.aqm_back_end.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 🔔 A failed alert write must not leak to the caller, undo the default thresholds
+ * or keep the dedup claims of alerts that were never stored, and one reading costs
+ * the same statements for any number of users
+ * Runs without a test transaction, so every commit is real.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({AlertMonitoringService.class, AlertCoalescer.class, AlertEvaluationEngine.class,
+        AlertDedupIndex.class, BulkWriter.class})
+class AlertMonitoringServiceTest {
+
+    @Autowired
+    private AlertMonitoringService monitoringService;
+    @Autowired
+    private AlertRepository alertRepo;
+    @Autowired
+    private AlertExceedanceRepository exceedanceRepo;
+    @Autowired
+    private AlertThresholdRepository thresholdRepo;
+    @Autowired
+    private UserRepository userRepo;
+    @Autowired
+    private LocationRepository locationRepo;
+    @Autowired
+    private SensorRepository sensorRepo;
+    @Autowired
+    private AirQualityDataRepository airRepo;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoSpyBean
+    private BulkWriter bulkWriter;
+    @MockitoBean
+    private EmailOutboxService emailOutbox;
+    @MockitoBean
+    private LatestAirQualityStore latestStore;
+
+    private Location location;
+    private AirQualityData reading;
+    private Alert openWindow;
+
+    @BeforeEach
+    void createUsersAndOpenWindow() {
+        location = locationRepo.save(Location.builder().name("Hanoi").build());
+        Sensor sensor = sensorRepo.save(Sensor.builder().serialNumber("S-1").location(location).build());
+        reading = airRepo.save(AirQualityData.builder().location(location).sensor(sensor)
+                .timestampUtc(LocalDateTime.now()).pm25(80f).pm10(200f).aqi(160).build());
+
+        // An earlier reading already opened a window for the first user; the second has no thresholds
+        openWindow = userWithOpenWindow("minh");
+        userRepo.save(User.builder().username("lan").email("lan@example.com").passwordHash("x").build());
+    }
+
+    @AfterEach
+    void deleteRows() {
+        exceedanceRepo.deleteAllInBatch();
+        alertRepo.deleteAllInBatch();
+        thresholdRepo.deleteAllInBatch();
+        airRepo.deleteAllInBatch();
+        sensorRepo.deleteAllInBatch();
+        locationRepo.deleteAllInBatch();
+        userRepo.deleteAllInBatch();
+    }
+
+    @Test
+    void versionConflictOnCommitReleasesTheClaimsAndKeepsTheDefaults() {
+        // Another consumer updates the open window between our read and our commit
+        AtomicBoolean bumped = new AtomicBoolean();
+        doAnswer(invocation -> {
+            if (bumped.compareAndSet(false, true)) bumpVersion(openWindow.getId());
+            return invocation.callRealMethod();
+        }).when(bulkWriter).insertExceedances(anyList());
+
+        assertThatCode(() -> monitoringService.onIngested(new LocationIngestedEvent(location, reading, null)))
+                .doesNotThrowAnyException();
+
+        assertThat(bumped).isTrue();
+        // Nothing of the failed write is stored ...
+        assertThat(alertRepo.findAll()).singleElement()
+                .satisfies(alert -> assertThat(alert.getCoalescedCount()).isEqualTo(1));
+        assertThat(exceedanceRepo.count()).isZero();
+        // ... but the defaults were committed before it
+        assertThat(thresholdRepo.findAll())
+                .extracting(t -> t.getUser().getUsername())
+                .containsExactlyInAnyOrder("minh", "lan");
+
+        // Claims were released: the same reading raises its alerts on the retry
+        monitoringService.onIngested(new LocationIngestedEvent(location, reading, null));
+
+        List<Alert> alerts = alertRepo.findAll();
+        assertThat(alerts).extracting(a -> a.getUser().getUsername()).containsExactlyInAnyOrder("minh", "lan");
+        assertThat(alerts).filteredOn(a -> a.getId().equals(openWindow.getId())).singleElement()
+                .satisfies(alert -> assertThat(alert.getCoalescedCount()).isEqualTo(4));
+        assertThat(exceedanceRepo.count()).isEqualTo(6);
+    }
+
+    @Test
+    void statementsPerReadingDoNotGrowWithTheNumberOfUsers() {
+        long few = statementsForNewReading("Hue");
+
+        // Ten more users of each kind
+        for (int i = 0; i < 10; i++) {
+            userWithOpenWindow("open-" + i);
+            userRepo.save(User.builder().username("new-" + i).email("new-" + i + "@example.com").passwordHash("x").build());
+        }
+        long many = statementsForNewReading("Da Nang");
+
+        assertThat(many).isPositive().isEqualTo(few);
+        assertThat(alertRepo.count()).isEqualTo(22);
+        assertThat(exceedanceRepo.count()).isEqualTo(3 * 2 + 3 * 22);
+    }
+
+    /**
+     * Hibernate statements of one reading at a new location; every bulk write must be a single call
+     */
+    private long statementsForNewReading(String locationName) {
+        Location at = locationRepo.save(Location.builder().name(locationName).build());
+        Sensor sensor = sensorRepo.save(Sensor.builder().serialNumber(locationName).location(at).build());
+        AirQualityData data = airRepo.save(AirQualityData.builder().location(at).sensor(sensor)
+                .timestampUtc(LocalDateTime.now()).pm25(80f).pm10(200f).aqi(160).build());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        clearInvocations(bulkWriter);
+
+        monitoringService.onIngested(new LocationIngestedEvent(at, data, null));
+
+        verify(bulkWriter).insertThresholds(anyList());
+        verify(bulkWriter).insertAlerts(anyList());
+        verify(bulkWriter).insertExceedances(anyList());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Alert userWithOpenWindow(String username) {
+        User user = userRepo.save(User.builder().username(username).email(username + "@example.com").passwordHash("x").build());
+        AlertThreshold threshold = thresholdRepo.save(AlertThreshold.builder().user(user)
+                .pm25Threshold(35.5f).pm10Threshold(150f).aqiThreshold(100f).build());
+        return alertRepo.save(Alert.builder().user(user).threshold(threshold).aqData(reading)
+                .pollutant("PM10").value(180f).isRead(false).triggeredAt(LocalDateTime.now().minusMinutes(1))
+                .status(Alert.AlertStatus.SENT).coalescedCount(1).notificationPending(true).build());
+    }
+
+    private void bumpVersion(Long alertId) {
+        TransactionTemplate concurrent = new TransactionTemplate(transactionManager);
+        concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        concurrent.executeWithoutResult(status ->
+                jdbcTemplate.update("UPDATE alert SET version = version + 1 WHERE id = ?", alertId));
+    }
+}
@@ -0,0 +1,133 @@
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.model.AirQualityData;
+import com.commander.aqm.aqm_back_end.model.BackfillCheckpoint;
+import com.commander.aqm.aqm_back_end.model.Location;
+import com.commander.aqm.aqm_back_end.model.Sensor;
+import com.commander.aqm.aqm_back_end.repository.AirQualityDataRepository;
+import com.commander.aqm.aqm_back_end.repository.BackfillCheckpointRepository;
+import com.commander.aqm.aqm_back_end.repository.LocationRepository;
+import com.commander.aqm.aqm_back_end.repository.SensorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 🔁 Re-running a backfill chunk must not duplicate readings,
+ * and a checkpoint can only be claimed by one worker at a time (or after that worker's lease expired)
+ */
+@DataJpaTest
+@Import(BulkWriter.class)
+class BackfillIdempotencyTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final long LEASE_MINUTES = 10;
+
+    @Autowired
+    private BulkWriter bulkWriter;
+    @Autowired
+    private AirQualityDataRepository airQualityRepo;
+    @Autowired
+    private BackfillCheckpointRepository checkpointRepo;
+    @Autowired
+    private LocationRepository locationRepo;
+    @Autowired
+    private SensorRepository sensorRepo;
+
+    private Location location;
+    private Sensor sensor;
+
+    @BeforeEach
+    void createLocation() {
+        location = locationRepo.saveAndFlush(Location.builder().name("Da Nang").latitude(16.05).longitude(108.2).build());
+        sensor = sensorRepo.saveAndFlush(Sensor.builder().serialNumber("BACKFILL-1").location(location).build());
+    }
+
+    @Test
+    void insertIfAbsentSkipsReadingsAlreadyStored() {
+        assertThat(bulkWriter.insertAirQualityIfAbsent(hours(0, 24))).isEqualTo(24);
+
+        // Overlapping re-run (e.g. a chunk retried after a crash): only the 12 new hours are written
+        assertThat(bulkWriter.insertAirQualityIfAbsent(hours(12, 36))).isEqualTo(12);
+        assertThat(bulkWriter.insertAirQualityIfAbsent(hours(0, 36))).isZero();
+
+        assertThat(airQualityRepo.findByLocationIdAndTimestampUtcBetween(
+                location.getId(), FROM, FROM.plusHours(36))).hasSize(36);
+    }
+
+    @Test
+    void checkpointIsClaimedOnlyOnce() {
+        BackfillCheckpoint checkpoint = checkpointRepo.save(BackfillCheckpoint.builder()
+                .jobId("job-1").locationId(location.getId()).source("file")
+                .rangeFrom(FROM).rangeTo(FROM.plusDays(1)).cursor(FROM)
+                .status(BackfillCheckpoint.Status.PENDING).build());
+        var claimable = EnumSet.of(BackfillCheckpoint.Status.PENDING, BackfillCheckpoint.Status.FAILED);
+
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(checkpointRepo.claim(checkpoint.getId(), claimable, BackfillCheckpoint.Status.RUNNING,
+                now, now.minusMinutes(LEASE_MINUTES))).isEqualTo(1);
+        assertThat(checkpointRepo.claim(checkpoint.getId(), claimable, BackfillCheckpoint.Status.RUNNING,
+                now, now.minusMinutes(LEASE_MINUTES))).isZero();
+
+        BackfillCheckpoint claimed = checkpointRepo.findById(checkpoint.getId()).orElseThrow();
+        assertThat(claimed.getStatus()).isEqualTo(BackfillCheckpoint.Status.RUNNING);
+        assertThat(claimed.getVersion()).isEqualTo(checkpoint.getVersion() + 1);
+    }
+
+    @Test
+    void runningCheckpointIsTakenOverOnlyAfterItsLeaseExpires() {
+        LocalDateTime claimedAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        BackfillCheckpoint checkpoint = checkpointRepo.save(BackfillCheckpoint.builder()
+                .jobId("job-2").locationId(location.getId()).source("file")
+                .rangeFrom(FROM).rangeTo(FROM.plusDays(1)).cursor(FROM)
+                .status(BackfillCheckpoint.Status.PENDING).build());
+        var claimable = EnumSet.of(BackfillCheckpoint.Status.PENDING, BackfillCheckpoint.Status.FAILED);
+        assertThat(checkpointRepo.claim(checkpoint.getId(), claimable, BackfillCheckpoint.Status.RUNNING,
+                claimedAt, claimedAt.minusMinutes(LEASE_MINUTES))).isEqualTo(1);
+
+        // Worker still within its lease: neither the sweep nor a second claim takes it
+        LocalDateTime later = claimedAt.plusMinutes(LEASE_MINUTES - 1);
+        assertThat(checkpointRepo.findByStatusAndUpdatedAtBefore(
+                BackfillCheckpoint.Status.RUNNING, later.minusMinutes(LEASE_MINUTES))).isEmpty();
+        assertThat(checkpointRepo.claim(checkpoint.getId(), claimable, BackfillCheckpoint.Status.RUNNING,
+                later, later.minusMinutes(LEASE_MINUTES))).isZero();
+
+        // No chunk committed for longer than the lease: the worker is presumed dead
+        LocalDateTime expired = claimedAt.plusMinutes(LEASE_MINUTES + 1);
+        assertThat(checkpointRepo.findByStatusAndUpdatedAtBefore(
+                BackfillCheckpoint.Status.RUNNING, expired.minusMinutes(LEASE_MINUTES)))
+                .extracting(BackfillCheckpoint::getId).containsExactly(checkpoint.getId());
+        assertThat(checkpointRepo.claim(checkpoint.getId(), claimable, BackfillCheckpoint.Status.RUNNING,
+                expired, expired.minusMinutes(LEASE_MINUTES))).isEqualTo(1);
+
+        // The takeover renewed the lease and bumped the version, so the old worker's next chunk fails
+        BackfillCheckpoint taken = checkpointRepo.findById(checkpoint.getId()).orElseThrow();
+        assertThat(taken.getUpdatedAt()).isEqualTo(expired);
+        assertThat(taken.getVersion()).isEqualTo(checkpoint.getVersion() + 2);
+        assertThat(checkpointRepo.claim(checkpoint.getId(), claimable, BackfillCheckpoint.Status.RUNNING,
+                expired, expired.minusMinutes(LEASE_MINUTES))).isZero();
+    }
+
+    private List<AirQualityData> hours(int fromHour, int toHour) {
+        List<AirQualityData> rows = new ArrayList<>();
+        for (int h = fromHour; h < toHour; h++) {
+            rows.add(AirQualityData.builder()
+                    .location(location).sensor(sensor)
+                    .timestampUtc(FROM.plusHours(h))
+                    .pm25(10f + h).aqi(2)
+                    .build());
+        }
+        return rows;
+    }
+}
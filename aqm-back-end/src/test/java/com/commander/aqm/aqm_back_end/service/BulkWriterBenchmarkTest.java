@@ -0,0 +1,188 @@
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.model.AirQualityData;
+import com.commander.aqm.aqm_back_end.model.Location;
+import com.commander.aqm.aqm_back_end.model.Sensor;
+import com.commander.aqm.aqm_back_end.repository.AirQualityDataRepository;
+import com.commander.aqm.aqm_back_end.repository.LocationRepository;
+import com.commander.aqm.aqm_back_end.repository.SensorRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ⏱️ Per-row save() versus the BulkWriter batch path for a seeding-sized write
+ * Both paths write the same rows. The datasource is wrapped so every round trip that
+ * inserts into air_quality_data is counted: per-row save() pays one per reading,
+ * BulkWriter one per JDBC batch. Elapsed times are only logged.
+ */
+@Slf4j
+@DataJpaTest
+@Import(BulkWriter.class)
+class BulkWriterBenchmarkTest {
+
+    // 7 locations x 8 days x 24 hours, a slice of the FULL_DEMO seed
+    private static final int ROWS = 7 * 8 * 24;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 12, 1, 0, 0);
+
+    @Autowired
+    private BulkWriter bulkWriter;
+    @Autowired
+    private AirQualityDataRepository airRepo;
+    @Autowired
+    private LocationRepository locationRepo;
+    @Autowired
+    private SensorRepository sensorRepo;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Location location;
+    private Sensor sensor;
+
+    @TestConfiguration
+    static class CountingDataSourceConfig {
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? InsertCounter.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @BeforeEach
+    void createLocation() {
+        location = locationRepo.saveAndFlush(Location.builder().name("Da Nang").build());
+        sensor = sensorRepo.saveAndFlush(Sensor.builder().serialNumber("B-1").location(location).build());
+        InsertCounter.reset();
+    }
+
+    @Test
+    void batchedInsertNeedsOneRoundTripPerBatch() {
+        List<AirQualityData> rows = readings(0);
+        long start = System.nanoTime();
+        rows.forEach(airRepo::save);
+        entityManager.flush();
+        long perRowNanos = System.nanoTime() - start;
+        int perRowTrips = InsertCounter.roundTrips.getAndSet(0);
+        entityManager.clear();
+
+        rows = readings(1);
+        start = System.nanoTime();
+        bulkWriter.insertAirQuality(rows);
+        long bulkNanos = System.nanoTime() - start;
+        int bulkTrips = InsertCounter.roundTrips.get();
+
+        log.info("⏱️ {} rows: save() per row {} round trips in {} ms, BulkWriter {} round trips in {} ms",
+                ROWS, perRowTrips, perRowNanos / 1_000_000, bulkTrips, bulkNanos / 1_000_000);
+
+        assertThat(airRepo.count()).isEqualTo(2L * ROWS);
+        // IDENTITY ids: Hibernate executes every insert on its own to read the key back
+        assertThat(perRowTrips).isEqualTo(ROWS);
+        assertThat(bulkTrips).isEqualTo((ROWS + bulkWriter.getBatchSize() - 1) / bulkWriter.getBatchSize());
+        assertThat(InsertCounter.batchedRows.get()).isEqualTo(ROWS);
+    }
+
+    /**
+     * Readings one minute apart; each batch starts 10 days after the previous one so no two rows share a timestamp
+     */
+    private List<AirQualityData> readings(int batch) {
+        LocalDateTime from = START.plusDays(10L * batch);
+        List<AirQualityData> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(AirQualityData.builder()
+                    .location(location).sensor(sensor)
+                    .timestampUtc(from.plusMinutes(i))
+                    .pm25(10f + i % 50)
+                    .pm10(30f + i % 80)
+                    .aqi(40 + i % 120)
+                    .build());
+        }
+        return rows;
+    }
+
+    /**
+     * JDBC proxies counting the executions of prepared INSERTs into air_quality_data
+     * (execute/executeUpdate and executeBatch are one round trip each)
+     */
+    static final class InsertCounter {
+        static final AtomicInteger roundTrips = new AtomicInteger();
+        static final AtomicInteger batchedRows = new AtomicInteger();
+
+        static void reset() {
+            roundTrips.set(0);
+            batchedRows.set(0);
+        }
+
+        static DataSource wrap(DataSource target) {
+            return proxy(DataSource.class, target, (proxy, method, args) -> {
+                Object result = invoke(target, method, args);
+                return result instanceof Connection connection ? wrap(connection) : result;
+            });
+        }
+
+        private static Connection wrap(Connection target) {
+            return proxy(Connection.class, target, (proxy, method, args) -> {
+                Object result = invoke(target, method, args);
+                if (method.getName().equals("prepareStatement") && args[0] instanceof String sql
+                        && sql.toLowerCase(Locale.ROOT).startsWith("insert into air_quality_data")) {
+                    return wrap((Statement) result, method.getReturnType());
+                }
+                return result;
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Object wrap(Statement target, Class<?> type) {
+            AtomicInteger added = new AtomicInteger();
+            return proxy((Class<Statement>) type, target, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "execute", "executeUpdate", "executeLargeUpdate" -> roundTrips.incrementAndGet();
+                    case "addBatch" -> added.incrementAndGet();
+                    case "executeBatch", "executeLargeBatch" -> {
+                        roundTrips.incrementAndGet();
+                        batchedRows.addAndGet(added.getAndSet(0));
+                    }
+                    default -> { }
+                }
+                return invoke(target, method, args);
+            });
+        }
+
+        private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+            return type.cast(Proxy.newProxyInstance(InsertCounter.class.getClassLoader(), new Class<?>[]{type}, handler));
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
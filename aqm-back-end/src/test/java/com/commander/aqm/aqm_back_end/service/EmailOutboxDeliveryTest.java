@@ -0,0 +1,267 @@
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.model.EmailOutbox;
+import com.commander.aqm.aqm_back_end.repository.EmailOutboxRepository;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 📬 Outbox delivery against an in-process SMTP server
+ * (digest grouping, retry with backoff, FAILED after max attempts)
+ */
+@DataJpaTest
+class EmailOutboxDeliveryTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final Duration BASE_BACKOFF = Duration.ofSeconds(1);
+
+    @Autowired
+    private EmailOutboxRepository outboxRepo;
+
+    private SmtpStub smtp;
+    private EmailOutboxService outbox;
+
+    @BeforeEach
+    void startSmtp() throws IOException {
+        smtp = new SmtpStub();
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("127.0.0.1");
+        sender.setPort(smtp.port());
+        Properties props = new Properties();
+        props.put("mail.smtp.connectiontimeout", "2000");
+        props.put("mail.smtp.timeout", "2000");
+        sender.setJavaMailProperties(props);
+
+        outbox = newOutbox(new EmailService(sender));
+    }
+
+    @AfterEach
+    void stopSmtp() throws IOException {
+        smtp.close();
+    }
+
+    @Test
+    void rowsOfOneRecipientGoOutAsOneDigest() throws Exception {
+        EmailOutbox a1 = queue("alice@example.com");
+        EmailOutbox a2 = queue("alice@example.com");
+        EmailOutbox a3 = queue("alice@example.com");
+        EmailOutbox b1 = queue("bob@example.com");
+
+        outbox.dispatchDue();
+
+        assertThat(smtp.messages()).hasSize(2);
+        MimeMessage alice = smtp.messages().stream()
+                .filter(m -> recipient(m).equals("alice@example.com")).findFirst().orElseThrow();
+        assertThat(alice.getSubject()).contains("3 air quality alerts");
+        assertThat(List.of(a1, a2, a3, b1)).allSatisfy(row -> {
+            assertThat(row.getStatus()).isEqualTo(EmailOutbox.Status.SENT);
+            assertThat(row.getSentAt()).isNotNull();
+        });
+    }
+
+    @Test
+    void failedSendIsRetriedWithGrowingBackoff() {
+        EmailOutbox row = queue("alice@example.com");
+        smtp.dataReply = "451 Try again later";
+
+        LocalDateTime before = LocalDateTime.now();
+        outbox.dispatchDue();
+        assertThat(row.getStatus()).isEqualTo(EmailOutbox.Status.PENDING);
+        assertThat(row.getAttempts()).isEqualTo(1);
+        assertThat(row.getLastError()).contains("451");
+        assertThat(row.getNextAttemptAt()).isCloseTo(before.plus(BASE_BACKOFF), within(900, ChronoUnit.MILLIS));
+
+        // Not due yet: nothing is sent
+        outbox.dispatchDue();
+        assertThat(row.getAttempts()).isEqualTo(1);
+
+        makeDue(row);
+        before = LocalDateTime.now();
+        outbox.dispatchDue();
+        assertThat(row.getAttempts()).isEqualTo(2);
+        assertThat(row.getNextAttemptAt()).isCloseTo(before.plus(BASE_BACKOFF.multipliedBy(2)), within(900, ChronoUnit.MILLIS));
+
+        // Server recovers
+        smtp.dataReply = "250 OK";
+        makeDue(row);
+        outbox.dispatchDue();
+        assertThat(row.getStatus()).isEqualTo(EmailOutbox.Status.SENT);
+        assertThat(smtp.messages()).hasSize(1);
+    }
+
+    @Test
+    void rowIsMarkedFailedAfterMaxAttempts() {
+        EmailOutbox row = queue("alice@example.com");
+        smtp.dataReply = "554 Rejected";
+
+        for (int i = 0; i < MAX_ATTEMPTS; i++) {
+            makeDue(row);
+            outbox.dispatchDue();
+        }
+
+        assertThat(row.getStatus()).isEqualTo(EmailOutbox.Status.FAILED);
+        assertThat(row.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+        assertThat(row.getLastError()).contains("554");
+
+        makeDue(row);
+        outbox.dispatchDue();
+        assertThat(row.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+    }
+
+    @Test
+    void unexpectedSenderErrorIsRetriedInsteadOfLeavingRowsPending() {
+        EmailOutboxService broken = newOutbox(new EmailService(new JavaMailSenderImpl()) {
+            @Override
+            public Map<SimpleMailMessage, Exception> sendBatch(List<SimpleMailMessage> messages) {
+                throw new IllegalStateException("sender misconfigured");
+            }
+        });
+        EmailOutbox row = queue("alice@example.com");
+
+        broken.dispatchDue();
+
+        assertThat(row.getStatus()).isEqualTo(EmailOutbox.Status.PENDING);
+        assertThat(row.getAttempts()).isEqualTo(1);
+        assertThat(row.getLastError()).isEqualTo("sender misconfigured");
+        assertThat(row.getNextAttemptAt()).isAfter(LocalDateTime.now());
+    }
+
+    private EmailOutboxService newOutbox(EmailService service) {
+        return new EmailOutboxService(outboxRepo, service, 200, 20, MAX_ATTEMPTS,
+                BASE_BACKOFF.toSeconds(), 60, 7);
+    }
+
+    private EmailOutbox queue(String recipient) {
+        return outboxRepo.saveAndFlush(EmailOutbox.builder()
+                .userId(1L)
+                .username(recipient.substring(0, recipient.indexOf('@')))
+                .recipient(recipient)
+                .subject("🚨 AQM Winter Alert: PM2.5")
+                .body("PM2.5 is 80.0 µg/m³")
+                .summary("📍 Hanoi · PM2.5 80.0")
+                .build());
+    }
+
+    private void makeDue(EmailOutbox row) {
+        row.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxRepo.saveAndFlush(row);
+    }
+
+    private static String recipient(MimeMessage message) {
+        try {
+            return message.getAllRecipients()[0].toString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Minimal SMTP server: accepts every command and answers DATA with {@link #dataReply}
+     */
+    static class SmtpStub implements Closeable {
+
+        private final ServerSocket server;
+        private final List<MimeMessage> messages = new CopyOnWriteArrayList<>();
+        volatile String dataReply = "250 OK";
+
+        SmtpStub() throws IOException {
+            server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread acceptor = new Thread(this::acceptLoop, "smtp-stub");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int port() {
+            return server.getLocalPort();
+        }
+
+        List<MimeMessage> messages() {
+            return messages;
+        }
+
+        private void acceptLoop() {
+            while (!server.isClosed()) {
+                try (Socket socket = server.accept()) {
+                    handle(socket);
+                } catch (IOException e) {
+                    // closed
+                }
+            }
+        }
+
+        private void handle(Socket socket) throws IOException {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            OutputStream out = socket.getOutputStream();
+            reply(out, "220 stub ESMTP");
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        StringBuilder data = new StringBuilder();
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            data.append(line.startsWith("..") ? line.substring(1) : line).append("\r\n");
+                        }
+                        String answer = dataReply;
+                        if (answer.startsWith("250")) messages.add(parse(data.toString()));
+                        reply(out, answer);
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "250 OK");
+                }
+            }
+        }
+
+        private static MimeMessage parse(String raw) {
+            try {
+                return new MimeMessage(Session.getInstance(new Properties()),
+                        new ByteArrayInputStream(raw.getBytes(StandardCharsets.UTF_8)));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static void reply(OutputStream out, String line) throws IOException {
+            out.write((line + "\r\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+        }
+    }
+}
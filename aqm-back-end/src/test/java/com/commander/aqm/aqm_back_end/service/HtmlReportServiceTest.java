@@ -0,0 +1,64 @@
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.dto.AirQualityPoint;
+import com.commander.aqm.aqm_back_end.model.Location;
+import com.commander.aqm.aqm_back_end.model.Report;
+import com.commander.aqm.aqm_back_end.model.User;
+import com.commander.aqm.aqm_back_end.repository.AirQualityDataRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 📄 The report chart is downsampled to a fixed point budget
+ */
+class HtmlReportServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 11, 1, 0, 0);
+    private static final Pattern CHART_DATA = Pattern.compile("data: \\[([^\\]]*)\\]");
+
+    @Test
+    void longPeriodIsDownsampledToTheChartBudget() throws Exception {
+        int hours = 24 * 30 * 6;
+        AirQualityDataRepository airRepo = mock(AirQualityDataRepository.class);
+        when(airRepo.streamPointsBetween(anyLong(), any(), any())).thenAnswer(invocation ->
+                IntStream.range(0, hours).mapToObj(i -> new AirQualityPoint((long) i, 1L, FROM.plusHours(i),
+                        20f, 40f, null, null, null, null, i == 2_345 ? 420 : 60 + i % 7)));
+
+        HtmlReportService service = new HtmlReportService(airRepo);
+        ReflectionTestUtils.setField(service, "chartMaxPoints", 300);
+
+        String html = new String(service.generateReportHtml(report(FROM.plusHours(hours - 1))), StandardCharsets.UTF_8);
+
+        Matcher data = CHART_DATA.matcher(html);
+        assertThat(data.find()).isTrue();
+        String[] values = data.group(1).split(",");
+        assertThat(values).hasSizeLessThanOrEqualTo(300);
+        assertThat(values).contains("420");
+    }
+
+    private static Report report(LocalDateTime to) {
+        return Report.builder()
+                .id(7L)
+                .user(User.builder().username("minh").build())
+                .location(Location.builder().id(1L).name("Hanoi").build())
+                .startTimestamp(FROM)
+                .endTimestamp(to)
+                .avgPm25(20.0).avgPm10(40.0).avgAqi(63.0).maxAqi(420)
+                .goodDays(100).moderateDays(70).unhealthyDays(10)
+                .totalDataPoints(4_320)
+                .createdAt(to)
+                .build();
+    }
+}
@@ -0,0 +1,154 @@
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.model.AirQualityData;
+import com.commander.aqm.aqm_back_end.model.Location;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 🚌 Overflow policies, spill recovery and shutdown draining of the ingestion bus
+ */
+class IngestionEventBusTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 12, 24, 10, 0);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private IngestionEventBus bus;
+
+    @AfterEach
+    void stopBus() {
+        if (bus != null) bus.shutdown();
+    }
+
+    /**
+     * Subscriber that holds every event until released
+     */
+    static class GatedSubscriber implements IngestionEventSubscriber {
+        final String name;
+        final OverflowPolicy policy;
+        final CountDownLatch gate = new CountDownLatch(1);
+        final List<LocalDateTime> delivered = new CopyOnWriteArrayList<>();
+        final List<LocalDateTime[]> recovered = new CopyOnWriteArrayList<>();
+
+        GatedSubscriber(String name, OverflowPolicy policy) {
+            this.name = name;
+            this.policy = policy;
+        }
+
+        @Override
+        public String subscriberName() {
+            return name;
+        }
+
+        @Override
+        public OverflowPolicy overflowPolicy() {
+            return policy;
+        }
+
+        @Override
+        public void onIngested(LocationIngestedEvent event) {
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            delivered.add(event.airQuality().getTimestampUtc());
+        }
+
+        @Override
+        public void recover(Long locationId, LocalDateTime from, LocalDateTime to) {
+            recovered.add(new LocalDateTime[]{from, to});
+        }
+    }
+
+    @Test
+    void fullQueueSpillsAndRecoversInsteadOfDropping() throws InterruptedException {
+        GatedSubscriber rollups = new GatedSubscriber("rollups", IngestionEventSubscriber.OverflowPolicy.BLOCK_THEN_SPILL);
+        bus = new IngestionEventBus(List.of(rollups), registry, 1, 20, 5);
+
+        // 1st is taken by the (blocked) consumer, 2nd fills the queue, 3rd-5th spill
+        for (int i = 0; i < 5; i++) {
+            bus.publish(event(T0.plusMinutes(30L * i)));
+            Thread.sleep(30);
+        }
+        assertThat(registry.get("aqm.ingestion.bus.spilled").tag("subscriber", "rollups").counter().count()).isEqualTo(3);
+
+        rollups.gate.countDown();
+        waitUntil(() -> !rollups.recovered.isEmpty());
+
+        assertThat(rollups.delivered).hasSize(2);
+        assertThat(rollups.recovered).hasSize(1);
+        assertThat(rollups.recovered.get(0)).containsExactly(T0.plusMinutes(60), T0.plusMinutes(120));
+        assertThat(registry.get("aqm.ingestion.bus.dropped").tag("subscriber", "rollups").counter().count()).isZero();
+    }
+
+    @Test
+    void snapshotDropsOldestWithoutBlocking() {
+        GatedSubscriber snapshot = new GatedSubscriber("snapshot", IngestionEventSubscriber.OverflowPolicy.DROP_OLDEST);
+        bus = new IngestionEventBus(List.of(snapshot), registry, 1, 60_000, 5);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 20; i++) {
+            bus.publish(event(T0.plusMinutes(i)));
+        }
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_000);
+
+        snapshot.gate.countDown();
+        waitUntil(() -> snapshot.delivered.contains(T0.plusMinutes(19)));
+        assertThat(registry.get("aqm.ingestion.bus.dropped").tag("subscriber", "snapshot").counter().count())
+                .isGreaterThan(0);
+    }
+
+    @Test
+    void shutdownDrainsQueuedEvents() throws InterruptedException {
+        GatedSubscriber alerts = new GatedSubscriber("alerts", IngestionEventSubscriber.OverflowPolicy.BLOCK_THEN_SPILL);
+        bus = new IngestionEventBus(List.of(alerts), registry, 10, 20, 5);
+        for (int i = 0; i < 5; i++) {
+            bus.publish(event(T0.plusMinutes(i)));
+        }
+
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException ignored) {
+            }
+            alerts.gate.countDown();
+        });
+        releaser.start();
+        bus.shutdown();
+        bus = null;
+
+        assertThat(alerts.delivered).hasSize(5);
+    }
+
+    private static LocationIngestedEvent event(LocalDateTime timestamp) {
+        Location location = new Location();
+        location.setId(1L);
+        location.setName("Da Nang");
+        AirQualityData data = AirQualityData.builder().location(location).timestampUtc(timestamp).build();
+        return new LocationIngestedEvent(location, data, null);
+    }
+
+    private static void waitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        assertThat(condition.getAsBoolean()).as("condition met within 5 s").isTrue();
+    }
+}
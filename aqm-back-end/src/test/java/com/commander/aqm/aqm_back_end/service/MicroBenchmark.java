@@ -0,0 +1,47 @@
+package com.commander.aqm.aqm_back_end.service;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * ⏱️ Small measurement harness for the tests tagged "benchmark"
+ * Runs warm-up iterations first so the JIT has compiled the code under test, then times
+ * the measured iterations. Every result is handed to a volatile sink so the work cannot
+ * be optimized away. Run with: mvn test -Dtest.excludedGroups= -Dgroups=benchmark
+ */
+final class MicroBenchmark {
+
+    static final String TAG = "benchmark";
+
+    private static volatile Object sink;
+
+    private MicroBenchmark() {
+    }
+
+    record Result(String name, long bestNanos, long medianNanos) {
+
+        double medianMillis() {
+            return medianNanos / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: median %.2f ms, best %.2f ms", name, medianMillis(), bestNanos / 1_000_000.0);
+        }
+    }
+
+    static Result measure(String name, int warmups, int iterations, Supplier<?> body) {
+        for (int i = 0; i < warmups; i++) {
+            sink = body.get();
+        }
+
+        long[] times = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            sink = body.get();
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        return new Result(name, times[0], times[iterations / 2]);
+    }
+}
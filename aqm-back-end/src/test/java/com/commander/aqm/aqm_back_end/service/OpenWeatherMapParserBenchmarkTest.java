@@ -0,0 +1,80 @@
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.dto.AirPollutionSample;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ⏱️ Parsing a month of air_pollution/history (the stored fixture): the streaming parser
+ * versus the String + JsonNode tree mapping it replaced
+ */
+@Slf4j
+@Tag(MicroBenchmark.TAG)
+class OpenWeatherMapParserBenchmarkTest {
+
+    // Payloads per measured iteration, roughly one backfill job of 100 locations
+    private static final int PAYLOADS = 100;
+    private static final int WARMUPS = 5;
+    private static final int ITERATIONS = 10;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final OpenWeatherMapParser parser = new OpenWeatherMapParser(objectMapper);
+
+    @Test
+    void streamingBeatsTreeMapping() throws IOException {
+        byte[] payload = OpenWeatherMapParserTest.historyPayload();
+
+        MicroBenchmark.Result tree = MicroBenchmark.measure("String + JsonNode", WARMUPS, ITERATIONS, () -> {
+            List<AirPollutionSample> samples = null;
+            for (int i = 0; i < PAYLOADS; i++) {
+                samples = treeMapping(new String(payload, StandardCharsets.UTF_8));
+            }
+            return samples;
+        });
+        MicroBenchmark.Result streaming = MicroBenchmark.measure("streaming", WARMUPS, ITERATIONS, () -> {
+            List<AirPollutionSample> samples = null;
+            for (int i = 0; i < PAYLOADS; i++) {
+                samples = streaming(payload);
+            }
+            return samples;
+        });
+
+        log.info("⏱️ {} x {} KB history payloads: {} | {}", PAYLOADS, payload.length / 1_024, tree, streaming);
+        assertThat(streaming.medianNanos()).isLessThan(tree.medianNanos());
+    }
+
+    private List<AirPollutionSample> streaming(byte[] payload) {
+        try {
+            return parser.parseAirPollution(new ByteArrayInputStream(payload), Long.MIN_VALUE, Long.MAX_VALUE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<AirPollutionSample> treeMapping(String body) {
+        try {
+            List<AirPollutionSample> samples = new ArrayList<>();
+            for (JsonNode item : objectMapper.readTree(body).path("list")) {
+                JsonNode c = item.path("components");
+                samples.add(new AirPollutionSample(item.path("dt").asLong(), item.path("main").path("aqi").asInt(),
+                        c.path("pm2_5").asDouble(), c.path("pm10").asDouble(), c.path("no2").asDouble(),
+                        c.path("so2").asDouble(), c.path("co").asDouble(), c.path("o3").asDouble()));
+            }
+            return samples;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.dto.AirPollutionSample;
+import com.commander.aqm.aqm_back_end.model.WeatherData;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * ⚡ Streaming parser must produce exactly what the old JsonNode mapping produced
+ */
+class OpenWeatherMapParserTest {
+
+    // Da Nang, December 2023: one entry per hour
+    static final String HISTORY_FIXTURE = "/owm/air_pollution_history_danang_2023-12.json";
+    private static final long FIRST_DT = 1_701_388_800L;
+    private static final int HOURS = 24 * 31;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final OpenWeatherMapParser parser = new OpenWeatherMapParser(objectMapper);
+
+    @Test
+    void historyMatchesTreeMapping() throws IOException {
+        byte[] payload = historyPayload();
+        long start = FIRST_DT + 3_600L * 100;
+        long end = FIRST_DT + 3_600L * 200;
+
+        List<AirPollutionSample> streamed = parser.parseAirPollution(new ByteArrayInputStream(payload), start, end);
+
+        List<AirPollutionSample> expected = new ArrayList<>();
+        for (JsonNode item : objectMapper.readTree(payload).path("list")) {
+            long dt = item.path("dt").asLong();
+            if (dt >= start && dt < end) {
+                JsonNode c = item.path("components");
+                expected.add(new AirPollutionSample(dt, item.path("main").path("aqi").asInt(),
+                        c.path("pm2_5").asDouble(), c.path("pm10").asDouble(), c.path("no2").asDouble(),
+                        c.path("so2").asDouble(), c.path("co").asDouble(), c.path("o3").asDouble()));
+            }
+        }
+
+        assertThat(streamed).hasSize(100).isEqualTo(expected);
+    }
+
+    @Test
+    void fullHistoryIsStreamed() throws IOException {
+        List<AirPollutionSample> all = parser.parseAirPollution(
+                new ByteArrayInputStream(historyPayload()), Long.MIN_VALUE, Long.MAX_VALUE);
+
+        assertThat(all).hasSize(HOURS);
+        assertThat(all.get(0).dt()).isEqualTo(FIRST_DT);
+        assertThat(all.get(HOURS - 1).dt()).isEqualTo(FIRST_DT + 3_600L * (HOURS - 1));
+        // "no" and "nh3" are skipped; whole numbers in the payload (e.g. "no":0) still parse
+        assertThat(all).allSatisfy(sample -> {
+            assertThat(sample.aqi()).isBetween(1, 5);
+            assertThat(sample.pm10()).isGreaterThanOrEqualTo(sample.pm25());
+        });
+    }
+
+    @Test
+    void weatherSkipsUnknownFieldsAndDefaultsMissingOnes() throws IOException {
+        String json = """
+                {"coord":{"lon":108.2,"lat":16.05},"weather":[{"id":500,"main":"Rain"}],
+                 "main":{"temp":27.4,"feels_like":30.1,"pressure":1009,"humidity":83},
+                 "wind":{"speed":3.6,"deg":150,"gust":5.1},"rain":{"1h":0.3},"name":"Da Nang","cod":200}
+                """;
+
+        WeatherData weather = parser.parseWeather(stream(json));
+
+        assertThat(weather.getTemperatureC()).isEqualTo(27.4f);
+        assertThat(weather.getHumidityPct()).isEqualTo(83f);
+        assertThat(weather.getPressureHpa()).isEqualTo(1009f);
+        assertThat(weather.getWindSpeedMps()).isEqualTo(3.6f);
+        assertThat(weather.getWindDirDeg()).isEqualTo(150);
+        assertThat(weather.getPrecipProbabilityPct()).isEqualTo(100f);
+
+        WeatherData empty = parser.parseWeather(stream("{\"main\":{},\"cod\":200}"));
+        assertThat(empty.getTemperatureC()).isZero();
+        assertThat(empty.getWindDirDeg()).isZero();
+        assertThat(empty.getPrecipProbabilityPct()).isZero();
+    }
+
+    @Test
+    void rejectsNonObjectBodies() {
+        assertThatThrownBy(() -> parser.parseAirPollution(stream("[]"), 0, Long.MAX_VALUE))
+                .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> parser.parseWeather(stream("{\"main\":")))
+                .isInstanceOf(IOException.class);
+    }
+
+    /**
+     * air_pollution/history response for a month, stored in the OpenWeatherMap layout
+     */
+    static byte[] historyPayload() throws IOException {
+        try (InputStream in = OpenWeatherMapParserTest.class.getResourceAsStream(HISTORY_FIXTURE)) {
+            assertThat(in).as(HISTORY_FIXTURE).isNotNull();
+            return in.readAllBytes();
+        }
+    }
+
+    private static ByteArrayInputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
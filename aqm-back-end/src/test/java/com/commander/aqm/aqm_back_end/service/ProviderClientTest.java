@@ -0,0 +1,152 @@
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.config.HttpClientConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 📡 ProviderClient against a local stub HTTP server
+ * (timeouts, circuit breaking and metrics without calling OpenWeatherMap)
+ */
+class ProviderClientTest {
+
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final Duration OPEN_DURATION = Duration.ofMillis(300);
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger failingHits = new AtomicInteger();
+    private volatile int failingStatus = 500;
+
+    private SimpleMeterRegistry registry;
+    private ProviderClient client;
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/ok", exchange -> respond(exchange, 200, "{\"list\":[{\"main\":{\"aqi\":2}}]}"));
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(2_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "{}");
+        });
+        server.createContext("/failing", exchange -> {
+            failingHits.incrementAndGet();
+            respond(exchange, failingStatus, "{\"cod\":" + failingStatus + "}");
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        HttpClientConfig config = new HttpClientConfig();
+        RestTemplate restTemplate = config.providerRestTemplate(config.providerHttpClient(1_000), 500);
+        registry = new SimpleMeterRegistry();
+        client = new ProviderClient(restTemplate, new ObjectMapper(), registry, FAILURE_THRESHOLD, OPEN_DURATION);
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void parsesJsonAndRecordsLatency() {
+        var root = client.getJson("stub.ok", baseUrl + "/ok");
+
+        assertThat(root.path("list").get(0).path("main").path("aqi").asInt()).isEqualTo(2);
+        assertThat(registry.get("aqm.provider.requests")
+                .tag("endpoint", "stub.ok").tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void readTimeoutFailsFastInsteadOfHanging() {
+        long start = System.nanoTime();
+
+        assertThatThrownBy(() -> client.get("stub.slow", baseUrl + "/slow"))
+                .isInstanceOf(ProviderClient.ProviderException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1_500));
+        assertThat(registry.get("aqm.provider.requests")
+                .tag("endpoint", "stub.slow").tag("outcome", "error").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void circuitOpensAfterRepeatedFailuresAndRecovers() throws InterruptedException {
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThatThrownBy(() -> client.get("stub.failing", baseUrl + "/failing"))
+                    .isInstanceOf(ProviderClient.ProviderException.class);
+        }
+        assertThat(client.circuitState("stub.failing")).isEqualTo(CircuitBreaker.State.OPEN);
+
+        // Open: rejected without touching the server
+        assertThatThrownBy(() -> client.get("stub.failing", baseUrl + "/failing"))
+                .hasMessageContaining("Circuit open");
+        assertThat(failingHits.get()).isEqualTo(FAILURE_THRESHOLD);
+
+        // After the open window one trial call goes through and closes the circuit
+        Thread.sleep(OPEN_DURATION.toMillis() + 100);
+        failingStatus = 200;
+        assertThat(client.get("stub.failing", baseUrl + "/failing")).contains("200");
+        assertThat(client.circuitState("stub.failing")).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void unexpectedErrorDuringTheTrialCallReopensTheCircuit() throws InterruptedException {
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThatThrownBy(() -> client.get("stub.failing", baseUrl + "/failing"))
+                    .isInstanceOf(ProviderClient.ProviderException.class);
+        }
+        Thread.sleep(OPEN_DURATION.toMillis() + 100);
+        failingStatus = 200;
+
+        // Trial call fails with something that is neither an HTTP nor a parse error
+        assertThatThrownBy(() -> client.stream("stub.failing", baseUrl + "/failing", body -> {
+            throw new NullPointerException("parser bug");
+        })).isInstanceOf(ProviderClient.ProviderException.class).hasMessageContaining("parser bug");
+        assertThat(client.circuitState("stub.failing")).isEqualTo(CircuitBreaker.State.OPEN);
+
+        // The trial slot was released: the next window lets a call through again
+        Thread.sleep(OPEN_DURATION.toMillis() + 100);
+        assertThat(client.get("stub.failing", baseUrl + "/failing")).contains("200");
+        assertThat(client.circuitState("stub.failing")).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void clientErrorsDoNotOpenTheCircuit() {
+        failingStatus = 401;
+        for (int i = 0; i < FAILURE_THRESHOLD + 1; i++) {
+            assertThatThrownBy(() -> client.get("stub.unauthorized", baseUrl + "/failing"))
+                    .isInstanceOf(ProviderClient.ProviderException.class);
+        }
+        assertThat(client.circuitState("stub.unauthorized")).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
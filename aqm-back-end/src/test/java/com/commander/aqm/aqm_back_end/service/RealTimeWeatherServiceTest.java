@@ -0,0 +1,180 @@
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.model.Location;
+import com.commander.aqm.aqm_back_end.model.WeatherData;
+import com.commander.aqm.aqm_back_end.repository.LocationRepository;
+import com.commander.aqm.aqm_back_end.repository.WeatherDataRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 🌤️ Single-flight refresh, stale-while-revalidate and the backoff after a failed refresh
+ * The provider call is replaced by a fetch that counts invocations and can be held open.
+ */
+class RealTimeWeatherServiceTest {
+
+    private static final long LOCATION_ID = 7L;
+    private static final int CALLERS = 16;
+
+    private final Location location = Location.builder().id(LOCATION_ID).name("Hue").build();
+    private final WeatherData fresh = WeatherData.builder().location(location).temperatureC(31f).build();
+
+    private WeatherDataRepository weatherRepo;
+    private CountingWeatherService service;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void createService() {
+        LocationRepository locationRepo = mock(LocationRepository.class);
+        when(locationRepo.findById(LOCATION_ID)).thenReturn(Optional.of(location));
+        weatherRepo = mock(WeatherDataRepository.class);
+        when(weatherRepo.findTopByLocationIdOrderByTimestampUtcDesc(LOCATION_ID)).thenReturn(Optional.empty());
+
+        service = new CountingWeatherService(locationRepo, weatherRepo);
+        ReflectionTestUtils.setField(service, "maxAgeMinutes", 30L);
+        ReflectionTestUtils.setField(service, "staleWhileRevalidate", true);
+        ReflectionTestUtils.setField(service, "refreshTimeoutSeconds", 5L);
+        ReflectionTestUtils.setField(service, "failureBackoffSeconds", 60L);
+
+        callers = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void stopCallers() {
+        service.release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersWithoutARowShareOneFetch() throws Exception {
+        fresh.setTimestampUtc(LocalDateTime.now());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        List<Future<WeatherData>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(callers.submit(() -> {
+                synchronized (threads) {
+                    threads.add(Thread.currentThread());
+                }
+                start.await();
+                return service.getWeather(LOCATION_ID);
+            }));
+        }
+        start.countDown();
+
+        // Hold the fetch open until every caller is waiting on it
+        awaitUntil(() -> {
+            synchronized (threads) {
+                return threads.size() == CALLERS
+                        && threads.stream().allMatch(t -> t.getState() == Thread.State.TIMED_WAITING);
+            }
+        });
+        service.release.countDown();
+
+        for (Future<WeatherData> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(fresh);
+        }
+        assertThat(service.fetches).hasValue(1);
+    }
+
+    @Test
+    void staleRowIsServedWithoutWaitingForTheRefresh() throws Exception {
+        WeatherData stale = WeatherData.builder().location(location).temperatureC(24f)
+                .timestampUtc(LocalDateTime.now().minusHours(2)).build();
+        when(weatherRepo.findTopByLocationIdOrderByTimestampUtcDesc(LOCATION_ID)).thenReturn(Optional.of(stale));
+
+        // The refresh is held open for the whole test: any caller that waited for it would time out
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            for (int i = 0; i < CALLERS; i++) {
+                assertThat(service.getWeather(LOCATION_ID)).isSameAs(stale);
+            }
+        });
+
+        assertThat(service.started.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(service.fetches).hasValue(1);
+    }
+
+    @Test
+    void failedRefreshIsNotRetriedDuringTheBackoff() throws Exception {
+        service.failure = new RuntimeException("provider down");
+        service.release.countDown();
+
+        assertThat(service.getWeather(LOCATION_ID)).isNull();
+        assertThat(service.getWeather(LOCATION_ID)).isNull();
+        assertThat(service.refresh(LOCATION_ID)).isCompletedExceptionally();
+
+        assertThat(service.fetches).hasValue(1);
+    }
+
+    @Test
+    void locationIsFetchedAgainOnceTheBackoffHasPassed() throws Exception {
+        ReflectionTestUtils.setField(service, "failureBackoffSeconds", 0L);
+        service.failure = new RuntimeException("provider down");
+        service.release.countDown();
+
+        assertThat(service.getWeather(LOCATION_ID)).isNull();
+
+        service.failure = null;
+        fresh.setTimestampUtc(LocalDateTime.now());
+        assertThat(service.getWeather(LOCATION_ID)).isSameAs(fresh);
+        assertThat(service.fetches).hasValue(2);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not reached in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Fetch stand-in: counts calls, blocks until {@link #release} and then returns the fresh row or fails
+     */
+    private class CountingWeatherService extends RealTimeWeatherService {
+
+        final AtomicInteger fetches = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile RuntimeException failure;
+
+        CountingWeatherService(LocationRepository locationRepo, WeatherDataRepository weatherRepo) {
+            super(locationRepo, weatherRepo, null, null, new SimpleAsyncTaskExecutor("weather-test-"));
+        }
+
+        @Override
+        public WeatherData fetchAndSaveWeatherData(Location location) {
+            fetches.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+            if (failure != null) throw failure;
+            return fresh;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.commander.aqm.aqm_back_end.service;
+
+import com.commander.aqm.aqm_back_end.dto.AirQualityPoint;
+import com.commander.aqm.aqm_back_end.dto.AirQualityResponseDto.HistoryDataDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 📉 LTTB and time-bucket downsampling
+ */
+class TimeSeriesDownsamplerTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 12, 1, 0, 0);
+
+    private static long nextId;
+
+    // ==================== LTTB ====================
+
+    @Test
+    void emptyInputGivesEmptyOutput() {
+        assertThat(TimeSeriesDownsampler.lttb(FROM, FROM.plusDays(1), 10).finish()).isEmpty();
+        assertThat(TimeSeriesDownsampler.buckets(FROM, FROM.plusDays(1), Duration.ofHours(1), 10).finish()).isEmpty();
+    }
+
+    @Test
+    void oneAndTwoPointsAreKept() {
+        assertThat(lttb(hourly(1), 3)).extracting(HistoryDataDto::getAqi).containsExactly(50);
+        assertThat(lttb(hourly(2), 3)).extracting(HistoryDataDto::getAqi).containsExactly(50, 51);
+    }
+
+    @Test
+    void seriesThatFitsIsReturnedUnchanged() {
+        List<AirQualityPoint> points = hourly(48);
+        // Uneven spacing would put two points into one time bucket if they were not held back
+        points.set(10, point(FROM.plusHours(9).plusMinutes(59), 300));
+
+        List<HistoryDataDto> result = lttb(points, 48);
+
+        assertThat(result).extracting(HistoryDataDto::getId)
+                .containsExactlyElementsOf(points.stream().map(AirQualityPoint::id).toList());
+        assertThat(lttb(points, 500)).hasSize(48);
+    }
+
+    @Test
+    void maxPointsBelowThreeIsRejected() {
+        assertThatThrownBy(() -> TimeSeriesDownsampler.lttb(FROM, FROM.plusDays(1), 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TimeSeriesDownsampler.buckets(FROM, FROM.plusDays(1), Duration.ofHours(1), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void firstAndLastPointsAreAlwaysKept() {
+        List<AirQualityPoint> points = hourly(1_000);
+
+        List<HistoryDataDto> result = lttb(points, 50);
+
+        assertThat(result.get(0).getId()).isEqualTo(points.get(0).id());
+        assertThat(result.get(result.size() - 1).getId()).isEqualTo(points.get(points.size() - 1).id());
+    }
+
+    @Test
+    void denseSeriesIsReducedToExactlyMaxPoints() {
+        assertThat(lttb(hourly(1_000), 100)).hasSize(100);
+        assertThat(lttb(hourly(1_000), 3)).hasSize(3);
+    }
+
+    @Test
+    void spikeSurvivesLttb() {
+        List<AirQualityPoint> points = hourly(1_000);
+        points.set(617, point(FROM.plusHours(617), 480));
+
+        List<HistoryDataDto> result = lttb(points, 20);
+
+        assertThat(result).extracting(HistoryDataDto::getAqi).contains(480);
+    }
+
+    @Test
+    void newestFirstInputKeepsItsOrder() {
+        List<AirQualityPoint> points = new ArrayList<>(hourly(1_000));
+        Collections.reverse(points);
+
+        List<HistoryDataDto> result = lttb(points, 50);
+
+        assertThat(result).hasSizeLessThanOrEqualTo(50);
+        assertThat(result.get(0).getId()).isEqualTo(points.get(0).id());
+        assertThat(result).extracting(HistoryDataDto::getTimestampUtc)
+                .isSortedAccordingTo((a, b) -> b.compareTo(a));
+    }
+
+    // ==================== TIME BUCKETS ====================
+
+    @Test
+    void bucketsAverageEachSliceAndSkipEmptyOnes() {
+        List<AirQualityPoint> points = new ArrayList<>();
+        // Hour 0: two readings, hours 1-2: none, hour 3: one reading
+        points.add(point(FROM.plusMinutes(10), 40));
+        points.add(point(FROM.plusMinutes(40), 60));
+        points.add(point(FROM.plusHours(3).plusMinutes(5), 90));
+
+        TimeSeriesDownsampler downsampler =
+                TimeSeriesDownsampler.buckets(FROM, FROM.plusHours(4), Duration.ofHours(1), 100);
+        points.forEach(downsampler::accept);
+        List<HistoryDataDto> result = downsampler.finish();
+
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0).getTimestampUtc()).isEqualTo(FROM.toString());
+        assertThat(result.get(0).getAqi()).isEqualTo(50);
+        assertThat(result.get(0).getAqiMin()).isEqualTo(40);
+        assertThat(result.get(0).getAqiMax()).isEqualTo(60);
+        assertThat(result.get(1).getTimestampUtc()).isEqualTo(FROM.plusHours(3).toString());
+        assertThat(result.get(1).getAqi()).isEqualTo(90);
+    }
+
+    @Test
+    void bucketsAreWidenedToStayWithinMaxPoints() {
+        TimeSeriesDownsampler downsampler =
+                TimeSeriesDownsampler.buckets(FROM, FROM.plusHours(999), Duration.ofHours(1), 100);
+        hourly(1_000).forEach(downsampler::accept);
+
+        assertThat(downsampler.finish()).hasSizeLessThanOrEqualTo(100);
+    }
+
+    // ==================== helpers ====================
+
+    private static List<HistoryDataDto> lttb(List<AirQualityPoint> points, int maxPoints) {
+        LocalDateTime first = points.get(0).timestampUtc();
+        LocalDateTime last = points.get(points.size() - 1).timestampUtc();
+        TimeSeriesDownsampler downsampler = first.isBefore(last)
+                ? TimeSeriesDownsampler.lttb(first, last, maxPoints)
+                : TimeSeriesDownsampler.lttb(last, first, maxPoints);
+        points.forEach(downsampler::accept);
+        return downsampler.finish();
+    }
+
+    /**
+     * Hourly readings with a gentle wave (AQI 50..)
+     */
+    private static List<AirQualityPoint> hourly(int count) {
+        List<AirQualityPoint> points = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            points.add(point(FROM.plusHours(i), 50 + i % 10));
+        }
+        return points;
+    }
+
+    private static AirQualityPoint point(LocalDateTime time, int aqi) {
+        return new AirQualityPoint(++nextId, 1L, time, (float) aqi / 2, (float) aqi, null, null, null, null, aqi);
+    }
+}